@@ -101,6 +101,21 @@ public class Category
         createCategory(catTitle);
     }
 
+    /**
+     * Creates a category object from an already retrieved hibernate category.
+     *
+     * @param wiki
+     *            The wikipedia object.
+     * @param hibernateCategory
+     *            The {@code api.hibernate.Category} that has already been retrieved.
+     */
+    protected Category(Wikipedia wiki, org.dkpro.jwpl.api.hibernate.Category hibernateCategory)
+    {
+        this.wiki = wiki;
+        catDAO = new CategoryDAO(wiki);
+        this.hibernateCategory = hibernateCategory;
+    }
+
     /**
      * @see Category#Category(Wikipedia, long)
      */
@@ -197,11 +212,7 @@ public class Category
         Set<Integer> tmpSet = new HashSet<>(hibernateCategory.getInLinks());
         session.getTransaction().commit();
 
-        Set<Category> categories = new HashSet<>();
-        for (int pageID : tmpSet) {
-            categories.add(this.wiki.getCategory(pageID));
-        }
-        return categories;
+        return this.wiki.getCategoriesByIds(tmpSet);
     }
 
     /**
@@ -252,11 +263,7 @@ public class Category
         Set<Integer> tmpSet = new HashSet<>(hibernateCategory.getOutLinks());
         session.getTransaction().commit();
 
-        Set<Category> categories = new HashSet<>();
-        for (int pageID : tmpSet) {
-            categories.add(this.wiki.getCategory(pageID));
-        }
-        return categories;
+        return this.wiki.getCategoriesByIds(tmpSet);
     }
 
     /**
@@ -319,9 +326,10 @@ public class Category
     public Set<Page> getArticles() throws WikiApiException
     {
         Set<Integer> tmpSet = getArticleIds();
-        Set<Page> pages = new HashSet<>();
-        for (int pageID : tmpSet) {
-            pages.add(this.wiki.getPage(pageID));
+        Set<Page> pages = this.wiki.getPagesByIds(tmpSet);
+        if (pages.size() < tmpSet.size()) {
+            throw new WikiPageNotFoundException(
+                    (tmpSet.size() - pages.size()) + " articles of the category were not found.");
         }
         return pages;
     }
@@ -18,34 +18,29 @@
 package org.dkpro.jwpl.api;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
-import org.dkpro.jwpl.api.exception.WikiPageNotFoundException;
 import org.dkpro.jwpl.api.exception.WikiTitleParsingException;
 import org.dkpro.jwpl.api.util.ApiUtilities;
 import org.dkpro.jwpl.api.util.CommonUtilities;
 import org.dkpro.jwpl.api.util.GraphSerialization;
 import org.dkpro.jwpl.api.util.OS;
-import org.jgrapht.GraphPath;
-import org.jgrapht.alg.connectivity.ConnectivityInspector;
-import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
 import org.jgrapht.graph.AsUndirectedGraph;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
@@ -70,14 +65,9 @@ public class CategoryGraph
     private Wikipedia wiki;
 
     /**
-     * The category graph, directed.
+     * The category graph, directed. Stored in primitive arrays indexed by a dense node numbering.
      */
-    private DefaultDirectedGraph<Integer, DefaultEdge> graph;
-
-    /**
-     * The category graph, undirected.
-     */
-    private AsUndirectedGraph<Integer, DefaultEdge> undirectedGraph;
+    private IntDirectedGraph graph;
 
     /**
      * A map holding the degree distribution of the graph
@@ -95,15 +85,15 @@ public class CategoryGraph
     private int numberOfEdges;
 
     /**
-     * A map holding the (recursive) number of hyponyms for each node.
+     * The (recursive) number of hyponyms for each node index.
      * Recursive means that the hyponyms of hyponyms are also taken into account.
      */
-    private Map<Integer, Integer> hyponymCountMap = null;
+    private int[] hyponymCounts = null;
 
     /**
-     * A mapping from all nodes to a list of nodes on the path to the root
+     * The shortest paths from all nodes to the root
      */
-    private Map<Integer, List<Integer>> rootPathMap = null;
+    private RootPathIndex rootPaths = null;
 
     /**
      * The average shortest path length. Initially: {@link Double#NEGATIVE_INFINITY}.
@@ -131,19 +121,45 @@ public class CategoryGraph
     private double depth = Double.NEGATIVE_INFINITY;
 
     /**
-     * Creates an {@link CategoryGraph} using a serialized DirectedGraph object.
+     * Creates an {@link CategoryGraph} from a file written by {@link #saveGraph(String)}. The
+     * hyponym counts and root paths are restored if they were saved with the graph. Files with a
+     * serialized DirectedGraph object that were written by older versions can be loaded, too.
      *
      * @param pWiki
      *            A {@link Wikipedia} object.
      * @param location
-     *            The location of the serialized graph
+     *            The location of the saved graph
      * @throws WikiApiException
      *             Thrown if errors occurred.
      */
     public CategoryGraph(Wikipedia pWiki, File location) throws WikiApiException
+    {
+        if (!CategoryGraphFile.isCategoryGraphFile(location)) {
+            constructCategoryGraph(pWiki, loadSerializedGraph(location));
+            return;
+        }
+
+        CategoryGraphFile file = CategoryGraphFile.read(location);
+        IntDirectedGraph loadedGraph = file.getGraph();
+        if (loadedGraph == null) {
+            throw new WikiApiException(location + " does not contain the edges of a graph.");
+        }
+        this.wiki = pWiki;
+        this.graph = loadedGraph;
+        this.numberOfNodes = graph.size();
+        this.numberOfEdges = graph.getNumberOfEdges();
+        this.hyponymCounts = file.getHyponymCounts();
+        this.rootPaths = file.getRootPaths(graph);
+        if (rootPaths != null) {
+            this.depth = getDepthFromRootPathMap();
+        }
+    }
+
+    private static DefaultDirectedGraph<Integer, DefaultEdge> loadSerializedGraph(File location)
+        throws WikiApiException
     {
         try {
-            constructCategoryGraph(pWiki, GraphSerialization.loadGraph(location));
+            return GraphSerialization.loadGraph(location);
         }
         catch (IOException | ClassNotFoundException e) {
             throw new WikiApiException(e);
@@ -255,124 +271,98 @@ public class CategoryGraph
             DefaultDirectedGraph<Integer, DefaultEdge> pGraph)
     {
         this.wiki = pWiki;
-        this.graph = pGraph;
-        this.numberOfNodes = this.graph.vertexSet().size();
-        this.numberOfEdges = this.graph.edgeSet().size();
-        this.undirectedGraph = new AsUndirectedGraph<>(this.graph);
+        this.graph = IntDirectedGraph.of(pGraph);
+        this.numberOfNodes = this.graph.size();
+        this.numberOfEdges = this.graph.getNumberOfEdges();
     }
 
     private void constructCategoryGraph(Wikipedia pWiki, Set<Integer> pPageIDs,
             List<String> filterList)
         throws WikiApiException
     {
-        // create the graph as a directed Graph
-        // algorithms that need to be called on an undirected graph or should ignore direction
-        // can be called on an AsUndirectedGraph view of the directed graph
-        graph = new DefaultDirectedGraph<>(DefaultEdge.class);
-
         wiki = pWiki;
 
-        degreeDistribution = new HashMap<>();
+        // load the categories and the links between them with a few sequential queries
+        CategoryLinks links = new CategoryLinks(pWiki, pPageIDs, filterList != null);
 
+        int[] nodes = new int[pPageIDs.size()];
+        int nodeCount = 0;
         for (int pageID : pPageIDs) {
-            if (filterList != null) {
-                long hibernateID = pWiki.__getCategoryHibernateId(pageID);
-                if (hibernateID == -1) {
-                    throw new WikiApiException(pageID + " is not a valid pageID");
-                }
-
-                Category cat;
-                try {
-                    cat = new Category(this.wiki, hibernateID);
-                }
-                catch (WikiPageNotFoundException e) {
-                    throw new WikiApiException("Category not found");
-                }
+            int index = links.indexOf(pageID);
+            if (index == -1) {
+                throw new WikiApiException(pageID + " is not a valid pageID");
+            }
 
-                if (matchesFilter(cat, filterList)) {
-                    continue;
-                }
+            if (filterList != null && matchesFilter(links.getName(index), filterList)) {
+                continue;
             }
 
-            graph.addVertex(pageID);
+            nodes[nodeCount++] = pageID;
         }
+        nodes = Arrays.copyOf(nodes, nodeCount);
 
-        numberOfNodes = graph.vertexSet().size();
-
-        // add edges
+        // collect the edges
+        // If the corresponding nodes are not in the graph (it could be a subset) or an edge is
+        // contained twice, it is silently ignored when the graph is created. So we do not have to
+        // check this.
         logger.info("{} MB memory used.", OS.getUsedMemory());
+        int[] sources = new int[1024];
+        int[] targets = new int[1024];
+        int edgeCount = 0;
         int progress = 0;
-        for (int pageID : graph.vertexSet()) {
+        for (int pageID : nodes) {
             progress++;
             ApiUtilities.printProgressInfo(progress, pPageIDs.size(), 10,
                     ApiUtilities.ProgressInfoMode.TEXT, "Adding edges");
 
-            long hibernateID = pWiki.__getCategoryHibernateId(pageID);
-            if (hibernateID == -1) {
-                throw new WikiApiException(pageID + " is not a valid pageID");
-            }
+            int index = links.indexOf(pageID);
+            int[] inLinks = links.getParentIDs(index);
+            int[] outLinks = links.getChildrenIDs(index);
 
-            // get the category
-            Category cat;
-            try {
-                cat = new Category(this.wiki, hibernateID);
-            }
-            catch (WikiPageNotFoundException e) {
-                throw new WikiApiException("Category not found");
+            if (edgeCount + inLinks.length + outLinks.length > sources.length) {
+                int capacity = Math.max(sources.length * 2,
+                        edgeCount + inLinks.length + outLinks.length);
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
             }
-
-            // get parents and children
-            // if the corresponding nodes are in the graph (it could be a subset) => add them to the
-            // graph
-            Set<Integer> inLinks = cat.getParentIDs();
-            Set<Integer> outLinks = cat.getChildrenIDs();
-
-            // add edges
-            // If an edge already exits, it is silently ignored by JGraphT. So we do not have to
-            // check this.
             for (int inLink : inLinks) {
-                if (graph.vertexSet().contains(inLink)) {
-                    if (inLink == pageID) {
-                        logger.debug("Self-loop for node {} ({})", pageID, cat.getTitle());
-                    }
-                    else {
-                        graph.addEdge(inLink, pageID);
-                    }
+                if (inLink == pageID) {
+                    logger.debug("Self-loop for node {}", pageID);
                 }
+                sources[edgeCount] = inLink;
+                targets[edgeCount++] = pageID;
             }
             for (int outLink : outLinks) {
-                if (graph.vertexSet().contains(outLink)) {
-                    if (outLink == pageID) {
-                        logger.debug("Self-loop for node {} ({})", pageID, cat.getTitle());
-                    }
-                    else {
-                        graph.addEdge(pageID, outLink);
-                    }
+                if (outLink == pageID) {
+                    logger.debug("Self-loop for node {}", pageID);
                 }
+                sources[edgeCount] = pageID;
+                targets[edgeCount++] = outLink;
             }
         }
 
-        numberOfEdges = graph.edgeSet().size();
+        graph = IntDirectedGraph.fromEdges(nodes, sources, targets, edgeCount);
+
+        numberOfNodes = graph.size();
+        numberOfEdges = graph.getNumberOfEdges();
 
         logger.info("Added {} nodes.", this.getNumberOfNodes());
         logger.info("Added {} edges.", this.getNumberOfEdges());
 
-        CycleHandler cycleHandler = new CycleHandler(wiki, this);
+        CycleHandler cycleHandler = new CycleHandler(wiki, this, false);
         logger.info("Graph contains cycles: {}", cycleHandler.containsCycle());
         cycleHandler.removeCycles();
         logger.info("Graph contains cycles: {}", cycleHandler.containsCycle());
 
-        this.numberOfEdges = this.graph.edgeSet().size();
-        this.undirectedGraph = new AsUndirectedGraph<>(this.graph);
-
+        this.numberOfEdges = this.graph.getNumberOfEdges();
     }
 
     /**
      * Checks whether the category title matches the filter (a filter matches a string, if the
      * string starts with the filter expression).
      *
-     * @param cat
-     *            A category.
+     * @param categoryName
+     *            The name of a category.
      * @param filterList
      *            A list of filter strings.
      * @return True, if the category title starts with or is equal to a string in the filter list.
@@ -380,10 +370,10 @@ public class CategoryGraph
      * @throws WikiTitleParsingException
      *             Thrown if errors occurred.
      */
-    private boolean matchesFilter(Category cat, List<String> filterList)
+    private boolean matchesFilter(String categoryName, List<String> filterList)
         throws WikiTitleParsingException
     {
-        String categoryTitle = cat.getTitle().getPlainTitle();
+        String categoryTitle = new Title(categoryName).getPlainTitle();
         for (String filter : filterList) {
             if (categoryTitle.startsWith(filter)) {
                 logger.info("{} starts with {} => removing", categoryTitle, filter);
@@ -439,43 +429,23 @@ public class CategoryGraph
             return categoryPageId1;
         }
 
-        List<Integer> nodeList1 = getRootPathMap().get(categoryPageId1);
-        List<Integer> nodeList2 = getRootPathMap().get(categoryPageId2);
+        int node1 = graph.indexOf(categoryPageId1);
+        int node2 = graph.indexOf(categoryPageId2);
 
-        // if one of the paths is null => return -1
-        if (nodeList1 == null || nodeList2 == null || nodeList1.isEmpty() || nodeList2.isEmpty()) {
-            logger.debug("One of the node lists is null or empty!");
+        // if one of the nodes is not in the graph => return -1
+        if (node1 == -1 || node2 == -1) {
+            logger.debug("One of the nodes is not in the graph!");
             return -1;
         }
 
-        logger.debug(nodeList1.toString());
-        logger.debug(nodeList2.toString());
-
-        // node 1 subsumes node 2 ?
-        for (int tmpNode2 : nodeList2) {
-            if (tmpNode2 == categoryPageId1) {
-                return categoryPageId1;
-            }
-        }
-
-        // node 2 subsumes node 1 ?
-        for (int tmpNode1 : nodeList1) {
-            if (tmpNode1 == categoryPageId2) {
-                return categoryPageId2;
-            }
-        }
-        // they have a lcs ?
-        for (int tmpNode1 : nodeList1) {
-            for (int tmpNode2 : nodeList2) {
-                if (tmpNode1 == tmpNode2) {
-                    return tmpNode1;
-                }
-            }
+        // the LCS is the lowest common ancestor on the paths to the root. If one node is on the
+        // path of the other one to the root, it is the LCS.
+        int lcs = getRootPaths().getLowestCommonAncestor(node1, node2);
+        if (lcs == -1) {
+            logger.debug("No lcs found.");
+            return -1;
         }
-
-        logger.debug("No lcs found.");
-
-        return -1;
+        return graph.getPageId(lcs);
     }
 
     /**
@@ -495,88 +465,7 @@ public class CategoryGraph
     public Category getLCS(int categoryPageId1, int categoryPageId2) throws WikiApiException
     {
         int lcsid = getLCSId(categoryPageId1, categoryPageId2);
-        return lcsid > -1 ? wiki.getCategory(getLCSId(categoryPageId1, categoryPageId2)) : null;
-    }
-
-    /**
-     * Returns the shortest path from node to root as a list of pageIds of the nodes on the path.
-     * Node and root are included in the path node list.
-     *
-     * @param root
-     *            The root node of the graph.
-     * @param node
-     *            A node of the graph.
-     * @return The shortest path from node to root as a list of pagIs of the nodes on the path; or
-     *         null if no path exists
-     * @throws WikiApiException
-     *             Thrown if errors occurred.
-     */
-    private List<Integer> getPathToRoot(int root, int node) throws WikiApiException
-    {
-        List<Integer> pathToRoot = new LinkedList<>();
-        List<Integer> shortestPath = new ArrayList<>();
-
-        expandPath(root, node, pathToRoot, shortestPath);
-
-        if (shortestPath.isEmpty()) {
-            return null;
-        }
-        else {
-            return shortestPath;
-        }
-    }
-
-    private void expandPath(int root, int currentNode, List<Integer> currentPath,
-            List<Integer> shortestPath)
-    {
-
-        // add the current node to the path
-        currentPath.add(currentNode);
-
-        // if root node reached, check whether it is the shortest path
-        if (currentNode == root) {
-            logger.debug("found root");
-
-            if (!shortestPath.isEmpty()) {
-                if (currentPath.size() < shortestPath.size()) {
-                    logger.debug("setting new shortest path");
-                    shortestPath.clear();
-                    shortestPath.addAll(currentPath);
-                }
-            }
-            else {
-                logger.debug("initializing shortest path");
-                shortestPath.addAll(currentPath);
-            }
-        }
-
-        // do not expand paths that are longer or equal than the current shortest path
-        // this is a runtime efficiency optimization!
-        if (!shortestPath.isEmpty() && currentPath.size() >= shortestPath.size()) {
-            return;
-        }
-
-        Set<DefaultEdge> incomingEdges = this.graph.incomingEdgesOf(currentNode);
-
-        // no incoming edges => return path without adding this node
-        if (incomingEdges == null || incomingEdges.isEmpty()) {
-            logger.debug("found non-root source");
-            return;
-        }
-
-        for (DefaultEdge incomingEdge : incomingEdges) {
-            int sourceNode = graph.getEdgeSource(incomingEdge);
-
-            if (sourceNode == currentNode) {
-                logger.warn("Source node equals current node.");
-                System.exit(1);
-            }
-            List<Integer> savedPath = new LinkedList<>(currentPath);
-            expandPath(root, sourceNode, currentPath, shortestPath);
-            currentPath.clear();
-            currentPath.addAll(savedPath);
-        }
-
+        return lcsid > -1 ? wiki.getCategory(lcsid) : null;
     }
 
     /**
@@ -591,21 +480,42 @@ public class CategoryGraph
      */
     public int getPathLengthInEdges(Category node1, Category node2)
     {
-        if (this.graph.containsVertex(node1.getPageId())
-                && this.graph.containsVertex(node2.getPageId())) {
-            if (node1.getPageId() == node2.getPageId()) {
+        int source = graph.indexOf(node1.getPageId());
+        int target = graph.indexOf(node2.getPageId());
+        if (source != -1 && target != -1) {
+            if (source == target) {
                 return 0;
             }
 
-            // get the path from root node to node 1
-            GraphPath<Integer, DefaultEdge> edgeList = DijkstraShortestPath
-                    .findPathBetween(undirectedGraph, node1.getPageId(), node2.getPageId());
-            if (edgeList == null) {
-                return -1;
-            }
-            else {
-                return edgeList.getLength();
+            // breadth first search in the undirected graph, level by level
+            BitSet visited = new BitSet(graph.size());
+            visited.set(source);
+            int[] queue = new int[] { source };
+            int queueSize = 1;
+            int distance = 0;
+            while (queueSize > 0) {
+                distance++;
+                int[] nextQueue = new int[16];
+                int nextQueueSize = 0;
+                for (int i = 0; i < queueSize; i++) {
+                    int node = queue[i];
+                    for (int neighbor : getNeighborIndexes(node)) {
+                        if (neighbor == target) {
+                            return distance;
+                        }
+                        if (!visited.get(neighbor)) {
+                            visited.set(neighbor);
+                            if (nextQueueSize == nextQueue.length) {
+                                nextQueue = Arrays.copyOf(nextQueue, nextQueueSize * 2);
+                            }
+                            nextQueue[nextQueueSize++] = neighbor;
+                        }
+                    }
+                }
+                queue = nextQueue;
+                queueSize = nextQueueSize;
             }
+            return -1;
         }
         // if the given nodes are not in the category graph, return -1
         else {
@@ -616,7 +526,7 @@ public class CategoryGraph
     /**
      * Computing the path length in very large graphs like the Wikipedia category graph is very time
      * consuming. However, we know that the graph is almost a taxonomy (it contains some cycles that
-     * can be removed). The path from each category to the root is stored in the rootPathMap. We can
+     * can be removed). The path from each category to the root is stored in the rootPaths. We can
      * use this information to speed up computation dramatically. However, we might miss some
      * shortest path to a node if there are multiple paths to the root.
      * <p>
@@ -641,7 +551,7 @@ public class CategoryGraph
         int node2 = cat2.getPageId();
 
         // if the given nodes are not in the category graph, return -1
-        if (!this.graph.containsVertex(node1) || !this.graph.containsVertex(node2)) {
+        if (graph.indexOf(node1) == -1 || graph.indexOf(node2) == -1) {
             return -1;
         }
 
@@ -649,51 +559,20 @@ public class CategoryGraph
             return 0;
         }
 
-        List<Integer> nodeList1 = getRootPathMap().get(node1);
-        List<Integer> nodeList2 = getRootPathMap().get(node2);
+        RootPathIndex paths = getRootPaths();
+        int index1 = graph.indexOf(node1);
+        int index2 = graph.indexOf(node2);
 
-        // if one of the paths is null => return null
-        if (nodeList1 == null || nodeList2 == null || nodeList1.isEmpty()
-                || nodeList2.isEmpty()) {
-            logger.debug("One of the node lists is null or empty!");
+        // if there is no LCS => there is no path
+        int lcs = paths.getLowestCommonAncestor(index1, index2);
+        if (lcs == -1) {
+            logger.debug("One of the nodes has no path to the root!");
             return -1;
         }
 
-        logger.debug(nodeList1.toString());
-        logger.debug(nodeList2.toString());
-
-        // node1 is on path of node2 to the root
-        int distance1 = 0;
-        for (int tmpNode2 : nodeList2) {
-            if (tmpNode2 == node1) {
-                return distance1;
-            }
-            distance1++;
-        }
-
-        // node2 is on path of node1 to the root
-        int distance2 = 0;
-        for (int tmpNode1 : nodeList1) {
-            if (tmpNode1 == node2) {
-                return distance2;
-            }
-            distance2++;
-        }
-
-        // they have a lcs ?
-        distance1 = 0;
-        for (int tmpNode1 : nodeList1) {
-            distance2 = 0;
-            for (int tmpNode2 : nodeList2) {
-                if (tmpNode1 == tmpNode2) {
-                    return distance1 + distance2;
-                }
-                distance2++;
-            }
-            distance1++;
-        }
-
-        return -1;
+        // distance of node1 to the LCS + distance of node2 to the LCS. If one of the nodes is on
+        // the path of the other one to the root, it is the LCS.
+        return paths.getDepth(index1) + paths.getDepth(index2) - 2 * paths.getDepth(lcs);
     }
 
     /**
@@ -738,103 +617,103 @@ public class CategoryGraph
     private void createHyponymCountMap() throws WikiApiException
     {
         // do only create hyponymMap, if it was not already computed
-        if (hyponymCountMap != null) {
+        if (hyponymCounts != null) {
             return;
         }
 
         String hyponymCountMapFilename = "hypoCountMap";
         File hyponymCountMapSerializedFile = new File(
                 wiki.getWikipediaId() + "_" + hyponymCountMapFilename);
-        hyponymCountMap = new HashMap<>();
 
         if (hyponymCountMapSerializedFile.exists()) {
             logger.info("Loading saved hyponymyCountMap ...");
-            hyponymCountMap = (Map<Integer, Integer>) this
-                    .deserializeMap(hyponymCountMapSerializedFile);
-            logger.info("Done loading saved hyponymyCountMap");
-            return;
-        }
-
-        // a queue holding the nodes to process
-
-        // In the category graph a node may have more than one father.
-        // Thus, we check whether a node was already visited.
-        // Then, it is not expanded again.
-        Set<Integer> visited = new HashSet<>();
-
-        // initialize the queue with all leaf nodes
-        Set<Integer> leafNodes = this.__getLeafNodes();
-        List<Integer> queue = new ArrayList<>(leafNodes);
-
-        logger.info("{} leaf nodes.", leafNodes.size());
-
-        // while the queue is not empty
-        while (!queue.isEmpty()) {
-            // remove first element from queue
-            int currNode = queue.get(0);
-            queue.remove(0);
-
-            // logger.info(queue.size());
-
-            if (visited.contains(currNode)) {
-                continue;
-            }
-
-            Set<Integer> children = __getChildren(currNode);
-
-            int validChildren = 0;
-            int sumChildHyponyms = 0;
-            boolean invalid = false;
-            for (int child : children) {
-                if (graph.containsVertex(child)) {
-                    if (hyponymCountMap.containsKey(child)) {
-                        sumChildHyponyms += hyponymCountMap.get(child);
-                        validChildren++;
+            if (CategoryGraphFile.isCategoryGraphFile(hyponymCountMapSerializedFile)) {
+                CategoryGraphFile file = CategoryGraphFile.read(hyponymCountMapSerializedFile);
+                int[] nodes = file.getNodes();
+                int[] counts = file.getHyponymCounts();
+                if (counts != null) {
+                    hyponymCounts = new int[graph.size()];
+                    for (int i = 0; i < nodes.length; i++) {
+                        int index = graph.indexOf(nodes[i]);
+                        if (index != -1) {
+                            hyponymCounts[index] = counts[i];
+                        }
                     }
-                    else {
-                        invalid = true;
+                }
+            }
+            else {
+                // written with Java serialization by an older version
+                Map<Integer, Integer> hyponymCountMap = (Map<Integer, Integer>) this
+                        .deserializeMap(hyponymCountMapSerializedFile);
+                if (hyponymCountMap != null) {
+                    hyponymCounts = new int[graph.size()];
+                    for (Map.Entry<Integer, Integer> entry : hyponymCountMap.entrySet()) {
+                        int index = graph.indexOf(entry.getKey());
+                        if (index != -1) {
+                            hyponymCounts[index] = entry.getValue();
+                        }
                     }
+                    CategoryGraphFile.write(hyponymCountMapSerializedFile, graph, false,
+                            hyponymCounts, null);
                 }
             }
+            if (hyponymCounts != null) {
+                logger.info("Done loading saved hyponymyCountMap");
+                return;
+            }
+            logger.info("Saved hyponymCountMap contains no counts, computing them ...");
+        }
 
-            if (invalid) {
-                // One of the children is not in the hyponymCountMap yet
-                // Re-Enter the node into the queue and continue with next node
-                queue.add(currNode);
-                continue;
+        // In the category graph a node may have more than one father.
+        // A node is processed when all of its children have been processed. Then, its parents
+        // have one unprocessed child less.
+        int[] counts = new int[graph.size()];
+        int[] unprocessedChildren = new int[graph.size()];
+
+        // a queue holding the nodes to process, initialized with all leaf nodes
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < graph.size(); node++) {
+            unprocessedChildren[node] = graph.getOutDegree(node);
+            if (unprocessedChildren[node] == 0) {
+                queue[tail++] = node;
             }
+        }
+
+        logger.info("{} leaf nodes.", tail);
 
-            // mark as visited
-            visited.add(currNode);
+        // while the queue is not empty
+        while (head < tail) {
+            int currNode = queue[head++];
 
             // number of hyponyms of current node is the number of its own hyponomies and the sum
             // of the hyponomies of its children.
-            int currNodeHyponymCount = validChildren + sumChildHyponyms;
-            hyponymCountMap.put(currNode, currNodeHyponymCount);
+            int currNodeHyponymCount = graph.getOutDegree(currNode);
+            for (int i = 0; i < graph.getOutDegree(currNode); i++) {
+                currNodeHyponymCount += counts[graph.getChild(currNode, i)];
+            }
+            counts[currNode] = currNodeHyponymCount;
 
-            // add parents of current node to queue
-            for (int parent : __getParents(currNode)) {
-                if (graph.containsVertex(parent)) {
-                    queue.add(parent);
+            // add parents of current node to queue, if all of their children are processed
+            for (int i = 0; i < graph.getInDegree(currNode); i++) {
+                int parent = graph.getParent(currNode, i);
+                if (--unprocessedChildren[parent] == 0) {
+                    queue[tail++] = parent;
                 }
             }
-
         } // while queue not empty
 
-        logger.info("{} nodes visited", visited.size());
-        if (visited.size() != graph.vertexSet().size()) {
-            throw new WikiApiException("Visited only " + visited.size() + " out of "
-                    + graph.vertexSet().size() + " nodes.");
-        }
-        if (hyponymCountMap.size() != graph.vertexSet().size()) {
+        logger.info("{} nodes visited", tail);
+        if (tail != graph.size()) {
             throw new WikiApiException(
-                    "HyponymCountMap does not contain an entry for each node in the graph."
-                            + hyponymCountMap.size() + "/" + graph.vertexSet().size());
+                    "Visited only " + tail + " out of " + graph.size() + " nodes.");
         }
 
+        hyponymCounts = counts;
         scaleHyponymCountMap();
         logger.info("Computed hyponymCountMap");
-        serializeMap(hyponymCountMap, hyponymCountMapSerializedFile);
+        CategoryGraphFile.write(hyponymCountMapSerializedFile, graph, false, hyponymCounts, null);
         logger.info("Serialized hyponymCountMap");
     }
 
@@ -843,16 +722,13 @@ public class CategoryGraph
      * greater than the number of nodes in the graph. This is due to the multiple counting of nodes
      * having more than one parent. Thus, we have to scale hyponym counts to fall in
      * [0,NumberOfNodes].
-     *
-     * @throws WikiApiException
-     *             Thrown if errors occurred.
      */
-    private void scaleHyponymCountMap() throws WikiApiException
+    private void scaleHyponymCountMap()
     {
-        for (int key : getHyponymCountMap().keySet()) {
-            if (getHyponymCountMap().get(key) > graph.vertexSet().size()) {
+        for (int node = 0; node < hyponymCounts.length; node++) {
+            if (hyponymCounts[node] > graph.size()) {
                 // TODO scaling function is not optimal (to say the least :)
-                getHyponymCountMap().put(key, (graph.vertexSet().size() - 1));
+                hyponymCounts[node] = graph.size() - 1;
             }
         }
     }
@@ -865,9 +741,9 @@ public class CategoryGraph
     protected Set<Integer> __getLeafNodes() throws WikiApiException
     {
         Set<Integer> leafNodes = new HashSet<>();
-        for (int node : graph.vertexSet()) {
-            if (getOutDegree(node) == 0) {
-                leafNodes.add(node);
+        for (int node = 0; node < graph.size(); node++) {
+            if (graph.getOutDegree(node) == 0) {
+                leafNodes.add(graph.getPageId(node));
             }
         }
         return leafNodes;
@@ -922,10 +798,10 @@ public class CategoryGraph
     }
 
     /**
-     * Computes the paths from each category node to the root. Computing n paths will take some
-     * time. Thus, efficient computing is based on the assumption that all subpaths in the shortest
-     * path to the root, are also the shortest paths for the corresponding nodes. Starting with the
-     * leaf nodes gives the longest initial paths with most subpaths.
+     * Computes the paths from each category node to the root. All paths are computed with one
+     * breadth first search from the root. Each node stores the parent through which it was
+     * discovered, thus all subpaths in the shortest path to the root are also the shortest paths
+     * for the corresponding nodes.
      *
      * @throws WikiApiException
      *             Thrown if errors occurred.
@@ -934,115 +810,41 @@ public class CategoryGraph
     {
 
         // do only create rootPathMap, if it was not already computed
-        if (rootPathMap != null) {
-            return;
-        }
-
-        String rootPathMapFilename = "rootPathMap";
-        File rootPathFile = new File(wiki.getWikipediaId() + "_" + rootPathMapFilename);
-
-        // try to load rootPathMap from precomputed file
-        if (rootPathFile.exists()) {
-            logger.info("Loading saved rootPathMap ...");
-            rootPathMap = (Map<Integer, List<Integer>>) deserializeMap(rootPathFile);
-            logger.info("Done loading saved rootPathMap");
+        if (rootPaths != null) {
             return;
         }
 
         logger.info("Computing rootPathMap");
-        rootPathMap = new HashMap<>();
 
-        // a queue holding the nodes to process
-        List<Integer> queue = new ArrayList<>();
-
-        // initialize the queue with all leaf nodes
-        Set<Integer> leafNodes = this.__getLeafNodes();
-        queue.addAll(leafNodes);
-
-        logger.info("{} leaf nodes.", queue.size());
-        fillRootPathMap(queue);
-
-        queue.clear(); // queue should be empty now, but clear anyway
-
-        // add non-leaf nodes that have not been on the shortest, yet
-        for (Category cat : wiki.getCategories()) {
-            if (!rootPathMap.containsKey(cat.getPageId())) {
-                queue.add(cat.getPageId());
+        int root = -1;
+        Category rootCategory = wiki.getMetaData().getMainCategory();
+        if (rootCategory == null) {
+            logger.error("There is no root node for this wiki. " +
+                    "Check the parameter that provides the name of the root node.");
+        }
+        else {
+            root = graph.indexOf(rootCategory.getPageId());
+            if (root == -1) {
+                logger.error("The root node is not part of this graph.");
             }
         }
 
-        logger.info("{} non leaf nodes not on a shortest leaf-node to root path.", queue.size());
-        fillRootPathMap(queue);
+        rootPaths = RootPathIndex.compute(graph, root);
 
-        for (Category cat : wiki.getCategories()) {
-            if (!rootPathMap.containsKey(cat.getPageId())) {
-                logger.info("no path for {}", cat.getPageId());
-            }
-        }
+        logger.info("no path for {} nodes", graph.size() - rootPaths.getNumberOfPaths());
 
-        // from the root path map, we can very easily get the depth
+        // from the root paths, we can very easily get the depth
         this.depth = getDepthFromRootPathMap();
 
         logger.info("Setting depth of category graph: {}", this.depth);
-
-        logger.info("Serializing rootPathMap");
-        this.serializeMap(rootPathMap, rootPathFile);
     }
 
-    private void fillRootPathMap(List<Integer> queue) throws WikiApiException
+    private RootPathIndex getRootPaths() throws WikiApiException
     {
-        int root = wiki.getMetaData().getMainCategory().getPageId();
-
-        // while the queue is not empty
-        while (!queue.isEmpty()) {
-            // remove first element from queue
-            int currentNode = queue.get(0);
-            queue.remove(0);
-
-            logger.debug("Queue size: {}", queue.size());
-
-            // if we have already inserted a path for this node => continue with the next
-            if (getRootPathMap().containsKey(currentNode)) {
-                continue;
-            }
-
-            // compute path from current node to root
-            List<Integer> nodesOnPath = getPathToRoot(root, currentNode);
-
-            // if there is no path => skip
-            if (nodesOnPath == null) {
-                getRootPathMap().put(currentNode, new ArrayList<>());
-                continue;
-            }
-
-            // the first entry should be the current Node, the last entry should be the root
-            // check whether this assumption is valid
-            if (nodesOnPath.get(0) != currentNode || // the first node of the list should always be
-                                                     // the current node
-                    nodesOnPath.get(nodesOnPath.size() - 1) != root) { // the last node of the list
-                                                                       // should always be the root
-                                                                       // node
-                logger.error("Something is wrong with the path to the root");
-                logger.error("{} -- {}", nodesOnPath.get(0), currentNode);
-                logger.error("{} -- {}", nodesOnPath.get(nodesOnPath.size() - 1), root);
-                logger.error("size = {}", nodesOnPath.size());
-                System.exit(1);
-            }
-
-            int i = 0;
-            for (int nodeOnPath : nodesOnPath) {
-                // if we have already inserted a path for this node => continue with the next
-                if (getRootPathMap().containsKey(nodeOnPath)) {
-                    continue;
-                }
-                // insert path
-                else {
-                    getRootPathMap().put(nodeOnPath,
-                            new ArrayList<>(nodesOnPath.subList(i, nodesOnPath.size())));
-                }
-                i++;
-            }
-        } // while queue not empty
+        if (rootPaths == null) {
+            createRootPathMap();
+        }
+        return rootPaths;
     }
 
     /**
@@ -1052,7 +854,7 @@ public class CategoryGraph
      */
     protected int getInDegree(int pageID)
     {
-        return graph.inDegreeOf(pageID);
+        return graph.getInDegree(indexOf(pageID));
     }
 
     /**
@@ -1062,7 +864,7 @@ public class CategoryGraph
      */
     protected int getOutDegree(int pageID)
     {
-        return graph.outDegreeOf(pageID);
+        return graph.getOutDegree(indexOf(pageID));
     }
 
     /**
@@ -1072,10 +874,9 @@ public class CategoryGraph
      */
     protected Set<Integer> __getChildren(int pageID)
     {
-        Set<DefaultEdge> outgoingEdges = graph.outgoingEdgesOf(pageID);
         Set<Integer> outLinks = new HashSet<>();
-        for (DefaultEdge edge : outgoingEdges) {
-            outLinks.add(graph.getEdgeTarget(edge));
+        for (int child : graph.getChildren(indexOf(pageID))) {
+            outLinks.add(graph.getPageId(child));
         }
         return outLinks;
     }
@@ -1087,14 +888,29 @@ public class CategoryGraph
      */
     protected Set<Integer> __getParents(int pageID)
     {
-        Set<DefaultEdge> incomingEdges = graph.incomingEdgesOf(pageID);
         Set<Integer> inLinks = new HashSet<>();
-        for (DefaultEdge edge : incomingEdges) {
-            inLinks.add(graph.getEdgeSource(edge));
+        for (int parent : graph.getParents(indexOf(pageID))) {
+            inLinks.add(graph.getPageId(parent));
         }
         return inLinks;
     }
 
+    /**
+     * @param pageID
+     *            The pageID of the category.
+     * @return The index of the category in {@link #graph}.
+     * @throws IllegalArgumentException
+     *             If the category is not part of the graph.
+     */
+    private int indexOf(int pageID)
+    {
+        int index = graph.indexOf(pageID);
+        if (index == -1) {
+            throw new IllegalArgumentException("no such vertex in graph: " + pageID);
+        }
+        return index;
+    }
+
     /**
      * @return Returns the largest connected component as a new graph. If the base graph already is
      *         connected, it simply returns the whole graph.
@@ -1104,26 +920,47 @@ public class CategoryGraph
      */
     public CategoryGraph getLargestConnectedComponent() throws WikiApiException
     {
-        ConnectivityInspector<Integer, DefaultEdge> connectInspect = new ConnectivityInspector<>(graph);
+        // label the connected components with a breadth first search in the undirected graph
+        int[] component = new int[graph.size()];
+        Arrays.fill(component, -1);
+        int[] queue = new int[graph.size()];
+        int numberOfComponents = 0;
+        int largestComponentId = -1;
+        int maxSize = 0;
+        for (int start = 0; start < graph.size(); start++) {
+            if (component[start] != -1) {
+                continue;
+            }
+            component[start] = numberOfComponents;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                for (int neighbor : getNeighborIndexes(queue[head++])) {
+                    if (component[neighbor] == -1) {
+                        component[neighbor] = numberOfComponents;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+            if (tail > maxSize) {
+                maxSize = tail;
+                largestComponentId = numberOfComponents;
+            }
+            numberOfComponents++;
+        }
 
         // if the graph is connected, simply return the whole graph
-        if (connectInspect.isConnected()) {
+        if (numberOfComponents <= 1) {
             return this;
         }
 
-        // else, get the largest connected component
-        List<Set<Integer>> connectedComponentList = connectInspect.connectedSets();
-
-        logger.info("{} connected components.", connectedComponentList.size());
+        logger.info("{} connected components.", numberOfComponents);
 
-        int i = 0;
-        int maxSize = 0;
         Set<Integer> largestComponent = new HashSet<>();
-        for (Set<Integer> connectedComponent : connectedComponentList) {
-            i++;
-            if (connectedComponent.size() > maxSize) {
-                maxSize = connectedComponent.size();
-                largestComponent = connectedComponent;
+        for (int node = 0; node < graph.size(); node++) {
+            if (component[node] == largestComponentId) {
+                largestComponent.add(graph.getPageId(node));
             }
         }
 
@@ -1243,32 +1080,26 @@ public class CategoryGraph
      * Get the number of connections that exist between the neighbors of a node.
      *
      * @param node
-     *            The node under consideration.
+     *            The index of the node under consideration.
      * @return The number of connections that exist between the neighbors of node.
      */
     private int getNumberOfNeighborConnections(int node)
     {
         int numberOfConnections = 0;
 
-        // get the set of neighbors
-        Set<Integer> neighbors = getNeighbors(node);
-
-        if (!neighbors.isEmpty()) {
-            // for each pair of neighbors, test if there is a connection
-            Object[] nodeArray = neighbors.toArray();
-            // sort the Array so we can use a simple iteration with two for loops to access all
-            // pairs
-            Arrays.sort(nodeArray);
-
-            for (int i = 0; i < neighbors.size(); i++) {
-                int outerNode = (Integer) nodeArray[i];
-                for (int j = i + 1; j < neighbors.size(); j++) {
-                    int innerNode = (Integer) nodeArray[j];
-                    // in case of a connection - increade connection counter
-                    // order of the nodes doesn't matter for undirected graphs
-                    if (undirectedGraph.containsEdge(innerNode, outerNode)) {
-                        numberOfConnections++;
-                    }
+        // get the neighbors, sorted so we can use a simple iteration with two for loops to access
+        // all pairs
+        int[] neighbors = getNeighborIndexes(node);
+
+        for (int i = 0; i < neighbors.length; i++) {
+            int outerNode = neighbors[i];
+            for (int j = i + 1; j < neighbors.length; j++) {
+                int innerNode = neighbors[j];
+                // in case of a connection - increade connection counter
+                // order of the nodes doesn't matter for undirected graphs
+                if (graph.containsEdge(innerNode, outerNode)
+                        || graph.containsEdge(outerNode, innerNode)) {
+                    numberOfConnections++;
                 }
             }
         }
@@ -1289,18 +1120,37 @@ public class CategoryGraph
     {
 
         Set<Integer> neighbors = new HashSet<>();
-        Set<DefaultEdge> edges = undirectedGraph.edgesOf(node);
-        for (DefaultEdge edge : edges) {
-            if (undirectedGraph.getEdgeSource(edge) != node) {
-                neighbors.add(undirectedGraph.getEdgeSource(edge));
-            }
-            if (undirectedGraph.getEdgeTarget(edge) != node) {
-                neighbors.add(undirectedGraph.getEdgeTarget(edge));
-            }
+        for (int neighbor : getNeighborIndexes(indexOf(node))) {
+            neighbors.add(graph.getPageId(neighbor));
         }
         return neighbors;
     }
 
+    /**
+     * Get the neighbors of a given node. The category graph is treated as an undirected graph.
+     *
+     * @param node
+     *            The index of the reference node.
+     * @return The indexes of the neighbors in ascending order.
+     */
+    private int[] getNeighborIndexes(int node)
+    {
+        int[] parents = graph.getParents(node);
+        int[] children = graph.getChildren(node);
+        int[] neighbors = Arrays.copyOf(parents, parents.length + children.length);
+        System.arraycopy(children, 0, neighbors, parents.length, children.length);
+        Arrays.sort(neighbors);
+        // after the cycle removal, two nodes are connected by at most one edge, but a graph
+        // created from a JGraphT graph may contain both directions
+        int distinct = 0;
+        for (int i = 0; i < neighbors.length; i++) {
+            if (i == 0 || neighbors[i] != neighbors[i - 1]) {
+                neighbors[distinct++] = neighbors[i];
+            }
+        }
+        return distinct == neighbors.length ? neighbors : Arrays.copyOf(neighbors, distinct);
+    }
+
     private void updateDegreeDistribution(int nodeDegree)
     {
         if (degreeDistribution.containsKey(nodeDegree)) {
@@ -1315,6 +1165,9 @@ public class CategoryGraph
      * Computes and sets the diameter, the average degree and the average shortest path length of
      * the graph. Do not call this in the constructor. May run a while. It is called in the getters,
      * if parameters are not yet initialized when retrieved.
+     * <p>
+     * The breadth first searches from all nodes and the cluster coefficients are computed in
+     * parallel in the common {@link java.util.concurrent.ForkJoinPool fork/join pool}.
      */
     private void setGraphParameters()
     {
@@ -1323,145 +1176,212 @@ public class CategoryGraph
         // Average shortest path length is (as the name says) the average of the shortest path
         // length between all node pairs
 
-        double maxPathLength = 0.0;
-        double shortestPathLengthSum = 0.0;
-        double degreeSum = 0.0;
-        double clusterCoefficientSum = 0.0;
-
-        // iterate over all node pairs
-        Set<Integer> nodes = undirectedGraph.vertexSet();
-
-        // a hashset of the nodes which have been the start node of the computation process
-        // for such nodes all path lengths have beeen already computed
-        Set<Integer> wasSource = new HashSet<>();
-
-        int progress = 0;
-        for (int node : nodes) {
+        int numberOfNodes = graph.size();
 
-            progress++;
-            ApiUtilities.printProgressInfo(progress, nodes.size(), 100,
-                    ApiUtilities.ProgressInfoMode.TEXT, "Getting graph parameters");
-
-            int nodeDegree = undirectedGraph.degreeOf(node);
+        double degreeSum = 0.0;
+        degreeDistribution = new HashMap<>();
+        for (int node = 0; node < numberOfNodes; node++) {
+            int nodeDegree = graph.getInDegree(node) + graph.getOutDegree(node);
             degreeSum += nodeDegree;
             updateDegreeDistribution(nodeDegree);
-
-            // cluster coefficient of a node is C_v is the fraction of the connections that exist
-            // between the neighbor nodes (k_v) of this node and all allowable connections between
-            // the neighbors (k_v(k_v -1)/2)
-            // for degrees 0 or 1 there is no cluster coefficient, as there can be no connections
-            // between neighbors
-            if (undirectedGraph.degreeOf(node) > 1) {
-                double numberOfNeighborConnections = getNumberOfNeighborConnections(node);
-                clusterCoefficientSum += (numberOfNeighborConnections
-                        / (nodeDegree * (nodeDegree - 1)));
-            }
-
-            // Returns the new shortestPathLengthSum and the new maxPathLength.
-            // They are returned as a double array for performance reasons.
-            // I do not want to create an object, as this function is called *very* often
-            double[] returnValues = computeShortestPathLenghts(node, shortestPathLengthSum,
-                    maxPathLength, wasSource);
-            shortestPathLengthSum = returnValues[0];
-            maxPathLength = returnValues[1];
-
-            // save the info that the node was already used as the source of path computation
-            wasSource.add(node);
         }
 
-        if (nodes.size() > 1) {
-            this.averageShortestPathLength = shortestPathLengthSum
-                    / (nodes.size() * (nodes.size() - 1) / 2); // sum of path lengths / (number of
-                                                               // node pairs)
+        // cluster coefficient of a node is C_v is the fraction of the connections that exist
+        // between the neighbor nodes (k_v) of this node and all allowable connections between
+        // the neighbors (k_v(k_v -1)/2)
+        // for degrees 0 or 1 there is no cluster coefficient, as there can be no connections
+        // between neighbors
+        double clusterCoefficientSum = IntStream.range(0, numberOfNodes).parallel()
+                .mapToDouble(node -> {
+                    int nodeDegree = graph.getInDegree(node) + graph.getOutDegree(node);
+                    if (nodeDegree > 1) {
+                        double numberOfNeighborConnections = getNumberOfNeighborConnections(node);
+                        return numberOfNeighborConnections / (nodeDegree * (nodeDegree - 1));
+                    }
+                    return 0.0;
+                }).sum();
+
+        // one breadth first search from each node; each path is found from both of its ends
+        AtomicInteger progress = new AtomicInteger();
+        PathLengths pathLengths = IntStream.range(0, numberOfNodes).parallel()
+                .collect(() -> new PathLengths(graph), (paths, node) -> {
+                    paths.addSource(node);
+                    ApiUtilities.printProgressInfo(progress.incrementAndGet(), numberOfNodes, 100,
+                            ApiUtilities.ProgressInfoMode.TEXT, "Getting graph parameters");
+                }, PathLengths::combine);
+
+        if (numberOfNodes > 1) {
+            // sum of path lengths / (number of node pairs)
+            this.averageShortestPathLength = (pathLengths.distanceSum / 2.0)
+                    / ((double) numberOfNodes * (numberOfNodes - 1) / 2);
         }
         else {
             this.averageShortestPathLength = 0; // there is only one node
         }
-        this.diameter = maxPathLength;
-        this.averageDegree = degreeSum / nodes.size();
-        this.clusterCoefficient = clusterCoefficientSum / nodes.size();
+        this.diameter = pathLengths.maxDistance;
+        this.averageDegree = degreeSum / numberOfNodes;
+        this.clusterCoefficient = clusterCoefficientSum / numberOfNodes;
     }
 
     /**
-     * Computes the shortest path from node to all other nodes. Paths to nodes that have already
-     * been the source of the shortest path computation are omitted (the path was already added to
-     * the path sum). Updates the sum of shortest path lengths and the diameter of the graph. As the
-     * JGraphT BreadthFirstIterator does not provide information about the distance to the start
-     * node in each step, we will use our own BFS implementation.
+     * Estimates the average shortest path length and the diameter of the graph from breadth first
+     * searches that start at a random sample of the nodes, instead of at all nodes like
+     * {@link #getAverageShortestPathLength()} and {@link #getDiameter()}. The graph is treated as
+     * an undirected graph.
+     * <p>
+     * The average shortest path length is estimated from the mean of the path length sums of the
+     * sampled nodes. Its standard error shrinks with the square root of the number of samples. The
+     * largest path length found is a lower bound of the diameter. If the sample size is at least
+     * the number of nodes, the exact values are computed.
      *
-     * @param pStartNode
-     *            The start node of the search.
-     * @param pShortestPathLengthSum
-     *            The sum of the shortest path lengths.
-     * @param pMaxPathLength
-     *            The maximum path length found so far.
-     * @param pWasSource
-     *            A set of nodes which have been the start node of the computation process. For such
-     *            nodes all path lengths have been already computed.
-     * @return An array of double values. The first value is the shortestPathLengthSum and the
-     *         second value is the maxPathLength. They are returned as a double array for
-     *         performance reasons. I do not want to create an object, as this function is called
-     *         *very* often.
+     * @param numberOfSamples
+     *            The number of start nodes of the breadth first searches.
+     * @param seed
+     *            The seed for selecting the start nodes.
+     * @return The estimated path length parameters.
      */
-    private double[] computeShortestPathLenghts(int pStartNode, double pShortestPathLengthSum,
-            double pMaxPathLength, Set<Integer> pWasSource)
+    public PathLengthEstimate estimatePathLengths(int numberOfSamples, long seed)
     {
+        if (numberOfSamples < 1) {
+            throw new IllegalArgumentException("numberOfSamples must be positive");
+        }
+
+        int numberOfNodes = graph.size();
+        int sampleSize = Math.min(numberOfSamples, numberOfNodes);
 
-        // a set of nodes that have already been expanded -> algorithm should expand nodes
-        // monotonically and not go back
-        Set<Integer> alreadyExpanded = new HashSet<>();
+        // partial Fisher-Yates shuffle: the first sampleSize nodes are a sample without
+        // replacement
+        int[] nodes = IntStream.range(0, numberOfNodes).toArray();
+        Random random = new Random(seed);
+        for (int i = 0; i < sampleSize; i++) {
+            int j = i + random.nextInt(numberOfNodes - i);
+            int tmp = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = tmp;
+        }
 
-        // a queue holding the newly discovered nodes with their distance to the start node
-        List<int[]> queue = new ArrayList<>();
+        PathLengths pathLengths = Arrays.stream(nodes, 0, sampleSize).parallel()
+                .collect(() -> new PathLengths(graph), PathLengths::addSource,
+                        PathLengths::combine);
 
-        // initialize queue with start node
-        int[] innerList = new int[2];
-        innerList[0] = pStartNode; // the node
-        innerList[1] = 0; // the distance to the start node
-        queue.add(innerList);
+        if (numberOfNodes < 2) {
+            return new PathLengthEstimate(0.0, 0.0, 0, sampleSize);
+        }
 
-        // while the queue is not empty
-        while (!queue.isEmpty()) {
-            // remove first element from queue
-            int[] queueElement = queue.get(0);
-            int currentNode = queueElement[0];
-            int distance = queueElement[1];
-            queue.remove(0);
-
-            // if the node was not already expanded
-            if (!alreadyExpanded.contains(currentNode)) {
-                // the node gets expanded now
-                alreadyExpanded.add(currentNode);
-
-                // if the node was a source node in a previous run, we already have added this path
-                if (!pWasSource.contains(currentNode)) {
-                    // add the distance of this node to shortestPathLengthSum
-                    // check if maxPathLength must be updated
-                    pShortestPathLengthSum += distance;
-                    if (distance > pMaxPathLength) {
-                        pMaxPathLength = distance;
-                    }
+        // every node pair is found from both ends, hence the sum of all path length sums is
+        // twice the sum over the node pairs
+        double pairs = (double) numberOfNodes * (numberOfNodes - 1);
+        double mean = (double) pathLengths.distanceSum / sampleSize;
+        double average = mean * numberOfNodes / pairs;
+
+        double standardError = 0.0;
+        if (sampleSize > 1 && sampleSize < numberOfNodes) {
+            double variance = (pathLengths.squaredDistanceSum - sampleSize * mean * mean)
+                    / (sampleSize - 1);
+            // with finite population correction, as the nodes are sampled without replacement
+            double correction = (double) (numberOfNodes - sampleSize) / (numberOfNodes - 1);
+            standardError = Math.sqrt(Math.max(variance, 0) / sampleSize * correction)
+                    * numberOfNodes / pairs;
+        }
+
+        return new PathLengthEstimate(average, standardError, pathLengths.maxDistance,
+                sampleSize);
+    }
+
+    /**
+     * Computes the shortest paths from start nodes to all other nodes and sums up their lengths.
+     * As the JGraphT BreadthFirstIterator does not provide information about the distance to the
+     * start node in each step, we use our own BFS implementation over primitive arrays. The arrays
+     * are reused for all start nodes, thus an instance must only be used by one thread at a time.
+     */
+    private static class PathLengths
+    {
+        private final IntDirectedGraph graph;
+
+        /**
+         * The distance of each node to the current start node, -1 if not discovered yet.
+         */
+        private final int[] distances;
+
+        /**
+         * The queue of the breadth first search, holding the newly discovered nodes.
+         */
+        private final int[] queue;
+
+        /**
+         * The sum of the path lengths from all start nodes.
+         */
+        private long distanceSum;
+
+        /**
+         * The sum of the squared path length sums of each start node.
+         */
+        private double squaredDistanceSum;
+
+        /**
+         * The maximum path length found so far.
+         */
+        private int maxDistance;
+
+        PathLengths(IntDirectedGraph graph)
+        {
+            this.graph = graph;
+            this.distances = new int[graph.size()];
+            this.queue = new int[graph.size()];
+            Arrays.fill(distances, -1);
+        }
+
+        void addSource(int startNode)
+        {
+            int head = 0;
+            int tail = 0;
+
+            // initialize queue with start node
+            queue[tail++] = startNode;
+            distances[startNode] = 0;
+
+            long sum = 0;
+            while (head < tail) {
+                int currentNode = queue[head++];
+                int distance = distances[currentNode];
+                sum += distance;
+                if (distance > maxDistance) {
+                    maxDistance = distance;
                 }
-                // even if the node was a source node in a previous run there can be a path to other
-                // nodes over this node, so go on
-
-                // get the neighbors of the queue element
-                Set<Integer> neighbors = getNeighbors(currentNode);
-
-                // iterate over all neighbors
-                for (int neighbor : neighbors) {
-                    // if the node was not already expanded
-                    if (!alreadyExpanded.contains(neighbor)) {
-                        // add the node to the queue, increase node distance by one
-                        int[] tmpList = new int[2];
-                        tmpList[0] = neighbor;
-                        tmpList[1] = (distance + 1);
-                        queue.add(tmpList);
-                    }
+
+                // the graph is treated as undirected, so the neighbors are parents and children
+                for (int i = 0; i < graph.getInDegree(currentNode); i++) {
+                    tail = discover(graph.getParent(currentNode, i), distance + 1, tail);
                 }
+                for (int i = 0; i < graph.getOutDegree(currentNode); i++) {
+                    tail = discover(graph.getChild(currentNode, i), distance + 1, tail);
+                }
+            }
+
+            distanceSum += sum;
+            squaredDistanceSum += (double) sum * sum;
+
+            // reset only the discovered nodes for the next start node
+            for (int i = 0; i < tail; i++) {
+                distances[queue[i]] = -1;
             }
         }
-      return new double[]{ pShortestPathLengthSum, pMaxPathLength };
+
+        private int discover(int node, int distance, int tail)
+        {
+            if (distances[node] == -1) {
+                distances[node] = distance;
+                queue[tail++] = node;
+            }
+            return tail;
+        }
+
+        void combine(PathLengths other)
+        {
+            distanceSum += other.distanceSum;
+            squaredDistanceSum += other.squaredDistanceSum;
+            maxDistance = Math.max(maxDistance, other.maxDistance);
+        }
     }
 
     /**
@@ -1477,7 +1397,7 @@ public class CategoryGraph
     public double getDepth() throws WikiApiException
     {
         if (depth < 0) { // has not been initialized
-            if (rootPathMap != null) {
+            if (rootPaths != null) {
                 this.depth = getDepthFromRootPathMap();
                 logger.info("Getting depth from RootPathMap: {}", this.depth);
 
@@ -1502,21 +1422,7 @@ public class CategoryGraph
      */
     private double getDepthFromRootPathMap() throws WikiApiException
     {
-        int max = 0;
-        for (List<Integer> path : getRootPathMap().values()) {
-            if (path.size() > max) {
-                max = path.size();
-            }
-        }
-
-        max = max - 1; // depth is measured in nodes, not edges
-
-        if (max < 0) {
-            return 0;
-        }
-        else {
-            return max;
-        }
+        return getRootPaths().getMaxDepth();
     }
 
     /**
@@ -1536,16 +1442,15 @@ public class CategoryGraph
             return 0.0;
         }
         // test whether the root category is in this graph
-        if (!graph.containsVertex(root.getPageId())) {
+        int rootNode = graph.indexOf(root.getPageId());
+        if (rootNode == -1) {
             logger.error("The root node is not part of this graph. " +
                             "Cannot compute depth of this graph. Setting depth to 0.0");
             return 0.0;
         }
-        double maxPathLength = 0.0;
-        double[] returnValues = computeShortestPathLenghts(root.getPageId(), 0.0, maxPathLength,
-                new HashSet<>());
-        maxPathLength = returnValues[1];
-        return maxPathLength;
+        PathLengths pathLengths = new PathLengths(graph);
+        pathLengths.addSource(rootNode);
+        return pathLengths.maxDistance;
     }
 
     /**
@@ -1568,64 +1473,69 @@ public class CategoryGraph
     }
 
     /**
-     * @return Returns the {@link DefaultDirectedGraph directed graph}.
+     * The category graph is stored in primitive arrays. A new {@link DefaultDirectedGraph JGraphT
+     * copy} is created on each call, so only call this method if you need it and keep the result
+     * instead of calling it repeatedly. Changes to the returned graph do not affect this category
+     * graph.
+     *
+     * @return Returns a copy of the {@link DefaultDirectedGraph directed graph}.
      */
     public DefaultDirectedGraph<Integer, DefaultEdge> getGraph()
     {
-        return graph;
+        return graph.toJGraphT();
     }
 
     /**
-     * @return Returns the {@link AsUndirectedGraph undirected graph}.
+     * @return Returns the {@link AsUndirectedGraph undirected graph}, a view of a new copy of
+     *         the {@link #getGraph() directed graph}.
      */
     public AsUndirectedGraph<Integer, DefaultEdge> getUndirectedGraph()
     {
-        return undirectedGraph;
+        return new AsUndirectedGraph<>(getGraph());
     }
 
     /**
-     * @return Retrieves a map for the frequencies (value) of hyponyms (key).
-     * @throws WikiApiException
-     *             Thrown if errors occurred.
+     * @return The category graph in primitive arrays.
      */
-    public Map<Integer, Integer> getHyponymCountMap() throws WikiApiException
+    IntDirectedGraph getIntDirectedGraph()
     {
-        if (hyponymCountMap == null) {
-            createHyponymCountMap();
-        }
-        return this.hyponymCountMap;
+        return graph;
+    }
+
+    /**
+     * Updates the number of edges after edges were removed from the
+     * {@link #getIntDirectedGraph() graph}.
+     */
+    void edgesRemoved()
+    {
+        numberOfEdges = graph.getNumberOfEdges();
     }
 
     /**
-     * @return Retrieves a map of root paths.
+     * @return Retrieves a map for the frequencies (value) of hyponyms (key).
      * @throws WikiApiException
      *             Thrown if errors occurred.
      */
-    public Map<Integer, List<Integer>> getRootPathMap() throws WikiApiException
+    public Map<Integer, Integer> getHyponymCountMap() throws WikiApiException
     {
-        if (rootPathMap == null) {
-            createRootPathMap();
+        if (hyponymCounts == null) {
+            createHyponymCountMap();
         }
-        return this.rootPathMap;
+        return graph.asMap(hyponymCounts);
     }
 
     /**
-     * Serializes the specified {@link Map map} to a {@code file}.
+     * The paths are stored as parent pointers. The returned map is a read-only view that creates
+     * the list of a node when it is retrieved.
      *
-     * @param map
-     *            The map to serialize. Must not be {@code null}.
-     * @param file
-     *            The file for saving the map. Must not be {@code null}.
+     * @return Retrieves a map of root paths. Each path starts with the node and ends with the root.
+     *         It is empty if there is no path to the root.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
      */
-    private void serializeMap(Map<?, ?> map, File file)
+    public Map<Integer, List<Integer>> getRootPathMap() throws WikiApiException
     {
-        try (ObjectOutputStream os = new ObjectOutputStream(
-                new BufferedOutputStream(new FileOutputStream(file)))) {
-            os.writeObject(map);
-        }
-        catch (Exception e) {
-            logger.error(e.getLocalizedMessage(), e);
-        }
+        return getRootPaths().asMap();
     }
 
     /**
@@ -1650,7 +1560,9 @@ public class CategoryGraph
     }
 
     /**
-     * Serializes the graph to the given destination.
+     * Saves the graph to the given destination in a compact binary format that can be loaded with
+     * {@link #CategoryGraph(Wikipedia, File)}. The hyponym counts and the root paths are saved,
+     * too, if they have already been computed.
      *
      * @param destination
      *            The destination to which should be saved.
@@ -1659,12 +1571,25 @@ public class CategoryGraph
      */
     public void saveGraph(String destination) throws WikiApiException
     {
-        try {
-            GraphSerialization.saveGraph(graph, destination);
-        }
-        catch (IOException e) {
-            throw new WikiApiException(e);
-        }
+        CategoryGraphFile.write(new File(destination), graph, true, hyponymCounts, rootPaths);
+    }
+
+    /**
+     * Converts a graph that was saved with Java serialization by an older version to the binary
+     * format of {@link #saveGraph(String)}.
+     *
+     * @param source
+     *            The location of the serialized graph.
+     * @param destination
+     *            The destination to which the converted graph should be saved.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
+     */
+    public static void convertGraph(String source, String destination) throws WikiApiException
+    {
+        IntDirectedGraph convertedGraph = IntDirectedGraph
+                .of(loadSerializedGraph(new File(source)));
+        CategoryGraphFile.write(new File(destination), convertedGraph, true, null, null);
     }
 
 }
@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+
+/**
+ * The binary file format of a {@link CategoryGraph} and the values derived from it.
+ * <p>
+ * A file starts with a header of the magic number, the format version, the flags of the stored
+ * sections, the number of nodes, the number of edges and the CRC32 checksum of the payload. The
+ * payload consists of little-endian int arrays: the page ids of the nodes in ascending order and,
+ * depending on the flags, the child counts and the children rows of the edges, the hyponym counts,
+ * and the depths and shortest path tree parents of the root paths. All values except the page ids
+ * refer to nodes by their index.
+ * <p>
+ * The sections are memory-mapped when a file is read and copied into arrays, because the graph
+ * may be changed afterwards, e.g. when cycles are removed.
+ */
+final class CategoryGraphFile
+{
+
+    private static final int MAGIC = 0x4A574347;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 5 * Integer.BYTES + Long.BYTES;
+
+    /**
+     * The file contains the edges of the graph.
+     */
+    static final int EDGES = 1;
+
+    /**
+     * The file contains the hyponym counts of the nodes.
+     */
+    static final int HYPONYM_COUNTS = 2;
+
+    /**
+     * The file contains the paths from the nodes to the root.
+     */
+    static final int ROOT_PATHS = 4;
+
+    private final int[] nodes;
+    private final int[] childCounts;
+    private final int[] children;
+    private final int[] hyponymCounts;
+    private final int[] depths;
+    private final int[] parents;
+
+    private CategoryGraphFile(int[] nodes, int[] childCounts, int[] children, int[] hyponymCounts,
+            int[] depths, int[] parents)
+    {
+        this.nodes = nodes;
+        this.childCounts = childCounts;
+        this.children = children;
+        this.hyponymCounts = hyponymCounts;
+        this.depths = depths;
+        this.parents = parents;
+    }
+
+    /**
+     * @return The page ids of the nodes in ascending order.
+     */
+    int[] getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * @return The graph or {@code null} if the file contains no edges.
+     */
+    IntDirectedGraph getGraph()
+    {
+        return childCounts != null ? new IntDirectedGraph(nodes, childCounts, children) : null;
+    }
+
+    /**
+     * @return The hyponym count of each node or {@code null} if the file contains none.
+     */
+    int[] getHyponymCounts()
+    {
+        return hyponymCounts;
+    }
+
+    /**
+     * @param graph
+     *            The graph that was read from this file.
+     * @return The paths to the root or {@code null} if the file contains none.
+     */
+    RootPathIndex getRootPaths(IntDirectedGraph graph)
+    {
+        return depths != null ? new RootPathIndex(graph, depths, parents) : null;
+    }
+
+    /**
+     * @param location
+     *            The file to check.
+     * @return True, if the file starts with the magic number of this format. False, if it does
+     *         not, e.g. because it was written with Java serialization by an older version.
+     * @throws WikiApiException
+     *             Thrown if the file cannot be read.
+     */
+    static boolean isCategoryGraphFile(File location) throws WikiApiException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(location, "r");
+                FileChannel channel = file.getChannel()) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(magic, 0);
+            magic.flip();
+            return magic.remaining() == Integer.BYTES && magic.getInt() == MAGIC;
+        }
+        catch (IOException e) {
+            throw new WikiApiException(e);
+        }
+    }
+
+    /**
+     * Writes a graph and the values derived from it.
+     *
+     * @param location
+     *            The file to write. It is overwritten if it exists.
+     * @param graph
+     *            The graph.
+     * @param withEdges
+     *            If false, only the nodes of the graph are written.
+     * @param hyponymCounts
+     *            The hyponym count of each node or {@code null}.
+     * @param rootPaths
+     *            The paths to the root or {@code null}.
+     * @throws WikiApiException
+     *             Thrown if the file cannot be written.
+     */
+    static void write(File location, IntDirectedGraph graph, boolean withEdges,
+            int[] hyponymCounts, RootPathIndex rootPaths)
+        throws WikiApiException
+    {
+        int flags = (withEdges ? EDGES : 0) | (hyponymCounts != null ? HYPONYM_COUNTS : 0)
+                | (rootPaths != null ? ROOT_PATHS : 0);
+        int n = graph.size();
+        try (RandomAccessFile file = new RandomAccessFile(location, "rw");
+                FileChannel channel = file.getChannel()) {
+            file.setLength(0);
+            channel.position(HEADER_SIZE);
+            PayloadWriter writer = new PayloadWriter(channel);
+            for (int node = 0; node < n; node++) {
+                writer.putInt(graph.getPageId(node));
+            }
+            if (withEdges) {
+                for (int node = 0; node < n; node++) {
+                    writer.putInt(graph.getOutDegree(node));
+                }
+                for (int node = 0; node < n; node++) {
+                    for (int i = 0; i < graph.getOutDegree(node); i++) {
+                        writer.putInt(graph.getChild(node, i));
+                    }
+                }
+            }
+            if (hyponymCounts != null) {
+                for (int node = 0; node < n; node++) {
+                    writer.putInt(hyponymCounts[node]);
+                }
+            }
+            if (rootPaths != null) {
+                for (int node = 0; node < n; node++) {
+                    writer.putInt(rootPaths.getDepth(node));
+                }
+                for (int node = 0; node < n; node++) {
+                    writer.putInt(rootPaths.getParent(node));
+                }
+            }
+            writer.flush();
+
+            // the header is written last, so a file that was not completely written is rejected
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(n)
+                    .putInt(withEdges ? graph.getNumberOfEdges() : 0)
+                    .putLong(writer.getChecksum());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+        catch (IOException e) {
+            throw new WikiApiException(e);
+        }
+    }
+
+    /**
+     * Reads a file written by {@link #write(File, IntDirectedGraph, boolean, int[], RootPathIndex)}.
+     *
+     * @param location
+     *            The file to read.
+     * @return The contents of the file.
+     * @throws WikiApiException
+     *             Thrown if the file cannot be read, has an unsupported version or is corrupted.
+     */
+    static CategoryGraphFile read(File location) throws WikiApiException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(location, "r");
+                FileChannel channel = file.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new WikiApiException(location + " is not a saved category graph.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new WikiApiException("Unsupported category graph version " + version);
+            }
+            int flags = header.getInt();
+            int numberOfNodes = header.getInt();
+            int numberOfEdges = header.getInt();
+            long checksum = header.getLong();
+
+            long expectedSize = HEADER_SIZE + (long) numberOfNodes * Integer.BYTES;
+            if ((flags & EDGES) != 0) {
+                expectedSize += (long) (numberOfNodes + numberOfEdges) * Integer.BYTES;
+            }
+            if ((flags & HYPONYM_COUNTS) != 0) {
+                expectedSize += (long) numberOfNodes * Integer.BYTES;
+            }
+            if ((flags & ROOT_PATHS) != 0) {
+                expectedSize += 2L * numberOfNodes * Integer.BYTES;
+            }
+            if (channel.size() != expectedSize) {
+                throw new WikiApiException(location + " has " + channel.size()
+                        + " bytes, but the header announces " + expectedSize + " bytes.");
+            }
+
+            SectionReader reader = new SectionReader(channel);
+            int[] nodes = reader.read(numberOfNodes);
+            int[] childCounts = null;
+            int[] children = null;
+            if ((flags & EDGES) != 0) {
+                childCounts = reader.read(numberOfNodes);
+                children = reader.read(numberOfEdges);
+            }
+            int[] hyponymCounts = (flags & HYPONYM_COUNTS) != 0 ? reader.read(numberOfNodes)
+                    : null;
+            int[] depths = null;
+            int[] parents = null;
+            if ((flags & ROOT_PATHS) != 0) {
+                depths = reader.read(numberOfNodes);
+                parents = reader.read(numberOfNodes);
+            }
+            if (reader.getChecksum() != checksum) {
+                throw new WikiApiException("The checksum of " + location + " does not match.");
+            }
+            return new CategoryGraphFile(nodes, childCounts, children, hyponymCounts, depths,
+                    parents);
+        }
+        catch (IOException e) {
+            throw new WikiApiException(e);
+        }
+    }
+
+    /**
+     * Writes ints through a buffer and computes the checksum of the written bytes.
+     */
+    private static final class PayloadWriter
+    {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 checksum = new CRC32();
+
+        PayloadWriter(FileChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException
+        {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void flush() throws IOException
+        {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        long getChecksum()
+        {
+            return checksum.getValue();
+        }
+    }
+
+    /**
+     * Maps the consecutive int arrays of the payload and computes the checksum of the read bytes.
+     */
+    private static final class SectionReader
+    {
+        private final FileChannel channel;
+        private final CRC32 checksum = new CRC32();
+        private long position = HEADER_SIZE;
+
+        SectionReader(FileChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        int[] read(int length) throws IOException
+        {
+            MappedByteBuffer section = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    (long) length * Integer.BYTES);
+            position += (long) length * Integer.BYTES;
+            checksum.update(section.duplicate());
+            int[] values = new int[length];
+            section.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values);
+            return values;
+        }
+
+        long getChecksum()
+        {
+            return checksum.getValue();
+        }
+    }
+}
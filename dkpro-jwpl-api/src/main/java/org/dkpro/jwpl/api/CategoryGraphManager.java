@@ -18,14 +18,12 @@
 package org.dkpro.jwpl.api;
 
 import java.io.File;
-import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
-import org.dkpro.jwpl.api.util.GraphSerialization;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -163,14 +161,8 @@ public class CategoryGraphManager
         String defaultSerializedGraphLocation = getCategoryGraphSerializationFileName(wikiId, size);
         File defaulSerializedGraphFile = new File(defaultSerializedGraphLocation);
         if (defaulSerializedGraphFile.exists()) {
-            try {
-                logger.info("Loading category graph from {}", defaultSerializedGraphLocation);
-                return new CategoryGraph(wiki,
-                        GraphSerialization.loadGraph(defaultSerializedGraphLocation));
-            }
-            catch (IOException | ClassNotFoundException e) {
-                throw new WikiApiException(e);
-            }
+            logger.info("Loading category graph from {}", defaultSerializedGraphLocation);
+            return new CategoryGraph(wiki, defaulSerializedGraphFile);
         }
         else {
             return null;
@@ -181,13 +173,8 @@ public class CategoryGraphManager
         throws WikiApiException
     {
         String defaultSerializedGraphLocation = getCategoryGraphSerializationFileName(wikiId, size);
-        try {
-            logger.info("Saving category graph to {}", defaultSerializedGraphLocation);
-            GraphSerialization.saveGraph(catGraph.getGraph(), defaultSerializedGraphLocation);
-        }
-        catch (IOException e) {
-            throw new WikiApiException(e);
-        }
+        logger.info("Saving category graph to {}", defaultSerializedGraphLocation);
+        catGraph.saveGraph(defaultSerializedGraphLocation);
     }
 
     private static String getCategoryGraphSerializationFileName(String wikiId, String size)
@@ -17,15 +17,11 @@
  */
 package org.dkpro.jwpl.api;
 
-import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-import org.dkpro.jwpl.api.exception.WikiApiException;
 import org.hibernate.Session;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * An {@link Iterator} over {@link Category} objects.
@@ -34,9 +30,6 @@ public class CategoryIterator
     implements Iterator<Category>
 {
 
-    private static final Logger logger = LoggerFactory
-            .getLogger(MethodHandles.lookup().lookupClass());
-
     private final CategoryBuffer buffer;
 
     /**
@@ -82,7 +75,7 @@ public class CategoryIterator
                                          // database.
         private int bufferFillSize; // even a 500 slot buffer can be filled with only 5 elements
         private int bufferOffset; // the offset in the buffer
-        private int dataOffset; // the overall offset in the data
+        private long lastId; // the hibernate id of the last category read from the database
 
         public CategoryBuffer(int bufferSize, Wikipedia wiki)
         {
@@ -91,7 +84,7 @@ public class CategoryIterator
             this.buffer = new ArrayList<>();
             this.bufferFillSize = 0;
             this.bufferOffset = 0;
-            this.dataOffset = 0;
+            this.lastId = 0;
             // TODO test whether this works when zero pages are retrieved
         }
 
@@ -134,7 +127,6 @@ public class CategoryIterator
         {
             Category cat = buffer.get(bufferOffset);
             bufferOffset++;
-            dataOffset++;
             return cat;
         }
 
@@ -143,10 +135,11 @@ public class CategoryIterator
 
             Session session = this.wiki.__getHibernateSession();
             session.beginTransaction();
-            final String sql = "SELECT c FROM Category c";
+            // keyset pagination, so that the database does not skip all previously read rows
+            final String sql = "SELECT c FROM Category c WHERE c.id > :lastId ORDER BY c.id";
             List<org.dkpro.jwpl.api.hibernate.Category> returnValues = session
                     .createQuery(sql, org.dkpro.jwpl.api.hibernate.Category.class)
-                    .setFirstResult(dataOffset).setMaxResults(maxBufferSize)
+                    .setParameter("lastId", lastId).setMaxResults(maxBufferSize)
                     .setFetchSize(maxBufferSize).list();
             session.getTransaction().commit();
 
@@ -155,20 +148,13 @@ public class CategoryIterator
             bufferOffset = 0;
             bufferFillSize = 0;
 
-            Category apiCategory;
             for (org.dkpro.jwpl.api.hibernate.Category o : returnValues) {
                 if (o == null) {
                     return false;
                 }
                 else {
-                    long id = o.getId();
-                    try {
-                        apiCategory = new Category(this.wiki, id);
-                        buffer.add(apiCategory);
-                    }
-                    catch (WikiApiException e) {
-                        logger.error("Page with hibernateID {} not found.", id, e);
-                    }
+                    lastId = o.getId();
+                    buffer.add(new Category(this.wiki, o));
                 }
             }
             if (!buffer.isEmpty()) {
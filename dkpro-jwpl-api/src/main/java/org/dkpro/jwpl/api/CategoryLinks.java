@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+import org.hibernate.Session;
+
+/**
+ * Categories and the links between them, loaded in bulk with a few sequential queries instead of
+ * one query per category.
+ * <p>
+ * The categories are indexed in the order of their hibernate ids. For each category, the page ids
+ * of its parents ({@code category_inlinks}) and children ({@code category_outlinks}) are stored in
+ * compressed sparse row arrays.
+ */
+final class CategoryLinks
+{
+
+    /**
+     * The number of categories fetched with one query if all categories are loaded.
+     */
+    private static final int CATEGORY_CHUNK_SIZE = 100_000;
+
+    private final int size;
+    private final long[] hibernateIds;
+    private final int[] pageIds;
+    private final String[] names;
+
+    /**
+     * The page ids in ascending order and their indexes, for looking up the index of a category.
+     */
+    private final int[] sortedPageIds;
+    private final int[] sortedIndexes;
+
+    private final int[] parentOffsets;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] children;
+
+    /**
+     * Loads the specified categories and their links. If they are less than half of all
+     * categories, only their rows are queried, otherwise all categories are scanned.
+     *
+     * @param wiki
+     *            The wikipedia object.
+     * @param categoryIds
+     *            The page ids of the categories to load. Categories that do not exist are not
+     *            loaded.
+     * @param withNames
+     *            Whether the names of the categories are loaded, too.
+     */
+    CategoryLinks(Wikipedia wiki, Set<Integer> categoryIds, boolean withNames)
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        long numberOfCategories = session.createQuery("select count(c) from Category c",
+                Long.class).uniqueResult();
+        session.getTransaction().commit();
+        boolean allRows = categoryIds.size() * 2L >= numberOfCategories;
+
+        Rows rows = new Rows(withNames);
+        if (allRows) {
+            selectAllCategories(wiki, categoryIds, rows);
+        }
+        else {
+            selectCategories(wiki, categoryIds, rows);
+        }
+        int count = rows.count;
+
+        this.size = count;
+        this.hibernateIds = Arrays.copyOf(rows.ids, count);
+        this.pageIds = Arrays.copyOf(rows.pageIds, count);
+        this.names = withNames ? Arrays.copyOf(rows.names, count) : null;
+
+        this.sortedPageIds = new int[count];
+        this.sortedIndexes = new int[count];
+        LinkTables.sortByPageId(pageIds, count, sortedPageIds, sortedIndexes);
+
+        // if categories were left out, the remaining ones are not a contiguous range of rows
+        boolean contiguous = allRows && count == numberOfCategories;
+        this.parentOffsets = new int[count + 1];
+        this.parents = LinkTables.loadLinks(wiki, "select id, inLinks from category_inlinks",
+                hibernateIds, count, contiguous, IntUnaryOperator.identity(), parentOffsets);
+        this.childOffsets = new int[count + 1];
+        this.children = LinkTables.loadLinks(wiki, "select id, outLinks from category_outlinks",
+                hibernateIds, count, contiguous, IntUnaryOperator.identity(), childOffsets);
+    }
+
+    /**
+     * Scans all categories in the order of the hibernate ids and adds the specified ones.
+     */
+    private static void selectAllCategories(Wikipedia wiki, Set<Integer> categoryIds, Rows rows)
+    {
+        String hql = "select c.id, c.pageId" + (rows.names != null ? ", c.name" : "")
+                + " from Category c where c.id > :lastId order by c.id";
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        long lastId = 0;
+        List<Object[]> result;
+        do {
+            result = session.createQuery(hql, Object[].class).setParameter("lastId", lastId)
+                    .setMaxResults(CATEGORY_CHUNK_SIZE).setFetchSize(CATEGORY_CHUNK_SIZE).list();
+            for (Object[] row : result) {
+                lastId = (Long) row[0];
+                if (categoryIds.contains((Integer) row[1])) {
+                    rows.add(row);
+                }
+            }
+        }
+        while (result.size() == CATEGORY_CHUNK_SIZE);
+        session.getTransaction().commit();
+    }
+
+    /**
+     * Queries only the specified categories and adds them in the order of the hibernate ids.
+     */
+    private static void selectCategories(Wikipedia wiki, Set<Integer> categoryIds, Rows rows)
+    {
+        String hql = "select c.id, c.pageId" + (rows.names != null ? ", c.name" : "")
+                + " from Category c where c.pageId in (:pageIds)";
+        List<Integer> pageIdList = new ArrayList<>(categoryIds);
+        List<Object[]> result = new ArrayList<>();
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        for (int i = 0; i < pageIdList.size(); i += LinkTables.IN_CHUNK_SIZE) {
+            List<Integer> chunk = pageIdList.subList(i,
+                    Math.min(i + LinkTables.IN_CHUNK_SIZE, pageIdList.size()));
+            result.addAll(session.createQuery(hql, Object[].class)
+                    .setParameterList("pageIds", chunk).list());
+        }
+        session.getTransaction().commit();
+        result.sort(Comparator.comparingLong(row -> (Long) row[0]));
+        for (Object[] row : result) {
+            rows.add(row);
+        }
+    }
+
+    /**
+     * Collects the hibernate id, page id and optionally the name of the loaded categories.
+     */
+    private static final class Rows
+    {
+        private long[] ids = new long[1024];
+        private int[] pageIds = new int[1024];
+        private String[] names;
+        private int count = 0;
+
+        private Rows(boolean withNames)
+        {
+            names = withNames ? new String[1024] : null;
+        }
+
+        private void add(Object[] row)
+        {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                pageIds = Arrays.copyOf(pageIds, count * 2);
+                if (names != null) {
+                    names = Arrays.copyOf(names, count * 2);
+                }
+            }
+            ids[count] = (Long) row[0];
+            pageIds[count] = (Integer) row[1];
+            if (names != null) {
+                names[count] = (String) row[2];
+            }
+            count++;
+        }
+    }
+
+    /**
+     * @return The number of categories.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return The index of the category or {@code -1} if there is no category with this page id.
+     */
+    int indexOf(int pageId)
+    {
+        int i = Arrays.binarySearch(sortedPageIds, pageId);
+        return i >= 0 ? sortedIndexes[i] : -1;
+    }
+
+    int getPageId(int index)
+    {
+        return pageIds[index];
+    }
+
+    /**
+     * @return The name of the category or {@code null} if the names were not loaded.
+     */
+    String getName(int index)
+    {
+        return names != null ? names[index] : null;
+    }
+
+    /**
+     * @return The page ids of the parents of the category.
+     */
+    int[] getParentIDs(int index)
+    {
+        return Arrays.copyOfRange(parents, parentOffsets[index], parentOffsets[index + 1]);
+    }
+
+    /**
+     * @return The page ids of the children of the category.
+     */
+    int[] getChildrenIDs(int index)
+    {
+        return Arrays.copyOfRange(children, childOffsets[index], childOffsets[index + 1]);
+    }
+}
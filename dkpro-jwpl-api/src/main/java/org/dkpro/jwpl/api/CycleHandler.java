@@ -18,12 +18,9 @@
 package org.dkpro.jwpl.api;
 
 import java.lang.invoke.MethodHandles;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
-import org.jgrapht.graph.DefaultEdge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,13 +38,29 @@ public class CycleHandler
     final Wikipedia wiki;
     final CategoryGraph categoryGraph;
 
-    private enum Color
+    /**
+     * Whether the titles of the categories are retrieved for logging the edges of cycles.
+     */
+    private final boolean resolveTitles;
+
+    private static final byte WHITE = 0;
+    private static final byte GREY = 1;
+    private static final byte BLACK = 2;
+
+    /**
+     * Creates a cycle handler object that logs the edges of cycles with the titles of the
+     * categories.
+     *
+     * @param wiki
+     *            The {@link Wikipedia} object to use.
+     * @param categoryGraph
+     *            The category graph in which cycles should be handled.
+     */
+    public CycleHandler(Wikipedia wiki, CategoryGraph categoryGraph)
     {
-        white, grey, black
+        this(wiki, categoryGraph, true);
     }
 
-    private Map<Integer, Color> colorMap;
-
     /**
      * Creates a cycle handler object.
      *
@@ -55,11 +68,16 @@ public class CycleHandler
      *            The {@link Wikipedia} object to use.
      * @param categoryGraph
      *            The category graph in which cycles should be handled.
+     * @param resolveTitles
+     *            If true, the edges of cycles are logged with the titles of the categories, which
+     *            requires a database lookup per category. Otherwise, they are logged with the page
+     *            ids.
      */
-    public CycleHandler(Wikipedia wiki, CategoryGraph categoryGraph)
+    public CycleHandler(Wikipedia wiki, CategoryGraph categoryGraph, boolean resolveTitles)
     {
         this.wiki = wiki;
         this.categoryGraph = categoryGraph;
+        this.resolveTitles = resolveTitles;
     }
 
     /**
@@ -72,12 +90,9 @@ public class CycleHandler
      */
     public boolean containsCycle() throws WikiApiException
     {
-        DefaultEdge edge = findCycle();
-        if (edge != null) {
-            Category sourceCat = wiki.getCategory(categoryGraph.getGraph().getEdgeSource(edge));
-            Category targetCat = wiki.getCategory(categoryGraph.getGraph().getEdgeTarget(edge));
-
-            logger.info("Cycle: {} - {}", sourceCat.getTitle(), targetCat.getTitle());
+        long[] backEdges = findBackEdges(true);
+        if (backEdges.length > 0) {
+            logger.info("Cycle: {}", format(backEdges[0]));
             return true;
         }
         else {
@@ -86,60 +101,105 @@ public class CycleHandler
     }
 
     /**
-     * Removes cycles from the graph that was used to construct the cycle handler.
+     * Removes cycles from the graph that was used to construct the cycle handler. All edges that
+     * close a cycle are found in one DFS and removed afterwards, which leaves an acyclic graph.
      *
      * @throws WikiApiException
      *             Thrown if errors occurred.
      */
     public void removeCycles() throws WikiApiException
     {
-        DefaultEdge edge;
-        while ((edge = findCycle()) != null) {
-            Category sourceCat = wiki.getCategory(categoryGraph.getGraph().getEdgeSource(edge));
-            Category targetCat = wiki.getCategory(categoryGraph.getGraph().getEdgeTarget(edge));
-
-            logger.info("Removing cycle: {} - {}", sourceCat.getTitle(), targetCat.getTitle());
-
-            categoryGraph.getGraph().removeEdge(edge);
+        IntDirectedGraph graph = categoryGraph.getIntDirectedGraph();
+        long[] backEdges = findBackEdges(false);
+        for (long edge : backEdges) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Removing cycle: {}", format(edge));
+            }
+            graph.removeEdge(getSource(edge), getTarget(edge));
         }
+        categoryGraph.edgesRemoved();
+        logger.info("Removed {} edges to break cycles.", backEdges.length);
     }
 
-    private DefaultEdge findCycle()
+    /**
+     * A colored DFS over all nodes. It is iterative, so that deep graphs cannot overflow the call
+     * stack.
+     *
+     * @param onlyFirst
+     *            If true, the search stops at the first edge closing a cycle.
+     * @return The edges to a grey node, i.e. the edges closing a cycle, encoded as (source index,
+     *         target index).
+     */
+    private long[] findBackEdges(boolean onlyFirst)
     {
-        colorMap = new HashMap<>();
-        // initialize all nodes with white
-        for (int node : categoryGraph.getGraph().vertexSet()) {
-            colorMap.put(node, Color.white);
-        }
+        IntDirectedGraph graph = categoryGraph.getIntDirectedGraph();
+        int n = graph.size();
+
+        // all nodes are initialized with white
+        byte[] colors = new byte[n];
 
-        for (int node : categoryGraph.getGraph().vertexSet()) {
-            if (colorMap.get(node).equals(Color.white)) {
-                DefaultEdge e = visit(node);
-                if (e != null) {
-                    return e;
+        // the nodes on the current DFS path and the position of the next child to visit
+        int[] stack = new int[n];
+        int[] positions = new int[n];
+
+        long[] backEdges = new long[16];
+        int count = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (colors[start] != WHITE) {
+                continue;
+            }
+            int depth = 0;
+            stack[0] = start;
+            positions[0] = 0;
+            colors[start] = GREY;
+            while (depth >= 0) {
+                int node = stack[depth];
+                if (positions[depth] < graph.getOutDegree(node)) {
+                    int outNode = graph.getChild(node, positions[depth]++);
+                    if (colors[outNode] == GREY) {
+                        if (count == backEdges.length) {
+                            backEdges = Arrays.copyOf(backEdges, count * 2);
+                        }
+                        backEdges[count++] = ((long) node << 32) | outNode;
+                        if (onlyFirst) {
+                            return Arrays.copyOf(backEdges, count);
+                        }
+                    }
+                    else if (colors[outNode] == WHITE) {
+                        colors[outNode] = GREY;
+                        depth++;
+                        stack[depth] = outNode;
+                        positions[depth] = 0;
+                    }
+                }
+                else {
+                    colors[node] = BLACK;
+                    depth--;
                 }
             }
         }
-        return null;
+        return Arrays.copyOf(backEdges, count);
     }
 
-    private DefaultEdge visit(int node)
+    private String format(long edge) throws WikiApiException
     {
-        colorMap.put(node, Color.grey);
-        Set<DefaultEdge> outgoingEdges = categoryGraph.getGraph().outgoingEdgesOf(node);
-        for (DefaultEdge edge : outgoingEdges) {
-            int outNode = categoryGraph.getGraph().getEdgeTarget(edge);
-            if (colorMap.get(outNode).equals(Color.grey)) {
-                return edge;
-            }
-            else if (colorMap.get(outNode).equals(Color.white)) {
-                DefaultEdge e = visit(outNode);
-                if (e != null) {
-                    return e;
-                }
-            }
+        IntDirectedGraph graph = categoryGraph.getIntDirectedGraph();
+        int source = graph.getPageId(getSource(edge));
+        int target = graph.getPageId(getTarget(edge));
+        if (resolveTitles) {
+            return wiki.getCategory(source).getTitle() + " - " + wiki.getCategory(target).getTitle();
         }
-        colorMap.put(node, Color.black);
-        return null;
+        return source + " - " + target;
+    }
+
+    private static int getSource(long edge)
+    {
+        return (int) (edge >>> 32);
+    }
+
+    private static int getTarget(long edge)
+    {
+        return (int) edge;
     }
 }
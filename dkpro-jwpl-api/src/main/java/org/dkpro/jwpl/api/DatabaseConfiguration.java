@@ -24,6 +24,11 @@ package org.dkpro.jwpl.api;
 public class DatabaseConfiguration
 {
 
+    /**
+     * The default maximum number of pooled database connections.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 10;
+
     private String host;
     private String database;
     private String user;
@@ -31,6 +36,8 @@ public class DatabaseConfiguration
     private WikiConstants.Language language;
     private String jdbcURL;
     private String databaseDriver;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private long connectionTimeout = 30_000;
 
     /**
      * A no-arg constructor required by frameworks.
@@ -228,4 +235,44 @@ public class DatabaseConfiguration
         return jdbcURL;
     }
 
+    /**
+     * @param maxConnections
+     *            The maximum number of connections in the pool that is shared by all threads
+     *            using a {@link Wikipedia} with this configuration. Threads that need a connection
+     *            while all connections are in use wait for one to be returned.
+     */
+    public void setMaxConnections(int maxConnections)
+    {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be at least 1");
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return The maximum number of pooled database connections.
+     */
+    public int getMaxConnections()
+    {
+        return maxConnections;
+    }
+
+    /**
+     * @param connectionTimeout
+     *            The maximum number of milliseconds a thread waits for a pooled connection before
+     *            the request fails.
+     */
+    public void setConnectionTimeout(long connectionTimeout)
+    {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    /**
+     * @return The maximum number of milliseconds a thread waits for a pooled connection.
+     */
+    public long getConnectionTimeout()
+    {
+        return connectionTimeout;
+    }
+
 }
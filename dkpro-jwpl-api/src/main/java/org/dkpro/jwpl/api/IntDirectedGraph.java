@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * A directed graph over page ids that is stored in primitive arrays.
+ * <p>
+ * The nodes are numbered densely in the order of their page ids. The children and the parents of
+ * each node are stored as sorted rows of node indexes in compressed sparse row arrays, so the
+ * graph needs a few bytes per node and edge instead of the boxed vertices, edge objects and edge
+ * sets of a {@link DefaultDirectedGraph}. Edges can be removed, but not added.
+ */
+final class IntDirectedGraph
+    implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The page ids of the nodes in ascending order. The position of a page id is its node index.
+     */
+    private final int[] nodes;
+
+    private final int[] childOffsets;
+    private final int[] childCounts;
+    private final int[] children;
+
+    private final int[] parentOffsets;
+    private final int[] parentCounts;
+    private final int[] parents;
+
+    private int numberOfEdges;
+
+    /**
+     * Creates a graph from the rows of children of its nodes.
+     *
+     * @param nodes
+     *            The page ids of the nodes in ascending order.
+     * @param childCounts
+     *            The number of children of each node.
+     * @param children
+     *            The indexes of the children of all nodes, one sorted row after the other.
+     */
+    IntDirectedGraph(int[] nodes, int[] childCounts, int[] children)
+    {
+        this.nodes = nodes;
+        this.childCounts = childCounts;
+        this.children = children;
+        this.numberOfEdges = children.length;
+
+        int n = nodes.length;
+        childOffsets = new int[n + 1];
+        parentOffsets = new int[n + 1];
+        parentCounts = new int[n];
+        parents = new int[children.length];
+
+        for (int child : children) {
+            parentCounts[child]++;
+        }
+        for (int i = 0; i < n; i++) {
+            childOffsets[i + 1] = childOffsets[i] + childCounts[i];
+            parentOffsets[i + 1] = parentOffsets[i] + parentCounts[i];
+        }
+
+        // the rows are filled by ascending source, so the parents of each node are sorted
+        int[] fill = Arrays.copyOf(parentOffsets, n);
+        for (int source = 0; source < n; source++) {
+            for (int i = childOffsets[source]; i < childOffsets[source] + childCounts[source]; i++) {
+                parents[fill[children[i]]++] = source;
+            }
+        }
+    }
+
+    /**
+     * Creates a graph from the given nodes and edges. Duplicate edges, self-loops and edges with
+     * an end that is not one of the nodes are ignored.
+     *
+     * @param pageIds
+     *            The page ids of the nodes.
+     * @param sources
+     *            The page ids of the sources of the edges.
+     * @param targets
+     *            The page ids of the targets of the edges.
+     * @param edgeCount
+     *            The number of edges in {@code sources} and {@code targets}.
+     */
+    static IntDirectedGraph fromEdges(int[] pageIds, int[] sources, int[] targets, int edgeCount)
+    {
+        int[] nodes = Arrays.stream(pageIds).sorted().distinct().toArray();
+
+        // encode each edge as (source index, target index) to sort and deduplicate them
+        long[] edges = new long[edgeCount];
+        int count = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            int source = Arrays.binarySearch(nodes, sources[i]);
+            int target = Arrays.binarySearch(nodes, targets[i]);
+            if (source >= 0 && target >= 0 && source != target) {
+                edges[count++] = ((long) source << 32) | target;
+            }
+        }
+        Arrays.parallelSort(edges, 0, count);
+
+        int[] childCounts = new int[nodes.length];
+        int[] children = new int[count];
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && edges[i] == edges[i - 1]) {
+                continue;
+            }
+            childCounts[(int) (edges[i] >>> 32)]++;
+            children[unique++] = (int) edges[i];
+        }
+        return new IntDirectedGraph(nodes, childCounts, Arrays.copyOf(children, unique));
+    }
+
+    /**
+     * Creates a graph with the vertices and edges of a JGraphT graph.
+     *
+     * @param graph
+     *            The graph to copy.
+     */
+    static IntDirectedGraph of(DefaultDirectedGraph<Integer, DefaultEdge> graph)
+    {
+        int[] pageIds = graph.vertexSet().stream().mapToInt(Integer::intValue).toArray();
+        int edgeCount = graph.edgeSet().size();
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        int i = 0;
+        for (DefaultEdge edge : graph.edgeSet()) {
+            sources[i] = graph.getEdgeSource(edge);
+            targets[i] = graph.getEdgeTarget(edge);
+            i++;
+        }
+        return fromEdges(pageIds, sources, targets, edgeCount);
+    }
+
+    /**
+     * @return A new JGraphT graph with the same vertices and edges.
+     */
+    DefaultDirectedGraph<Integer, DefaultEdge> toJGraphT()
+    {
+        DefaultDirectedGraph<Integer, DefaultEdge> graph = new DefaultDirectedGraph<>(
+                DefaultEdge.class);
+        for (int node : nodes) {
+            graph.addVertex(node);
+        }
+        for (int source = 0; source < nodes.length; source++) {
+            for (int i = childOffsets[source]; i < childOffsets[source] + childCounts[source]; i++) {
+                graph.addEdge(nodes[source], nodes[children[i]]);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * @return The number of nodes.
+     */
+    int size()
+    {
+        return nodes.length;
+    }
+
+    /**
+     * @return The number of edges.
+     */
+    int getNumberOfEdges()
+    {
+        return numberOfEdges;
+    }
+
+    /**
+     * @return The index of the node with the given page id or {@code -1} if it is not part of the
+     *         graph.
+     */
+    int indexOf(int pageId)
+    {
+        int index = Arrays.binarySearch(nodes, pageId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @return The page id of the node with the given index.
+     */
+    int getPageId(int index)
+    {
+        return nodes[index];
+    }
+
+    int getOutDegree(int index)
+    {
+        return childCounts[index];
+    }
+
+    int getInDegree(int index)
+    {
+        return parentCounts[index];
+    }
+
+    /**
+     * @return The indexes of the children of a node, in ascending order.
+     */
+    int[] getChildren(int index)
+    {
+        return Arrays.copyOfRange(children, childOffsets[index],
+                childOffsets[index] + childCounts[index]);
+    }
+
+    /**
+     * @return The indexes of the parents of a node, in ascending order.
+     */
+    int[] getParents(int index)
+    {
+        return Arrays.copyOfRange(parents, parentOffsets[index],
+                parentOffsets[index] + parentCounts[index]);
+    }
+
+    /**
+     * @return The index of the i-th child of a node.
+     */
+    int getChild(int index, int i)
+    {
+        return children[childOffsets[index] + i];
+    }
+
+    /**
+     * @return The index of the i-th parent of a node.
+     */
+    int getParent(int index, int i)
+    {
+        return parents[parentOffsets[index] + i];
+    }
+
+    /**
+     * @return True, if there is an edge from the source to the target node.
+     */
+    boolean containsEdge(int source, int target)
+    {
+        return Arrays.binarySearch(children, childOffsets[source],
+                childOffsets[source] + childCounts[source], target) >= 0;
+    }
+
+    /**
+     * Removes the edge from the source to the target node, if it exists.
+     *
+     * @return True, if the edge was removed.
+     */
+    boolean removeEdge(int source, int target)
+    {
+        if (!removeFromRow(children, childOffsets[source], childCounts[source], target)) {
+            return false;
+        }
+        childCounts[source]--;
+        removeFromRow(parents, parentOffsets[target], parentCounts[target], source);
+        parentCounts[target]--;
+        numberOfEdges--;
+        return true;
+    }
+
+    private static boolean removeFromRow(int[] row, int offset, int count, int value)
+    {
+        int i = Arrays.binarySearch(row, offset, offset + count, value);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(row, i + 1, row, i, offset + count - i - 1);
+        return true;
+    }
+
+    /**
+     * Creates a read-only map view from the page ids of the nodes to the given values.
+     *
+     * @param values
+     *            One value for each node index.
+     * @return A map that is backed by the values array.
+     */
+    Map<Integer, Integer> asMap(int[] values)
+    {
+        return new AbstractMap<>()
+        {
+            @Override
+            public Integer get(Object key)
+            {
+                int index = key instanceof Integer ? indexOf((Integer) key) : -1;
+                return index >= 0 ? values[index] : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key)
+            {
+                return key instanceof Integer && indexOf((Integer) key) >= 0;
+            }
+
+            @Override
+            public int size()
+            {
+                return nodes.length;
+            }
+
+            @Override
+            public Set<Entry<Integer, Integer>> entrySet()
+            {
+                return new AbstractSet<>()
+                {
+                    @Override
+                    public Iterator<Entry<Integer, Integer>> iterator()
+                    {
+                        return new Iterator<>()
+                        {
+                            private int index = 0;
+
+                            @Override
+                            public boolean hasNext()
+                            {
+                                return index < nodes.length;
+                            }
+
+                            @Override
+                            public Entry<Integer, Integer> next()
+                            {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                Entry<Integer, Integer> entry = new SimpleImmutableEntry<>(
+                                        nodes[index], values[index]);
+                                index++;
+                                return entry;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size()
+                    {
+                        return nodes.length;
+                    }
+                };
+            }
+        };
+    }
+}
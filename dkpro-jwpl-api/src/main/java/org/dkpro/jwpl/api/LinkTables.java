@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Bulk loading of the link tables ({@code page_outlinks}, {@code category_inlinks}, ...) into
+ * compressed sparse row arrays, shared by {@link PageGraph} and {@link CategoryLinks}.
+ */
+final class LinkTables
+{
+
+    /**
+     * The number of rows whose links are fetched with one query if all rows are loaded.
+     */
+    private static final int RANGE_CHUNK_SIZE = 10_000;
+
+    /**
+     * The number of rows whose links are fetched with one query if only some rows are loaded.
+     */
+    static final int IN_CHUNK_SIZE = 1_000;
+
+    private LinkTables()
+    {
+        // utility class
+    }
+
+    /**
+     * Sorts the page ids and remembers the index of each of them, for looking up the index of a
+     * page with a binary search.
+     *
+     * @param pageIds
+     *            The page id of each index.
+     * @param count
+     *            The number of indexes.
+     * @param sortedPageIds
+     *            Receives the page ids in ascending order.
+     * @param sortedIndexes
+     *            Receives the index of each sorted page id.
+     */
+    static void sortByPageId(int[] pageIds, int count, int[] sortedPageIds, int[] sortedIndexes)
+    {
+        long[] pairs = new long[count];
+        for (int i = 0; i < count; i++) {
+            pairs[i] = ((long) pageIds[i] << 32) | i;
+        }
+        Arrays.parallelSort(pairs);
+        for (int i = 0; i < count; i++) {
+            sortedPageIds[i] = (int) (pairs[i] >> 32);
+            sortedIndexes[i] = (int) pairs[i];
+        }
+    }
+
+    /**
+     * Streams a link table in the order of the hibernate ids into a compressed sparse row array.
+     *
+     * @param wiki
+     *            The wikipedia object.
+     * @param select
+     *            The select clause of the query, returning the hibernate id and the linked page id
+     *            of each row, e.g. {@code select id, outLinks from page_outlinks}.
+     * @param hibernateIds
+     *            The hibernate ids of the rows in ascending order.
+     * @param count
+     *            The number of rows.
+     * @param allRows
+     *            Whether the hibernate ids are all rows of the table. Then the links are fetched in
+     *            id ranges, otherwise only the links of the given ids are fetched.
+     * @param target
+     *            Maps a linked page id to the value that is stored or to {@code -1} if the link is
+     *            skipped.
+     * @param offsets
+     *            An array of {@code count + 1} zeros that receives the offsets of the links of each
+     *            row.
+     * @return The links, delimited by the offsets.
+     */
+    static int[] loadLinks(Wikipedia wiki, String select, long[] hibernateIds, int count,
+            boolean allRows, IntUnaryOperator target, int[] offsets)
+    {
+        String sql = select + (allRows ? " where id >= :first and id <= :last"
+                : " where id in (:ids)") + " order by id";
+        int chunkSize = allRows ? RANGE_CHUNK_SIZE : IN_CHUNK_SIZE;
+        int[] links = new int[1024];
+        int linkCount = 0;
+        for (int chunkStart = 0; chunkStart < count; chunkStart += chunkSize) {
+            int chunkEnd = Math.min(chunkStart + chunkSize, count);
+            Session session = wiki.__getHibernateSession();
+            session.beginTransaction();
+            NativeQuery<Object[]> query = session.createNativeQuery(sql, Object[].class);
+            if (allRows) {
+                query.setParameter("first", hibernateIds[chunkStart], StandardBasicTypes.LONG)
+                        .setParameter("last", hibernateIds[chunkEnd - 1], StandardBasicTypes.LONG);
+            }
+            else {
+                List<Long> ids = new ArrayList<>(chunkEnd - chunkStart);
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    ids.add(hibernateIds[i]);
+                }
+                query.setParameterList("ids", ids, StandardBasicTypes.LONG);
+            }
+            List<Object[]> rows = query.list();
+            session.getTransaction().commit();
+
+            int index = chunkStart;
+            for (Object[] row : rows) {
+                long id = ((Number) row[0]).longValue();
+                while (index < chunkEnd - 1 && hibernateIds[index] < id) {
+                    index++;
+                }
+                if (row[1] == null) {
+                    continue;
+                }
+                int link = target.applyAsInt(((Number) row[1]).intValue());
+                if (link < 0) {
+                    continue;
+                }
+                if (linkCount == links.length) {
+                    links = Arrays.copyOf(links, linkCount * 2);
+                }
+                links[linkCount++] = link;
+                offsets[index + 1]++;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return Arrays.copyOf(links, linkCount);
+    }
+}
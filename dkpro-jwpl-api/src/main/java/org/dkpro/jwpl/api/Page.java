@@ -18,6 +18,7 @@
 package org.dkpro.jwpl.api;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
@@ -57,6 +58,12 @@ public class Page
     // The indirection is necessary to shield the user from Hibernate sessions.
     private org.dkpro.jwpl.api.hibernate.Page hibernatePage;
 
+    // The text is only loaded when it is accessed, as it is by far the largest part of a page.
+    private String text;
+
+    // Loads the texts of all pages that were fetched together with this one, if any.
+    private PageTextBatch textBatch;
+
     // If we search for a redirect, the corresponding page is delivered transparently.
     // In that case, isRedirect is set to true, to indicate that.
     // Note: The page itself is _not_ a redirect, it is just a page.
@@ -152,6 +159,26 @@ public class Page
         this.hibernatePage = hibernatePage;
     }
 
+    /**
+     * Creates a Page object from an already retrieved hibernate Page, whose text is loaded
+     * together with the texts of the other pages of a batch.
+     *
+     * @param wiki
+     *            The wikipedia object.
+     * @param hibernatePage
+     *            The {@code api.hibernate.Page} that has already been retrieved
+     * @param textBatch
+     *            The batch that loads the text of the page or {@code null} if the text is loaded
+     *            on its own.
+     */
+    Page(Wikipedia wiki, org.dkpro.jwpl.api.hibernate.Page hibernatePage, PageTextBatch textBatch)
+    {
+        this.wiki = wiki;
+        this.pageDAO = new PageDAO(wiki);
+        this.hibernatePage = hibernatePage;
+        this.textBatch = textBatch;
+    }
+
     /**
      * @throws WikiApiException
      *             Thrown if errors occurred.
@@ -285,12 +312,7 @@ public class Page
         Set<Integer> tmp = new UnmodifiableArraySet<>(hibernatePage.getCategories());
         session.getTransaction().commit();
 
-        Set<Category> categories = new HashSet<>();
-        for (int pageID : tmp) {
-            categories.add(wiki.getCategory(pageID));
-        }
-
-        return categories;
+        return wiki.getCategoriesByIds(tmp);
     }
 
     /**
@@ -331,22 +353,13 @@ public class Page
         Session session = wiki.__getHibernateSession();
         session.beginTransaction();
         session.lock(hibernatePage, LockOptions.NONE);
-        // Have to copy links here since getPage later will close the session.
+        // Have to copy links here since getPages later will close the session.
         Set<Integer> pageIDs = new UnmodifiableArraySet<>(hibernatePage.getInLinks());
         session.getTransaction().commit();
 
-        Set<Page> pages = new HashSet<>();
-        for (int pageID : pageIDs) {
-            try {
-                pages.add(wiki.getPage(pageID));
-            }
-            catch (WikiApiException e) {
-                // Silently ignore if a page could not be found
-                // There may be inlinks that do not come from an existing page.
-            }
-        }
-
-        return pages;
+        // Pages that could not be found are silently ignored.
+        // There may be inlinks that do not come from an existing page.
+        return wiki.getPagesByIds(pageIDs);
     }
 
     /**
@@ -405,21 +418,13 @@ public class Page
         session.beginTransaction();
         // session.lock(hibernatePage, LockMode.NONE);
         session.lock(hibernatePage, LockOptions.NONE);
-        // Have to copy links here since getPage later will close the session.
+        // Have to copy links here since getPages later will close the session.
         Set<Integer> tmpSet = new UnmodifiableArraySet<>(hibernatePage.getOutLinks());
         session.getTransaction().commit();
 
-        Set<Page> pages = new HashSet<>();
-        for (int pageID : tmpSet) {
-            try {
-                pages.add(wiki.getPage(pageID));
-            }
-            catch (WikiApiException e) {
-                // Silently ignore if a page could not be found.
-                // There may be outlinks pointing to non-existing pages.
-            }
-        }
-        return pages;
+        // Pages that could not be found are silently ignored.
+        // There may be outlinks pointing to non-existing pages.
+        return wiki.getPagesByIds(tmpSet);
     }
 
     /**
@@ -497,10 +502,7 @@ public class Page
      */
     public String getText()
     {
-        Session session = wiki.__getHibernateSession();
-        session.beginTransaction();
-        String text = hibernatePage.getText();
-        session.getTransaction().commit();
+        String text = fetchText();
 
         // Normalize strings read from the DB to use "\n" for all line breaks.
         StringBuilder sb = new StringBuilder(text);
@@ -536,6 +538,22 @@ public class Page
         return sb.toString();
     }
 
+    private synchronized String fetchText()
+    {
+        if (text == null && textBatch != null) {
+            text = textBatch.getText(hibernatePage.getId());
+            textBatch = null;
+        }
+        if (text == null) {
+            Session session = wiki.__getHibernateSession();
+            session.beginTransaction();
+            text = session.createQuery("select t.text from PageText t where t.id = :id",
+                    String.class).setParameter("id", hibernatePage.getId()).uniqueResult();
+            session.getTransaction().commit();
+        }
+        return text;
+    }
+
     /**
      * @return {@code True}, if the page is a disambiguation page, {@code false} otherwise.
      */
@@ -577,6 +595,11 @@ public class Page
      * </p>
      *
      * <p>
+     * If {@link Wikipedia#setPlainTextCacheSize(int)} enabled the cache, the plain text of a page
+     * is only parsed once while it stays in the cache.
+     * </p>
+     *
+     * <p>
      * Alternatively, use {@link Page#getText()} to return the Wikipedia article with all Wiki
      * markup. You can then use the old JWPL MediaWiki parser for creating a plain text version. The
      * JWPL parser is now located in a separate project {@code org.dkpro.jwpl.api.parser}. Please
@@ -589,9 +612,68 @@ public class Page
      */
     public String getPlainText() throws WikiApiException
     {
-        // Configure the PlainTextConverter for plain text parsing
-        return (String) parsePage(
-                new PlainTextConverter(this.wiki.getWikConfig(), false, Integer.MAX_VALUE));
+        int pageId = getPageId();
+        String plainText = wiki.getCachedPlainText(pageId);
+        if (plainText == null && wiki.hasMaterializedPlainTexts()) {
+            plainText = PlainTextTable.findPlainText(wiki, pageId);
+        }
+        if (plainText == null) {
+            // Configure the PlainTextConverter for plain text parsing
+            plainText = (String) parsePage(
+                    new PlainTextConverter(this.wiki.getWikConfig(), false, Integer.MAX_VALUE));
+            wiki.cachePlainText(pageId, plainText);
+        }
+        return plainText;
+    }
+
+    /**
+     * Returns the number of tokens of the plain text of the page, i.e. the number of its parts
+     * separated by spaces, as used by {@link PageQuery#setMinTokens(int)}. If the plain texts were
+     * materialized by a {@link PlainTextMaterializer}, the stored number is returned.
+     *
+     * @return The number of tokens of the page.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
+     */
+    public int getNumberOfTokens() throws WikiApiException
+    {
+        if (wiki.hasMaterializedPlainTexts()) {
+            Integer tokens = PlainTextTable.findTokens(wiki, getPageId());
+            if (tokens != null) {
+                return tokens;
+            }
+        }
+        return countTokens(getPlainText());
+    }
+
+    /**
+     * Returns the offsets of the section headings in the plain text of the page. If the plain
+     * texts were materialized by a {@link PlainTextMaterializer}, the stored offsets are returned.
+     *
+     * @return The offsets of the section headings in {@link #getPlainText()}, in ascending order.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
+     */
+    public List<Integer> getSectionOffsets() throws WikiApiException
+    {
+        if (wiki.hasMaterializedPlainTexts()) {
+            List<Integer> offsets = PlainTextTable.findSectionOffsets(wiki, getPageId());
+            if (offsets != null) {
+                return offsets;
+            }
+        }
+        PlainTextConverter converter = new PlainTextConverter(this.wiki.getWikConfig(), false,
+                Integer.MAX_VALUE);
+        parsePage(converter);
+        return converter.getSectionOffsets();
+    }
+
+    /**
+     * @return The number of the parts of the plain text that are separated by spaces.
+     */
+    static int countTokens(String plainText)
+    {
+        return plainText.split(" ").length;
     }
 
     /**
@@ -606,7 +688,7 @@ public class Page
      * @throws WikiApiException
      *             Thrown if errors occurred.
      */
-    private Object parsePage(AstVisitor v) throws WikiApiException
+    Object parsePage(AstVisitor v) throws WikiApiException
     {
         // Use the provided visitor to parse the page
         return v.go(getCompiledPage().getPage());
@@ -622,9 +704,9 @@ public class Page
     private EngProcessedPage getCompiledPage() throws WikiApiException
     {
         EngProcessedPage cp;
+        // the engines are pooled, as they are expensive to create
+        WtEngineImpl engine = this.wiki.borrowEngine();
         try {
-            WtEngineImpl engine = new WtEngineImpl(this.wiki.getWikConfig());
-
             PageTitle pageTitle = PageTitle.make(this.wiki.getWikConfig(),
                     this.getTitle().toString());
             PageId pageId = new PageId(pageTitle, -1);
@@ -635,6 +717,9 @@ public class Page
         catch (Exception e) {
             throw new WikiApiException(e);
         }
+        finally {
+            this.wiki.returnEngine(engine);
+        }
         return cp;
     }
 
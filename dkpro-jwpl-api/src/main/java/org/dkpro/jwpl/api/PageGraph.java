@@ -0,0 +1,535 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.dkpro.jwpl.api.util.OS;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The page graph is constructed from the links connecting Wikipedia pages. Unlike
+ * {@link CategoryGraph}, it does not build a JGraphT object graph, but keeps the links in
+ * primitive compressed sparse row (CSR) arrays: for each node, the targets of its outlinks and the
+ * sources of its inlinks are stored consecutively in one {@code int} array, delimited by an array
+ * of offsets. This allows holding and traversing the link graph of a large Wikipedia.
+ * <p>
+ * The graph is loaded from the {@code page_outlinks} table in a few sequential queries. Links to
+ * pages that do not exist are dropped, the inlinks are the transposed outlinks. Once built, the
+ * graph can be saved with {@link #saveGraph(String)} and loaded again with
+ * {@link #PageGraph(File)}, which maps the file into memory instead of reading it.
+ * <p>
+ * Internally, pages are represented by nodes numbered from {@code 0} to
+ * {@link #getNumberOfNodes()}{@code  - 1}. Methods returning a value for each node, like
+ * {@link #getPageRank(double, int, double)}, use this numbering; {@link #getPageIds()} returns the
+ * page id of each node.
+ */
+public class PageGraph
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * Identifies files written by {@link #saveGraph(String)}.
+     */
+    private static final int MAGIC = 0x4A57504C;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    /**
+     * The number of pages fetched with one query when loading the nodes.
+     */
+    private static final int NODE_CHUNK_SIZE = 100_000;
+
+    private final int numberOfNodes;
+    private final int numberOfEdges;
+
+    /**
+     * The page id of each node.
+     */
+    private final IntBuffer pageIds;
+
+    /**
+     * The page ids in ascending order and their nodes, for looking up the node of a page.
+     */
+    private final IntBuffer sortedPageIds;
+    private final IntBuffer sortedNodes;
+
+    /**
+     * The outlinks of node {@code n} are {@code outTargets[outOffsets[n]]} to
+     * {@code outTargets[outOffsets[n + 1] - 1]}.
+     */
+    private final IntBuffer outOffsets;
+    private final IntBuffer outTargets;
+
+    /**
+     * The inlinks of node {@code n} are {@code inSources[inOffsets[n]]} to
+     * {@code inSources[inOffsets[n + 1] - 1]}.
+     */
+    private final IntBuffer inOffsets;
+    private final IntBuffer inSources;
+
+    /**
+     * Creates a {@link PageGraph} from all pages and links of the given Wikipedia.
+     *
+     * @param pWiki
+     *            A {@link Wikipedia} object.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
+     */
+    public PageGraph(Wikipedia pWiki) throws WikiApiException
+    {
+        // nodes are numbered in the order of the hibernate ids, so that the links can be streamed
+        // in the same order directly into the CSR arrays
+        long[] hibernateIds = new long[1024];
+        int[] nodePageIds = new int[1024];
+        int nodes = 0;
+
+        Session session = pWiki.__getHibernateSession();
+        session.beginTransaction();
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            rows = session
+                    .createQuery("select p.id, p.pageId from Page p where p.id > :lastId "
+                            + "order by p.id", Object[].class)
+                    .setParameter("lastId", lastId).setMaxResults(NODE_CHUNK_SIZE)
+                    .setFetchSize(NODE_CHUNK_SIZE).list();
+            for (Object[] row : rows) {
+                if (nodes == hibernateIds.length) {
+                    hibernateIds = Arrays.copyOf(hibernateIds, nodes * 2);
+                    nodePageIds = Arrays.copyOf(nodePageIds, nodes * 2);
+                }
+                lastId = (Long) row[0];
+                hibernateIds[nodes] = lastId;
+                nodePageIds[nodes] = (Integer) row[1];
+                nodes++;
+            }
+        }
+        while (rows.size() == NODE_CHUNK_SIZE);
+        session.getTransaction().commit();
+
+        this.numberOfNodes = nodes;
+        int[] sorted = new int[nodes];
+        int[] sortedNodeArray = new int[nodes];
+        LinkTables.sortByPageId(nodePageIds, nodes, sorted, sortedNodeArray);
+        this.pageIds = IntBuffer.wrap(Arrays.copyOf(nodePageIds, nodes));
+        this.sortedPageIds = IntBuffer.wrap(sorted);
+        this.sortedNodes = IntBuffer.wrap(sortedNodeArray);
+        logger.info("Loaded {} pages, {} MB memory used.", nodes, OS.getUsedMemory());
+
+        int[] offsets = new int[nodes + 1];
+        // links to pages that do not exist are skipped
+        int[] targets = LinkTables.loadLinks(pWiki, "select id, outLinks from page_outlinks",
+                hibernateIds, nodes, true, this::nodeOf, offsets);
+        int edges = targets.length;
+        this.numberOfEdges = edges;
+        this.outOffsets = IntBuffer.wrap(offsets);
+        this.outTargets = IntBuffer.wrap(targets);
+
+        // the inlinks are the transposed outlinks
+        int[] inOffsetArray = new int[nodes + 1];
+        for (int i = 0; i < edges; i++) {
+            inOffsetArray[outTargets.get(i) + 1]++;
+        }
+        for (int node = 0; node < nodes; node++) {
+            inOffsetArray[node + 1] += inOffsetArray[node];
+        }
+        int[] inSourceArray = new int[edges];
+        int[] position = Arrays.copyOf(inOffsetArray, nodes);
+        for (int node = 0; node < nodes; node++) {
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                inSourceArray[position[outTargets.get(i)]++] = node;
+            }
+        }
+        this.inOffsets = IntBuffer.wrap(inOffsetArray);
+        this.inSources = IntBuffer.wrap(inSourceArray);
+        logger.info("Loaded {} links, {} MB memory used.", edges, OS.getUsedMemory());
+    }
+
+    /**
+     * Creates a {@link PageGraph} from a file written by {@link #saveGraph(String)}. The file is
+     * mapped into memory, so the operating system loads the parts of the graph that are actually
+     * used.
+     *
+     * @param location
+     *            The location of the saved graph.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
+     */
+    public PageGraph(File location) throws WikiApiException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(location, "r");
+                FileChannel channel = file.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new WikiApiException(location + " is not a saved page graph.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new WikiApiException("Unsupported page graph version " + version);
+            }
+            this.numberOfNodes = header.getInt();
+            this.numberOfEdges = header.getInt();
+
+            long position = HEADER_SIZE;
+            this.pageIds = map(channel, position, numberOfNodes);
+            position += (long) numberOfNodes * Integer.BYTES;
+            this.sortedPageIds = map(channel, position, numberOfNodes);
+            position += (long) numberOfNodes * Integer.BYTES;
+            this.sortedNodes = map(channel, position, numberOfNodes);
+            position += (long) numberOfNodes * Integer.BYTES;
+            this.outOffsets = map(channel, position, numberOfNodes + 1);
+            position += (long) (numberOfNodes + 1) * Integer.BYTES;
+            this.outTargets = map(channel, position, numberOfEdges);
+            position += (long) numberOfEdges * Integer.BYTES;
+            this.inOffsets = map(channel, position, numberOfNodes + 1);
+            position += (long) (numberOfNodes + 1) * Integer.BYTES;
+            this.inSources = map(channel, position, numberOfEdges);
+        }
+        catch (IOException e) {
+            throw new WikiApiException(e);
+        }
+    }
+
+    private static IntBuffer map(FileChannel channel, long position, int length)
+        throws IOException
+    {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, (long) length * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * @return The node of the page or {@code -1} if the page is not part of the graph.
+     */
+    private int nodeOf(int pageId)
+    {
+        int low = 0;
+        int high = numberOfNodes - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = sortedPageIds.get(middle);
+            if (value < pageId) {
+                low = middle + 1;
+            }
+            else if (value > pageId) {
+                high = middle - 1;
+            }
+            else {
+                return sortedNodes.get(middle);
+            }
+        }
+        return -1;
+    }
+
+    private int requireNode(int pageId)
+    {
+        int node = nodeOf(pageId);
+        if (node < 0) {
+            throw new IllegalArgumentException(pageId + " is not a page of the page graph");
+        }
+        return node;
+    }
+
+    /**
+     * Writes the graph to a file that can be loaded with {@link #PageGraph(File)}.
+     *
+     * @param destination
+     *            The destination where the graph will be saved.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
+     */
+    public void saveGraph(String destination) throws WikiApiException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(destination, "rw");
+                FileChannel channel = file.getChannel()) {
+            file.setLength(0);
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(numberOfNodes).putInt(numberOfEdges);
+            for (IntBuffer array : new IntBuffer[] { pageIds, sortedPageIds, sortedNodes,
+                    outOffsets, outTargets, inOffsets, inSources }) {
+                for (int i = 0; i < array.limit(); i++) {
+                    if (!buffer.hasRemaining()) {
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        buffer.clear();
+                    }
+                    buffer.putInt(array.get(i));
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch (IOException e) {
+            throw new WikiApiException(e);
+        }
+    }
+
+    /**
+     * @return The number of nodes (pages) in the graph.
+     */
+    public int getNumberOfNodes()
+    {
+        return numberOfNodes;
+    }
+
+    /**
+     * @return The number of edges (links between existing pages) in the graph.
+     */
+    public int getNumberOfEdges()
+    {
+        return numberOfEdges;
+    }
+
+    /**
+     * @return The page id of each node of the graph.
+     */
+    public int[] getPageIds()
+    {
+        int[] result = new int[numberOfNodes];
+        pageIds.get(0, result);
+        return result;
+    }
+
+    /**
+     * @param pageId
+     *            The id of a page.
+     * @return {@code True}, if the page is a node of the graph.
+     */
+    public boolean containsPage(int pageId)
+    {
+        return nodeOf(pageId) >= 0;
+    }
+
+    /**
+     * @param pageId
+     *            The id of a page of the graph.
+     * @return The number of links from this page to other pages.
+     */
+    public int getOutdegree(int pageId)
+    {
+        int node = requireNode(pageId);
+        return outOffsets.get(node + 1) - outOffsets.get(node);
+    }
+
+    /**
+     * @param pageId
+     *            The id of a page of the graph.
+     * @return The number of links from other pages to this page.
+     */
+    public int getIndegree(int pageId)
+    {
+        int node = requireNode(pageId);
+        return inOffsets.get(node + 1) - inOffsets.get(node);
+    }
+
+    /**
+     * @param pageId
+     *            The id of a page of the graph.
+     * @return The ids of the pages this page links to.
+     */
+    public int[] getOutlinkIDs(int pageId)
+    {
+        return toPageIds(outOffsets, outTargets, requireNode(pageId));
+    }
+
+    /**
+     * @param pageId
+     *            The id of a page of the graph.
+     * @return The ids of the pages linking to this page.
+     */
+    public int[] getInlinkIDs(int pageId)
+    {
+        return toPageIds(inOffsets, inSources, requireNode(pageId));
+    }
+
+    private int[] toPageIds(IntBuffer offsets, IntBuffer adjacent, int node)
+    {
+        int start = offsets.get(node);
+        int[] result = new int[offsets.get(node + 1) - start];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = pageIds.get(adjacent.get(start + i));
+        }
+        return result;
+    }
+
+    /**
+     * Computes the length of the shortest directed path between two pages with a breadth-first
+     * search along the outlinks.
+     *
+     * @param fromPageId
+     *            The id of the page where the path starts.
+     * @param toPageId
+     *            The id of the page where the path ends.
+     * @return The number of links on the shortest path or {@code -1} if there is no path.
+     */
+    public int getShortestPathLength(int fromPageId, int toPageId)
+    {
+        int from = requireNode(fromPageId);
+        int to = requireNode(toPageId);
+        if (from == to) {
+            return 0;
+        }
+
+        int[] distance = new int[numberOfNodes];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[numberOfNodes];
+        int head = 0;
+        int tail = 0;
+        distance[from] = 0;
+        queue[tail++] = from;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = outOffsets.get(node); i < outOffsets.get(node + 1); i++) {
+                int next = outTargets.get(i);
+                if (distance[next] < 0) {
+                    distance[next] = distance[node] + 1;
+                    if (next == to) {
+                        return distance[next];
+                    }
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the pages that can be reached from a page with at most {@code maxDistance} links.
+     *
+     * @param pageId
+     *            The id of a page of the graph.
+     * @param maxDistance
+     *            The maximum number of links between the page and its neighbours.
+     * @param undirected
+     *            {@code True}, if inlinks are followed as well as outlinks.
+     * @return The ids of the neighbour pages, ordered by their distance from the page. The page
+     *         itself is not included.
+     */
+    public int[] getNeighbourhood(int pageId, int maxDistance, boolean undirected)
+    {
+        int start = requireNode(pageId);
+        boolean[] visited = new boolean[numberOfNodes];
+        int[] queue = new int[numberOfNodes];
+        int head = 0;
+        int tail = 0;
+        visited[start] = true;
+        queue[tail++] = start;
+        for (int distance = 0; distance < maxDistance && head < tail; distance++) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int node = queue[head++];
+                tail = visit(outOffsets, outTargets, node, visited, queue, tail);
+                if (undirected) {
+                    tail = visit(inOffsets, inSources, node, visited, queue, tail);
+                }
+            }
+        }
+
+        int[] result = new int[tail - 1];
+        for (int i = 1; i < tail; i++) {
+            result[i - 1] = pageIds.get(queue[i]);
+        }
+        return result;
+    }
+
+    private static int visit(IntBuffer offsets, IntBuffer adjacent, int node, boolean[] visited,
+            int[] queue, int tail)
+    {
+        for (int i = offsets.get(node); i < offsets.get(node + 1); i++) {
+            int next = adjacent.get(i);
+            if (!visited[next]) {
+                visited[next] = true;
+                queue[tail++] = next;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Computes the PageRank of all pages by power iteration. The rank of pages without outlinks is
+     * distributed evenly over all pages. Each iteration is computed in parallel.
+     *
+     * @param dampingFactor
+     *            The probability of following a link, usually {@code 0.85}.
+     * @param maxIterations
+     *            The maximum number of iterations.
+     * @param tolerance
+     *            The iteration stops, when the sum of the changes of all ranks drops below this
+     *            value.
+     * @return The PageRank of each node, see {@link #getPageIds()}. The ranks sum up to one.
+     */
+    public double[] getPageRank(double dampingFactor, int maxIterations, double tolerance)
+    {
+        if (numberOfNodes == 0) {
+            return new double[0];
+        }
+
+        double[] rank = new double[numberOfNodes];
+        Arrays.fill(rank, 1.0 / numberOfNodes);
+        double[] next = new double[numberOfNodes];
+        double[] contribution = new double[numberOfNodes];
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double[] current = rank;
+            double danglingRank = IntStream.range(0, numberOfNodes).parallel().mapToDouble(node -> {
+                int outdegree = outOffsets.get(node + 1) - outOffsets.get(node);
+                contribution[node] = outdegree > 0 ? current[node] / outdegree : 0;
+                return outdegree > 0 ? 0 : current[node];
+            }).sum();
+
+            double base = (1 - dampingFactor + dampingFactor * danglingRank) / numberOfNodes;
+            double[] target = next;
+            double change = IntStream.range(0, numberOfNodes).parallel().mapToDouble(node -> {
+                double sum = 0;
+                for (int i = inOffsets.get(node); i < inOffsets.get(node + 1); i++) {
+                    sum += contribution[inSources.get(i)];
+                }
+                target[node] = base + dampingFactor * sum;
+                return Math.abs(target[node] - current[node]);
+            }).sum();
+
+            next = rank;
+            rank = target;
+            if (change < tolerance) {
+                logger.debug("PageRank converged after {} iterations.", iteration + 1);
+                break;
+            }
+        }
+        return rank;
+    }
+}
@@ -62,7 +62,7 @@ public class PageIterable
      * @param bufferSize The number of pages to be buffered after a query to the database.
      *                   Higher bufferSize gives better performance, but require more memory.
      */
-    protected PageIterable(Wikipedia wiki, boolean onlyArticles, int bufferSize)
+    public PageIterable(Wikipedia wiki, boolean onlyArticles, int bufferSize)
     {
         this.wiki = wiki;
         this.onlyArticles = onlyArticles;
@@ -26,6 +26,7 @@ import java.util.Set;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
 import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -235,17 +236,18 @@ public class PageIterator
                 TypedQuery<org.dkpro.jwpl.api.hibernate.Page> query;
                 String sql;
                 if (onlyArticles) {
-                    sql = "SELECT p FROM Page p WHERE p.isDisambiguation = :isDisambiguation AND p.id > :pageId";
+                    sql = "SELECT p FROM Page p WHERE p.isDisambiguation = :isDisambiguation AND p.id > :pageId ORDER BY p.id";
                     query = session.createQuery(sql, org.dkpro.jwpl.api.hibernate.Page.class);
                     query.setParameter("isDisambiguation", false);
                     query.setParameter("pageId", lastPage);
                 }
                 else {
-                    sql = "SELECT p FROM Page p WHERE p.id > :pageId";
+                    sql = "SELECT p FROM Page p WHERE p.id > :pageId ORDER BY p.id";
                     query = session.createQuery(sql, org.dkpro.jwpl.api.hibernate.Page.class);
                     query.setParameter("pageId", lastPage);
                 }
                 query.setMaxResults(maxBufferSize);
+                query.setHint(HibernateHints.HINT_FETCH_SIZE, maxBufferSize);
                 returnValues = query.getResultList();
                 session.getTransaction().commit();
 
@@ -254,28 +256,31 @@ public class PageIterator
                 bufferOffset = 0;
                 bufferFillSize = 0;
 
+                // the texts of the buffered pages are loaded together, when the first is accessed
+                List<Long> ids = new ArrayList<>(returnValues.size());
+                for (org.dkpro.jwpl.api.hibernate.Page o : returnValues) {
+                    if (o != null) {
+                        ids.add(o.getId());
+                    }
+                }
+                PageTextBatch textBatch = new PageTextBatch(this.wiki, ids);
+
                 Page apiPage;
                 for (org.dkpro.jwpl.api.hibernate.Page o : returnValues) {
                     if (o == null) {
                         return false;
                     }
                     else {
-                        long id = o.getId();
-                        try {
-                            apiPage = new Page(this.wiki, id, o);
-                            if (this.onlyArticles) {
-                                if (!apiPage.isRedirect()) {
-                                    buffer.add(apiPage);
-                                }
-                            }
-                            else {
+                        apiPage = new Page(this.wiki, o, textBatch);
+                        if (this.onlyArticles) {
+                            if (!apiPage.isRedirect()) {
                                 buffer.add(apiPage);
                             }
                         }
-                        catch (WikiApiException e) {
-                            logger.error("Page with hibernateID {} not found.", id);
+                        else {
+                            buffer.add(apiPage);
                         }
-                        lastPage = id;
+                        lastPage = o.getId();
                     }
                 }
                 if (!buffer.isEmpty()) {
@@ -19,11 +19,18 @@ package org.dkpro.jwpl.api;
 
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
-import org.dkpro.jwpl.api.exception.WikiPageNotFoundException;
 import org.dkpro.jwpl.api.util.ApiUtilities;
 import org.dkpro.jwpl.api.util.StringUtils;
 import org.hibernate.Session;
@@ -33,6 +40,17 @@ import org.slf4j.LoggerFactory;
 
 /**
  * An iterable over {@link Page} objects selected by a query.
+ * <p>
+ * The constraints on the in-degree, the out-degree, the number of redirects and the number of
+ * categories are evaluated by the database within a single query. Only the pages passing these
+ * constraints are parsed to check the number of tokens, unless the plain texts were materialized
+ * by a {@link PlainTextMaterializer}: then the numbers of tokens are read from the database.
+ * <p>
+ * By default, all matching page ids are determined on construction, checking the number of
+ * tokens in parallel batches. In lazy mode, see {@link #PageQueryIterable(Wikipedia, PageQuery,
+ * int)}, nothing is evaluated up front: iterators stream the candidate pages in batches ordered
+ * by their hibernate ids and yield each page as soon as it passes the query. Memory then only
+ * depends on the buffer size and not on the number of results.
  */
 public class PageQueryIterable
     implements Iterable<Page>
@@ -41,9 +59,30 @@ public class PageQueryIterable
     private static final Logger logger = LoggerFactory
             .getLogger(MethodHandles.lookup().lookupClass());
 
+    /**
+     * The number of pages loaded at once for checking the number of tokens.
+     */
+    private static final int TOKEN_BATCH_SIZE = 100;
+
     private final Wikipedia wiki;
+    private final PageQuery q;
+
+    /**
+     * The ids of the selected pages, {@code null} in lazy mode.
+     */
     private final List<Integer> pageIdList;
 
+    /**
+     * The conditions of the query on {@code Page p}, without the token constraints.
+     */
+    private final List<String> conditions;
+    private final Map<String, Object> parameters;
+
+    /**
+     * The number of pages fetched at once in lazy mode.
+     */
+    private final int bufferSize;
+
     /**
      * Instantiates a new {@link PageQueryIterable} via a {@link PageQuery}.
      *
@@ -56,12 +95,92 @@ public class PageQueryIterable
     {
 
         this.wiki = wiki;
-        this.pageIdList = new ArrayList<>();
-        boolean hasTitlePattern = false;
+        this.q = q;
+        this.bufferSize = 0;
+        normalizeRanges(q);
+        this.conditions = new ArrayList<>();
+        this.parameters = new HashMap<>();
+        addConditions(q, conditions, parameters);
 
-        // get a list with all pageIDs of the pages conforming with the query
-        String hql = "select p.pageId from Page as p ";
-        List<String> conditions = new ArrayList<>();
+        List<Integer> idList = selectPageIds();
+        if (hasTokenConstraint() && wiki.hasMaterializedPlainTexts()) {
+            this.pageIdList = filterByMaterializedTokens(idList);
+        }
+        else if (hasTokenConstraint()) {
+            this.pageIdList = filterByTokens(idList);
+        }
+        else {
+            this.pageIdList = idList;
+        }
+        logger.info("Query selected {} pages.", pageIdList.size());
+    }
+
+    /**
+     * Instantiates a new lazy {@link PageQueryIterable} via a {@link PageQuery}. The query is
+     * evaluated while iterating, one batch of candidate pages at a time.
+     *
+     * @param wiki A valid, full initialized {@link Wikipedia} instance. Must not be {@code null}.
+     * @param q The {@link PageQuery} to process. Must not be {@code null}.
+     * @param bufferSize The number of candidate pages fetched with one query to the database.
+     *                   Higher bufferSize gives better performance, but requires more memory.
+     */
+    public PageQueryIterable(Wikipedia wiki, PageQuery q, int bufferSize)
+    {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Parameter 'bufferSize' must be positive.");
+        }
+        this.wiki = wiki;
+        this.q = q;
+        this.bufferSize = bufferSize;
+        normalizeRanges(q);
+        this.conditions = new ArrayList<>();
+        this.parameters = new HashMap<>();
+        addConditions(q, conditions, parameters);
+        this.pageIdList = null;
+    }
+
+    /**
+     * Resets invalid ranges of the query, so that they do not constrain the result.
+     */
+    private static void normalizeRanges(PageQuery q)
+    {
+        if (!(q.getMinIndegree() >= 0 && q.getMaxIndegree() >= 0
+                && q.getMinIndegree() <= q.getMaxIndegree())) {
+            q.setMinIndegree(0);
+            q.setMaxIndegree(Integer.MAX_VALUE);
+        }
+
+        if (!(q.getMinOutdegree() >= 0 && q.getMaxOutdegree() >= 0
+                && q.getMinOutdegree() <= q.getMaxOutdegree())) {
+            q.setMinOutdegree(0);
+            q.setMaxOutdegree(Integer.MAX_VALUE);
+        }
+
+        if (!(q.getMinRedirects() >= 0 && q.getMaxRedirects() >= 0
+                && q.getMinRedirects() <= q.getMaxRedirects())) {
+            q.setMinRedirects(0);
+            q.setMaxRedirects(Integer.MAX_VALUE);
+        }
+
+        if (!(q.getMinCategories() >= 0 && q.getMaxCategories() >= 0
+                && q.getMinCategories() <= q.getMaxCategories())) {
+            q.setMinCategories(0);
+            q.setMaxCategories(Integer.MAX_VALUE);
+        }
+
+        if (!(q.getMinTokens() >= 0 && q.getMaxTokens() >= 0
+                && q.getMinTokens() <= q.getMaxTokens())) {
+            q.setMinTokens(0);
+            q.setMaxTokens(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Collects the conditions of the query that can be evaluated by the database.
+     */
+    private static void addConditions(PageQuery q, List<String> conditions,
+            Map<String, Object> parameters)
+    {
         if (q.onlyDisambiguationPages()) {
             conditions.add("p.isDisambiguation = true");
         }
@@ -70,9 +189,62 @@ public class PageQueryIterable
         }
         if (q.getTitlePattern() != null && !q.getTitlePattern().isBlank()) {
             conditions.add("p.name like :name");
-            hasTitlePattern = true;
+            parameters.put("name", q.getTitlePattern());
         }
+        addSizeConditions(conditions, parameters, "inLinks", q.getMinIndegree(),
+                q.getMaxIndegree());
+        addSizeConditions(conditions, parameters, "outLinks", q.getMinOutdegree(),
+                q.getMaxOutdegree());
+        addSizeConditions(conditions, parameters, "redirects", q.getMinRedirects(),
+                q.getMaxRedirects());
+        addSizeConditions(conditions, parameters, "categories", q.getMinCategories(),
+                q.getMaxCategories());
+    }
+
+    /**
+     * Adds the conditions for a size range of a collection of the page. Unconstrained bounds are
+     * omitted, so that the database only counts the collections that are actually restricted.
+     */
+    private static void addSizeConditions(List<String> conditions, Map<String, Object> parameters,
+            String collection, int min, int max)
+    {
+        if (min > 0) {
+            conditions.add("size(p." + collection + ") >= :min" + collection);
+            parameters.put("min" + collection, min);
+        }
+        if (max < Integer.MAX_VALUE) {
+            conditions.add("size(p." + collection + ") <= :max" + collection);
+            parameters.put("max" + collection, max);
+        }
+    }
 
+    private boolean hasTokenConstraint()
+    {
+        return q.getMinTokens() > 0 || q.getMaxTokens() < Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return {@code True} if the number of tokens of the page matches the query.
+     */
+    private boolean matchesTokens(Page page) throws WikiApiException
+    {
+        return matchesTokens(page.getNumberOfTokens());
+    }
+
+    /**
+     * @return {@code True} if the number of tokens matches the query.
+     */
+    private boolean matchesTokens(int tokens)
+    {
+        return tokens >= q.getMinTokens() && tokens <= q.getMaxTokens();
+    }
+
+    /**
+     * @return The ids of all pages that match the query, except for the token constraints.
+     */
+    private List<Integer> selectPageIds()
+    {
+        String hql = "select p.pageId from Page as p ";
         String conditionString = StringUtils.join(conditions, " AND ");
         if (!conditionString.isEmpty()) {
             hql += "where " + conditionString;
@@ -81,108 +253,239 @@ public class PageQueryIterable
         Session session = this.wiki.__getHibernateSession();
         session.beginTransaction();
         Query<Integer> query = session.createQuery(hql, Integer.class);
-        if (hasTitlePattern) {
-            query.setParameter("name", q.getTitlePattern());
-        }
+        parameters.forEach(query::setParameter);
         List<Integer> idList = query.list();
         session.getTransaction().commit();
+        return idList;
+    }
 
-        int progress = 0;
-        for (Integer pageID : idList) {
-            progress++;
-            ApiUtilities.printProgressInfo(progress, idList.size(), 100,
-                    ApiUtilities.ProgressInfoMode.TEXT,
-                    "searching " + idList.size() + " pages ... ");
-
-            // shortcut to fasten queries that do not have such constraints
-            if (q.getMaxCategories() == Integer.MAX_VALUE && q.getMaxIndegree() == Integer.MAX_VALUE
-                    && q.getMaxOutdegree() == Integer.MAX_VALUE
-                    && q.getMaxRedirects() == Integer.MAX_VALUE
-                    && q.getMaxTokens() == Integer.MAX_VALUE && q.getMinCategories() == 0
-                    && q.getMinIndegree() == 0 && q.getMinOutdegree() == 0
-                    && q.getMinRedirects() == 0 && q.getMinTokens() == 0) {
-                pageIdList.add(pageID);
-                continue;
+    /**
+     * Checks the number of tokens of the specified pages with a range scan of the materialized
+     * plain texts. Only the pages whose plain texts were not materialized are parsed.
+     *
+     * @return The ids of the pages that match the token constraints, in the order of the specified
+     *         list.
+     */
+    private List<Integer> filterByMaterializedTokens(List<Integer> idList) throws WikiApiException
+    {
+        Set<Integer> matchingIds = PlainTextTable.selectPageIds(wiki, q.getMinTokens(),
+                q.getMaxTokens());
+        Set<Integer> storedIds = PlainTextTable.selectPageIds(wiki);
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer pageId : idList) {
+            if (!storedIds.contains(pageId)) {
+                missingIds.add(pageId);
             }
+        }
+        if (!missingIds.isEmpty()) {
+            logger.info("Parsing {} pages without materialized plain texts.", missingIds.size());
+            matchingIds.addAll(filterByTokens(missingIds));
+        }
 
-            Page page = null;
-            try {
-                page = wiki.getPage(pageID);
-            }
-            catch (WikiPageNotFoundException e) {
-                logger.warn("Page with pageID {} could not be found. Fatal error. Terminating.",
-                        pageID);
+        List<Integer> result = new ArrayList<>();
+        for (Integer pageId : idList) {
+            if (matchingIds.contains(pageId)) {
+                result.add(pageId);
             }
+        }
+        return result;
+    }
 
-            if (!(q.getMinIndegree() >= 0 && q.getMaxIndegree() >= 0
-                    && q.getMinIndegree() <= q.getMaxIndegree())) {
-                q.setMinIndegree(0);
-                q.setMaxIndegree(Integer.MAX_VALUE);
-            }
+    /**
+     * Checks the number of tokens of the specified pages. The pages are split into batches which
+     * are loaded and parsed concurrently, each worker thread using its own session.
+     *
+     * @return The ids of the pages that match the token constraints, in the order of the specified
+     *         list.
+     */
+    private List<Integer> filterByTokens(List<Integer> idList) throws WikiApiException
+    {
+        List<List<Integer>> batches = new ArrayList<>();
+        for (int i = 0; i < idList.size(); i += TOKEN_BATCH_SIZE) {
+            batches.add(idList.subList(i, Math.min(i + TOKEN_BATCH_SIZE, idList.size())));
+        }
+        if (batches.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            if (!(q.getMinOutdegree() >= 0 && q.getMaxOutdegree() >= 0
-                    && q.getMinOutdegree() <= q.getMaxOutdegree())) {
-                q.setMinOutdegree(0);
-                q.setMaxOutdegree(Integer.MAX_VALUE);
+        int threads = Math.min(batches.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Integer>>> futures = new ArrayList<>();
+            for (List<Integer> batch : batches) {
+                futures.add(executor.submit(() -> filterBatchByTokens(batch)));
             }
 
-            if (!(q.getMinRedirects() >= 0 && q.getMaxRedirects() >= 0
-                    && q.getMinRedirects() <= q.getMaxRedirects())) {
-                q.setMinRedirects(0);
-                q.setMaxRedirects(Integer.MAX_VALUE);
+            List<Integer> result = new ArrayList<>();
+            int progress = 0;
+            for (Future<List<Integer>> future : futures) {
+                progress++;
+                ApiUtilities.printProgressInfo(progress, futures.size(), 100,
+                        ApiUtilities.ProgressInfoMode.TEXT,
+                        "searching " + idList.size() + " pages ... ");
+                result.addAll(future.get());
             }
-
-            if (!(q.getMinCategories() >= 0 && q.getMaxCategories() >= 0
-                    && q.getMinCategories() <= q.getMaxCategories())) {
-                q.setMinCategories(0);
-                q.setMaxCategories(Integer.MAX_VALUE);
+            return result;
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof WikiApiException) {
+                throw (WikiApiException) e.getCause();
             }
+            throw new WikiApiException(e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WikiApiException(e);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
 
-            if (!(q.getMinCategories() >= 0 && q.getMaxCategories() >= 0
-                    && q.getMinCategories() <= q.getMaxCategories())) {
-                q.setMinCategories(0);
-                q.setMaxCategories(Integer.MAX_VALUE);
-            }
+    /**
+     * @return The ids of the pages of the batch that match the token constraints.
+     */
+    private List<Integer> filterBatchByTokens(List<Integer> batch) throws WikiApiException
+    {
+        Session session = this.wiki.__getHibernateSession();
+        session.beginTransaction();
+        List<org.dkpro.jwpl.api.hibernate.Page> hibernatePages = session
+                .createQuery("from Page p where p.pageId in :ids",
+                        org.dkpro.jwpl.api.hibernate.Page.class)
+                .setParameterList("ids", batch).list();
+        session.getTransaction().commit();
 
-            if (!(q.getMinTokens() >= 0 && q.getMaxTokens() >= 0
-                    && q.getMinTokens() <= q.getMaxTokens())) {
-                q.setMinTokens(0);
-                q.setMaxTokens(Integer.MAX_VALUE);
-            }
+        // the texts of all pages of the batch are loaded with one query
+        Map<Integer, org.dkpro.jwpl.api.hibernate.Page> pagesById = new HashMap<>();
+        List<Long> ids = new ArrayList<>(hibernatePages.size());
+        for (org.dkpro.jwpl.api.hibernate.Page hibernatePage : hibernatePages) {
+            pagesById.put(hibernatePage.getPageId(), hibernatePage);
+            ids.add(hibernatePage.getId());
+        }
+        PageTextBatch textBatch = new PageTextBatch(wiki, ids);
 
-            int inlinkSize = page.getNumberOfInlinks();
-            if (inlinkSize < q.getMinIndegree() || inlinkSize > q.getMaxIndegree()) {
+        List<Integer> result = new ArrayList<>();
+        for (Integer pageID : batch) {
+            org.dkpro.jwpl.api.hibernate.Page hibernatePage = pagesById.get(pageID);
+            if (hibernatePage == null) {
+                logger.warn("Page with pageID {} could not be found.", pageID);
                 continue;
             }
+            if (matchesTokens(new Page(wiki, hibernatePage, textBatch))) {
+                result.add(pageID);
+            }
+        }
+        return result;
+    }
 
-            int outlinkSize = page.getNumberOfOutlinks();
-            if (outlinkSize < q.getMinOutdegree() || outlinkSize > q.getMaxOutdegree()) {
-                continue;
+    @Override
+    public Iterator<Page> iterator()
+    {
+        if (pageIdList == null) {
+            return new LazyPageQueryIterator();
+        }
+        return new PageQueryIterator(wiki, pageIdList);
+    }
+
+    /**
+     * Streams the pages matching the query, fetching the candidates in batches of
+     * {@link #bufferSize} with keyset pagination on the hibernate id.
+     */
+    private class LazyPageQueryIterator
+        implements Iterator<Page>
+    {
+
+        private final List<Page> buffer = new ArrayList<>();
+        private int bufferOffset = 0; // the offset in the buffer
+        private long lastPage = 0; // the hibernate id of the last fetched candidate
+        private boolean exhausted = false;
+
+        @Override
+        public boolean hasNext()
+        {
+            while (bufferOffset >= buffer.size()) {
+                if (exhausted) {
+                    return false;
+                }
+                fillBuffer();
             }
-            if (page.getRedirects().size() < q.getMinRedirects()
-                    || page.getRedirects().size() > q.getMaxRedirects()) {
-                continue;
+            return true;
+        }
+
+        @Override
+        public Page next()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
+            return buffer.get(bufferOffset++);
+        }
 
-            int categoriesSize = page.getCategories().size();
-            if (categoriesSize < q.getMinCategories() || categoriesSize > q.getMaxCategories()) {
-                continue;
+        /**
+         * Fetches the next batch of candidates and keeps those matching the query. The buffer may
+         * remain empty if no candidate of the batch matches.
+         */
+        private void fillBuffer()
+        {
+            buffer.clear();
+            bufferOffset = 0;
+
+            String hql = "select p from Page as p where p.id > :lastPage";
+            for (String condition : conditions) {
+                hql += " AND " + condition;
             }
+            hql += " order by p.id";
 
-            String[] tokens = page.getPlainText().split(" ");
-            if (tokens.length < q.getMinTokens() || tokens.length > q.getMaxTokens()) {
-                continue;
+            Session session = wiki.__getHibernateSession();
+            session.beginTransaction();
+            Query<org.dkpro.jwpl.api.hibernate.Page> query = session.createQuery(hql,
+                    org.dkpro.jwpl.api.hibernate.Page.class);
+            parameters.forEach(query::setParameter);
+            query.setParameter("lastPage", lastPage);
+            query.setMaxResults(bufferSize);
+            List<org.dkpro.jwpl.api.hibernate.Page> candidates = query.list();
+            session.getTransaction().commit();
+
+            if (candidates.size() < bufferSize) {
+                exhausted = true;
             }
 
-            // if still here, add page
-            pageIdList.add(pageID);
-        } // for
-        logger.info("Query selected {} pages.", pageIdList.size());
-    }
+            // the texts and the materialized numbers of tokens of all candidates are each read
+            // with one query
+            List<Long> ids = new ArrayList<>(candidates.size());
+            for (org.dkpro.jwpl.api.hibernate.Page candidate : candidates) {
+                ids.add(candidate.getId());
+            }
+            PageTextBatch textBatch = new PageTextBatch(wiki, ids);
+            Map<Integer, Integer> storedTokens = Map.of();
+            if (hasTokenConstraint() && wiki.hasMaterializedPlainTexts()) {
+                List<Integer> candidateIds = new ArrayList<>(candidates.size());
+                for (org.dkpro.jwpl.api.hibernate.Page candidate : candidates) {
+                    candidateIds.add(candidate.getPageId());
+                }
+                storedTokens = PlainTextTable.findTokens(wiki, candidateIds);
+            }
 
-    @Override
-    public Iterator<Page> iterator()
-    {
-        return new PageQueryIterator(wiki, pageIdList);
+            for (org.dkpro.jwpl.api.hibernate.Page candidate : candidates) {
+                lastPage = candidate.getId();
+                try {
+                    Page page = new Page(wiki, candidate, textBatch);
+                    Integer tokens = storedTokens.get(candidate.getPageId());
+                    if (!hasTokenConstraint() || (tokens != null ? matchesTokens(tokens)
+                            : matchesTokens(page))) {
+                        buffer.add(page);
+                    }
+                }
+                catch (WikiApiException e) {
+                    logger.error("Could not parse page with id {}", candidate.getPageId(), e);
+                }
+            }
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
     }
 }
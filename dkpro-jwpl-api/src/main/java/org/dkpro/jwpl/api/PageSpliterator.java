@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.TypedQuery;
+
+/**
+ * A {@link Spliterator} over the {@link Page pages} with hibernate ids in a range.
+ * <p>
+ * The pages are fetched in batches with keyset paging. A split hands the lower half of the
+ * remaining id range to a new spliterator, so the workers of a parallel stream fetch disjoint
+ * ranges. Each batch is queried with the session of the thread that consumes it.
+ */
+class PageSpliterator
+    implements Spliterator<Page>
+{
+
+    private final Wikipedia wiki;
+    private final boolean onlyArticles;
+    private final int bufferSize;
+
+    /**
+     * The largest hibernate id that was fetched. The next batch starts after it.
+     */
+    private long lastId;
+
+    /**
+     * The largest hibernate id of the range, inclusive.
+     */
+    private final long maxId;
+
+    private List<Page> buffer = new ArrayList<>();
+    private int bufferOffset;
+
+    /**
+     * @param wiki
+     *            A valid, full initialized {@link Wikipedia} instance.
+     * @param onlyArticles
+     *            {@code True} if disambiguation pages and redirects are skipped.
+     * @param bufferSize
+     *            The number of pages fetched with one query. Ranges are only split if they hold
+     *            at least two batches.
+     * @param lastId
+     *            The hibernate id before the range, exclusive.
+     * @param maxId
+     *            The last hibernate id of the range, inclusive.
+     */
+    PageSpliterator(Wikipedia wiki, boolean onlyArticles, int bufferSize, long lastId, long maxId)
+    {
+        this.wiki = wiki;
+        this.onlyArticles = onlyArticles;
+        this.bufferSize = bufferSize;
+        this.lastId = lastId;
+        this.maxId = maxId;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Page> action)
+    {
+        while (bufferOffset == buffer.size()) {
+            if (lastId >= maxId) {
+                return false;
+            }
+            fillBuffer();
+        }
+        action.accept(buffer.get(bufferOffset++));
+        return true;
+    }
+
+    private void fillBuffer()
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        TypedQuery<org.dkpro.jwpl.api.hibernate.Page> query;
+        if (onlyArticles) {
+            query = session.createQuery("SELECT p FROM Page p WHERE p.isDisambiguation = false"
+                    + " AND p.id > :lastId AND p.id <= :maxId ORDER BY p.id",
+                    org.dkpro.jwpl.api.hibernate.Page.class);
+        }
+        else {
+            query = session.createQuery(
+                    "SELECT p FROM Page p WHERE p.id > :lastId AND p.id <= :maxId ORDER BY p.id",
+                    org.dkpro.jwpl.api.hibernate.Page.class);
+        }
+        query.setParameter("lastId", lastId);
+        query.setParameter("maxId", maxId);
+        query.setMaxResults(bufferSize);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, bufferSize);
+        List<org.dkpro.jwpl.api.hibernate.Page> returnValues = query.getResultList();
+        session.getTransaction().commit();
+
+        buffer = new ArrayList<>(returnValues.size());
+        bufferOffset = 0;
+        List<Long> ids = new ArrayList<>(returnValues.size());
+        for (org.dkpro.jwpl.api.hibernate.Page o : returnValues) {
+            ids.add(o.getId());
+        }
+        PageTextBatch textBatch = new PageTextBatch(wiki, ids);
+        for (org.dkpro.jwpl.api.hibernate.Page o : returnValues) {
+            Page apiPage = new Page(wiki, o, textBatch);
+            if (!onlyArticles || !apiPage.isRedirect()) {
+                buffer.add(apiPage);
+            }
+            lastId = o.getId();
+        }
+        if (returnValues.size() < bufferSize) {
+            // the range is exhausted
+            lastId = maxId;
+        }
+    }
+
+    @Override
+    public Spliterator<Page> trySplit()
+    {
+        long remaining = maxId - lastId;
+        if (remaining < 2L * bufferSize) {
+            return null;
+        }
+        long middle = lastId + remaining / 2;
+
+        // the prefix keeps the buffered pages, so the encounter order is preserved
+        PageSpliterator prefix = new PageSpliterator(wiki, onlyArticles, bufferSize, lastId,
+                middle);
+        prefix.buffer = buffer;
+        prefix.bufferOffset = bufferOffset;
+        buffer = new ArrayList<>();
+        bufferOffset = 0;
+        lastId = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize()
+    {
+        // each id of the range belongs to at most one page
+        return maxId - lastId + buffer.size() - bufferOffset;
+    }
+
+    @Override
+    public int characteristics()
+    {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import org.dkpro.jwpl.api.exception.WikiTitleParsingException;
+
+/**
+ * The metadata of a {@link Page} without its text and without the ids of the linked pages.
+ * <p>
+ * Summaries are much cheaper to retrieve than pages, so they should be used for passes over the
+ * whole Wikipedia that do not need the text, e.g. via {@link Wikipedia#getPageSummaries(boolean)}.
+ */
+public class PageSummary
+{
+
+    private final int pageId;
+    private final String name;
+    private final boolean isDisambiguation;
+    private final int numberOfRedirects;
+    private final int numberOfInlinks;
+    private final int numberOfOutlinks;
+    private final int numberOfCategories;
+
+    PageSummary(int pageId, String name, boolean isDisambiguation, int numberOfRedirects,
+            int numberOfInlinks, int numberOfOutlinks, int numberOfCategories)
+    {
+        this.pageId = pageId;
+        this.name = name;
+        this.isDisambiguation = isDisambiguation;
+        this.numberOfRedirects = numberOfRedirects;
+        this.numberOfInlinks = numberOfInlinks;
+        this.numberOfOutlinks = numberOfOutlinks;
+        this.numberOfCategories = numberOfCategories;
+    }
+
+    /**
+     * @return The unique page id.
+     * @see Page#getPageId()
+     */
+    public int getPageId()
+    {
+        return pageId;
+    }
+
+    /**
+     * @return The title of the page.
+     * @throws WikiTitleParsingException
+     *             Thrown if errors occurred while parsing.
+     * @see Page#getTitle()
+     */
+    public Title getTitle() throws WikiTitleParsingException
+    {
+        return new Title(name);
+    }
+
+    /**
+     * @return {@code True}, if the page is a disambiguation page, {@code false} otherwise.
+     * @see Page#isDisambiguation()
+     */
+    public boolean isDisambiguation()
+    {
+        return isDisambiguation;
+    }
+
+    /**
+     * @return The number of redirects to the page.
+     * @see Page#getRedirects()
+     */
+    public int getNumberOfRedirects()
+    {
+        return numberOfRedirects;
+    }
+
+    /**
+     * @return The number of pages that link to the page.
+     * @see Page#getNumberOfInlinks()
+     */
+    public int getNumberOfInlinks()
+    {
+        return numberOfInlinks;
+    }
+
+    /**
+     * @return The number of pages the page links to.
+     * @see Page#getNumberOfOutlinks()
+     */
+    public int getNumberOfOutlinks()
+    {
+        return numberOfOutlinks;
+    }
+
+    /**
+     * @return The number of categories the page is in.
+     * @see Page#getNumberOfCategories()
+     */
+    public int getNumberOfCategories()
+    {
+        return numberOfCategories;
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + " (" + pageId + ")";
+    }
+}
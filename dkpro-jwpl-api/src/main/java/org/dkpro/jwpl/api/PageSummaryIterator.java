@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.hibernate.Session;
+
+/**
+ * An {@link Iterator} over {@link PageSummary} objects.
+ * <p>
+ * Only the columns of the summaries are queried: the counts are computed by the database and
+ * neither the text nor the link ids of the pages are transferred.
+ */
+public class PageSummaryIterator
+    implements Iterator<PageSummary>
+{
+
+    private final Wikipedia wiki;
+    private final boolean onlyArticles;
+    private final int bufferSize;
+
+    private final List<PageSummary> buffer = new ArrayList<>();
+    private int bufferOffset;
+    private long lastId; // the hibernate id of the last page read from the database
+    private boolean exhausted;
+
+    /**
+     * Initializes a {@link PageSummaryIterator} instance.
+     *
+     * @param wiki A valid, full initialized {@link Wikipedia} instance. Must not be {@code null}.
+     * @param onlyArticles {@code True} if only full article pages shall be processed, yet no disambiguation pages.
+     *                     {@code False} if disambiguation pages shall be considered as well.
+     * @param bufferSize The number of summaries to be buffered after a query to the database.
+     *                   Higher bufferSize gives better performance, but require more memory.
+     */
+    public PageSummaryIterator(Wikipedia wiki, boolean onlyArticles, int bufferSize)
+    {
+        this.wiki = wiki;
+        this.onlyArticles = onlyArticles;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        while (bufferOffset == buffer.size()) {
+            if (exhausted) {
+                return false;
+            }
+            fillBuffer();
+        }
+        return true;
+    }
+
+    @Override
+    public PageSummary next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return buffer.get(bufferOffset++);
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    private void fillBuffer()
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        // keyset pagination, so that the database does not skip all previously read rows;
+        // size() is translated to a count subquery on the collection table
+        String hql = "select p.id, p.pageId, p.name, p.isDisambiguation, size(p.redirects),"
+                + " size(p.inLinks), size(p.outLinks), size(p.categories) from Page p"
+                + " where p.id > :lastId"
+                + (onlyArticles ? " and p.isDisambiguation = false" : "") + " order by p.id";
+        List<Object[]> returnList = session.createQuery(hql, Object[].class)
+                .setParameter("lastId", lastId).setMaxResults(bufferSize)
+                .setFetchSize(bufferSize).list();
+        session.getTransaction().commit();
+
+        buffer.clear();
+        bufferOffset = 0;
+        for (Object[] row : returnList) {
+            lastId = (Long) row[0];
+            buffer.add(new PageSummary((Integer) row[1], (String) row[2], (Boolean) row[3],
+                    (Integer) row[4], (Integer) row[5], (Integer) row[6], (Integer) row[7]));
+        }
+        exhausted = returnList.size() < bufferSize;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+
+/**
+ * Loads the texts of a batch of {@link Page pages} that were fetched together, e.g. by a
+ * {@link PageIterator}.
+ * <p>
+ * Nothing is loaded until the text of one of the pages is requested. Then the texts of all pages
+ * of the batch are loaded with one query, as the other pages are likely requested next.
+ */
+class PageTextBatch
+{
+
+    private final Wikipedia wiki;
+    private final Collection<Long> ids;
+    private Map<Long, String> texts;
+
+    /**
+     * @param wiki
+     *            A valid, full initialized {@link Wikipedia} instance.
+     * @param ids
+     *            The hibernate ids of the pages in the batch.
+     */
+    PageTextBatch(Wikipedia wiki, Collection<Long> ids)
+    {
+        this.wiki = wiki;
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the text of a page of the batch. Each text is only returned once, so it is not kept
+     * in memory after it was handed over.
+     *
+     * @param id
+     *            The hibernate id of the page.
+     * @return The text of the page or {@code null} if it was already returned.
+     */
+    synchronized String getText(long id)
+    {
+        if (texts == null) {
+            texts = new HashMap<>();
+            Session session = wiki.__getHibernateSession();
+            session.beginTransaction();
+            List<Object[]> rows = session
+                    .createQuery("select t.id, t.text from PageText t where t.id in (:ids)",
+                            Object[].class)
+                    .setParameterList("ids", ids).list();
+            session.getTransaction().commit();
+            for (Object[] row : rows) {
+                texts.put((Long) row[0], (String) row[1]);
+            }
+        }
+        return texts.remove(id);
+    }
+}
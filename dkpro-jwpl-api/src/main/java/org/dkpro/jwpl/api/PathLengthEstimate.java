@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+/**
+ * Path length parameters of a {@link CategoryGraph} that are estimated from a sample of start
+ * nodes.
+ *
+ * @see CategoryGraph#estimatePathLengths(int, long)
+ */
+public class PathLengthEstimate
+{
+
+    private final double averageShortestPathLength;
+    private final double standardError;
+    private final int diameterLowerBound;
+    private final int numberOfSamples;
+
+    PathLengthEstimate(double averageShortestPathLength, double standardError,
+            int diameterLowerBound, int numberOfSamples)
+    {
+        this.averageShortestPathLength = averageShortestPathLength;
+        this.standardError = standardError;
+        this.diameterLowerBound = diameterLowerBound;
+        this.numberOfSamples = numberOfSamples;
+    }
+
+    /**
+     * @return The estimated average of the shortest path lengths between all pairs of nodes.
+     */
+    public double getAverageShortestPathLength()
+    {
+        return averageShortestPathLength;
+    }
+
+    /**
+     * @return The standard error of the estimated average shortest path length. The exact value
+     *         lies within two standard errors of the estimate with a probability of about 95%.
+     *         {@code 0} if all nodes were sampled.
+     */
+    public double getStandardError()
+    {
+        return standardError;
+    }
+
+    /**
+     * @return The largest shortest path length found from the sampled nodes. The diameter of the
+     *         graph is at least as large. It is the diameter if all nodes were sampled.
+     */
+    public int getDiameterLowerBound()
+    {
+        return diameterLowerBound;
+    }
+
+    /**
+     * @return The number of sampled start nodes.
+     */
+    public int getNumberOfSamples()
+    {
+        return numberOfSamples;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PathLengthEstimate [averageShortestPathLength=" + averageShortestPathLength
+                + ", standardError=" + standardError + ", diameterLowerBound="
+                + diameterLowerBound + ", numberOfSamples=" + numberOfSamples + "]";
+    }
+}
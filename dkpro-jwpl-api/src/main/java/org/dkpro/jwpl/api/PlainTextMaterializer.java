@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.dkpro.jwpl.api.sweble.PlainTextConverter;
+import org.dkpro.jwpl.api.util.ApiUtilities;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses all pages of a Wikipedia once and stores their plain texts, their numbers of tokens and
+ * the offsets of their sections in a side table of the database.
+ * <p>
+ * Once the table exists, {@link Page#getPlainText()}, {@link Page#getNumberOfTokens()} and
+ * {@link Page#getSectionOffsets()} read the stored values instead of parsing the page, and the
+ * token constraints of a {@link PageQuery} are evaluated with a range scan of the table. Pages
+ * without a stored plain text, e.g. pages that were added later, are parsed instead.
+ */
+public class PlainTextMaterializer
+{
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Wikipedia wiki;
+
+    /**
+     * The number of hibernate ids whose pages are parsed and stored by one task.
+     */
+    private final int batchSize;
+
+    private final int threads;
+
+    /**
+     * Creates a materializer that parses batches of 100 pages with one thread per processor.
+     *
+     * @param wiki A valid, full initialized {@link Wikipedia} instance. Must not be {@code null}.
+     */
+    public PlainTextMaterializer(Wikipedia wiki)
+    {
+        this(wiki, 100, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param wiki A valid, full initialized {@link Wikipedia} instance. Must not be {@code null}.
+     * @param batchSize The number of pages that are loaded, parsed and stored together.
+     * @param threads The number of threads that parse pages concurrently.
+     */
+    public PlainTextMaterializer(Wikipedia wiki, int batchSize, int threads)
+    {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Parameter 'batchSize' must be positive.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parameter 'threads' must be positive.");
+        }
+        this.wiki = wiki;
+        this.batchSize = batchSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Parses all pages and stores their plain texts. The plain texts are written to a staging
+     * table, which replaces the previously stored plain texts only after all pages were stored. If
+     * the run fails, the staging table is dropped and the previous plain texts remain in use.
+     * Pages that cannot be parsed are skipped and logged; their plain texts are parsed when they
+     * are requested.
+     *
+     * @return The number of stored pages.
+     * @throws WikiApiException Thrown if errors occurred.
+     */
+    public int materialize() throws WikiApiException
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        Object[] range = session.createQuery("select min(p.id), max(p.id) from Page p",
+                Object[].class).uniqueResult();
+        session.getTransaction().commit();
+
+        PlainTextTable.createStaging(wiki);
+        boolean published = false;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            int stored = range[0] == null ? 0
+                    : materializeRanges(executor, (Long) range[0], (Long) range[1]);
+            PlainTextTable.publishStaging(wiki);
+            published = true;
+            logger.info("Stored the plain texts of {} pages.", stored);
+            return stored;
+        }
+        finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+            if (!published) {
+                // never leave a partially filled table behind
+                PlainTextTable.dropStaging(wiki);
+            }
+            wiki.resetMaterializedPlainTexts();
+        }
+    }
+
+    /**
+     * Waits until the tasks that were already running have finished, so that none of them writes
+     * to the staging table after it was dropped.
+     */
+    private static void awaitTermination(ExecutorService executor)
+    {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for the running batches to finish.");
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Parses and stores the pages with hibernate ids in a range, one batch per task. Only two
+     * tasks per thread are submitted at a time, the next one whenever a task has finished, so the
+     * number of pending tasks does not grow with the size of the wiki.
+     *
+     * @return The number of stored pages.
+     */
+    private int materializeRanges(ExecutorService executor, long minId, long maxId)
+        throws WikiApiException
+    {
+        try {
+            CompletionService<Integer> tasks = new ExecutorCompletionService<>(executor);
+            int batches = (int) ((maxId - minId) / batchSize + 1);
+            long nextId = minId - 1;
+            int running = 0;
+            for (; running < 2 * threads && nextId < maxId; running++) {
+                nextId = submitRange(tasks, nextId, maxId);
+            }
+
+            int stored = 0;
+            int progress = 0;
+            while (running > 0) {
+                stored += tasks.take().get();
+                running--;
+                progress++;
+                ApiUtilities.printProgressInfo(progress, batches, 100,
+                        ApiUtilities.ProgressInfoMode.TEXT, "materializing plain texts ... ");
+                if (nextId < maxId) {
+                    nextId = submitRange(tasks, nextId, maxId);
+                    running++;
+                }
+            }
+            return stored;
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof WikiApiException) {
+                throw (WikiApiException) e.getCause();
+            }
+            throw new WikiApiException(e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WikiApiException(e);
+        }
+    }
+
+    /**
+     * Submits the task for the batch that follows a hibernate id.
+     *
+     * @return The last hibernate id of the submitted batch.
+     */
+    private long submitRange(CompletionService<Integer> tasks, long lastId, long maxId)
+    {
+        long rangeEnd = Math.min(lastId + batchSize, maxId);
+        tasks.submit(() -> materializeRange(lastId, rangeEnd));
+        return rangeEnd;
+    }
+
+    /**
+     * Parses and stores the pages with hibernate ids in a range.
+     *
+     * @return The number of stored pages.
+     */
+    private int materializeRange(long lastId, long maxId)
+    {
+        List<Page> pages = new ArrayList<>();
+        new PageSpliterator(wiki, false, batchSize, lastId, maxId).forEachRemaining(pages::add);
+
+        PlainTextConverter converter = new PlainTextConverter(wiki.getWikConfig(), false,
+                Integer.MAX_VALUE);
+        List<PlainTextTable.Row> rows = new ArrayList<>(pages.size());
+        for (Page page : pages) {
+            try {
+                String plainText = (String) page.parsePage(converter);
+                rows.add(new PlainTextTable.Row(page.getPageId(), Page.countTokens(plainText),
+                        converter.getSectionOffsets(), plainText));
+            }
+            catch (WikiApiException e) {
+                logger.error("Could not parse page with id {}", page.getPageId(), e);
+            }
+        }
+        PlainTextTable.insert(wiki, rows);
+        return rows.size();
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * The side table with the plain texts of the pages, their numbers of tokens and the offsets of
+ * their sections, as written by {@link PlainTextMaterializer}.
+ * <p>
+ * The table is accessed with native SQL and is not mapped by Hibernate, because it only exists
+ * in databases for which the plain texts were materialized and the schema of the other tables is
+ * validated on startup.
+ */
+final class PlainTextTable
+{
+
+    static final String TABLE = "PagePlainText";
+
+    /**
+     * The table that is filled by a run of the {@link PlainTextMaterializer}. It only replaces
+     * {@link #TABLE} once all pages were stored, so readers never see a partially filled table.
+     * See {@link #publishStaging(Wikipedia)} for how the tables are swapped.
+     */
+    static final String STAGING_TABLE = "PagePlainTextStaging";
+
+    /**
+     * The name of {@link #TABLE} while it is replaced by the staging table.
+     */
+    static final String REPLACED_TABLE = "PagePlainTextReplaced";
+
+    private PlainTextTable()
+    {
+    }
+
+    /**
+     * @return {@code True}, if the table exists in the database of the wiki.
+     */
+    static boolean exists(Wikipedia wiki)
+    {
+        return exists(wiki, TABLE);
+    }
+
+    /**
+     * @return {@code True}, if the given table exists in the database of the wiki.
+     */
+    static boolean exists(Wikipedia wiki, String table)
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        boolean exists = session.doReturningWork(connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, "%",
+                    new String[] { "TABLE" })) {
+                while (tables.next()) {
+                    if (table.equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        session.getTransaction().commit();
+        return exists;
+    }
+
+    /**
+     * Creates the staging table, which is filled while the plain texts are materialized. An
+     * existing staging table, e.g. of a failed run, is dropped with all its rows.
+     */
+    static void createStaging(Wikipedia wiki)
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        // the type of long strings of the dialect, e.g. LONGTEXT on MySQL and TEXT on PostgreSQL
+        SessionFactoryImplementor factory = (SessionFactoryImplementor) session
+                .getSessionFactory();
+        String textType = factory.getTypeConfiguration().getDdlTypeRegistry()
+                .getTypeName(SqlTypes.LONG32VARCHAR, factory.getJdbcServices().getDialect());
+        session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DROP TABLE IF EXISTS " + STAGING_TABLE);
+                statement.executeUpdate("CREATE TABLE " + STAGING_TABLE
+                        + " (pageId INTEGER NOT NULL PRIMARY KEY, tokens INTEGER NOT NULL,"
+                        + " sectionOffsets " + textType + ", plainText " + textType + ")");
+            }
+        });
+        session.getTransaction().commit();
+    }
+
+    /**
+     * Replaces the table with the completely filled staging table and indexes the numbers of
+     * tokens. The previous table is renamed aside before the staging table takes its name and is
+     * dropped afterwards. On MySQL and MariaDB both renames are done by one atomic statement. On
+     * other databases they are separate statements, so the table is missing for the short time
+     * between them, unless the database supports transactional DDL.
+     */
+    static void publishStaging(Wikipedia wiki)
+    {
+        // a table left behind by a failed run
+        drop(wiki, REPLACED_TABLE);
+        boolean replace = exists(wiki);
+
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        Dialect dialect = ((SessionFactoryImplementor) session.getSessionFactory())
+                .getJdbcServices().getDialect();
+        session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                if (!replace) {
+                    statement.executeUpdate(rename(STAGING_TABLE, TABLE));
+                }
+                else if (dialect instanceof MySQLDialect) {
+                    statement.executeUpdate("RENAME TABLE " + TABLE + " TO " + REPLACED_TABLE
+                            + ", " + STAGING_TABLE + " TO " + TABLE);
+                }
+                else {
+                    statement.executeUpdate(rename(TABLE, REPLACED_TABLE));
+                    statement.executeUpdate(rename(STAGING_TABLE, TABLE));
+                }
+            }
+        });
+        session.getTransaction().commit();
+
+        // the index of the replaced table is dropped with it, which frees the name of the index
+        drop(wiki, REPLACED_TABLE);
+        session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        session.createNativeMutationQuery(
+                "CREATE INDEX " + TABLE + "TokensIndex ON " + TABLE + " (tokens)").executeUpdate();
+        session.getTransaction().commit();
+    }
+
+    private static String rename(String table, String newName)
+    {
+        return "ALTER TABLE " + table + " RENAME TO " + newName;
+    }
+
+    /**
+     * Drops the staging table, if it exists.
+     */
+    static void dropStaging(Wikipedia wiki)
+    {
+        drop(wiki, STAGING_TABLE);
+    }
+
+    /**
+     * Drops the table, if it exists.
+     */
+    static void drop(Wikipedia wiki)
+    {
+        drop(wiki, TABLE);
+    }
+
+    private static void drop(Wikipedia wiki, String table)
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        session.createNativeMutationQuery("DROP TABLE IF EXISTS " + table).executeUpdate();
+        session.getTransaction().commit();
+    }
+
+    /**
+     * Inserts the rows of a batch of pages into the staging table with one JDBC batch.
+     */
+    static void insert(Wikipedia wiki, List<Row> rows)
+    {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + STAGING_TABLE
+                    + " (pageId, tokens, sectionOffsets, plainText) VALUES (?, ?, ?, ?)")) {
+                for (Row row : rows) {
+                    statement.setInt(1, row.pageId);
+                    statement.setInt(2, row.tokens);
+                    statement.setString(3, joinOffsets(row.sectionOffsets));
+                    statement.setString(4, row.plainText);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        session.getTransaction().commit();
+    }
+
+    /**
+     * @return The plain text of the page or {@code null} if it was not materialized.
+     */
+    static String findPlainText(Wikipedia wiki, int pageId)
+    {
+        return findText(wiki, pageId, "plainText");
+    }
+
+    /**
+     * @return The offsets of the sections of the page or {@code null} if they were not
+     *         materialized.
+     */
+    static List<Integer> findSectionOffsets(Wikipedia wiki, int pageId)
+    {
+        String offsets = findText(wiki, pageId, "sectionOffsets");
+        return offsets != null ? splitOffsets(offsets) : null;
+    }
+
+    /**
+     * @return The number of tokens of the page or {@code null} if it was not materialized.
+     */
+    static Integer findTokens(Wikipedia wiki, int pageId)
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        Integer tokens = session
+                .createNativeQuery("SELECT tokens FROM " + TABLE + " WHERE pageId = :pageId",
+                        Integer.class)
+                .setParameter("pageId", pageId, StandardBasicTypes.INTEGER).uniqueResult();
+        session.getTransaction().commit();
+        return tokens;
+    }
+
+    /**
+     * Selects the pages by their numbers of tokens with a range scan of the index.
+     *
+     * @return The ids of the pages whose number of tokens is in the range.
+     */
+    static Set<Integer> selectPageIds(Wikipedia wiki, int minTokens, int maxTokens)
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        List<Integer> pageIds = session
+                .createNativeQuery("SELECT pageId FROM " + TABLE
+                        + " WHERE tokens >= :minTokens AND tokens <= :maxTokens", Integer.class)
+                .setParameter("minTokens", minTokens, StandardBasicTypes.INTEGER)
+                .setParameter("maxTokens", maxTokens, StandardBasicTypes.INTEGER).list();
+        session.getTransaction().commit();
+        return new HashSet<>(pageIds);
+    }
+
+    /**
+     * @return The ids of all pages whose plain texts were materialized.
+     */
+    static Set<Integer> selectPageIds(Wikipedia wiki)
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        List<Integer> pageIds = session
+                .createNativeQuery("SELECT pageId FROM " + TABLE, Integer.class).list();
+        session.getTransaction().commit();
+        return new HashSet<>(pageIds);
+    }
+
+    /**
+     * @return The numbers of tokens of the specified pages by their ids. Pages whose plain texts
+     *         were not materialized are missing.
+     */
+    static Map<Integer, Integer> findTokens(Wikipedia wiki, Collection<Integer> pageIds)
+    {
+        Map<Integer, Integer> tokens = new HashMap<>();
+        if (pageIds.isEmpty()) {
+            return tokens;
+        }
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        List<Object[]> rows = session
+                .createNativeQuery("SELECT pageId, tokens FROM " + TABLE
+                        + " WHERE pageId IN (:pageIds)", Object[].class)
+                .setParameterList("pageIds", pageIds).list();
+        session.getTransaction().commit();
+        for (Object[] row : rows) {
+            tokens.put(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+        }
+        return tokens;
+    }
+
+    private static String findText(Wikipedia wiki, int pageId, String column)
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        List<String> texts = session
+                .createNativeQuery("SELECT " + column + " FROM " + TABLE
+                        + " WHERE pageId = :pageId", String.class)
+                .setParameter("pageId", pageId, StandardBasicTypes.INTEGER).list();
+        session.getTransaction().commit();
+        return texts.isEmpty() ? null : texts.get(0);
+    }
+
+    private static String joinOffsets(List<Integer> offsets)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Integer offset : offsets) {
+            if (!sb.isEmpty()) {
+                sb.append(',');
+            }
+            sb.append(offset);
+        }
+        return sb.toString();
+    }
+
+    private static List<Integer> splitOffsets(String offsets)
+    {
+        List<Integer> result = new ArrayList<>();
+        if (!offsets.isEmpty()) {
+            for (String offset : offsets.split(",")) {
+                result.add(Integer.valueOf(offset));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The materialized values of a page.
+     */
+    static final class Row
+    {
+        private final int pageId;
+        private final int tokens;
+        private final List<Integer> sectionOffsets;
+        private final String plainText;
+
+        Row(int pageId, int tokens, List<Integer> sectionOffsets, String plainText)
+        {
+            this.pageId = pageId;
+            this.tokens = tokens;
+            this.sectionOffsets = sectionOffsets;
+            this.plainText = plainText;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The shortest paths from all nodes of an {@link IntDirectedGraph} to a root node.
+ * <p>
+ * The paths are computed with one breadth first search from the root along the child edges. Each
+ * node stores its depth and the parent through which it was discovered, which gives a shortest
+ * path tree. The lowest common subsumer of two nodes is their lowest common ancestor in this
+ * tree. It is found in O(log depth) with binary lifting, i.e. with tables of the 2^k-th ancestor
+ * of each node.
+ */
+final class RootPathIndex
+    implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntDirectedGraph graph;
+
+    /**
+     * The distance of each node to the root, -1 if there is no path to the root.
+     */
+    private final int[] depths;
+
+    /**
+     * ancestors[k][node] is the 2^k-th ancestor of the node on its path to the root, -1 if the
+     * path is shorter. ancestors[0] holds the parents in the shortest path tree.
+     */
+    private final int[][] ancestors;
+
+    private final int maxDepth;
+    private final int numberOfPaths;
+
+    /**
+     * Creates the index from a shortest path tree.
+     *
+     * @param graph
+     *            The graph.
+     * @param depths
+     *            The distance of each node to the root, -1 if there is no path to the root.
+     * @param parents
+     *            The parent of each node in the shortest path tree, -1 for the root and the nodes
+     *            without a path to the root.
+     */
+    RootPathIndex(IntDirectedGraph graph, int[] depths, int[] parents)
+    {
+        this.graph = graph;
+        this.depths = depths;
+        int n = graph.size();
+
+        int deepest = 0;
+        int paths = 0;
+        for (int depth : depths) {
+            if (depth != -1) {
+                deepest = Math.max(deepest, depth);
+                paths++;
+            }
+        }
+        maxDepth = deepest;
+        numberOfPaths = paths;
+
+        int levels = 1;
+        while ((1 << levels) <= maxDepth) {
+            levels++;
+        }
+        ancestors = new int[levels][];
+        ancestors[0] = parents;
+        for (int k = 1; k < levels; k++) {
+            int[] previous = ancestors[k - 1];
+            int[] current = new int[n];
+            for (int node = 0; node < n; node++) {
+                current[node] = previous[node] == -1 ? -1 : previous[previous[node]];
+            }
+            ancestors[k] = current;
+        }
+    }
+
+    /**
+     * Computes the paths to the root.
+     *
+     * @param graph
+     *            The graph.
+     * @param root
+     *            The index of the root node or -1 if the root is not part of the graph. Then, no
+     *            node has a path to the root.
+     * @return The index of the paths.
+     */
+    static RootPathIndex compute(IntDirectedGraph graph, int root)
+    {
+        int n = graph.size();
+        int[] depths = new int[n];
+        Arrays.fill(depths, -1);
+        int[] parents = new int[n];
+        Arrays.fill(parents, -1);
+
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        if (root != -1) {
+            depths[root] = 0;
+            queue[tail++] = root;
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = 0; i < graph.getOutDegree(node); i++) {
+                int child = graph.getChild(node, i);
+                if (depths[child] == -1) {
+                    depths[child] = depths[node] + 1;
+                    parents[child] = node;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return new RootPathIndex(graph, depths, parents);
+    }
+
+    /**
+     * @return The distance of the node to the root or -1 if there is no path to the root.
+     */
+    int getDepth(int node)
+    {
+        return depths[node];
+    }
+
+    /**
+     * @return The parent of the node in the shortest path tree or -1 if it is the root or has no
+     *         path to the root.
+     */
+    int getParent(int node)
+    {
+        return ancestors[0][node];
+    }
+
+    /**
+     * @return The largest distance of a node to the root.
+     */
+    int getMaxDepth()
+    {
+        return maxDepth;
+    }
+
+    /**
+     * @return The number of nodes with a path to the root, including the root itself.
+     */
+    int getNumberOfPaths()
+    {
+        return numberOfPaths;
+    }
+
+    /**
+     * @return The lowest common ancestor of the two nodes in the shortest path tree or -1 if one of
+     *         the nodes has no path to the root.
+     */
+    int getLowestCommonAncestor(int node1, int node2)
+    {
+        if (depths[node1] == -1 || depths[node2] == -1) {
+            return -1;
+        }
+        if (depths[node1] < depths[node2]) {
+            int tmp = node1;
+            node1 = node2;
+            node2 = tmp;
+        }
+        node1 = getAncestor(node1, depths[node1] - depths[node2]);
+        if (node1 == node2) {
+            return node1;
+        }
+        for (int k = ancestors.length - 1; k >= 0; k--) {
+            if (ancestors[k][node1] != ancestors[k][node2]) {
+                node1 = ancestors[k][node1];
+                node2 = ancestors[k][node2];
+            }
+        }
+        return ancestors[0][node1];
+    }
+
+    private int getAncestor(int node, int distance)
+    {
+        for (int k = 0; distance > 0; k++, distance >>= 1) {
+            if ((distance & 1) != 0) {
+                node = ancestors[k][node];
+            }
+        }
+        return node;
+    }
+
+    /**
+     * @return The page ids of the nodes on the path from the node to the root, both included. An
+     *         empty list if there is no path to the root.
+     */
+    List<Integer> getPathToRoot(int node)
+    {
+        List<Integer> path = new ArrayList<>(depths[node] + 1);
+        if (depths[node] != -1) {
+            for (int current = node; current != -1; current = ancestors[0][current]) {
+                path.add(graph.getPageId(current));
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Creates a read-only map view from the page ids of the nodes to their paths to the root. The
+     * lists are created when they are retrieved.
+     *
+     * @return A map in the format of {@link CategoryGraph#getRootPathMap()}.
+     */
+    Map<Integer, List<Integer>> asMap()
+    {
+        return new AbstractMap<>()
+        {
+            @Override
+            public List<Integer> get(Object key)
+            {
+                int index = key instanceof Integer ? graph.indexOf((Integer) key) : -1;
+                return index >= 0 ? getPathToRoot(index) : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key)
+            {
+                return key instanceof Integer && graph.indexOf((Integer) key) >= 0;
+            }
+
+            @Override
+            public int size()
+            {
+                return graph.size();
+            }
+
+            @Override
+            public Set<Entry<Integer, List<Integer>>> entrySet()
+            {
+                return new AbstractSet<>()
+                {
+                    @Override
+                    public Iterator<Entry<Integer, List<Integer>>> iterator()
+                    {
+                        return new Iterator<>()
+                        {
+                            private int index = 0;
+
+                            @Override
+                            public boolean hasNext()
+                            {
+                                return index < graph.size();
+                            }
+
+                            @Override
+                            public Entry<Integer, List<Integer>> next()
+                            {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                Entry<Integer, List<Integer>> entry = new SimpleImmutableEntry<>(
+                                        graph.getPageId(index), getPathToRoot(index));
+                                index++;
+                                return entry;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size()
+                    {
+                        return graph.size();
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.dkpro.jwpl.api.util.OS;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+/**
+ * An index for finding the page titles and redirects with the smallest Levenshtein distance to a
+ * pattern.
+ * <p>
+ * The index maps each character trigram to the titles that contain it. If a title can be turned
+ * into the pattern with {@code d} edits, at most {@code 3 * d} of the distinct trigrams of the
+ * pattern are missing in the title. A search therefore verifies the titles in the order of the
+ * number of trigrams they share with the pattern and stops as soon as no remaining title can be
+ * closer than the current results. Only titles without any shared trigram require a scan of all
+ * titles, which only happens for very short patterns or if there are fewer results than requested.
+ * <p>
+ * The titles, page ids and posting lists are stored in primitive arrays. The index can be saved
+ * with {@link #saveIndex(String)} and loaded with {@link #TitleIndex(File)}.
+ */
+public class TitleIndex
+{
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int MAGIC = 0x4A575449;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    /**
+     * The number of titles fetched with one query.
+     */
+    private static final int CHUNK_SIZE = 100_000;
+
+    /**
+     * The number of candidates that are verified in parallel before the stopping criterion is
+     * checked again.
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * The length of the character n-grams.
+     */
+    private static final int Q = 3;
+
+    /**
+     * Pads the titles at both ends, so that the first and last characters are part of Q n-grams.
+     */
+    private static final char PADDING = '\u0000';
+
+    /**
+     * The page id of each title.
+     */
+    private final int[] pageIds;
+
+    /**
+     * The characters of all titles. The characters of title i are in
+     * {@code titleChars[titleOffsets[i]..titleOffsets[i + 1]]}.
+     */
+    private final int[] titleOffsets;
+    private final char[] titleChars;
+
+    /**
+     * The distinct trigrams of all titles in ascending order, each encoded as three 16-bit chars.
+     */
+    private final long[] grams;
+
+    /**
+     * The titles containing the trigram i in ascending order are
+     * {@code postings[gramOffsets[i]..gramOffsets[i + 1]]}.
+     */
+    private final int[] gramOffsets;
+    private final int[] postings;
+
+    /**
+     * Creates the index of all page titles and redirects of the given Wikipedia.
+     *
+     * @param wiki
+     *            The wikipedia object.
+     */
+    public TitleIndex(Wikipedia wiki)
+    {
+        int[] ids = new int[1024];
+        int[] offsets = new int[1025];
+        StringBuilder chars = new StringBuilder();
+        int count = 0;
+
+        String hql = "select pml.id, pml.pageID, pml.name from PageMapLine pml"
+                + " where pml.id > :lastId order by pml.id";
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            rows = session.createQuery(hql, Object[].class).setParameter("lastId", lastId)
+                    .setMaxResults(CHUNK_SIZE).setFetchSize(CHUNK_SIZE).list();
+            for (Object[] row : rows) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    offsets = Arrays.copyOf(offsets, count * 2 + 1);
+                }
+                lastId = (Long) row[0];
+                ids[count] = (Integer) row[1];
+                chars.append((String) row[2]);
+                offsets[++count] = chars.length();
+            }
+        }
+        while (rows.size() == CHUNK_SIZE);
+        session.getTransaction().commit();
+
+        this.pageIds = Arrays.copyOf(ids, count);
+        this.titleOffsets = Arrays.copyOf(offsets, count + 1);
+        this.titleChars = new char[chars.length()];
+        chars.getChars(0, chars.length(), titleChars, 0);
+        logger.info("Loaded {} titles, {} MB memory used.", count, OS.getUsedMemory());
+
+        // number the distinct trigrams and count the titles containing them
+        Long2IntOpenHashMap gramIds = new Long2IntOpenHashMap();
+        gramIds.defaultReturnValue(-1);
+        int[] gramCounts = new int[1024];
+        for (int title = 0; title < count; title++) {
+            for (long gram : getGrams(titleChars, titleOffsets[title], titleOffsets[title + 1])) {
+                int id = gramIds.get(gram);
+                if (id == -1) {
+                    id = gramIds.size();
+                    gramIds.put(gram, id);
+                    if (id == gramCounts.length) {
+                        gramCounts = Arrays.copyOf(gramCounts, id * 2);
+                    }
+                }
+                gramCounts[id]++;
+            }
+        }
+
+        this.grams = gramIds.keySet().toLongArray();
+        Arrays.sort(grams);
+        this.gramOffsets = new int[grams.length + 1];
+        int[] ranks = new int[grams.length];
+        for (int rank = 0; rank < grams.length; rank++) {
+            int id = gramIds.get(grams[rank]);
+            ranks[id] = rank;
+            gramOffsets[rank + 1] = gramOffsets[rank] + gramCounts[id];
+        }
+
+        // the titles are added in ascending order, so each posting list is sorted
+        this.postings = new int[gramOffsets[grams.length]];
+        int[] fill = Arrays.copyOf(gramOffsets, grams.length);
+        for (int title = 0; title < count; title++) {
+            for (long gram : getGrams(titleChars, titleOffsets[title], titleOffsets[title + 1])) {
+                postings[fill[ranks[gramIds.get(gram)]]++] = title;
+            }
+        }
+        logger.info("Indexed {} trigrams, {} MB memory used.", grams.length, OS.getUsedMemory());
+    }
+
+    /**
+     * Creates a {@link TitleIndex} from a file written by {@link #saveIndex(String)}.
+     *
+     * @param location
+     *            The location of the saved index.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
+     */
+    public TitleIndex(File location) throws WikiApiException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(location, "r");
+                FileChannel channel = file.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new WikiApiException(location + " is not a saved title index.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new WikiApiException("Unsupported title index version " + version);
+            }
+            int numberOfTitles = header.getInt();
+            int numberOfChars = header.getInt();
+            int numberOfGrams = header.getInt();
+            int numberOfPostings = header.getInt();
+
+            long expectedSize = HEADER_SIZE
+                    + (long) (2 * numberOfTitles + 1) * Integer.BYTES
+                    + (long) numberOfChars * Character.BYTES
+                    + (long) numberOfGrams * Long.BYTES
+                    + (long) (numberOfGrams + 1 + numberOfPostings) * Integer.BYTES;
+            if (channel.size() != expectedSize) {
+                throw new WikiApiException(location + " has " + channel.size()
+                        + " bytes, but the header announces " + expectedSize + " bytes.");
+            }
+
+            long position = HEADER_SIZE;
+            this.pageIds = new int[numberOfTitles];
+            map(channel, position, (long) numberOfTitles * Integer.BYTES).asIntBuffer()
+                    .get(pageIds);
+            position += (long) numberOfTitles * Integer.BYTES;
+            this.titleOffsets = new int[numberOfTitles + 1];
+            map(channel, position, (long) titleOffsets.length * Integer.BYTES).asIntBuffer()
+                    .get(titleOffsets);
+            position += (long) titleOffsets.length * Integer.BYTES;
+            this.titleChars = new char[numberOfChars];
+            map(channel, position, (long) numberOfChars * Character.BYTES).asCharBuffer()
+                    .get(titleChars);
+            position += (long) numberOfChars * Character.BYTES;
+            this.grams = new long[numberOfGrams];
+            map(channel, position, (long) numberOfGrams * Long.BYTES).asLongBuffer().get(grams);
+            position += (long) numberOfGrams * Long.BYTES;
+            this.gramOffsets = new int[numberOfGrams + 1];
+            map(channel, position, (long) gramOffsets.length * Integer.BYTES).asIntBuffer()
+                    .get(gramOffsets);
+            position += (long) gramOffsets.length * Integer.BYTES;
+            this.postings = new int[numberOfPostings];
+            map(channel, position, (long) numberOfPostings * Integer.BYTES).asIntBuffer()
+                    .get(postings);
+        }
+        catch (IOException e) {
+            throw new WikiApiException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length)
+        throws IOException
+    {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Saves the index to the given destination.
+     *
+     * @param destination
+     *            The destination to which should be saved.
+     * @throws WikiApiException
+     *             Thrown if errors occurred.
+     */
+    public void saveIndex(String destination) throws WikiApiException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(destination, "rw");
+                FileChannel channel = file.getChannel()) {
+            file.setLength(0);
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(pageIds.length)
+                    .putInt(titleChars.length).putInt(grams.length).putInt(postings.length);
+            for (int value : pageIds) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(value);
+            }
+            for (int value : titleOffsets) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(value);
+            }
+            for (char value : titleChars) {
+                buffer = ensureRemaining(channel, buffer, Character.BYTES).putChar(value);
+            }
+            for (long value : grams) {
+                buffer = ensureRemaining(channel, buffer, Long.BYTES).putLong(value);
+            }
+            for (int value : gramOffsets) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(value);
+            }
+            for (int value : postings) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(value);
+            }
+            write(channel, buffer);
+        }
+        catch (IOException e) {
+            throw new WikiApiException(e);
+        }
+    }
+
+    private static ByteBuffer ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes)
+        throws IOException
+    {
+        if (buffer.remaining() < bytes) {
+            write(channel, buffer);
+        }
+        return buffer;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return The number of indexed titles and redirects.
+     */
+    public int getNumberOfTitles()
+    {
+        return pageIds.length;
+    }
+
+    /**
+     * Finds the pages with the titles or redirects that have the smallest Levenshtein distance to
+     * the pattern. Ties at the last position are broken arbitrarily.
+     *
+     * @param pattern
+     *            The pattern. It is compared to the titles as is, i.e. it should already be in the
+     *            form of {@link Title#getWikiStyleTitle()}.
+     * @param size
+     *            The maximum number of pages to return.
+     * @return A map from the page ids to the smallest distance of one of their titles, in the order
+     *         of ascending distance.
+     */
+    public Map<Integer, Double> search(String pattern, int size)
+    {
+        if (size <= 0 || pageIds.length == 0) {
+            return new LinkedHashMap<>();
+        }
+        char[] patternChars = pattern.toCharArray();
+        long[] patternGrams = getGrams(patternChars, 0, patternChars.length);
+
+        // count the shared trigrams of the titles by sorting the concatenated posting lists
+        int total = 0;
+        int[] gramIndexes = new int[patternGrams.length];
+        for (int i = 0; i < patternGrams.length; i++) {
+            gramIndexes[i] = Arrays.binarySearch(grams, patternGrams[i]);
+            if (gramIndexes[i] >= 0) {
+                total += gramOffsets[gramIndexes[i] + 1] - gramOffsets[gramIndexes[i]];
+            }
+        }
+        int[] hits = new int[total];
+        total = 0;
+        for (int gramIndex : gramIndexes) {
+            if (gramIndex >= 0) {
+                int length = gramOffsets[gramIndex + 1] - gramOffsets[gramIndex];
+                System.arraycopy(postings, gramOffsets[gramIndex], hits, total, length);
+                total += length;
+            }
+        }
+        Arrays.parallelSort(hits);
+
+        int[] candidates = new int[hits.length];
+        int[] sharedCounts = new int[hits.length];
+        int numberOfCandidates = 0;
+        for (int i = 0; i < hits.length; i++) {
+            if (i > 0 && hits[i] == hits[i - 1]) {
+                sharedCounts[numberOfCandidates - 1]++;
+            }
+            else {
+                candidates[numberOfCandidates] = hits[i];
+                sharedCounts[numberOfCandidates] = 1;
+                numberOfCandidates++;
+            }
+        }
+
+        // order the candidates by descending number of shared trigrams with a counting sort
+        int[] bucketStarts = new int[patternGrams.length + 2];
+        for (int i = 0; i < numberOfCandidates; i++) {
+            bucketStarts[patternGrams.length - sharedCounts[i] + 1]++;
+        }
+        for (int i = 1; i < bucketStarts.length; i++) {
+            bucketStarts[i] += bucketStarts[i - 1];
+        }
+        int[] order = new int[numberOfCandidates];
+        int[] orderedCounts = new int[numberOfCandidates];
+        for (int i = 0; i < numberOfCandidates; i++) {
+            int position = bucketStarts[patternGrams.length - sharedCounts[i]]++;
+            order[position] = candidates[i];
+            orderedCounts[position] = sharedCounts[i];
+        }
+
+        TopPages top = new TopPages(size);
+        for (int start = 0; start < numberOfCandidates; start += BATCH_SIZE) {
+            if (top.isFull()
+                    && getMinimumDistance(patternGrams.length, orderedCounts[start]) >= top
+                            .getWorstDistance()) {
+                return top.toMap();
+            }
+            verify(order, start, Math.min(start + BATCH_SIZE, numberOfCandidates), patternChars,
+                    top);
+        }
+
+        // the titles without a shared trigram can only be closer if there are too few results
+        if (!top.isFull()
+                || getMinimumDistance(patternGrams.length, 0) < top.getWorstDistance()) {
+            int[] allTitles = IntStream.range(0, pageIds.length).toArray();
+            for (int start = 0; start < allTitles.length; start += BATCH_SIZE) {
+                verify(allTitles, start, Math.min(start + BATCH_SIZE, allTitles.length),
+                        patternChars, top);
+            }
+        }
+        return top.toMap();
+    }
+
+    /**
+     * Computes the distances of a batch of titles in parallel and offers them to the results.
+     */
+    private void verify(int[] titles, int start, int end, char[] pattern, TopPages top)
+    {
+        int limit = top.isFull() ? top.getWorstDistance() : Integer.MAX_VALUE;
+        int[] distances = IntStream.range(start, end).parallel()
+                .map(i -> getDistance(titles[i], pattern, limit)).toArray();
+        for (int i = start; i < end; i++) {
+            top.offer(pageIds[titles[i]], distances[i - start]);
+        }
+    }
+
+    /**
+     * @return The smallest possible distance of a title that shares the given number of the
+     *         distinct trigrams of the pattern.
+     */
+    private static int getMinimumDistance(int numberOfPatternGrams, int sharedGrams)
+    {
+        return (numberOfPatternGrams - sharedGrams + Q - 1) / Q;
+    }
+
+    /**
+     * Computes the Levenshtein distance between a title and the pattern, if it is not larger than
+     * the limit.
+     *
+     * @return The distance or a value larger than the limit if the distance is larger.
+     */
+    private int getDistance(int title, char[] pattern, int limit)
+    {
+        int from = titleOffsets[title];
+        int n = titleOffsets[title + 1] - from;
+        int m = pattern.length;
+        if (Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            char c = titleChars[from + i - 1];
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = c == pattern[j - 1] ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1),
+                        previous[j - 1] + cost);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            // the distance can not get smaller than the minimum of a row
+            if (rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+        return previous[m];
+    }
+
+    /**
+     * @return The distinct trigrams of the padded characters in ascending order.
+     */
+    private static long[] getGrams(char[] chars, int from, int to)
+    {
+        int length = to - from;
+        long[] result = new long[length + Q - 1];
+        for (int i = 0; i < result.length; i++) {
+            long gram = 0;
+            for (int j = i - (Q - 1); j <= i; j++) {
+                char c = j >= 0 && j < length ? chars[from + j] : PADDING;
+                gram = (gram << Character.SIZE) | c;
+            }
+            result[i] = gram;
+        }
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    /**
+     * The pages with the smallest distances found so far. A page that is found with several titles
+     * keeps its smallest distance.
+     */
+    private static final class TopPages
+    {
+        private final int size;
+        private final Map<Integer, Integer> distances = new HashMap<>();
+
+        /**
+         * The pages with the largest distance first.
+         */
+        private final PriorityQueue<Integer> worstFirst;
+
+        TopPages(int size)
+        {
+            this.size = size;
+            this.worstFirst = new PriorityQueue<>(
+                    Comparator.comparing((Integer pageId) -> distances.get(pageId)).reversed());
+        }
+
+        boolean isFull()
+        {
+            return distances.size() == size;
+        }
+
+        int getWorstDistance()
+        {
+            return distances.get(worstFirst.peek());
+        }
+
+        void offer(int pageId, int distance)
+        {
+            Integer current = distances.get(pageId);
+            if (current != null) {
+                if (distance < current) {
+                    worstFirst.remove(pageId);
+                    distances.put(pageId, distance);
+                    worstFirst.add(pageId);
+                }
+            }
+            else if (!isFull()) {
+                distances.put(pageId, distance);
+                worstFirst.add(pageId);
+            }
+            else if (distance < getWorstDistance()) {
+                distances.remove(worstFirst.poll());
+                distances.put(pageId, distance);
+                worstFirst.add(pageId);
+            }
+        }
+
+        Map<Integer, Double> toMap()
+        {
+            Map<Integer, Double> map = new LinkedHashMap<>();
+            distances.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .forEach(entry -> map.put(entry.getKey(), entry.getValue().doubleValue()));
+            return map;
+        }
+    }
+}
@@ -76,7 +76,7 @@ public class TitleIterator
                                          // database.
         private int bufferFillSize; // even a 500 slot buffer can be filled with only 5 elements
         private int bufferOffset; // the offset in the buffer
-        private int dataOffset; // the overall offset in the data
+        private long lastId; // the id of the last title read from the database
 
         public TitleBuffer(int bufferSize, Wikipedia wiki)
         {
@@ -85,7 +85,7 @@ public class TitleIterator
             this.titleStringBuffer = new ArrayList<>();
             this.bufferFillSize = 0;
             this.bufferOffset = 0;
-            this.dataOffset = 0;
+            this.lastId = 0;
         }
 
         /**
@@ -134,7 +134,6 @@ public class TitleIterator
                 e.printStackTrace();
             }
             bufferOffset++;
-            dataOffset++;
             return title;
         }
 
@@ -143,9 +142,11 @@ public class TitleIterator
 
             Session session = this.wiki.__getHibernateSession();
             session.beginTransaction();
-            final String sql = "select p.name from PageMapLine as p";
-            List<String> returnList = session.createNativeQuery(sql, String.class)
-                    .setFirstResult(dataOffset).setMaxResults(maxBufferSize)
+            // keyset pagination, so that the database does not skip all previously read rows
+            final String hql = "select p.id, p.name from PageMapLine as p where p.id > :lastId "
+                    + "order by p.id";
+            List<Object[]> returnList = session.createQuery(hql, Object[].class)
+                    .setParameter("lastId", lastId).setMaxResults(maxBufferSize)
                     .setFetchSize(maxBufferSize).list();
             session.getTransaction().commit();
 
@@ -154,7 +155,10 @@ public class TitleIterator
             bufferOffset = 0;
             bufferFillSize = 0;
 
-            titleStringBuffer.addAll(returnList);
+            for (Object[] row : returnList) {
+                lastId = (Long) row[0];
+                titleStringBuffer.add((String) row[1]);
+            }
 
             if (!titleStringBuffer.isEmpty()) {
                 bufferFillSize = titleStringBuffer.size();
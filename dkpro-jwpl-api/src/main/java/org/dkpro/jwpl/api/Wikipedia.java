@@ -18,31 +18,45 @@
 package org.dkpro.jwpl.api;
 
 import java.lang.invoke.MethodHandles;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
 import org.dkpro.jwpl.api.exception.WikiInitializationException;
 import org.dkpro.jwpl.api.exception.WikiPageNotFoundException;
 import org.dkpro.jwpl.api.exception.WikiTitleParsingException;
 import org.dkpro.jwpl.api.hibernate.WikiHibernateUtil;
-import org.dkpro.jwpl.api.util.distance.LevenshteinStringDistance;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.hibernate.type.StandardBasicTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sweble.wikitext.engine.WtEngineImpl;
 import org.sweble.wikitext.engine.config.WikiConfig;
 
 /**
  * Provides access to Wikipedia articles and categories.
+ * <p>
+ * A {@link Wikipedia} object can be shared by many threads, including virtual threads. All methods
+ * of this class may be called concurrently: each thread works with its own Hibernate session, the
+ * sessions take their connections from a pool that is bounded by
+ * {@link DatabaseConfiguration#getMaxConnections()}, the id caches are concurrent maps, and the
+ * Sweble engines that parse the pages come from a small pool. The returned {@link Page} and
+ * {@link Category} objects are not thread-safe and should be used by the thread that retrieved
+ * them.
  */
 // TODO better JavaDocs!
 public class Wikipedia
@@ -55,6 +69,9 @@ public class Wikipedia
     // it!
     static final String SQL_COLLATION = " COLLATE utf8mb4_bin"; /* " COLLATE utf8_bin"; */
 
+    // The maximum number of ids bound to a single "in (...)" condition.
+    private static final int ID_CHUNK_SIZE = 1000;
+
     private final Language language;
     private final DatabaseConfiguration dbConfig;
 
@@ -70,11 +87,30 @@ public class Wikipedia
      */
     private final Map<Integer, Long> idMapCategories;
 
+    private final SessionFactory sessionFactory;
+
     private final MetaData metaData;
 
     // Note: This should only be accessed internally.
     private final WikiConfig wikiConfig;
 
+    // The index for similar page names. It is only built if it is used.
+    private TitleIndex titleIndex;
+
+    // The maximum number of idle Sweble engines that are kept for reuse.
+    static final int ENGINE_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    // Sweble engines are not thread-safe, so a page is compiled with an engine that is borrowed
+    // from this pool. It does not grow with the number of threads, e.g. virtual threads.
+    private final BlockingQueue<WtEngineImpl> engines;
+
+    // The plain texts of the recently parsed pages by their pageIDs, or null if they are not cached.
+    private volatile Map<Integer, String> plainTextCache;
+    private int plainTextCacheSize;
+
+    // Whether the plain texts were materialized, or null if this was not checked yet.
+    private volatile Boolean plainTextsMaterialized;
+
     /**
      * Creates a new {@link Wikipedia} object accessing the database indicated by the dbConfig
      * parameter.
@@ -90,11 +126,13 @@ public class Wikipedia
         this.language = dbConfig.getLanguage();
         this.dbConfig = dbConfig;
 
-        this.idMapPages = new HashMap<>();
-        this.idMapCategories = new HashMap<>();
+        this.idMapPages = new ConcurrentHashMap<>();
+        this.idMapCategories = new ConcurrentHashMap<>();
+        this.sessionFactory = WikiHibernateUtil.getSessionFactory(dbConfig);
 
         this.metaData = new MetaData(this);
         this.wikiConfig = this.language.getWikiconfig();
+        this.engines = new ArrayBlockingQueue<>(ENGINE_POOL_SIZE);
 
         if (dbConfig.supportsCollation()) {
             logger.info("Wikipedia database backend supports character collation features.");
@@ -108,6 +146,105 @@ public class Wikipedia
         return wikiConfig;
     }
 
+    /**
+     * Borrows a Sweble engine from the pool. A new engine is created if no idle engine is left.
+     * The engine must be given back with {@link #returnEngine(WtEngineImpl)} after use.
+     *
+     * @return An engine that is used by no other thread until it is returned.
+     */
+    WtEngineImpl borrowEngine() {
+        WtEngineImpl engine = engines.poll();
+        return engine != null ? engine : new WtEngineImpl(wikiConfig);
+    }
+
+    /**
+     * Gives an engine back to the pool. It is dropped if the pool already holds enough idle engines.
+     *
+     * @param engine An engine obtained from {@link #borrowEngine()}.
+     */
+    void returnEngine(WtEngineImpl engine) {
+        engines.offer(engine);
+    }
+
+    /**
+     * Sets the number of plain texts that are cached, so that {@link Page#getPlainText()} does not
+     * parse a page again if it is requested several times, e.g. by different components of a
+     * pipeline. The least recently used plain texts are evicted first. By default, no plain texts
+     * are cached.
+     *
+     * @param size The maximum number of cached plain texts. {@code 0} disables the cache.
+     */
+    public synchronized void setPlainTextCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The cache size must not be negative: " + size);
+        }
+        this.plainTextCacheSize = size;
+        if (size == 0) {
+            this.plainTextCache = null;
+            return;
+        }
+        this.plainTextCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > size;
+            }
+        });
+    }
+
+    /**
+     * @return The maximum number of cached plain texts. {@code 0} if they are not cached.
+     */
+    public synchronized int getPlainTextCacheSize() {
+        return plainTextCacheSize;
+    }
+
+    /**
+     * Tests, whether the plain texts of the pages were stored by a {@link PlainTextMaterializer}.
+     * In that case, the plain texts and the numbers of tokens of the pages are read from the
+     * database instead of parsing the pages.
+     *
+     * @return {@code True}, if the plain texts were materialized, {@code false} otherwise.
+     */
+    public boolean hasMaterializedPlainTexts() {
+        Boolean materialized = plainTextsMaterialized;
+        if (materialized == null) {
+            materialized = PlainTextTable.exists(this);
+            plainTextsMaterialized = materialized;
+        }
+        return materialized;
+    }
+
+    /**
+     * Forgets whether the plain texts were materialized, so that it is checked again.
+     */
+    void resetMaterializedPlainTexts() {
+        plainTextsMaterialized = null;
+    }
+
+    /**
+     * @param pageId The pageID of a page.
+     * @return The cached plain text of the page or {@code null} if it is not cached.
+     */
+    String getCachedPlainText(int pageId) {
+        Map<Integer, String> cache = plainTextCache;
+        return cache != null ? cache.get(pageId) : null;
+    }
+
+    /**
+     * Caches the plain text of a page, if plain texts are cached.
+     *
+     * @param pageId    The pageID of a page.
+     * @param plainText The plain text of the page.
+     */
+    void cachePlainText(int pageId, String plainText) {
+        Map<Integer, String> cache = plainTextCache;
+        if (cache != null) {
+            cache.put(pageId, plainText);
+        }
+    }
+
     /**
      * Gets the page with the given title. If the title is a redirect, the corresponding page is
      * returned.<br>
@@ -176,6 +313,22 @@ public class Wikipedia
         return new Page(this, pageId);
     }
 
+    /**
+     * Gets the pages for the given pageIds. The pages are loaded in bulk, with one query per chunk of
+     * ids, so this is much faster than calling {@link #getPage(int)} for each id.
+     *
+     * @param pageIds The ids of the pages.
+     * @return The page objects for the given pageIds. Ids without a page are silently ignored.
+     */
+    public Set<Page> getPagesByIds(Collection<Integer> pageIds) {
+        Set<Page> pages = new HashSet<>();
+        for (org.dkpro.jwpl.api.hibernate.Page hibernatePage : fetchByPageIds(
+                org.dkpro.jwpl.api.hibernate.Page.class, pageIds)) {
+            pages.add(new Page(this, hibernatePage, null));
+        }
+        return pages;
+    }
+
     /**
      * Gets the title for a given pageId.
      *
@@ -399,8 +552,10 @@ public class Wikipedia
     }
 
     /**
-     * Gets the pages or redirects with a name similar to the pattern. Calling this method is quite
-     * costly, as similarity is computed for all names.
+     * Gets the pages or redirects with a name similar to the pattern. The names are looked up in
+     * the {@link TitleIndex} of this Wikipedia, which is built with the first call unless it was
+     * set with {@link #setTitleIndex(TitleIndex)}. Building it reads all page titles and redirects
+     * and the index is kept in memory afterwards, see {@link #getTitleIndex()}.
      *
      * @param pPattern The pattern.
      * @param pSize    The maximum size of the result list. Only the most similar results will be
@@ -415,39 +570,10 @@ public class Wikipedia
 
         // a mapping of the most similar pages and their similarity values
         // It is returned by this method.
-        Map<Page, Double> pageMap = new HashMap<>();
+        Map<Page, Double> pageMap = new LinkedHashMap<>();
 
         // holds a mapping of the best distance values to page IDs
-        Map<Integer, Double> distanceMap = new HashMap<>();
-
-        final LevenshteinStringDistance lsd = new LevenshteinStringDistance();
-        Session session = this.__getHibernateSession();
-        session.beginTransaction();
-        final String query = "select new org.dkpro.jwpl.api.Wikipedia$PageTuple(pml.pageID, pml.name)"
-                + " from PageMapLine as pml";
-        for (PageTuple o : session.createQuery(query, PageTuple.class)
-                .list()) {
-
-            // this returns a similarity - if we want to use it, we have to change the semantics the
-            // ordering of the results
-            double distance = lsd.distance(o.name(), pattern);
-
-            distanceMap.put(o.id(), distance);
-
-            // if there are more than "pSize" entries in the map remove the last one (it has the
-            // biggest distance)
-            if (distanceMap.size() > pSize) {
-                Set<Entry<Integer, Double>> valueSortedSet = new TreeSet<>(new ValueComparator());
-                valueSortedSet.addAll(distanceMap.entrySet());
-                Iterator<Entry<Integer, Double>> it = valueSortedSet.iterator();
-                // remove the first element
-                if (it.hasNext()) {
-                    // get the id of this entry and remove it in the distanceMap
-                    distanceMap.remove(it.next().getKey());
-                }
-            }
-        }
-        session.getTransaction().commit();
+        Map<Integer, Double> distanceMap = getTitleIndex().search(pattern, pSize);
 
         for (int pageID : distanceMap.keySet()) {
             Page page = null;
@@ -462,6 +588,36 @@ public class Wikipedia
         return pageMap;
     }
 
+    /**
+     * Gets the index of the page titles and redirects that is used by
+     * {@link #getSimilarPages(String, int)}. It is built from the database with the first call,
+     * which reads all page titles and redirects, and is kept until it is released with
+     * {@link #setTitleIndex(TitleIndex) setTitleIndex(null)}. For a large Wikipedia, building the
+     * index takes minutes and it holds several hundred MB, so consider saving it with
+     * {@link TitleIndex#saveIndex(String)} and loading it with
+     * {@link TitleIndex#TitleIndex(java.io.File)} instead of building it again.
+     *
+     * @return The title index of this Wikipedia.
+     */
+    public synchronized TitleIndex getTitleIndex() {
+        if (titleIndex == null) {
+            titleIndex = new TitleIndex(this);
+        }
+        return titleIndex;
+    }
+
+    /**
+     * Sets the index of the page titles and redirects, e.g. one that was loaded with
+     * {@link TitleIndex#TitleIndex(java.io.File)}, so that it does not have to be built from the
+     * database.
+     *
+     * @param titleIndex The title index of this Wikipedia or {@code null} to release the current
+     *                   index. It is built again if it is needed afterwards.
+     */
+    public synchronized void setTitleIndex(TitleIndex titleIndex) {
+        this.titleIndex = titleIndex;
+    }
+
     /**
      * Gets the category for a given title. If the {@link Category} title start with a lowercase
      * letter it converts it to an uppercase letter, as each Wikipedia category title starts with an
@@ -498,6 +654,46 @@ public class Wikipedia
         }
     }
 
+    /**
+     * Gets the categories for the given pageIds. The categories are loaded in bulk, with one query
+     * per chunk of ids, so this is much faster than calling {@link #getCategory(int)} for each id.
+     *
+     * @param pageIds The ids of the {@link Category categories}.
+     * @return The category objects for the given pageIds. Ids without a category are silently
+     *         ignored.
+     */
+    public Set<Category> getCategoriesByIds(Collection<Integer> pageIds) {
+        Set<Category> categories = new HashSet<>();
+        for (org.dkpro.jwpl.api.hibernate.Category hibernateCategory : fetchByPageIds(
+                org.dkpro.jwpl.api.hibernate.Category.class, pageIds)) {
+            categories.add(new Category(this, hibernateCategory));
+        }
+        return categories;
+    }
+
+    /**
+     * Loads the hibernate entities with the given pageIds, binding at most {@link #ID_CHUNK_SIZE}
+     * ids to each query.
+     */
+    private <T> List<T> fetchByPageIds(Class<T> entityClass, Collection<Integer> pageIds) {
+        List<Integer> ids = new ArrayList<>(new HashSet<>(pageIds));
+        List<T> entities = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return entities;
+        }
+
+        String hql = "from " + entityClass.getSimpleName() + " where pageId in :ids";
+        Session session = this.__getHibernateSession();
+        session.beginTransaction();
+        for (int i = 0; i < ids.size(); i += ID_CHUNK_SIZE) {
+            entities.addAll(session.createQuery(hql, entityClass)
+                    .setParameterList("ids", ids.subList(i, Math.min(i + ID_CHUNK_SIZE, ids.size())))
+                    .list());
+        }
+        session.getTransaction().commit();
+        return entities;
+    }
+
     /**
      * This returns an iterable over all {@link Category categories}, as returning all category
      * objects would be much too expensive.
@@ -546,10 +742,35 @@ public class Wikipedia
      * @param bufferSize The size of the internal page buffer.
      * @return An iterable over all categories.
      */
-    protected Iterable<Category> getCategories(int bufferSize) {
+    public Iterable<Category> getCategories(int bufferSize) {
         return new CategoryIterable(this, bufferSize);
     }
 
+    /**
+     * Get the metadata of all wikipedia pages, i.e. their ids, titles, disambiguation flags and
+     * the numbers of their redirects, links and categories. Unlike {@link #getPages()}, neither the
+     * texts of the pages nor the ids of the linked pages are retrieved from the database.
+     *
+     * @param onlyArticles {@code True} if disambiguation pages shall be skipped.
+     * @return An iterable over the summaries of all pages.
+     */
+    public Iterable<PageSummary> getPageSummaries(boolean onlyArticles) {
+        return new PageSummaryIterable(this, onlyArticles);
+    }
+
+    /**
+     * Get the metadata of all wikipedia pages, i.e. their ids, titles, disambiguation flags and
+     * the numbers of their redirects, links and categories. Unlike {@link #getPages()}, neither the
+     * texts of the pages nor the ids of the linked pages are retrieved from the database.
+     *
+     * @param onlyArticles {@code True} if disambiguation pages shall be skipped.
+     * @param bufferSize   The number of summaries fetched with one query to the database.
+     * @return An iterable over the summaries of all pages.
+     */
+    public Iterable<PageSummary> getPageSummaries(boolean onlyArticles, int bufferSize) {
+        return new PageSummaryIterable(this, onlyArticles, bufferSize);
+    }
+
     /**
      * Protected method that is much faster than the public version, but exposes too much
      * implementation details. Get a set with all category pageIDs. Returning all category objects
@@ -586,7 +807,7 @@ public class Wikipedia
      * @param bufferSize The size of the internal page buffer.
      * @return An iterable over all pages.
      */
-    protected Iterable<Page> getPages(int bufferSize) {
+    public Iterable<Page> getPages(int bufferSize) {
         return new PageIterable(this, false, bufferSize);
     }
 
@@ -630,6 +851,66 @@ public class Wikipedia
         return new PageQueryIterable(this, query);
     }
 
+    /**
+     * Get the pages that match the given query, evaluating the query lazily while iterating.
+     * Unlike {@link #getPages(PageQuery)}, the first pages are returned without evaluating the
+     * query for the whole Wikipedia first, and the required memory does not depend on the number
+     * of matching pages.
+     *
+     * @param query A query object containing the query conditions.
+     * @param bufferSize The number of candidate pages fetched with one query to the database.
+     * @return An iterable over the pages that match the given query.
+     */
+    public Iterable<Page> getPages(PageQuery query, int bufferSize) {
+        return new PageQueryIterable(this, query, bufferSize);
+    }
+
+    /**
+     * Get a stream of all pages. Does not include redirects, as they are only pointers to real
+     * pages. The pages are fetched lazily in batches of 500.
+     * <p>
+     * The stream can be processed in parallel: its spliterator splits the range of hibernate ids,
+     * so each worker thread fetches the pages of its own range with its own session.
+     *
+     * @param onlyArticles {@code True} if disambiguation pages shall be skipped, too.
+     * @return A sequential stream of the pages, ordered by their hibernate ids.
+     */
+    public Stream<Page> pageStream(boolean onlyArticles) {
+        return pageStream(onlyArticles, 500);
+    }
+
+    /**
+     * Get a stream of all pages. Does not include redirects, as they are only pointers to real
+     * pages.
+     * <p>
+     * The stream can be processed in parallel: its spliterator splits the range of hibernate ids,
+     * so each worker thread fetches the pages of its own range with its own session.
+     *
+     * @param onlyArticles {@code True} if disambiguation pages shall be skipped, too.
+     * @param bufferSize   The number of pages fetched with one query to the database. Must be
+     *                     positive.
+     * @return A sequential stream of the pages, ordered by their hibernate ids.
+     * @throws IllegalArgumentException Thrown if {@code bufferSize} is less than one.
+     */
+    public Stream<Page> pageStream(boolean onlyArticles, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be positive: " + bufferSize);
+        }
+        Session session = this.__getHibernateSession();
+        session.beginTransaction();
+        Object[] range = session.createQuery("select min(p.id), max(p.id) from Page p",
+                Object[].class).uniqueResult();
+        session.getTransaction().commit();
+
+        if (range[0] == null) {
+            return Stream.empty();
+        }
+        long minId = (Long) range[0];
+        long maxId = (Long) range[1];
+        return StreamSupport.stream(
+                new PageSpliterator(this, onlyArticles, bufferSize, minId - 1, maxId), false);
+    }
+
     /**
      * Get all articles (pages MINUS disambiguationPages MINUS redirects). Returns only an iterable,
      * as a collection may not fit into memory for a large wikipedia.
@@ -650,6 +931,17 @@ public class Wikipedia
         return new TitleIterable(this);
     }
 
+    /**
+     * Get all titles (including disambiguation pages and redirects). Returns only an iterable, as a
+     * collection may not fit into memory for a large Wikipedia instance.
+     *
+     * @param bufferSize The number of titles fetched with one query to the database.
+     * @return An iterable of all titles.
+     */
+    public Iterable<Title> getTitles(int bufferSize) {
+        return new TitleIterable(this, bufferSize);
+    }
+
     /**
      * @return The {@link Language} of this Wikipedia.
      */
@@ -735,8 +1027,9 @@ public class Wikipedia
         long hibernateID = -1;
 
         // first look in the id mapping cache
-        if (idMapPages.containsKey(pageID)) {
-            return idMapPages.get(pageID);
+        Long cachedID = idMapPages.get(pageID);
+        if (cachedID != null) {
+            return cachedID;
         }
 
         // The id was not found in the id mapping cache.
@@ -768,8 +1061,9 @@ public class Wikipedia
         long hibernateID = -1;
 
         // first look in the id mapping cache
-        if (idMapCategories.containsKey(pageID)) {
-            return idMapCategories.get(pageID);
+        Long cachedID = idMapCategories.get(pageID);
+        if (cachedID != null) {
+            return cachedID;
         }
 
         // The id was not found in the id mapping cache.
@@ -808,7 +1102,7 @@ public class Wikipedia
      * @return Shortcut for getting a hibernate session.
      */
     protected Session __getHibernateSession() {
-        return WikiHibernateUtil.getSessionFactory(this.dbConfig).getCurrentSession();
+        return sessionFactory.getCurrentSession();
     }
 
     /**
@@ -826,17 +1120,4 @@ public class Wikipedia
         sb.append(this.getDatabaseConfiguration().getLanguage());
         return sb.toString();
     }
-
-    private static class ValueComparator
-            implements Comparator<Entry<Integer, Double>> {
-
-        @Override
-        public int compare(Entry<Integer, Double> e1, Entry<Integer, Double> e2) {
-            return Double.compare(e2.getValue(), e1.getValue());
-        }
-    }
-
-    private record PageTuple(int id, String name) {
-
-    }
 }
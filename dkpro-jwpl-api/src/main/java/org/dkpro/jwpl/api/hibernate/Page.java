@@ -22,14 +22,18 @@ import java.util.Set;
 
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrimaryKeyJoinColumn;
 import jakarta.persistence.Table;
 
 /**
@@ -39,6 +43,8 @@ import jakarta.persistence.Table;
  * <p>
  * It is accessed via an equally named class in the {@code api} package
  * to hide session management from the user.
+ * <p>
+ * The text of a page is mapped by {@link PageText}, so it is only loaded on demand.
  */
 @Entity
 @Table(name = "Page", indexes = @Index(name = "nameIndex", columnList = "name"))
@@ -56,11 +62,11 @@ public class Page
     @Column(name = "name")
     private String name;
 
-    // Maps to LONGTEXT on MariaDB/MySQL; on HSQLDB the test fixture pre-creates
-    // a large VARCHAR and Hibernate runs with hbm2ddl.auto=none there.
-    @Lob
-    @Column(name = "text", length = 200_000_000)
-    private String text;
+    // Only backs the deprecated text accessors. Both entities map the same row, so the proxy
+    // is created without a query and the text is only loaded when it is read.
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @PrimaryKeyJoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private PageText pageText;
 
     @Column(name = "isDisambiguation")
     private boolean isDisambiguation;
@@ -213,19 +219,37 @@ public class Page
     }
 
     /**
+     * Loads the text of the page from the database, which requires an open session, like the
+     * link and category sets do.
+     *
      * @return Retrieves a page's content (text) as used in Wikipedia.
+     * @deprecated The text is mapped by {@link PageText}. Use
+     *             {@link org.dkpro.jwpl.api.Page#getText()} instead, which loads it on demand.
+     *             This method will be removed in the next release.
      */
+    @Deprecated
     public String getText()
     {
-        return text;
+        return pageText == null ? null : pageText.getText();
     }
 
     /**
+     * Changes the text of this object only. The text is never written to the database, since
+     * {@link PageText} is read-only.
+     *
      * @param text The page's content (text) as used in Wikipedia.
+     * @deprecated The text is mapped by {@link PageText}. This method will be removed in the
+     *             next release.
      */
+    @Deprecated
     public void setText(String text)
     {
-        this.text = text;
+        if (pageText == null) {
+            pageText = new PageText(id, text);
+        }
+        else {
+            pageText.setText(text);
+        }
     }
 
     /**
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api.hibernate;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+/**
+ * A read-only object-relational entity which maps the text of a {@link Page}.
+ * <p>
+ * The text is kept out of the {@link Page} entity, because Hibernate cannot load a single column
+ * lazily without bytecode enhancement. This way, pages can be loaded without transferring their
+ * text, which is only loaded if it is accessed.
+ */
+@Entity
+@Immutable
+@Table(name = "Page")
+public class PageText
+{
+
+    @Id
+    @Column(name = "id")
+    private long id;
+
+    // Maps to LONGTEXT on MariaDB/MySQL; on HSQLDB the test fixture pre-creates
+    // a large VARCHAR and Hibernate runs with hbm2ddl.auto=none there.
+    @Lob
+    @Column(name = "text", length = 200_000_000)
+    private String text;
+
+    /**
+     * A no argument constructor as required by Hibernate.
+     */
+    public PageText()
+    {
+    }
+
+    PageText(long id, String text)
+    {
+        this.id = id;
+        this.text = text;
+    }
+
+    /**
+     * @return Retrieves the primary key of the {@link Page} this text belongs to.
+     */
+    public long getId()
+    {
+        return id;
+    }
+
+    /**
+     * @return Retrieves a page's content (text) as used in Wikipedia.
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Only backs the deprecated {@link Page#setText(String)}. Changes are not persisted.
+     */
+    void setText(String text)
+    {
+        this.text = text;
+    }
+}
@@ -17,9 +17,9 @@
  */
 package org.dkpro.jwpl.api.hibernate;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.dkpro.jwpl.api.DatabaseConfiguration;
 import org.dkpro.jwpl.api.WikiConstants;
@@ -29,12 +29,16 @@ import org.hibernate.cfg.Configuration;
 
 /**
  * A utility class which provides access to underlying Hibernate session factories.
+ * <p>
+ * The factories are created once per database and connection pool settings and can be retrieved
+ * from any thread. Each factory owns a bounded HikariCP connection pool sized by
+ * {@link DatabaseConfiguration#getMaxConnections()}, and binds sessions to the current thread.
  */
 public class WikiHibernateUtil
     implements WikiConstants
 {
 
-    private static final Map<String, SessionFactory> sessionFactoryMap = new HashMap<>();
+    private static final Map<String, SessionFactory> sessionFactoryMap = new ConcurrentHashMap<>();
 
     /**
      * Retrieves (and creates) a {@link SessionFactory} for a specified {@link DatabaseConfiguration}.
@@ -59,16 +63,17 @@ public class WikiHibernateUtil
                     "Database configuration error. 'Database' is empty.");
         }
 
+        // the pool settings are part of the key, as each factory owns its pool
         String uniqueSessionKey = config.getLanguage().toString() + config.getHost()
-                + config.getDatabase();
-        if (!sessionFactoryMap.containsKey(uniqueSessionKey)) {
+                + config.getDatabase() + "|" + config.getMaxConnections() + "|"
+                + config.getConnectionTimeout();
+        // building a factory opens its connection pool, so it must only happen once per key
+        return sessionFactoryMap.computeIfAbsent(uniqueSessionKey, key -> {
             Configuration configuration = getConfiguration(config);
             StandardServiceRegistryBuilder ssrb = new StandardServiceRegistryBuilder()
                     .applySettings(configuration.getProperties());
-            SessionFactory sessionFactory = configuration.buildSessionFactory(ssrb.build());
-            sessionFactoryMap.put(uniqueSessionKey, sessionFactory);
-        }
-        return sessionFactoryMap.get(uniqueSessionKey);
+            return configuration.buildSessionFactory(ssrb.build());
+        });
     }
 
     private static Properties getProperties(DatabaseConfiguration config)
@@ -109,8 +114,18 @@ public class WikiHibernateUtil
         p.setProperty("hibernate.connection.username", user);
         p.setProperty("hibernate.connection.password", password);
 
-        // JDBC connection pool (use the built-in) -->
-        p.setProperty("hibernate.connection.pool_size", "5");
+        // JDBC connection pool, shared by all threads
+        p.setProperty("hibernate.connection.provider_class",
+                "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
+        p.setProperty("hibernate.hikari.maximumPoolSize",
+                Integer.toString(config.getMaxConnections()));
+        p.setProperty("hibernate.hikari.minimumIdle",
+                Integer.toString(Math.min(3, config.getMaxConnections())));
+        p.setProperty("hibernate.hikari.connectionTimeout",
+                Long.toString(config.getConnectionTimeout()));
+        p.setProperty("hibernate.hikari.poolName", "jwpl-" + config.getDatabase());
+        p.setProperty("hibernate.hikari.dataSource.useUnicode", "true");
+        p.setProperty("hibernate.hikari.dataSource.characterEncoding", "UTF-8");
 
         // Enable Hibernate's automatic session context management
         p.setProperty("hibernate.current_session_context_class", "thread");
@@ -133,17 +148,6 @@ public class WikiHibernateUtil
         // Leave this set 'true' as this is required for dynamic Dialect resolution!
         p.setProperty("hibernate.temp.use_jdbc_metadata_defaults", "true");
 
-        if (useMySQL || useMariaDB) {
-            // Set C3P0 Connection Pool in case somebody wants to use it in production settings
-            // if no C3P0 is available at runtime, related warnings can be ignored safely as the
-            // built-in CP will be used.
-            p.setProperty("hibernate.c3p0.acquire_increment", "3");
-            p.setProperty("hibernate.c3p0.idle_test_period", "300");
-            p.setProperty("hibernate.c3p0.min_size", "3");
-            p.setProperty("hibernate.c3p0.max_size", "15");
-            p.setProperty("hibernate.c3p0.max_statements", "100");
-            p.setProperty("hibernate.c3p0.timeout", "1000");
-        }
         return p;
     }
 
@@ -151,7 +155,8 @@ public class WikiHibernateUtil
     {
         return new Configuration().addAnnotatedClass(Category.class)
                 .addAnnotatedClass(MetaData.class).addAnnotatedClass(Page.class)
-                .addAnnotatedClass(PageMapLine.class).addProperties(getProperties(config));
+                .addAnnotatedClass(PageMapLine.class).addAnnotatedClass(PageText.class)
+                .addProperties(getProperties(config));
     }
 
 }
@@ -126,6 +126,8 @@ public class PlainTextConverter
 
     private LinkedList<Integer> sections;
 
+    private List<Integer> sectionOffsets;
+
     /* Things needed for processing tables */
     private List<List<String>> rows;
     private List<String> currentRow;
@@ -187,6 +189,7 @@ public class PlainTextConverter
         needSpace = false;
         noWrap = false;
         sections = new LinkedList<>();
+        sectionOffsets = new ArrayList<>();
         rows = new ArrayList<>();
         return super.before(node);
     }
@@ -201,6 +204,15 @@ public class PlainTextConverter
         return sb.toString();
     }
 
+    /**
+     * @return The offsets of the section headings in the plain text produced by the last call of
+     *         {@code go()}, in ascending order.
+     */
+    public List<Integer> getSectionOffsets()
+    {
+        return sectionOffsets;
+    }
+
     // =========================================================================
 
     /*
@@ -438,6 +450,10 @@ public class PlainTextConverter
 
         newline(1);
         write(title);
+        if (!title.isEmpty()) {
+            // the heading was just written, its words are already separated by single spaces
+            sectionOffsets.add(sb.length() + line.length() - title.length());
+        }
         newline(1);
         // write(StringUtils.strrep('-', title.length()));
         // newline(1);
@@ -18,14 +18,31 @@
 package org.dkpro.jwpl.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.dkpro.jwpl.api.util.GraphSerialization;
+import org.jgrapht.GraphPath;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.AsUndirectedGraph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class CategoryGraphTest
     extends BaseJWPLTest
@@ -129,4 +146,244 @@ public class CategoryGraphTest
         assertEquals(0, hyponymCountMap.get(15).intValue());
         assertEquals(0, hyponymCountMap.get(200).intValue());
     }
+
+    @Test
+    public void testHyponymCountMapFileWithoutCounts() throws Exception
+    {
+        File file = new File(wiki.getWikipediaId() + "_hypoCountMap");
+        try {
+            CategoryGraphFile.write(file, catGraph.getIntDirectedGraph(), false, null, null);
+            CategoryGraph graph = new CategoryGraph(wiki, catGraph.getGraph());
+            assertEquals(catGraph.getHyponymCountMap(), graph.getHyponymCountMap());
+
+            // a map written with Java serialization by an older version that cannot be read
+            try (ObjectOutputStream os = new ObjectOutputStream(new FileOutputStream(file))) {
+                os.writeObject(null);
+            }
+            graph = new CategoryGraph(wiki, catGraph.getGraph());
+            assertEquals(catGraph.getHyponymCountMap(), graph.getHyponymCountMap());
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testEdgesMatchCategories() throws WikiApiException
+    {
+        assertEquals(wiki.__getCategories().size(), catGraph.getNumberOfNodes());
+        DefaultDirectedGraph<Integer, DefaultEdge> graph = catGraph.getGraph();
+        for (DefaultEdge edge : graph.edgeSet()) {
+            int parent = graph.getEdgeSource(edge);
+            int child = graph.getEdgeTarget(edge);
+            assertTrue(wiki.getCategory(child).getParentIDs().contains(parent));
+            assertTrue(wiki.getCategory(parent).getChildrenIDs().contains(child));
+        }
+    }
+
+    @Test
+    public void testSubsetGraph() throws WikiApiException
+    {
+        // less than half of the categories, so that only their links are loaded
+        Set<Integer> subset = new HashSet<>(wiki.getCategory("UKP").getChildrenIDs());
+        subset.add(wiki.getCategory("UKP").getPageId());
+        assertTrue(subset.size() * 2 < wiki.__getCategories().size());
+
+        DefaultDirectedGraph<Integer, DefaultEdge> subsetGraph = new CategoryGraph(wiki, subset)
+                .getGraph();
+        assertEquals(subset, subsetGraph.vertexSet());
+        int edges = 0;
+        for (int parent : subset) {
+            for (int child : wiki.getCategory(parent).getChildrenIDs()) {
+                if (subset.contains(child)) {
+                    assertTrue(subsetGraph.containsEdge(parent, child));
+                    edges++;
+                }
+            }
+        }
+        assertEquals(edges, subsetGraph.edgeSet().size());
+    }
+
+    @Test
+    public void testFilteredGraph() throws WikiApiException
+    {
+        CategoryGraph filteredGraph = new CategoryGraph(wiki, List.of("Projects"));
+        assertFalse(filteredGraph.getGraph()
+                .containsVertex(wiki.getCategory("Projects of UKP").getPageId()));
+        assertTrue(filteredGraph.getGraph().containsVertex(wiki.getCategory("UKP").getPageId()));
+        assertEquals(catGraph.getNumberOfNodes() - 1, filteredGraph.getNumberOfNodes());
+    }
+
+    @Test
+    public void testGetGraphReturnsCopy()
+    {
+        DefaultDirectedGraph<Integer, DefaultEdge> graph = catGraph.getGraph();
+        int numberOfEdges = graph.edgeSet().size();
+        graph.removeAllEdges(new HashSet<>(graph.edgeSet()));
+        assertEquals(numberOfEdges, catGraph.getGraph().edgeSet().size());
+        assertEquals(numberOfEdges, catGraph.getNumberOfEdges());
+    }
+
+    @Test
+    public void testJGraphTExport() throws WikiApiException
+    {
+        CategoryGraph copy = new CategoryGraph(wiki, catGraph.getGraph());
+        assertEquals(catGraph.getNumberOfNodes(), copy.getNumberOfNodes());
+        assertEquals(catGraph.getNumberOfEdges(), copy.getNumberOfEdges());
+        DefaultDirectedGraph<Integer, DefaultEdge> graph = catGraph.getGraph();
+        assertEquals(graph.edgeSet().size(), copy.getNumberOfEdges());
+        for (int node : graph.vertexSet()) {
+            assertEquals(graph.inDegreeOf(node), copy.getInDegree(node));
+            assertEquals(graph.outDegreeOf(node), copy.getOutDegree(node));
+            assertEquals(catGraph.getNeighbors(node), copy.getNeighbors(node));
+        }
+        assertEquals(catGraph.getAverageShortestPathLength(), copy.getAverageShortestPathLength(),
+                0.00001);
+        assertEquals(catGraph.getDiameter(), copy.getDiameter(), 0.00001);
+    }
+
+    @Test
+    public void testGraphParameters()
+    {
+        AsUndirectedGraph<Integer, DefaultEdge> undirectedGraph = catGraph.getUndirectedGraph();
+        double pathLengthSum = 0;
+        double maxPathLength = 0;
+        for (int node1 : undirectedGraph.vertexSet()) {
+            for (int node2 : undirectedGraph.vertexSet()) {
+                if (node1 < node2) {
+                    GraphPath<Integer, DefaultEdge> path = DijkstraShortestPath
+                            .findPathBetween(undirectedGraph, node1, node2);
+                    if (path != null) {
+                        pathLengthSum += path.getLength();
+                        maxPathLength = Math.max(maxPathLength, path.getLength());
+                    }
+                }
+            }
+        }
+        int n = catGraph.getNumberOfNodes();
+        assertEquals(pathLengthSum / (n * (n - 1) / 2), catGraph.getAverageShortestPathLength(),
+                0.00001);
+        assertEquals(maxPathLength, catGraph.getDiameter(), 0.00001);
+        assertEquals(2.0 * catGraph.getNumberOfEdges() / n, catGraph.getAverageDegree(), 0.00001);
+    }
+
+    @Test
+    public void testEstimatePathLengths()
+    {
+        PathLengthEstimate exact = catGraph.estimatePathLengths(1000, 0);
+        assertEquals(catGraph.getNumberOfNodes(), exact.getNumberOfSamples());
+        assertEquals(catGraph.getAverageShortestPathLength(), exact.getAverageShortestPathLength(),
+                0.00001);
+        assertEquals(0.0, exact.getStandardError(), 0.00001);
+        assertEquals(catGraph.getDiameter(), exact.getDiameterLowerBound(), 0.00001);
+
+        PathLengthEstimate sampled = catGraph.estimatePathLengths(5, 42);
+        assertEquals(5, sampled.getNumberOfSamples());
+        assertTrue(sampled.getStandardError() > 0);
+        assertTrue(sampled.getDiameterLowerBound() <= catGraph.getDiameter());
+        assertTrue(Math.abs(sampled.getAverageShortestPathLength()
+                - catGraph.getAverageShortestPathLength()) < 4 * sampled.getStandardError());
+    }
+
+    @Test
+    public void testLCSMatchesRootPaths() throws WikiApiException
+    {
+        Map<Integer, List<Integer>> rootPathMap = catGraph.getRootPathMap();
+        int root = wiki.getMetaData().getMainCategory().getPageId();
+        assertEquals(catGraph.getNumberOfNodes(), rootPathMap.size());
+        for (int node : catGraph.getGraph().vertexSet()) {
+            List<Integer> path = rootPathMap.get(node);
+            if (path.isEmpty()) {
+                // no path to the root
+                continue;
+            }
+            assertEquals(node, path.get(0).intValue());
+            assertEquals(root, path.get(path.size() - 1).intValue());
+            assertEquals(path.size() - 1, catGraph.getPathLengthInEdges(
+                    wiki.getCategory(node), wiki.getCategory(root)));
+        }
+
+        Set<Integer> nodes = catGraph.getGraph().vertexSet();
+        for (int node1 : nodes) {
+            for (int node2 : nodes) {
+                List<Integer> path1 = rootPathMap.get(node1);
+                List<Integer> path2 = rootPathMap.get(node2);
+                if (node1 == node2 || path1.isEmpty() || path2.isEmpty()) {
+                    continue;
+                }
+                // the first node on the path of node1 that is on the path of node2, too
+                int expected = -1;
+                for (int candidate : path1) {
+                    if (path2.contains(candidate)) {
+                        expected = candidate;
+                        break;
+                    }
+                }
+                assertEquals(expected, catGraph.getLCSId(node1, node2));
+                assertTrue(expected != -1);
+                assertEquals(path1.indexOf(expected) + path2.indexOf(expected),
+                        catGraph.getTaxonomicallyBoundPathLengthInEdges(wiki.getCategory(node1),
+                                wiki.getCategory(node2)));
+            }
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad(@TempDir Path tempDir) throws Exception
+    {
+        File file = tempDir.resolve("categoryGraph.bin").toFile();
+        catGraph.getHyponymCountMap();
+        catGraph.createRootPathMap();
+        catGraph.saveGraph(file.getAbsolutePath());
+        CategoryGraph loaded = new CategoryGraph(wiki, file);
+
+        assertEquals(catGraph.getNumberOfNodes(), loaded.getNumberOfNodes());
+        assertEquals(catGraph.getNumberOfEdges(), loaded.getNumberOfEdges());
+        assertEquals(catGraph.getGraph().edgeSet().size(), loaded.getGraph().edgeSet().size());
+        for (int node : catGraph.getGraph().vertexSet()) {
+            assertEquals(catGraph.getNeighbors(node), loaded.getNeighbors(node));
+        }
+        assertEquals(catGraph.getHyponymCountMap(), loaded.getHyponymCountMap());
+        assertEquals(catGraph.getRootPathMap(), loaded.getRootPathMap());
+        assertEquals(catGraph.getDepth(), loaded.getDepth(), 0.00001);
+        assertEquals(catGraph.getLCSId(9, 8), loaded.getLCSId(9, 8));
+    }
+
+    @Test
+    public void testCorruptedFile(@TempDir Path tempDir) throws Exception
+    {
+        File file = tempDir.resolve("categoryGraph.bin").toFile();
+        catGraph.saveGraph(file.getAbsolutePath());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 1);
+        }
+        assertThrows(WikiApiException.class, () -> new CategoryGraph(wiki, file));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 4);
+        }
+        assertThrows(WikiApiException.class, () -> new CategoryGraph(wiki, file));
+    }
+
+    @Test
+    public void testConvertGraph(@TempDir Path tempDir) throws Exception
+    {
+        File serialized = tempDir.resolve("categoryGraph.ser").toFile();
+        File converted = tempDir.resolve("categoryGraph.bin").toFile();
+        GraphSerialization.saveGraph(catGraph.getGraph(), serialized.getAbsolutePath());
+
+        CategoryGraph deserialized = new CategoryGraph(wiki, serialized);
+        assertEquals(catGraph.getNumberOfEdges(), deserialized.getNumberOfEdges());
+
+        CategoryGraph.convertGraph(serialized.getAbsolutePath(), converted.getAbsolutePath());
+        CategoryGraph loaded = new CategoryGraph(wiki, converted);
+        assertEquals(catGraph.getNumberOfNodes(), loaded.getNumberOfNodes());
+        assertEquals(catGraph.getNumberOfEdges(), loaded.getNumberOfEdges());
+        for (int node : catGraph.getGraph().vertexSet()) {
+            assertEquals(catGraph.getNeighbors(node), loaded.getNeighbors(node));
+        }
+    }
 }
@@ -362,7 +362,7 @@ public class CategoryTest
     public void testCreateCategoryByNameNull()
     {
         try {
-            new Category(wiki, null);
+            new Category(wiki, (String) null);
         }
         catch (WikiPageNotFoundException pnfe) {
             // this is expected behavior here, provoked by the test
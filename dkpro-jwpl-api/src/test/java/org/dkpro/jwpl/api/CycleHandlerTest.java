@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class CycleHandlerTest
+    extends BaseJWPLTest
+{
+
+    @BeforeAll
+    public static void setupWikipedia()
+    {
+        DatabaseConfiguration db = obtainDbConfiguration();
+        try {
+            wiki = new Wikipedia(db);
+        }
+        catch (Exception e) {
+            fail("Wikipedia could not be initialized: " + e.getLocalizedMessage());
+        }
+    }
+
+    @Test
+    public void testRemoveCycles() throws WikiApiException
+    {
+        DefaultDirectedGraph<Integer, DefaultEdge> graph = new DefaultDirectedGraph<>(
+                DefaultEdge.class);
+        for (int node = 1; node <= 6; node++) {
+            graph.addVertex(node);
+        }
+        // cycle 1 -> 2 -> 3 -> 1
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 1);
+        // cycle 3 -> 4 -> 3
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 3);
+        graph.addEdge(5, 6);
+
+        CategoryGraph catGraph = new CategoryGraph(wiki, graph);
+        assertEquals(6, catGraph.getGraph().edgeSet().size());
+        CycleHandler cycleHandler = new CycleHandler(wiki, catGraph);
+        assertTrue(cycleHandler.containsCycle());
+
+        cycleHandler.removeCycles();
+        assertFalse(cycleHandler.containsCycle());
+        assertEquals(4, catGraph.getNumberOfEdges());
+
+        // the DFS starts at 1 and removes the edges back to 1 and to 3
+        DefaultDirectedGraph<Integer, DefaultEdge> acyclicGraph = catGraph.getGraph();
+        assertEquals(4, acyclicGraph.edgeSet().size());
+        assertFalse(acyclicGraph.containsEdge(3, 1));
+        assertFalse(acyclicGraph.containsEdge(4, 3));
+        assertTrue(acyclicGraph.containsEdge(5, 6));
+    }
+
+    @Test
+    public void testAcyclicGraph() throws WikiApiException
+    {
+        DefaultDirectedGraph<Integer, DefaultEdge> graph = new DefaultDirectedGraph<>(
+                DefaultEdge.class);
+        for (int node = 1; node <= 4; node++) {
+            graph.addVertex(node);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 4);
+        graph.addEdge(3, 4);
+
+        CategoryGraph catGraph = new CategoryGraph(wiki, graph);
+        CycleHandler cycleHandler = new CycleHandler(wiki, catGraph, false);
+        assertFalse(cycleHandler.containsCycle());
+        cycleHandler.removeCycles();
+        assertEquals(4, catGraph.getGraph().edgeSet().size());
+    }
+}
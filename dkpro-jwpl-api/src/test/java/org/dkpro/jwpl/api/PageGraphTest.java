@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PageGraphTest
+    extends BaseJWPLTest
+{
+
+    private static PageGraph pageGraph;
+
+    @BeforeAll
+    public static void setupWikipedia()
+    {
+        DatabaseConfiguration db = obtainDbConfiguration();
+        try {
+            wiki = new Wikipedia(db);
+            pageGraph = new PageGraph(wiki);
+        }
+        catch (Exception e) {
+            fail("PageGraph could not be initialized: " + e.getLocalizedMessage());
+        }
+    }
+
+    @Test
+    public void testLinksMatchPages() throws WikiApiException
+    {
+        int edges = 0;
+        for (int pageId : pageGraph.getPageIds()) {
+            Page page = wiki.getPage(pageId);
+            Set<Integer> outlinks = new HashSet<>();
+            for (int outlink : page.getOutlinkIDs()) {
+                if (pageGraph.containsPage(outlink)) {
+                    outlinks.add(outlink);
+                }
+            }
+            assertEquals(outlinks, toSet(pageGraph.getOutlinkIDs(pageId)));
+            assertEquals(outlinks.size(), pageGraph.getOutdegree(pageId));
+            edges += outlinks.size();
+        }
+        assertEquals(edges, pageGraph.getNumberOfEdges());
+        assertEquals(wiki.__getPages().size(), pageGraph.getNumberOfNodes());
+        assertTrue(edges > 0);
+    }
+
+    @Test
+    public void testInlinksAreTransposedOutlinks()
+    {
+        for (int pageId : pageGraph.getPageIds()) {
+            for (int inlink : pageGraph.getInlinkIDs(pageId)) {
+                assertTrue(toSet(pageGraph.getOutlinkIDs(inlink)).contains(pageId));
+            }
+            assertEquals(pageGraph.getInlinkIDs(pageId).length, pageGraph.getIndegree(pageId));
+        }
+    }
+
+    @Test
+    public void testTraversal()
+    {
+        for (int pageId : pageGraph.getPageIds()) {
+            assertEquals(0, pageGraph.getShortestPathLength(pageId, pageId));
+            int[] neighbours = pageGraph.getNeighbourhood(pageId, 1, false);
+            assertEquals(toSet(pageGraph.getOutlinkIDs(pageId)), toSet(neighbours));
+            for (int neighbour : neighbours) {
+                assertEquals(1, pageGraph.getShortestPathLength(pageId, neighbour));
+            }
+            for (int neighbour : pageGraph.getNeighbourhood(pageId, 2, false)) {
+                int length = pageGraph.getShortestPathLength(pageId, neighbour);
+                assertTrue(length == 1 || length == 2);
+            }
+            assertFalse(toSet(pageGraph.getNeighbourhood(pageId, 3, true)).contains(pageId));
+        }
+    }
+
+    @Test
+    public void testPageRank()
+    {
+        double[] rank = pageGraph.getPageRank(0.85, 100, 1e-10);
+        assertEquals(pageGraph.getNumberOfNodes(), rank.length);
+        assertEquals(1.0, Arrays.stream(rank).sum(), 1e-6);
+        for (double value : rank) {
+            assertTrue(value > 0);
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad(@TempDir Path tempDir) throws WikiApiException
+    {
+        File file = tempDir.resolve("pageGraph.bin").toFile();
+        pageGraph.saveGraph(file.getAbsolutePath());
+        PageGraph loaded = new PageGraph(file);
+
+        assertEquals(pageGraph.getNumberOfNodes(), loaded.getNumberOfNodes());
+        assertEquals(pageGraph.getNumberOfEdges(), loaded.getNumberOfEdges());
+        assertArrayEquals(pageGraph.getPageIds(), loaded.getPageIds());
+        for (int pageId : pageGraph.getPageIds()) {
+            assertArrayEquals(pageGraph.getOutlinkIDs(pageId), loaded.getOutlinkIDs(pageId));
+            assertArrayEquals(pageGraph.getInlinkIDs(pageId), loaded.getInlinkIDs(pageId));
+        }
+        assertArrayEquals(pageGraph.getPageRank(0.85, 20, 0), loaded.getPageRank(0.85, 20, 0),
+                1e-12);
+    }
+
+    private static Set<Integer> toSet(int[] values)
+    {
+        Set<Integer> set = new HashSet<>();
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+}
@@ -19,10 +19,19 @@ package org.dkpro.jwpl.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
+import org.dkpro.jwpl.api.exception.WikiApiException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -95,4 +104,61 @@ public class PageIteratorTest
             assertEquals(34, nrOfPages, "Number of pages == 34");
         }
     }
+
+    @Test
+    public void testPageStream()
+    {
+        List<Integer> iterated = new ArrayList<>();
+        for (Page page : wiki.getPages()) {
+            iterated.add(page.getPageId());
+        }
+        List<Integer> articles = new ArrayList<>();
+        for (Page page : wiki.getArticles()) {
+            articles.add(page.getPageId());
+        }
+
+        assertEquals(iterated, wiki.pageStream(false).map(Page::getPageId).toList());
+        assertEquals(articles, wiki.pageStream(true).map(Page::getPageId).toList());
+        for (int bufferSize = 1; bufferSize <= 16; bufferSize *= 2) {
+            assertEquals(iterated, wiki.pageStream(false, bufferSize).parallel()
+                    .map(Page::getPageId).collect(Collectors.toList()));
+            assertEquals(articles, wiki.pageStream(true, bufferSize).parallel()
+                    .map(Page::getPageId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testPageStreamRejectsInvalidBufferSize()
+    {
+        assertThrows(IllegalArgumentException.class, () -> wiki.pageStream(false, 0));
+        assertThrows(IllegalArgumentException.class, () -> wiki.pageStream(true, -1));
+    }
+
+    @Test
+    public void testPageStreamSplits()
+    {
+        Spliterator<Page> spliterator = wiki.pageStream(false, 2).spliterator();
+        Spliterator<Page> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+
+        Set<Integer> pageIds = new HashSet<>();
+        prefix.forEachRemaining(page -> assertTrue(pageIds.add(page.getPageId())));
+        int prefixSize = pageIds.size();
+        spliterator.forEachRemaining(page -> assertTrue(pageIds.add(page.getPageId())));
+        assertTrue(prefixSize > 0);
+        assertTrue(pageIds.size() > prefixSize);
+        assertEquals(34, pageIds.size());
+    }
+
+    @Test
+    public void testTextIsLoadedOnDemand() throws WikiApiException
+    {
+        for (int bufferSize : new int[] { 1, 5, 500 }) {
+            for (Page page : wiki.getPages(bufferSize)) {
+                assertEquals(wiki.getPage(page.getPageId()).getText(), page.getText());
+                // the text is kept after it was loaded with the other texts of the batch
+                assertEquals(wiki.getPage(page.getPageId()).getText(), page.getText());
+            }
+        }
+    }
 }
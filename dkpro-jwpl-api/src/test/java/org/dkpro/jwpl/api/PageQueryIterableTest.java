@@ -18,11 +18,14 @@
 package org.dkpro.jwpl.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
 import org.junit.jupiter.api.BeforeAll;
@@ -118,4 +121,40 @@ public class PageQueryIterableTest
         }
         assertTrue(count >= 1);
     }
+
+    // A buffer smaller than the number of pages forces several fetches
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 500})
+    public void testLazyIteratorWithEmptyTitlePattern(int bufferSize)
+    {
+        PageQueryIterable pqi = new PageQueryIterable(wiki, pq, bufferSize);
+        assertNotNull(pqi);
+        Iterator<Page> it = pqi.iterator();
+        assertNotNull(it);
+        int count = 0;
+        while (it.hasNext()) {
+            count++;
+            assertNotNull(it.next());
+        }
+        assertEquals(34, count);
+        assertFalse(it.hasNext());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Wikipedia%", "Wiki_edia%", "Moore'%"})
+    public void testLazyIteratorMatchesEagerIterator(String input) throws WikiApiException
+    {
+        pq.setTitlePattern(input);
+        pq.setMaxTokens(20);
+        Set<Integer> expected = new HashSet<>();
+        for (Page page : new PageQueryIterable(wiki, pq)) {
+            expected.add(page.getPageId());
+        }
+        Set<Integer> actual = new HashSet<>();
+        for (Page page : new PageQueryIterable(wiki, pq, 2)) {
+            actual.add(page.getPageId());
+        }
+        assertTrue(expected.size() >= 1);
+        assertEquals(expected, actual);
+    }
 }
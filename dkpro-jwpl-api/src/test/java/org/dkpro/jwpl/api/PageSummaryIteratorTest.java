@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt 
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *  
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PageSummaryIteratorTest
+    extends BaseJWPLTest
+{
+
+    @BeforeAll
+    public static void setupWikipedia()
+    {
+        DatabaseConfiguration db = obtainDbConfiguration();
+        try {
+            wiki = new Wikipedia(db);
+        }
+        catch (Exception e) {
+            fail("Wikipedia could not be initialized: " + e.getLocalizedMessage());
+        }
+    }
+
+    @Test
+    public void testSummariesMatchPages() throws WikiApiException
+    {
+        List<String> expected = new ArrayList<>();
+        for (Page page : wiki.getPages()) {
+            expected.add(describe(page));
+        }
+        List<String> summaries = new ArrayList<>();
+        for (PageSummary summary : wiki.getPageSummaries(false)) {
+            summaries.add(describe(summary));
+        }
+        assertEquals(expected, summaries);
+    }
+
+    @Test
+    public void testOnlyArticles() throws WikiApiException
+    {
+        List<String> expected = new ArrayList<>();
+        for (Page page : wiki.getArticles()) {
+            expected.add(describe(page));
+        }
+
+        for (int bufferSize = 1; bufferSize <= 50; bufferSize += 7) {
+            List<String> summaries = new ArrayList<>();
+            for (PageSummary summary : wiki.getPageSummaries(true, bufferSize)) {
+                summaries.add(describe(summary));
+            }
+            assertEquals(expected, summaries, "Summaries read with bufferSize " + bufferSize);
+        }
+    }
+
+    private static String describe(Page page) throws WikiApiException
+    {
+        return page.getPageId() + " " + page.getTitle() + " " + page.isDisambiguation() + " "
+                + page.getRedirects().size() + " " + page.getNumberOfInlinks() + " "
+                + page.getNumberOfOutlinks() + " " + page.getNumberOfCategories();
+    }
+
+    private static String describe(PageSummary summary) throws WikiApiException
+    {
+        return summary.getPageId() + " " + summary.getTitle() + " " + summary.isDisambiguation()
+                + " " + summary.getNumberOfRedirects() + " " + summary.getNumberOfInlinks() + " "
+                + summary.getNumberOfOutlinks() + " " + summary.getNumberOfCategories();
+    }
+}
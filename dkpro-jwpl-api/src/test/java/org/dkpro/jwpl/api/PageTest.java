@@ -20,6 +20,8 @@ package org.dkpro.jwpl.api;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -27,16 +29,20 @@ import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
 import org.dkpro.jwpl.api.exception.WikiPageNotFoundException;
 import org.dkpro.jwpl.api.exception.WikiTitleParsingException;
+import org.hibernate.Session;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sweble.wikitext.engine.WtEngineImpl;
 
 public class PageTest
     extends BaseJWPLTest
@@ -124,6 +130,22 @@ public class PageTest
         }
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testGetTextOfHibernatePage()
+    {
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        org.dkpro.jwpl.api.hibernate.Page hibernatePage = session
+                .createQuery("from Page p where p.pageId = :pageId",
+                        org.dkpro.jwpl.api.hibernate.Page.class)
+                .setParameter("pageId", page.getPageId()).uniqueResult();
+        String text = hibernatePage.getText();
+        session.getTransaction().commit();
+
+        assertEquals(page.getText(), text);
+    }
+
     @Test
     public void testGetPlainText()
     {
@@ -139,6 +161,53 @@ public class PageTest
         }
     }
 
+    @Test
+    public void testPlainTextCache() throws Exception
+    {
+        wiki.setPlainTextCacheSize(1);
+        try {
+            String plainText = fetchPage(A_FAMOUS_PAGE).getPlainText();
+            assertSame(plainText, fetchPage(A_FAMOUS_PAGE).getPlainText());
+
+            // the least recently used plain text is evicted
+            fetchPage("Humanbiologie").getPlainText();
+            String parsedAgain = fetchPage(A_FAMOUS_PAGE).getPlainText();
+            assertNotSame(plainText, parsedAgain);
+            assertEquals(plainText, parsedAgain);
+        }
+        finally {
+            wiki.setPlainTextCacheSize(0);
+        }
+        assertNotSame(page.getPlainText(), page.getPlainText());
+    }
+
+    @Test
+    public void testEnginesArePooled() throws Exception
+    {
+        // borrowing more engines than the pool holds leaves it empty
+        List<WtEngineImpl> borrowed = new ArrayList<>();
+        for (int i = 0; i <= Wikipedia.ENGINE_POOL_SIZE; i++) {
+            WtEngineImpl engine = wiki.borrowEngine();
+            for (WtEngineImpl other : borrowed) {
+                assertNotSame(other, engine);
+            }
+            borrowed.add(engine);
+        }
+
+        // a returned engine is reused, also by another thread
+        WtEngineImpl returned = borrowed.remove(0);
+        wiki.returnEngine(returned);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertSame(returned, executor.submit(() -> wiki.borrowEngine()).get());
+        }
+        finally {
+            executor.shutdown();
+            wiki.returnEngine(returned);
+            borrowed.forEach(wiki::returnEngine);
+        }
+    }
+
     @Test
     public void testGetPlainTextWithTable()
     {
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt 
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *  
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.dkpro.jwpl.api.sweble.PlainTextConverter;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.sweble.wikitext.engine.PageId;
+import org.sweble.wikitext.engine.PageTitle;
+import org.sweble.wikitext.engine.WtEngineImpl;
+import org.sweble.wikitext.engine.nodes.EngProcessedPage;
+
+public class PlainTextMaterializerTest
+    extends BaseJWPLTest
+{
+
+    @BeforeAll
+    public static void setupWikipedia()
+    {
+        DatabaseConfiguration db = obtainDbConfiguration();
+        try {
+            wiki = new Wikipedia(db);
+        }
+        catch (Exception e) {
+            fail("Wikipedia could not be initialized: " + e.getLocalizedMessage());
+        }
+    }
+
+    @AfterAll
+    public static void dropPlainTexts()
+    {
+        PlainTextTable.drop(wiki);
+        wiki.resetMaterializedPlainTexts();
+    }
+
+    @Test
+    public void testMaterializedValuesMatchParsedValues() throws WikiApiException
+    {
+        Map<Integer, String> plainTexts = new HashMap<>();
+        Map<Integer, Integer> tokens = new HashMap<>();
+        Map<Integer, List<Integer>> sectionOffsets = new HashMap<>();
+        assertFalse(wiki.hasMaterializedPlainTexts());
+        for (Page page : wiki.getPages()) {
+            plainTexts.put(page.getPageId(), page.getPlainText());
+            tokens.put(page.getPageId(), page.getNumberOfTokens());
+            sectionOffsets.put(page.getPageId(), page.getSectionOffsets());
+        }
+        List<Integer> expectedIds = selectByTokens(true);
+        assertFalse(expectedIds.isEmpty());
+
+        assertEquals(plainTexts.size(), new PlainTextMaterializer(wiki, 3, 4).materialize());
+        assertTrue(wiki.hasMaterializedPlainTexts());
+
+        for (int pageId : plainTexts.keySet()) {
+            assertEquals(plainTexts.get(pageId), PlainTextTable.findPlainText(wiki, pageId));
+            assertEquals(tokens.get(pageId), PlainTextTable.findTokens(wiki, pageId));
+            assertEquals(sectionOffsets.get(pageId),
+                    PlainTextTable.findSectionOffsets(wiki, pageId));
+
+            Page page = wiki.getPage(pageId);
+            assertEquals(plainTexts.get(pageId), page.getPlainText());
+            assertEquals(tokens.get(pageId), page.getNumberOfTokens());
+        }
+
+        assertEquals(expectedIds, selectByTokens(true));
+        assertEquals(expectedIds, selectByTokens(false));
+
+        // pages without a materialized plain text are parsed
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        session.createNativeMutationQuery(
+                "DELETE FROM " + PlainTextTable.TABLE + " WHERE pageId = :pageId")
+                .setParameter("pageId", expectedIds.get(0)).executeUpdate();
+        session.getTransaction().commit();
+        assertEquals(expectedIds, selectByTokens(true));
+        assertEquals(expectedIds, selectByTokens(false));
+
+        // a second run replaces the table
+        assertEquals(plainTexts.size(), new PlainTextMaterializer(wiki, 2, 5).materialize());
+        assertEquals(plainTexts.get(expectedIds.get(0)),
+                PlainTextTable.findPlainText(wiki, expectedIds.get(0)));
+        assertEquals(expectedIds, selectByTokens(true));
+        assertTrue(PlainTextTable.exists(wiki));
+        assertFalse(PlainTextTable.exists(wiki, PlainTextTable.STAGING_TABLE));
+        assertFalse(PlainTextTable.exists(wiki, PlainTextTable.REPLACED_TABLE));
+    }
+
+    @Test
+    public void testSectionOffsets() throws Exception
+    {
+        String text = "Intro.\n== First ==\nOne.\n=== Sub section ===\nTwo.\n== Second ==\nEnd.";
+        PageId pageId = new PageId(PageTitle.make(wiki.getWikConfig(), "Sections"), -1);
+        WtEngineImpl engine = wiki.borrowEngine();
+        EngProcessedPage compiledPage;
+        try {
+            compiledPage = engine.postprocess(pageId, text, null);
+        }
+        finally {
+            wiki.returnEngine(engine);
+        }
+        PlainTextConverter converter = new PlainTextConverter(wiki.getWikConfig(), false,
+                Integer.MAX_VALUE);
+        String plainText = (String) converter.go(compiledPage.getPage());
+
+        List<Integer> offsets = converter.getSectionOffsets();
+        assertEquals(3, offsets.size());
+        assertTrue(plainText.startsWith("First", offsets.get(0)));
+        assertTrue(plainText.startsWith("Sub section", offsets.get(1)));
+        assertTrue(plainText.startsWith("Second", offsets.get(2)));
+    }
+
+    /**
+     * @return The ids of the pages with 5 to 50 tokens.
+     */
+    private static List<Integer> selectByTokens(boolean eager) throws WikiApiException
+    {
+        PageQuery query = new PageQuery();
+        query.setMinTokens(5);
+        query.setMaxTokens(50);
+        List<Integer> pageIds = new ArrayList<>();
+        for (Page page : eager ? new PageQueryIterable(wiki, query)
+                : new PageQueryIterable(wiki, query, 4)) {
+            pageIds.add(page.getPageId());
+        }
+        pageIds.sort(null);
+        return pageIds;
+    }
+}
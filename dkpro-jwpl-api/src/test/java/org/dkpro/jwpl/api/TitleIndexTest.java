@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.dkpro.jwpl.api.util.distance.LevenshteinStringDistance;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TitleIndexTest
+    extends BaseJWPLTest
+{
+
+    private static TitleIndex titleIndex;
+
+    @BeforeAll
+    public static void setupWikipedia()
+    {
+        DatabaseConfiguration db = obtainDbConfiguration();
+        try {
+            wiki = new Wikipedia(db);
+            titleIndex = new TitleIndex(wiki);
+        }
+        catch (Exception e) {
+            fail("Wikipedia could not be initialized: " + e.getLocalizedMessage());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "Wikipedia_API", "Wikipedai_AP", "TK3", "UKP", "x", "",
+            "Not_a_title_at_all" })
+    public void testSearchMatchesFullScan(String pattern)
+    {
+        for (int size : new int[] { 1, 3, 10, 1000 }) {
+            Map<Integer, Double> result = titleIndex.search(pattern, size);
+            List<Double> expected = getSmallestDistances(pattern, size);
+            assertEquals(expected, new ArrayList<>(result.values()), pattern + " " + size);
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad(@TempDir Path tempDir) throws WikiApiException
+    {
+        File file = tempDir.resolve("titleIndex.bin").toFile();
+        titleIndex.saveIndex(file.getAbsolutePath());
+        TitleIndex loaded = new TitleIndex(file);
+
+        assertEquals(titleIndex.getNumberOfTitles(), loaded.getNumberOfTitles());
+        assertEquals(titleIndex.search("Wikipedia_AP", 5), loaded.search("Wikipedia_AP", 5));
+    }
+
+    @Test
+    public void testGetSimilarPagesUsesIndex() throws WikiApiException
+    {
+        Map<Page, Double> similarPages = wiki.getSimilarPages("Wikipedai API", 2);
+        assertEquals(2, similarPages.size());
+        assertTrue(similarPages.values().iterator().next() <= 2);
+    }
+
+    @Test
+    public void testReleaseTitleIndex() throws WikiApiException
+    {
+        TitleIndex index = wiki.getTitleIndex();
+        assertSame(index, wiki.getTitleIndex());
+        wiki.setTitleIndex(null);
+        assertNotSame(index, wiki.getTitleIndex());
+        assertEquals(2, wiki.getSimilarPages("Wikipedai API", 2).size());
+    }
+
+    /**
+     * Computes the smallest distances of the pages to the pattern by comparing it with all names.
+     */
+    private static List<Double> getSmallestDistances(String pattern, int size)
+    {
+        LevenshteinStringDistance distance = new LevenshteinStringDistance();
+        Map<Integer, Double> bestDistances = new HashMap<>();
+        Session session = wiki.__getHibernateSession();
+        session.beginTransaction();
+        for (Object[] row : session
+                .createQuery("select pml.pageID, pml.name from PageMapLine pml", Object[].class)
+                .list()) {
+            bestDistances.merge((Integer) row[0], distance.distance((String) row[1], pattern),
+                    Math::min);
+        }
+        session.getTransaction().commit();
+        return bestDistances.values().stream().sorted().limit(size).toList();
+    }
+}
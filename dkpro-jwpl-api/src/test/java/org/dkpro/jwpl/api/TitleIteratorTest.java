@@ -21,6 +21,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -59,4 +62,22 @@ public class TitleIteratorTest
         assertEquals(40, nrOfTitles, "Number of titles == 40");
 
     }
+
+    @Test
+    public void test_titleIteratorTestBufferSize()
+    {
+        List<String> expected = new ArrayList<>();
+        for (Title t : wiki.getTitles()) {
+            expected.add(t.getWikiStyleTitle());
+        }
+
+        for (int bufferSize = 1; bufferSize <= 100; bufferSize += 5) {
+            List<String> titles = new ArrayList<>();
+            for (Title t : wiki.getTitles(bufferSize)) {
+                assertNotNull(t);
+                titles.add(t.getWikiStyleTitle());
+            }
+            assertEquals(expected, titles, "Titles read with bufferSize " + bufferSize);
+        }
+    }
 }
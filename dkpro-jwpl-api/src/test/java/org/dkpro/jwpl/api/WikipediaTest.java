@@ -25,14 +25,20 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.dkpro.jwpl.api.exception.WikiApiException;
 import org.dkpro.jwpl.api.exception.WikiPageNotFoundException;
 import org.dkpro.jwpl.api.exception.WikiTitleParsingException;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -576,6 +582,69 @@ public class WikipediaTest
         assertEquals(9, cat.getPageId());
     }
 
+    @Test
+    public void testGetPagesByIds() throws WikiApiException
+    {
+        Set<Page> pages = wiki.getPagesByIds(List.of(A_FAMOUS_PAGE_ID, 105, A_FAMOUS_PAGE_ID, -42));
+        assertEquals(2, pages.size());
+        for (Page page : pages) {
+            assertEquals(wiki.getPage(page.getPageId()).getTitle().toString(),
+                    page.getTitle().toString());
+        }
+        assertTrue(wiki.getPagesByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testGetCategoriesByIds() throws WikiApiException
+    {
+        Set<Category> categories = wiki.getCategoriesByIds(List.of(9, -42));
+        assertEquals(1, categories.size());
+        Category cat = categories.iterator().next();
+        assertEquals(9, cat.getPageId());
+        assertEquals(wiki.getCategory(9).getTitle().toString(), cat.getTitle().toString());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception
+    {
+        List<Integer> categoryIds = List.copyOf(wiki.__getCategories());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int task = 0; task < 32; task++) {
+                results.add(executor.submit(() -> {
+                    int checked = 0;
+                    for (int pageId : categoryIds) {
+                        Category category = wiki.getCategory(pageId);
+                        assertEquals(pageId, category.getPageId());
+                        assertEquals(category.getTitle().toString(),
+                                wiki.getCategory(category.getTitle().toString()).getTitle()
+                                        .toString());
+                        checked++;
+                    }
+                    Page page = wiki.getPage(A_FAMOUS_PAGE_ID);
+                    assertEquals(A_FAMOUS_PAGE, page.getTitle().getRawTitleText());
+                    assertEquals(A_FAMOUS_PAGE_ID, wiki.getPage(A_FAMOUS_PAGE).getPageId());
+                    return checked;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(categoryIds.size(), result.get().intValue());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPooledConnections()
+    {
+        ConnectionProvider provider = ((SessionFactoryImplementor) wiki.__getHibernateSession()
+                .getSessionFactory()).getServiceRegistry().getService(ConnectionProvider.class);
+        assertEquals("HikariCPConnectionProvider", provider.getClass().getSimpleName());
+    }
+
     /* INTERNAL TEST HELPER METHODS */
 
     private void getNotExistingPage(String title)
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.api.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.dkpro.jwpl.api.BaseJWPLTest;
+import org.dkpro.jwpl.api.DatabaseConfiguration;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+
+public class WikiHibernateUtilTest
+    extends BaseJWPLTest
+{
+
+    @Test
+    public void testSessionFactoryPerPoolSettings()
+    {
+        DatabaseConfiguration config = obtainDbConfiguration();
+        SessionFactory factory = WikiHibernateUtil.getSessionFactory(config);
+        assertSame(factory, WikiHibernateUtil.getSessionFactory(copy(config)));
+
+        DatabaseConfiguration moreConnections = copy(config);
+        moreConnections.setMaxConnections(config.getMaxConnections() + 1);
+        DatabaseConfiguration longerTimeout = copy(config);
+        longerTimeout.setConnectionTimeout(config.getConnectionTimeout() + 1000);
+
+        SessionFactory moreConnectionsFactory = WikiHibernateUtil
+                .getSessionFactory(moreConnections);
+        SessionFactory longerTimeoutFactory = WikiHibernateUtil.getSessionFactory(longerTimeout);
+        try {
+            assertNotSame(factory, moreConnectionsFactory);
+            assertNotSame(factory, longerTimeoutFactory);
+            assertNotSame(moreConnectionsFactory, longerTimeoutFactory);
+            assertSame(moreConnectionsFactory,
+                    WikiHibernateUtil.getSessionFactory(moreConnections));
+        }
+        finally {
+            moreConnectionsFactory.close();
+            longerTimeoutFactory.close();
+        }
+    }
+
+    private static DatabaseConfiguration copy(DatabaseConfiguration config)
+    {
+        DatabaseConfiguration copy = new DatabaseConfiguration(config.getDatabaseDriver(),
+                config.getJdbcURL(), config.getHost(), config.getDatabase(), config.getUser(),
+                config.getPassword(), config.getLanguage());
+        copy.setMaxConnections(config.getMaxConnections());
+        copy.setConnectionTimeout(config.getConnectionTimeout());
+        return copy;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.datamachine.dump.version;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A growable, zero-initialized block of memory outside the Java heap, backed by a memory-mapped
+ * temporary file.<br>
+ * The file is mapped in segments of at most 1 GB, so that the memory is addressed by
+ * {@code long} positions. Ints and longs have to be stored at positions aligned to their size,
+ * byte sequences may span several segments.<br>
+ * The temporary file is deleted by {@link #close()}.
+ */
+final class MappedMemory
+    implements Closeable
+{
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /**
+     * smallest mapped size in bytes
+     */
+    private static final long MIN_CAPACITY = 1 << 16;
+
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer[] segments;
+    private long capacity;
+
+    /**
+     * Creates the temporary file and maps the specified number of bytes.
+     *
+     * @param prefix
+     *            prefix of the temporary file name
+     * @param initialCapacity
+     *            number of bytes to map initially
+     */
+    MappedMemory(String prefix, long initialCapacity)
+    {
+        try {
+            file = Files.createTempFile(prefix, ".bin");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments = new MappedByteBuffer[0];
+        ensureCapacity(initialCapacity);
+    }
+
+    long capacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Grows the mapped region (at least by factor 2), so that it holds the specified number of
+     * bytes. The new bytes are zero.
+     */
+    void ensureCapacity(long required)
+    {
+        if (required <= capacity) {
+            return;
+        }
+        long newCapacity = Math.max(Math.max(required, capacity * 2), MIN_CAPACITY);
+        newCapacity = (newCapacity + 7) & ~7L;
+
+        int count = (int) ((newCapacity + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+        MappedByteBuffer[] grown = Arrays.copyOf(segments, count);
+        try {
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                long length = Math.min(SEGMENT_SIZE, newCapacity - start);
+                if (grown[i] == null || grown[i].capacity() < length) {
+                    grown[i] = channel.map(MapMode.READ_WRITE, start, length);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments = grown;
+        capacity = newCapacity;
+    }
+
+    int getInt(long position)
+    {
+        return segments[(int) (position >>> SEGMENT_BITS)].getInt((int) (position & SEGMENT_MASK));
+    }
+
+    void putInt(long position, int value)
+    {
+        segments[(int) (position >>> SEGMENT_BITS)].putInt((int) (position & SEGMENT_MASK), value);
+    }
+
+    long getLong(long position)
+    {
+        return segments[(int) (position >>> SEGMENT_BITS)]
+                .getLong((int) (position & SEGMENT_MASK));
+    }
+
+    void putLong(long position, long value)
+    {
+        segments[(int) (position >>> SEGMENT_BITS)].putLong((int) (position & SEGMENT_MASK),
+                value);
+    }
+
+    /**
+     * Copies the specified bytes to the given position.
+     */
+    void putBytes(long position, byte[] source)
+    {
+        int done = 0;
+        while (done < source.length) {
+            MappedByteBuffer segment = segments[(int) (position >>> SEGMENT_BITS)];
+            int offset = (int) (position & SEGMENT_MASK);
+            int length = (int) Math.min(source.length - done, SEGMENT_SIZE - offset);
+            segment.put(offset, source, done, length);
+            done += length;
+            position += length;
+        }
+    }
+
+    /**
+     * Copies bytes starting at the given position into the target array.
+     */
+    void getBytes(long position, byte[] target)
+    {
+        int done = 0;
+        while (done < target.length) {
+            MappedByteBuffer segment = segments[(int) (position >>> SEGMENT_BITS)];
+            int offset = (int) (position & SEGMENT_MASK);
+            int length = (int) Math.min(target.length - done, SEGMENT_SIZE - offset);
+            segment.get(offset, target, done, length);
+            done += length;
+            position += length;
+        }
+    }
+
+    /**
+     * @return {@code true} if the bytes starting at the given position equal the specified ones
+     */
+    boolean equalBytes(long position, byte[] bytes)
+    {
+        for (int i = 0; i < bytes.length; i++, position++) {
+            if (segments[(int) (position >>> SEGMENT_BITS)]
+                    .get((int) (position & SEGMENT_MASK)) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Releases the mapping and deletes the temporary file.<br>
+     * Note: the JDK unmaps the segments only when they are garbage collected. Operating systems
+     * that do not delete mapped files, e.g. Windows, keep the file until then; in that case it is
+     * deleted when the JVM exits.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        segments = new MappedByteBuffer[0];
+        capacity = 0;
+        channel.close();
+        try {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+            logger.warn("Can't delete the still mapped file {}: {}", file, e.getMessage());
+            file.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.datamachine.dump.version;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A hash map with primitive {@code int} keys and {@code long} values in {@link MappedMemory}
+ * (open addressing with linear probing). Also serves as a set of {@code int} values.<br>
+ * Each slot occupies 16 bytes: a used flag, the key and the value.
+ */
+final class OffHeapIntLongMap
+    implements Closeable
+{
+
+    /**
+     * returned by {@link #get(int)} for absent keys
+     */
+    static final long MISSING = Long.MIN_VALUE;
+
+    private static final int SLOT_SIZE = 16;
+    private static final int MIN_SLOTS = 1 << 12;
+
+    private final String name;
+    private MappedMemory memory;
+    private long mask;
+    private long size;
+
+    /**
+     * @param name
+     *            prefix of the temporary file
+     * @param expectedSize
+     *            number of entries that can be stored without rehashing
+     */
+    OffHeapIntLongMap(String name, int expectedSize)
+    {
+        this.name = name;
+        long slots = Math.max(MIN_SLOTS, Long.highestOneBit(Math.max(1, expectedSize) * 2L) << 1);
+        this.memory = new MappedMemory(name, slots * SLOT_SIZE);
+        this.mask = slots - 1;
+        this.size = 0;
+    }
+
+    private static long mix(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the position of the slot of the key or of the free slot where it belongs
+     */
+    private long find(int key)
+    {
+        long index = mix(key) & mask;
+        long position = index * SLOT_SIZE;
+        while (memory.getInt(position) != 0 && memory.getInt(position + 4) != key) {
+            index = (index + 1) & mask;
+            position = index * SLOT_SIZE;
+        }
+        return position;
+    }
+
+    boolean containsKey(int key)
+    {
+        return memory.getInt(find(key)) != 0;
+    }
+
+    /**
+     * @return the value of the key or {@link #MISSING}
+     */
+    long get(int key)
+    {
+        long position = find(key);
+        return memory.getInt(position) != 0 ? memory.getLong(position + 8) : MISSING;
+    }
+
+    /**
+     * Associates the value with the key, replacing a previous value.
+     */
+    void put(int key, long value)
+    {
+        long position = find(key);
+        if (memory.getInt(position) == 0) {
+            if ((size + 1) * 2 > mask + 1) {
+                rehash();
+                position = find(key);
+            }
+            memory.putInt(position, 1);
+            memory.putInt(position + 4, key);
+            size++;
+        }
+        memory.putLong(position + 8, value);
+    }
+
+    /**
+     * Adds the key to the set of keys.
+     */
+    void add(int key)
+    {
+        put(key, 0);
+    }
+
+    long size()
+    {
+        return size;
+    }
+
+    private void rehash()
+    {
+        MappedMemory old = memory;
+        long oldSlots = mask + 1;
+
+        long slots = oldSlots * 2;
+        memory = new MappedMemory(name, slots * SLOT_SIZE);
+        mask = slots - 1;
+
+        for (long position = 0; position < oldSlots * SLOT_SIZE; position += SLOT_SIZE) {
+            if (old.getInt(position) != 0) {
+                int key = old.getInt(position + 4);
+                long target = find(key);
+                memory.putInt(target, 1);
+                memory.putInt(target + 4, key);
+                memory.putLong(target + 8, old.getLong(position + 8));
+            }
+        }
+
+        try {
+            old.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        memory.close();
+        size = 0;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.datamachine.dump.version;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An append-only store of UTF-8 encoded strings in {@link MappedMemory}.<br>
+ * Each string is stored as its byte length followed by its bytes, padded to a multiple of four
+ * bytes. A string is referenced by the offset returned from {@link #add(byte[])}.
+ */
+final class OffHeapStringArena
+    implements Closeable
+{
+
+    private final MappedMemory memory;
+    private long end;
+
+    OffHeapStringArena()
+    {
+        memory = new MappedMemory("jwpl-strings", 1 << 20);
+        end = 0;
+    }
+
+    /**
+     * @return the UTF-8 representation of the specified string
+     */
+    static byte[] encode(String s)
+    {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return a hash code of the specified bytes
+     */
+    static int hash(byte[] bytes)
+    {
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h = (h ^ b) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Appends the specified bytes.
+     *
+     * @return the offset of the new entry
+     */
+    long add(byte[] bytes)
+    {
+        long offset = end;
+        long next = offset + 4 + ((bytes.length + 3) & ~3);
+        memory.ensureCapacity(next);
+        memory.putInt(offset, bytes.length);
+        memory.putBytes(offset + 4, bytes);
+        end = next;
+        return offset;
+    }
+
+    /**
+     * @return the string stored at the specified offset
+     */
+    String get(long offset)
+    {
+        byte[] bytes = new byte[memory.getInt(offset)];
+        memory.getBytes(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return {@code true} if the string stored at the specified offset consists of the specified
+     *         bytes
+     */
+    boolean equals(long offset, byte[] bytes)
+    {
+        return memory.getInt(offset) == bytes.length && memory.equalBytes(offset + 4, bytes);
+    }
+
+    /**
+     * @return the number of bytes used
+     */
+    long size()
+    {
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        memory.close();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.datamachine.dump.version;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A hash map from strings to primitive {@code int} values in {@link MappedMemory} (open
+ * addressing with linear probing). The keys are not copied: a slot references an entry of an
+ * {@link OffHeapStringArena}, so that a title shared with other maps is stored only once.<br>
+ * Each slot occupies 16 bytes: the arena offset of the key plus one (zero marks a free slot),
+ * the hash of the key and the value.
+ */
+final class OffHeapStringIntMap
+    implements Closeable
+{
+
+    /**
+     * returned by {@link #get(byte[])} for absent keys
+     */
+    static final long MISSING = Long.MIN_VALUE;
+
+    private static final int SLOT_SIZE = 16;
+    private static final int MIN_SLOTS = 1 << 12;
+
+    private final String name;
+    private final OffHeapStringArena arena;
+    private MappedMemory memory;
+    private long mask;
+    private long size;
+
+    /**
+     * @param name
+     *            prefix of the temporary file
+     * @param arena
+     *            the storage of the keys
+     * @param expectedSize
+     *            number of entries that can be stored without rehashing
+     */
+    OffHeapStringIntMap(String name, OffHeapStringArena arena, int expectedSize)
+    {
+        this.name = name;
+        this.arena = arena;
+        long slots = Math.max(MIN_SLOTS, Long.highestOneBit(Math.max(1, expectedSize) * 2L) << 1);
+        this.memory = new MappedMemory(name, slots * SLOT_SIZE);
+        this.mask = slots - 1;
+        this.size = 0;
+    }
+
+    /**
+     * @return the position of the slot of the key or of the free slot where it belongs
+     */
+    private long find(byte[] key, int hash)
+    {
+        long index = hash & mask;
+        long position = index * SLOT_SIZE;
+        long reference;
+        while ((reference = memory.getLong(position)) != 0) {
+            if (memory.getInt(position + 8) == hash && arena.equals(reference - 1, key)) {
+                break;
+            }
+            index = (index + 1) & mask;
+            position = index * SLOT_SIZE;
+        }
+        return position;
+    }
+
+    /**
+     * @param key
+     *            UTF-8 encoded key
+     * @return the value of the key or {@link #MISSING}
+     */
+    long get(byte[] key)
+    {
+        long position = find(key, OffHeapStringArena.hash(key));
+        return memory.getLong(position) != 0 ? memory.getInt(position + 12) : MISSING;
+    }
+
+    /**
+     * Associates the value with the key, replacing a previous value.
+     *
+     * @param key
+     *            UTF-8 encoded key
+     * @param offset
+     *            the arena offset of the key, used if the key is not yet contained
+     * @param value
+     *            the value
+     */
+    void put(byte[] key, long offset, int value)
+    {
+        int hash = OffHeapStringArena.hash(key);
+        long position = find(key, hash);
+        if (memory.getLong(position) == 0) {
+            if ((size + 1) * 2 > mask + 1) {
+                rehash();
+                position = find(key, hash);
+            }
+            memory.putLong(position, offset + 1);
+            memory.putInt(position + 8, hash);
+            size++;
+        }
+        memory.putInt(position + 12, value);
+    }
+
+    long size()
+    {
+        return size;
+    }
+
+    private void rehash()
+    {
+        MappedMemory old = memory;
+        long oldSlots = mask + 1;
+
+        long slots = oldSlots * 2;
+        memory = new MappedMemory(name, slots * SLOT_SIZE);
+        mask = slots - 1;
+
+        for (long position = 0; position < oldSlots * SLOT_SIZE; position += SLOT_SIZE) {
+            long reference = old.getLong(position);
+            if (reference != 0) {
+                // keys are unique, so the first free slot is the target
+                int hash = old.getInt(position + 8);
+                long index = hash & mask;
+                long target = index * SLOT_SIZE;
+                while (memory.getLong(target) != 0) {
+                    index = (index + 1) & mask;
+                    target = index * SLOT_SIZE;
+                }
+                memory.putLong(target, reference);
+                memory.putInt(target + 8, hash);
+                memory.putInt(target + 12, old.getInt(position + 12));
+            }
+        }
+
+        try {
+            old.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Releases the slots, the arena is not closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        memory.close();
+        size = 0;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.datamachine.dump.version;
+
+import static org.dkpro.jwpl.wikimachine.dump.version.IDumpVersion.formatBoolean;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+
+import org.dkpro.jwpl.wikimachine.dump.sql.CategorylinksParser;
+import org.dkpro.jwpl.wikimachine.dump.sql.PagelinksParser;
+import org.dkpro.jwpl.wikimachine.dump.version.AbstractDumpVersion;
+import org.dkpro.jwpl.wikimachine.dump.xml.PageParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.RevisionParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.TextParser;
+import org.dkpro.jwpl.wikimachine.util.Redirects;
+import org.dkpro.jwpl.wikimachine.util.TxtFileWriter;
+
+/**
+ * An {@link org.dkpro.jwpl.wikimachine.dump.version.IDumpVersion IDumpVersion} implementation
+ * that keeps its lookup tables outside the Java heap.
+ * <p>
+ * The produced output is the same as that of {@link SingleDumpVersionJDKGeneric} with string
+ * keys, but the page titles are stored once, UTF-8 encoded, in an {@link OffHeapStringArena}
+ * and all id and title mappings are primitive hash tables in memory-mapped temporary files.
+ * Thus the required heap no longer depends on the size of the Wikipedia; the operating system
+ * pages the tables in and out as needed.
+ */
+public class SingleDumpVersionOffHeap
+    extends AbstractDumpVersion
+{
+
+    private static final String SQL_NULL = "NULL";
+    // TODO This constant is used to flag page titles of discussion pages.
+    // Is also defined in wikipedia.api:WikiConstants.DISCUSSION_PREFIX
+    private static final String DISCUSSION_PREFIX = "Discussion:";
+
+    private static final int EXPECTED_SIZE = 1_000_000;
+
+    /**
+     * titles of pages, redirects and categories
+     */
+    private OffHeapStringArena titles;
+    /**
+     * maps page id's of pages to the arena offsets of their names
+     */
+    private OffHeapIntLongMap pPageIdNameMap;
+    /**
+     * page id's of categories
+     */
+    private OffHeapIntLongMap cPageIdNameMap;
+    /**
+     * maps names of pages to their page id's
+     */
+    private OffHeapStringIntMap pNamePageIdMap;
+    /**
+     * maps names of categories to their page id's
+     */
+    private OffHeapStringIntMap cNamePageIdMap;
+    /**
+     * maps page id's of redirects to the arena offsets of their names
+     */
+    private OffHeapIntLongMap rPageIdNameMap;
+    /**
+     * page id's of disambiguation pages
+     */
+    private OffHeapIntLongMap disambiguations;
+    /**
+     * maps text id's to page id's
+     */
+    private OffHeapIntLongMap textIdPageIdMap;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void freeAfterCategoryLinksParsing()
+    {
+        close(cPageIdNameMap);
+        close(cNamePageIdMap);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void freeAfterPageLinksParsing()
+    {
+        // nothing to free
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void freeAfterPageParsing()
+    {
+        metaData.setNrOfCategories((int) cPageIdNameMap.size());
+        metaData.setNrOfPages((int) (pPageIdNameMap.size() + rPageIdNameMap.size()));
+        logger.log("nrOfCategories: " + metaData.getNrOfCategories());
+        logger.log("nrOfPage: " + metaData.getNrOfPages());
+        logger.log("nrOfRedirects before testing the validity of the destination:"
+                + rPageIdNameMap.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void freeAfterRevisionParsing()
+    {
+        // nothing to free
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void freeAfterTextParsing()
+    {
+        close(pPageIdNameMap);
+        close(pNamePageIdMap);
+        close(rPageIdNameMap);
+        close(disambiguations);
+        close(textIdPageIdMap);
+        close(titles);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initialize(Timestamp timestamp)
+    {
+        titles = new OffHeapStringArena();
+        pPageIdNameMap = new OffHeapIntLongMap("jwpl-pages", EXPECTED_SIZE);
+        cPageIdNameMap = new OffHeapIntLongMap("jwpl-categories", EXPECTED_SIZE);
+        pNamePageIdMap = new OffHeapStringIntMap("jwpl-page-names", titles, EXPECTED_SIZE);
+        cNamePageIdMap = new OffHeapStringIntMap("jwpl-category-names", titles, EXPECTED_SIZE);
+        rPageIdNameMap = new OffHeapIntLongMap("jwpl-redirects", EXPECTED_SIZE);
+        disambiguations = new OffHeapIntLongMap("jwpl-disambiguations", EXPECTED_SIZE);
+        textIdPageIdMap = new OffHeapIntLongMap("jwpl-texts", EXPECTED_SIZE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void processCategoryLinksRow(CategorylinksParser clParser) throws IOException
+    {
+        String cl_to = clParser.getClTo();
+
+        if (cl_to != null) {
+            long cl_toValue = cNamePageIdMap.get(OffHeapStringArena.encode(cl_to));
+
+            if (cl_toValue != OffHeapStringIntMap.MISSING) {
+                int cl_from = clParser.getClFrom();
+
+                if (pPageIdNameMap.containsKey(cl_from)) {
+                    categoryPages.addRow(cl_toValue, cl_from);
+                    pageCategories.addRow(cl_from, cl_toValue);
+
+                    if (cl_to.equals(metaData.getDisambiguationCategory())) {
+                        disambiguations.add(cl_from);
+                        metaData.addDisamb();
+                    }
+                }
+                else if (cPageIdNameMap.containsKey(cl_from)) {
+                    categoryOutlinks.addRow(cl_toValue, cl_from);
+                    categoryInlinks.addRow(cl_from, cl_toValue);
+                }
+
+            }
+        }
+        else {
+            throw new IOException("Parsing error." + CategorylinksParser.class.getName()
+                    + " returned null value in " + this.getClass().getName());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void processPageLinksRow(PagelinksParser plParser)
+    {
+        int pl_from = plParser.getPlFrom();
+        String pl_to = plParser.getPlTo();
+        if (pl_to != null) {
+            long pl_toValue = pNamePageIdMap.get(OffHeapStringArena.encode(pl_to));
+            // skip redirects if skipPage is enabled
+            if ((!skipPage || pPageIdNameMap.containsKey(pl_from))
+                    && pl_toValue != OffHeapStringIntMap.MISSING) {
+                pageOutlinks.addRow(pl_from, pl_toValue);
+                pageInlinks.addRow(pl_toValue, pl_from);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void processPageRow(PageParser pageParser)
+    {
+        int page_namespace = pageParser.getPageNamespace();
+        int page_id = pageParser.getPageId();
+        String page_title = pageParser.getPageTitle();
+        if (page_title != null) {
+            switch (page_namespace) {
+            case NS_CATEGORY: {
+                // skip redirect categories if skipCategory is enabled
+                if (!(skipCategory && pageParser.getPageIsRedirect())) {
+                    byte[] name = OffHeapStringArena.encode(page_title);
+                    cPageIdNameMap.add(page_id);
+                    cNamePageIdMap.put(name, titles.add(name), page_id);
+                    txtFW.addRow(page_id, page_id, page_title);
+                }
+                break;
+            }
+
+            case NS_TALK: {
+                page_title = DISCUSSION_PREFIX + page_title;
+                // the NS_MAIN block will also be executed
+                // for NS_TALK pages ...
+            }
+
+            case NS_MAIN: {
+                byte[] name = OffHeapStringArena.encode(page_title);
+                long offset = titles.add(name);
+                if (pageParser.getPageIsRedirect()) {
+                    rPageIdNameMap.put(page_id, offset);
+                }
+                else {
+                    pPageIdNameMap.put(page_id, offset);
+                    pNamePageIdMap.put(name, offset, page_id);
+                }
+                break;
+            }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void processRevisionRow(RevisionParser revisionParser)
+    {
+        textIdPageIdMap.put(revisionParser.getRevTextId(), revisionParser.getRevPage());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void processTextRow(TextParser textParser)
+    {
+        int text_id = textParser.getOldId();
+        long textPageId = textIdPageIdMap.get(text_id);
+        if (textPageId != OffHeapIntLongMap.MISSING) {
+
+            int page_id = (int) textPageId;
+            long page_idOffsetP = pPageIdNameMap.get(page_id);
+            if (page_idOffsetP != OffHeapIntLongMap.MISSING) { // pages
+                String page_idValueP = titles.get(page_idOffsetP);
+                page.addRow(page_id, page_id, page_idValueP, textParser.getOldText(),
+                        formatBoolean(disambiguations.containsKey(page_id)));
+                pageMapLine.addRow(page_id, page_idValueP, page_id, SQL_NULL, SQL_NULL);
+
+            }
+            else {
+                long page_idOffsetR = rPageIdNameMap.get(page_id);
+                if (page_idOffsetR != OffHeapIntLongMap.MISSING) { // Redirects
+                    String destination = Redirects.getRedirectDestination(textParser.getOldText());
+                    if (destination != null) {
+                        long destinationValue = pNamePageIdMap
+                                .get(OffHeapStringArena.encode(destination));
+                        if (destinationValue != OffHeapStringIntMap.MISSING) {
+                            String page_idValueR = titles.get(page_idOffsetR);
+                            pageRedirects.addRow(destinationValue, page_idValueR);
+                            pageMapLine.addRow(page_id, page_idValueR, destinationValue, SQL_NULL,
+                                    SQL_NULL);
+                            metaData.addRedirect();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeMetaData() throws IOException
+    {
+        try (var outputFile = new TxtFileWriter(versionFiles.getOutputMetadata())) {
+            // ID, LANGUAGE, DISAMBIGUATION_CATEGORY, MAIN_CATEGORY, nrOfPages, nrOfRedirects,
+            // nrOfDisambiguationPages, nrOfCategories
+            outputFile.addRow(metaData.getId(), metaData.getLanguage(),
+                    metaData.getDisambiguationCategory(), metaData.getMainCategory(),
+                    metaData.getNrOfPages(), metaData.getNrOfRedirects(),
+                    metaData.getNrOfDisambiguations(), metaData.getNrOfCategories());
+        }
+    }
+
+    private static void close(Closeable table)
+    {
+        try {
+            table.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
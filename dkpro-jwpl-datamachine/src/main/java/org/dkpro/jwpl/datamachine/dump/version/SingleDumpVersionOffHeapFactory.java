@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.datamachine.dump.version;
+
+import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersion;
+import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersionDataFactory;
+
+/**
+ * A {@link IDumpVersionDataFactory dump version factory} implementation that keeps the
+ * lookup tables outside the Java heap.
+ *
+ * @see IDumpVersionDataFactory
+ * @see SingleDumpVersionOffHeap
+ */
+public class SingleDumpVersionOffHeapFactory
+    implements IDumpVersionDataFactory
+{
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IDumpVersion getDumpVersion()
+    {
+        return new SingleDumpVersionOffHeap();
+    }
+}
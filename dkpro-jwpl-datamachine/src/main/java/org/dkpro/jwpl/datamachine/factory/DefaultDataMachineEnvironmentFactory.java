@@ -23,6 +23,7 @@ import org.dkpro.jwpl.datamachine.dump.xml.DataMachineRevisionParser;
 import org.dkpro.jwpl.wikimachine.domain.ISnapshotGenerator;
 import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersion;
 import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersionDataFactory;
+import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersionDataFactory.DataFactoryType;
 import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersionFactory;
 import org.dkpro.jwpl.wikimachine.dump.xml.DumpTableInputStream;
 import org.dkpro.jwpl.wikimachine.dump.xml.RevisionParser;
@@ -31,6 +32,10 @@ import org.dkpro.jwpl.wikimachine.factory.IEnvironmentFactory;
 
 /**
  * A default {@link IEnvironmentFactory} implementation for the DataMachine tool environment.
+ * <p>
+ * The {@link IDumpVersion} implementation can be chosen with the system property
+ * {@value #DUMPVERSION_TYPE_PROPERTY}, set to the name of a {@link DataFactoryType}, e.g.
+ * {@code OFF_HEAP} to keep the lookup tables outside the Java heap.
  *
  * @see IEnvironmentFactory
  */
@@ -38,6 +43,9 @@ public class DefaultDataMachineEnvironmentFactory extends AbstractEnvironmentFac
     implements IEnvironmentFactory
 {
 
+    /** The system property that selects the {@link DataFactoryType} of the dump versions. */
+    public static final String DUMPVERSION_TYPE_PROPERTY = "jwpl.datamachine.dumpVersion";
+
     private static ISnapshotGenerator SNAPSHOTGENERATOR_BEAN;
     private static IDumpVersionFactory DUMPVERSION_FACTORY_BEAN;
     private static RevisionParser REVISIONPARSER_BEAN;
@@ -78,7 +86,9 @@ public class DefaultDataMachineEnvironmentFactory extends AbstractEnvironmentFac
     public synchronized IDumpVersion getDumpVersion()
     {
         if (DUMPVERSION_FACTORY_BEAN == null) {
-            DUMPVERSION_FACTORY_BEAN = IDumpVersionDataFactory.defaultFactory();
+            String type = System.getProperty(DUMPVERSION_TYPE_PROPERTY);
+            DUMPVERSION_FACTORY_BEAN = type == null ? IDumpVersionDataFactory.defaultFactory()
+                    : IDumpVersionDataFactory.byType(DataFactoryType.valueOf(type));
         }
         IDumpVersion version = DUMPVERSION_FACTORY_BEAN.getDumpVersion();
         version.setLogger(getLogger());
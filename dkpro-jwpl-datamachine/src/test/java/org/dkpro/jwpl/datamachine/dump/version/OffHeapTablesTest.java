@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.datamachine.dump.version;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapTablesTest {
+
+  private static final int ROUNDS = 50_000;
+
+  @Test
+  void testIntLongMapAgainstHashMap() throws IOException {
+    Random random = new Random(42);
+    Map<Integer, Long> expected = new HashMap<>();
+    try (OffHeapIntLongMap map = new OffHeapIntLongMap("jwpl-test", 16)) {
+      for (int i = 0; i < ROUNDS; i++) {
+        int key = random.nextInt(ROUNDS) - ROUNDS / 2;
+        long value = random.nextLong();
+        expected.put(key, value);
+        map.put(key, value);
+      }
+      assertEquals(expected.size(), map.size());
+      for (int key = -ROUNDS; key < ROUNDS; key++) {
+        Long value = expected.get(key);
+        assertEquals(value != null, map.containsKey(key));
+        assertEquals(value != null ? value : OffHeapIntLongMap.MISSING, map.get(key));
+      }
+    }
+  }
+
+  @Test
+  void testStringIntMapAgainstHashMap() throws IOException {
+    Random random = new Random(7);
+    Map<String, Integer> expected = new HashMap<>();
+    try (OffHeapStringArena arena = new OffHeapStringArena();
+         OffHeapStringIntMap map = new OffHeapStringIntMap("jwpl-test", arena, 16)) {
+      for (int i = 0; i < ROUNDS; i++) {
+        String key = "Title_" + random.nextInt(ROUNDS) + (i % 3 == 0 ? "_ä中" : "");
+        byte[] bytes = OffHeapStringArena.encode(key);
+        expected.put(key, i);
+        map.put(bytes, arena.add(bytes), i);
+      }
+      assertEquals(expected.size(), map.size());
+      for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+        assertEquals((long) entry.getValue(), map.get(OffHeapStringArena.encode(entry.getKey())));
+      }
+      assertEquals(OffHeapStringIntMap.MISSING, map.get(OffHeapStringArena.encode("Missing")));
+    }
+  }
+
+  @Test
+  void testStringArena() throws IOException {
+    try (OffHeapStringArena arena = new OffHeapStringArena()) {
+      long empty = arena.add(OffHeapStringArena.encode(""));
+      long umlaut = arena.add(OffHeapStringArena.encode("Straße"));
+      assertEquals("", arena.get(empty));
+      assertEquals("Straße", arena.get(umlaut));
+      assertTrue(arena.equals(umlaut, OffHeapStringArena.encode("Straße")));
+      assertFalse(arena.equals(umlaut, OffHeapStringArena.encode("Strasse")));
+    }
+  }
+}
@@ -478,6 +478,8 @@ public class XmlDumpReader
                 Integer.parseInt(trimmed.substring(11, 11 + 2)), // hour
                 Integer.parseInt(trimmed.substring(14, 14 + 2)), // minute
                 Integer.parseInt(trimmed.substring(17, 17 + 2))); // second
+        // the calendar is created with the current time, whose milliseconds must not remain
+        ts.set(Calendar.MILLISECOND, 0);
         return ts;
     }
 }
@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.revisionmachine.api;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+import org.dkpro.jwpl.revisionmachine.common.exceptions.DecodingException;
+import org.dkpro.jwpl.revisionmachine.difftool.data.codec.RevisionDecoder;
+import org.dkpro.jwpl.revisionmachine.difftool.data.tasks.content.Diff;
+import org.dkpro.jwpl.revisionmachine.difftool.data.tasks.content.DiffPart;
+
+/**
+ * Part of the JWPL Revision API
+ * <p>
+ * This class iterates through all revisions of a single article. Each diff is decoded exactly
+ * once and applied to the text of the previous revision, so that iterating the complete history
+ * of an article costs as much as reconstructing its last revision.
+ * <p>
+ * The revisions are returned ordered by their revision counter, either forwards or backwards. In
+ * reverse mode the revisions are reconstructed block-wise, i.e. the revisions between two full
+ * revisions are kept in memory until they have been delivered.
+ * <p>
+ * The iterator uses the connection of the {@link RevisionApi} that created it. Calling
+ * {@link #close()} releases the open statements but does not close that connection.
+ */
+public class ArticleRevisionIterator
+    implements RevisionIteratorInterface
+{
+
+    private static final String QUERY = "SELECT Revision, PrimaryKey, RevisionCounter, RevisionID, ArticleID, Timestamp, Comment, Minor, ContributorName, ContributorId, ContributorIsRegistered, FullRevisionID "
+            + "FROM revisions WHERE PrimaryKey >= ? LIMIT ";
+
+    /**
+     * Reference to the RevisionApi
+     */
+    private final RevisionApi revisionApi;
+
+    /**
+     * Reference to the configuration parameters
+     */
+    private final RevisionAPIConfiguration config;
+
+    /**
+     * Reference to the database connection
+     */
+    private final Connection connection;
+
+    /**
+     * Primary keys of the full revisions of the article
+     */
+    private final int[] fullRevisionPKs;
+
+    /**
+     * Revision counters of the first revision of each full revision block
+     */
+    private final int[] firstRevisionCounters;
+
+    /**
+     * Revision counters of the last revision of each full revision block
+     */
+    private final int[] lastRevisionCounters;
+
+    /**
+     * Iteration direction
+     */
+    private final boolean reverse;
+
+    /**
+     * Primary key of the next revision to query (forward iteration)
+     */
+    private int primaryKey;
+
+    /**
+     * Primary key of the last revision of the article
+     */
+    private final int endPK;
+
+    /**
+     * Text of the previous revision
+     */
+    private String previousRevision;
+
+    /**
+     * Index of the next full revision block to reconstruct (reverse iteration)
+     */
+    private int blockIndex;
+
+    /**
+     * Reconstructed revisions of the current block (reverse iteration)
+     */
+    private final Deque<Revision> buffer;
+
+    /**
+     * Reference to the Statement
+     */
+    private PreparedStatement statement;
+
+    /**
+     * Reference to the ResultSet
+     */
+    private ResultSet result;
+
+    /**
+     * Binary Data Flag
+     */
+    private boolean binaryData;
+
+    /**
+     * The revision that will be returned by the next call of {@link #next()}
+     */
+    private Revision nextRevision;
+
+    /**
+     * (Constructor) Creates a new ArticleRevisionIterator.
+     *
+     * @param revisionApi
+     *            Reference to the RevisionApi
+     * @param config
+     *            Reference to the configuration parameters
+     * @param fullRevisions
+     *            list of full revision primary keys (as stored in index_articleID_rc_ts)
+     * @param revCounters
+     *            list of revision counters (as stored in index_articleID_rc_ts)
+     * @param reverse
+     *            {@code true} if the revisions should be returned newest first
+     */
+    ArticleRevisionIterator(final RevisionApi revisionApi, final RevisionAPIConfiguration config,
+            final String fullRevisions, final String revCounters, final boolean reverse)
+    {
+        this.revisionApi = revisionApi;
+        this.config = config;
+        this.connection = revisionApi.getConnection();
+        this.reverse = reverse;
+
+        String[] pks = fullRevisions.trim().split(" ");
+        String[] counters = revCounters.trim().split(" ");
+
+        int blocks = pks.length;
+        this.fullRevisionPKs = new int[blocks];
+        this.firstRevisionCounters = new int[blocks];
+        this.lastRevisionCounters = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            fullRevisionPKs[i] = Integer.parseInt(pks[i]);
+            firstRevisionCounters[i] = Integer.parseInt(counters[2 * i]);
+            lastRevisionCounters[i] = Integer.parseInt(counters[2 * i + 1]);
+        }
+
+        this.primaryKey = fullRevisionPKs[0];
+        this.endPK = fullRevisionPKs[blocks - 1] + lastRevisionCounters[blocks - 1]
+                - firstRevisionCounters[blocks - 1];
+
+        this.blockIndex = blocks - 1;
+        this.buffer = new ArrayDeque<>();
+    }
+
+    /**
+     * Returns whether another revision is available or not.
+     */
+    @Override
+    public boolean hasNext()
+    {
+        if (nextRevision == null) {
+            try {
+                nextRevision = reverse ? fetchPrevious() : fetchNext();
+            }
+            catch (DecodingException | SQLException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return nextRevision != null;
+    }
+
+    /**
+     * Returns the next revision.
+     *
+     * @return next revision
+     */
+    @Override
+    public Revision next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Revision revision = nextRevision;
+        nextRevision = null;
+        return revision;
+    }
+
+    /**
+     * Releases the statements used by this iterator.
+     *
+     * @throws SQLException
+     *             if an error occurs while closing the statement
+     */
+    @Override
+    public void close() throws SQLException
+    {
+        closeQuery();
+        buffer.clear();
+        previousRevision = null;
+        primaryKey = endPK + 1;
+        blockIndex = -1;
+    }
+
+    /**
+     * This method is unsupported and will result in a {@link UnsupportedOperationException}.
+     */
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Reconstructs the next revision in forward direction. The revisions are queried in chunks
+     * of {@link RevisionAPIConfiguration#getBufferSize()} rows.
+     *
+     * @return next revision or {@code null} if the end of the article has been reached
+     */
+    private Revision fetchNext() throws SQLException, DecodingException, IOException
+    {
+        if (result == null || !result.next()) {
+            closeQuery();
+            if (primaryKey > endPK) {
+                return null;
+            }
+
+            int limit = endPK - primaryKey + 1;
+            if (config.getBufferSize() > 0 && config.getBufferSize() < limit) {
+                limit = config.getBufferSize();
+            }
+            if (!query(primaryKey, limit)) {
+                return null;
+            }
+        }
+
+        Revision revision = buildRevision();
+        primaryKey = revision.getPrimaryKey() + 1;
+        return revision;
+    }
+
+    /**
+     * Returns the next revision in reverse direction. If all revisions of the current block have
+     * been delivered, the preceding full revision block is reconstructed.
+     *
+     * @return next revision or {@code null} if the beginning of the article has been reached
+     */
+    private Revision fetchPrevious() throws SQLException, DecodingException, IOException
+    {
+        while (buffer.isEmpty() && blockIndex >= 0) {
+
+            int limit = lastRevisionCounters[blockIndex] - firstRevisionCounters[blockIndex] + 1;
+            previousRevision = null;
+
+            if (query(fullRevisionPKs[blockIndex], limit)) {
+                do {
+                    buffer.addLast(buildRevision());
+                }
+                while (result.next());
+            }
+            closeQuery();
+
+            blockIndex--;
+        }
+
+        return buffer.pollLast();
+    }
+
+    /**
+     * Sends the query to the database and positions the result set on the first row.
+     *
+     * @return {@code true}, if the result set has an element {@code false}, otherwise
+     */
+    private boolean query(final int startPK, final int limit) throws SQLException
+    {
+        statement = connection.prepareStatement(QUERY + limit);
+        statement.setInt(1, startPK);
+        result = statement.executeQuery();
+
+        if (result.next()) {
+            binaryData = result.getMetaData().getColumnType(1) == Types.LONGVARBINARY;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Decodes the current row and applies its diff to the text of the previous revision.
+     *
+     * @return reconstructed revision
+     */
+    private Revision buildRevision() throws SQLException, DecodingException, IOException
+    {
+        RevisionDecoder decoder = new RevisionDecoder(config.getCharacterSet());
+        if (binaryData) {
+            decoder.setInput(result.getBinaryStream(1), true);
+        }
+        else {
+            decoder.setInput(result.getString(1));
+        }
+
+        Diff diff = decoder.decode();
+        String currentRevision = diff.buildRevision(previousRevision);
+        previousRevision = currentRevision;
+
+        Collection<DiffPart> parts = new LinkedList<>();
+        Iterator<DiffPart> it = diff.iterator();
+        while (it.hasNext()) {
+            parts.add(it.next());
+        }
+
+        Revision revision = new Revision(result.getInt(3), revisionApi);
+        revision.setRevisionText(currentRevision);
+        revision.setParts(parts);
+
+        revision.setPrimaryKey(result.getInt(2));
+        revision.setRevisionID(result.getInt(4));
+        revision.setArticleID(result.getInt(5));
+        revision.setTimeStamp(new Timestamp(result.getLong(6)));
+        revision.setComment(result.getString(7));
+        revision.setMinor(result.getBoolean(8));
+        revision.setContributorName(result.getString(9));
+
+        // we should not use getInt(), because result may be null
+        String contribIdString = result.getString(10);
+        Integer contributorId = contribIdString == null ? null
+                : Integer.parseInt(contribIdString);
+        revision.setContributorId(contributorId);
+
+        revision.setContributorIsRegistered(result.getBoolean(11));
+        revision.setFullRevisionID(result.getInt(12));
+
+        return revision;
+    }
+
+    private void closeQuery() throws SQLException
+    {
+        if (result != null) {
+            result.close();
+            result = null;
+        }
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+    }
+}
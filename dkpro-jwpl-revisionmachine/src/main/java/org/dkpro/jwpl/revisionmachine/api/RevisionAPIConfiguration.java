@@ -48,6 +48,12 @@ public class RevisionAPIConfiguration
      */
     private long maxAllowedPacket;
 
+    /**
+     * Maximum number of characters of reconstructed revision texts that are kept in memory to
+     * speed up subsequent revision requests (0 disables the cache)
+     */
+    private long revisionCacheSize;
+
     /**
      * Path for the IndexGenerator output
      */
@@ -75,6 +81,7 @@ public class RevisionAPIConfiguration
         bufferSize = 10000;
 
         chronoStorageSpace = 100 * 1024 * 1024;
+        revisionCacheSize = 20 * 1024 * 1024;
 
         outputPath = "revisionIndex.sql";
         outputType = OutputTypes.SQL;
@@ -97,6 +104,7 @@ public class RevisionAPIConfiguration
         bufferSize = 10000;
 
         chronoStorageSpace = 100 * 1024 * 1024;
+        revisionCacheSize = 20 * 1024 * 1024;
 
         outputType = OutputTypes.DATABASE;
 
@@ -150,6 +158,16 @@ public class RevisionAPIConfiguration
         return maxAllowedPacket;
     }
 
+    /**
+     * Returns the maximum number of characters kept in the revision text cache.
+     *
+     * @return size of the revision cache (0 if disabled)
+     */
+    public long getRevisionCacheSize()
+    {
+        return revisionCacheSize;
+    }
+
     /**
      * Returns the output path of the index generator.
      *
@@ -214,6 +232,17 @@ public class RevisionAPIConfiguration
         this.maxAllowedPacket = maxAllowedPacket;
     }
 
+    /**
+     * Sets the maximum number of characters kept in the revision text cache.
+     *
+     * @param revisionCacheSize
+     *            size of the revision cache (0 disables the cache)
+     */
+    public void setRevisionCacheSize(final long revisionCacheSize)
+    {
+        this.revisionCacheSize = revisionCacheSize;
+    }
+
     /**
      * Sets the output path of the index generator.
      *
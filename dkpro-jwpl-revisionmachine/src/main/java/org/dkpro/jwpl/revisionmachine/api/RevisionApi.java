@@ -50,6 +50,11 @@ public class RevisionApi
     extends AbstractRevisionService
 {
 
+    /**
+     * Cache of reconstructed revision texts
+     */
+    private RevisionCache revisionCache;
+
     /**
      * Creates a new {@link RevisionApi} object with an existing database connection.
      *
@@ -1316,6 +1321,69 @@ public class RevisionApi
         }
     }
 
+    /**
+     * Returns an iterator over all revisions of the specified article, ordered by their revision
+     * counter. The revisions are reconstructed sequentially, i.e. each diff is decoded only once,
+     * and already contain their text.
+     *
+     * @param articleID
+     *            ID of the article
+     * @return iterator over the revisions of the article
+     * @throws WikiApiException
+     *             if an error occurs or the article does not exist.
+     */
+    public ArticleRevisionIterator getRevisionIterator(final int articleID)
+        throws WikiApiException
+    {
+        return getRevisionIterator(articleID, false);
+    }
+
+    /**
+     * Returns an iterator over all revisions of the specified article, ordered by their revision
+     * counter. The revisions are reconstructed sequentially, i.e. each diff is decoded only once,
+     * and already contain their text.
+     *
+     * @param articleID
+     *            ID of the article
+     * @param reverse
+     *            {@code true} if the newest revision should be returned first
+     * @return iterator over the revisions of the article
+     * @throws WikiApiException
+     *             if an error occurs or the article does not exist.
+     */
+    public ArticleRevisionIterator getRevisionIterator(final int articleID, final boolean reverse)
+        throws WikiApiException
+    {
+
+        try {
+            if (articleID < 1) {
+                throw new IllegalArgumentException();
+            }
+
+            final String sql = "SELECT FullRevisionPKs, RevisionCounter FROM index_articleID_rc_ts WHERE ArticleID=? LIMIT 1";
+            try (PreparedStatement statement = this.connection.prepareStatement(sql)) {
+                statement.setInt(1, articleID);
+                ResultSet result = statement.executeQuery();
+
+                if (result.next()) {
+                    return new ArticleRevisionIterator(this, config, result.getString(1),
+                            result.getString(2), reverse);
+                }
+                else {
+                    throw new WikiPageNotFoundException(
+                            "The article with the ID " + articleID + " was not found.");
+                }
+            }
+
+        }
+        catch (WikiPageNotFoundException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new WikiApiException(e);
+        }
+    }
+
     /*--------------------------------------------------------------------------*/
     /* Internal methods */
     /*--------------------------------------------------------------------------*/
@@ -1511,7 +1579,9 @@ public class RevisionApi
     }
 
     /**
-     * This method queries and builds the specified revision.
+     * This method queries and builds the specified revision. If a revision of the same article
+     * has been reconstructed before, the diffs are replayed starting from the closest cached
+     * revision instead of the full revision.
      *
      * @param revision
      */
@@ -1519,7 +1589,7 @@ public class RevisionApi
     {
 
         int fullRevPK;
-        int limit;
+        int revPK;
 
         try {
             final String sql = "SELECT FullRevisionPK, RevisionPK FROM index_revisionID  WHERE revisionID=? LIMIT 1";
@@ -1529,22 +1599,43 @@ public class RevisionApi
 
                 if (result.next()) {
                     fullRevPK = result.getInt(1);
-                    limit = (result.getInt(2) - fullRevPK) + 1;
-
+                    revPK = result.getInt(2);
                 }
                 else {
                     throw new WikiPageNotFoundException(
                             "The revision with ID " + revision.getRevisionID() + " was not found.");
                 }
             }
-            
+
+            RevisionCache cache = getRevisionCache();
+            RevisionCache.Entry checkpoint = null;
+            if (cache != null && revision.getArticleID() > 0) {
+                checkpoint = cache.getCheckpoint(revision.getArticleID(),
+                        revision.getRevisionCounter(), fullRevPK, revPK);
+            }
+
+            // Replay all diffs after the checkpoint; if the requested revision itself
+            // has been cached, only its diff has to be decoded to retrieve the parts
+            String previousRevision = null;
+            int startPK = fullRevPK;
+            if (checkpoint != null) {
+                if (checkpoint.getPrimaryKey() < revPK) {
+                    previousRevision = checkpoint.getText();
+                    startPK = checkpoint.getPrimaryKey() + 1;
+                }
+                else {
+                    startPK = revPK;
+                }
+            }
+            int limit = (revPK - startPK) + 1;
+
             final String query = "SELECT Revision, PrimaryKey, RevisionCounter, RevisionID, ArticleID, Timestamp, Comment, Minor, ContributorName, ContributorId, ContributorIsRegistered "
                             + "FROM revisions " + "WHERE PrimaryKey >= ? LIMIT " + limit;
             try (PreparedStatement statement = this.connection.prepareStatement(query)) {
-                statement.setInt(1, fullRevPK);
+                statement.setInt(1, startPK);
                 ResultSet result = statement.executeQuery();
 
-                String previousRevision = null, currentRevision = null;
+                String currentRevision = null;
 
                 Diff diff = null;
                 RevisionDecoder decoder;
@@ -1563,7 +1654,12 @@ public class RevisionApi
                     }
 
                     diff = decoder.decode();
-                    currentRevision = diff.buildRevision(previousRevision);
+                    if (checkpoint == null || checkpoint.getPrimaryKey() < revPK) {
+                        currentRevision = diff.buildRevision(previousRevision);
+                    }
+                    else {
+                        currentRevision = checkpoint.getText();
+                    }
 
                     previousRevision = currentRevision;
                 }
@@ -1577,6 +1673,10 @@ public class RevisionApi
                 revision.setParts(parts);
                 revision.setRevisionText(currentRevision);
 
+                if (cache != null && revision.getArticleID() > 0) {
+                    cache.put(revision.getArticleID(), revision.getRevisionCounter(), revPK,
+                            currentRevision);
+                }
             }
         }
         catch (WikiPageNotFoundException | DecodingException | SQLException | IOException e) {
@@ -1584,6 +1684,19 @@ public class RevisionApi
         }
     }
 
+    /**
+     * Returns the cache of reconstructed revision texts, creating it on first use.
+     *
+     * @return revision cache or {@code null} if caching has been disabled
+     */
+    private RevisionCache getRevisionCache()
+    {
+        if (this.revisionCache == null && config.getRevisionCacheSize() > 0) {
+            this.revisionCache = new RevisionCache(config.getRevisionCacheSize());
+        }
+        return this.revisionCache;
+    }
+
     /**
      * This method queries and builds the specified revision.
      *
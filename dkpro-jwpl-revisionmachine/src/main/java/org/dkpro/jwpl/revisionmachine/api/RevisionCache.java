@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.revisionmachine.api;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bounded cache of reconstructed revision texts.
+ * <p>
+ * Entries are keyed by article ID and revision counter and evicted in least-recently-used order
+ * as soon as the total number of cached characters exceeds the configured maximum. The
+ * {@link RevisionApi} uses the cached texts as checkpoints: a revision is rebuilt by replaying the
+ * diffs following the closest cached revision instead of those following the full revision.
+ * <p>
+ * This class is not thread-safe, just like the {@link RevisionApi} owning it.
+ */
+class RevisionCache
+{
+
+    /**
+     * Cached revision text together with the primary key of its revision.
+     */
+    static final class Entry
+    {
+
+        private final int articleID;
+
+        private final int revisionCounter;
+
+        private final int primaryKey;
+
+        private final String text;
+
+        private Entry(final int articleID, final int revisionCounter, final int primaryKey,
+                final String text)
+        {
+            this.articleID = articleID;
+            this.revisionCounter = revisionCounter;
+            this.primaryKey = primaryKey;
+            this.text = text;
+        }
+
+        /**
+         * Returns the primary key of the cached revision.
+         *
+         * @return primary key
+         */
+        int getPrimaryKey()
+        {
+            return primaryKey;
+        }
+
+        /**
+         * Returns the reconstructed revision text.
+         *
+         * @return revision text
+         */
+        String getText()
+        {
+            return text;
+        }
+    }
+
+    /**
+     * Maximum number of characters held by this cache
+     */
+    private final long maxSize;
+
+    /**
+     * Number of characters currently held by this cache
+     */
+    private long size;
+
+    /**
+     * All entries in access order (least recently used first)
+     */
+    private final LinkedHashMap<Long, Entry> entries;
+
+    /**
+     * Entries of each article ordered by revision counter
+     */
+    private final Map<Integer, TreeMap<Integer, Entry>> articles;
+
+    /**
+     * (Constructor) Creates a new RevisionCache.
+     *
+     * @param maxSize
+     *            maximum number of characters to keep
+     */
+    RevisionCache(final long maxSize)
+    {
+        this.maxSize = maxSize;
+        this.size = 0;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.articles = new HashMap<>();
+    }
+
+    /**
+     * Returns the cached revision of the specified article with the highest revision counter not
+     * greater than the given one, provided that its primary key lies within the specified range.
+     *
+     * @param articleID
+     *            ID of the article
+     * @param revisionCounter
+     *            revision counter of the requested revision
+     * @param minPrimaryKey
+     *            lowest acceptable primary key (usually the one of the full revision)
+     * @param maxPrimaryKey
+     *            highest acceptable primary key (the one of the requested revision)
+     * @return closest cached revision or {@code null}
+     */
+    Entry getCheckpoint(final int articleID, final int revisionCounter, final int minPrimaryKey,
+            final int maxPrimaryKey)
+    {
+        TreeMap<Integer, Entry> revisions = articles.get(articleID);
+        if (revisions == null) {
+            return null;
+        }
+
+        Map.Entry<Integer, Entry> floor = revisions.floorEntry(revisionCounter);
+        if (floor == null) {
+            return null;
+        }
+
+        Entry entry = floor.getValue();
+        if (entry.primaryKey < minPrimaryKey || entry.primaryKey > maxPrimaryKey) {
+            return null;
+        }
+
+        // Update access order
+        entries.get(key(articleID, entry.revisionCounter));
+        return entry;
+    }
+
+    /**
+     * Adds a reconstructed revision text to the cache. Texts larger than the cache itself are
+     * ignored.
+     *
+     * @param articleID
+     *            ID of the article
+     * @param revisionCounter
+     *            revision counter
+     * @param primaryKey
+     *            primary key of the revision
+     * @param text
+     *            reconstructed revision text
+     */
+    void put(final int articleID, final int revisionCounter, final int primaryKey,
+            final String text)
+    {
+        if (text == null || text.length() > maxSize) {
+            return;
+        }
+
+        Entry entry = new Entry(articleID, revisionCounter, primaryKey, text);
+        Entry previous = entries.put(key(articleID, revisionCounter), entry);
+        if (previous != null) {
+            size -= previous.text.length();
+        }
+        size += text.length();
+
+        articles.computeIfAbsent(articleID, k -> new TreeMap<>()).put(revisionCounter, entry);
+
+        evict();
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    void clear()
+    {
+        entries.clear();
+        articles.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of characters currently held by this cache.
+     *
+     * @return number of characters
+     */
+    long size()
+    {
+        return size;
+    }
+
+    /**
+     * Discards the least recently used entries until the cache fits into its maximum size.
+     */
+    private void evict()
+    {
+        Iterator<Entry> it = entries.values().iterator();
+        while (size > maxSize && it.hasNext()) {
+
+            Entry entry = it.next();
+            it.remove();
+            size -= entry.text.length();
+
+            TreeMap<Integer, Entry> revisions = articles.get(entry.articleID);
+            revisions.remove(entry.revisionCounter);
+            if (revisions.isEmpty()) {
+                articles.remove(entry.articleID);
+            }
+        }
+    }
+
+    private static long key(final int articleID, final int revisionCounter)
+    {
+        return ((long) articleID << 32) | (revisionCounter & 0xFFFFFFFFL);
+    }
+}
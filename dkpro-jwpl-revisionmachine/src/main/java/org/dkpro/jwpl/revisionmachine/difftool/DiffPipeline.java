@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.revisionmachine.difftool;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.dkpro.jwpl.revisionmachine.api.Revision;
+import org.dkpro.jwpl.revisionmachine.common.exceptions.ArticleReaderException;
+import org.dkpro.jwpl.revisionmachine.common.exceptions.ConfigurationException;
+import org.dkpro.jwpl.revisionmachine.common.exceptions.DiffException;
+import org.dkpro.jwpl.revisionmachine.common.logging.Logger;
+import org.dkpro.jwpl.revisionmachine.common.logging.messages.consumer.ArticleConsumerLogMessages;
+import org.dkpro.jwpl.revisionmachine.common.logging.messages.consumer.DiffConsumerLogMessages;
+import org.dkpro.jwpl.revisionmachine.difftool.consumer.article.ArticleReaderInterface;
+import org.dkpro.jwpl.revisionmachine.difftool.consumer.article.reader.ArticleFilter;
+import org.dkpro.jwpl.revisionmachine.difftool.consumer.article.reader.InputFactory;
+import org.dkpro.jwpl.revisionmachine.difftool.consumer.diff.DiffCalculatorInterface;
+import org.dkpro.jwpl.revisionmachine.difftool.consumer.diff.TaskTransmitterInterface;
+import org.dkpro.jwpl.revisionmachine.difftool.consumer.diff.calculation.DiffCalculator;
+import org.dkpro.jwpl.revisionmachine.difftool.consumer.diff.calculation.TimedDiffCalculator;
+import org.dkpro.jwpl.revisionmachine.difftool.data.archive.ArchiveDescription;
+import org.dkpro.jwpl.revisionmachine.difftool.data.archive.ArchiveManager;
+import org.dkpro.jwpl.revisionmachine.difftool.data.tasks.Task;
+import org.dkpro.jwpl.revisionmachine.difftool.data.tasks.TaskTypes;
+import org.dkpro.jwpl.revisionmachine.difftool.data.tasks.content.Diff;
+
+/**
+ * Multi-threaded variant of the diff creation process.
+ * <p>
+ * The process is split into three stages:
+ * <ul>
+ * <li>the calling thread reads the archives and groups the tasks of each article into an
+ * {@link ArticleJob},</li>
+ * <li>a pool of workers calculates the diffs; each worker owns its own {@link DiffCalculator}
+ * and always processes all tasks of an article,</li>
+ * <li>a single writer thread forwards the diff tasks to the output in the order in which the
+ * articles were read, so that the primary keys are assigned exactly as in the single threaded
+ * process.</li>
+ * </ul>
+ * All queues between the stages are bounded (except for the diff tasks of the articles that are
+ * currently processed), so that the reader is slowed down if the workers or the writer can not
+ * keep up.
+ */
+class DiffPipeline
+{
+
+    /**
+     * Timeout (in milliseconds) after which a blocked stage checks whether another stage failed
+     */
+    private static final long POLL_TIMEOUT = 500;
+
+    /**
+     * Number of tasks of a single article that may wait for their worker
+     */
+    private static final int CAPACITY_ARTICLE_TASKS = 2;
+
+    /**
+     * Marks the end of the job queue
+     */
+    private static final ArticleJob END_OF_JOBS = new ArticleJob();
+
+    /**
+     * Reference to the DiffTool Logger
+     */
+    private final Logger logger;
+
+    /**
+     * Reference to the output transmitter (used by the writer stage only)
+     */
+    private final TaskTransmitterInterface outputTransmitter;
+
+    /**
+     * Number of diff calculation workers
+     */
+    private final int workerCount;
+
+    /**
+     * Configuration Parameter - Statistical output flag
+     */
+    private final boolean MODE_STATISTICAL_OUTPUT;
+
+    /**
+     * Articles waiting for a worker
+     */
+    private final BlockingQueue<ArticleJob> jobQueue;
+
+    /**
+     * Articles in reading order, waiting to be written
+     */
+    private final BlockingQueue<ArticleJob> outputQueue;
+
+    /**
+     * First error that occurred inside a worker or the writer
+     */
+    private final AtomicReference<Throwable> failure;
+
+    /**
+     * Tasks of a single article.
+     */
+    private static class ArticleJob
+    {
+
+        /**
+         * Revision tasks of the article, terminated by an end task
+         */
+        private final BlockingQueue<Task<Revision>> input;
+
+        /**
+         * Diff tasks of the article, terminated by an end task
+         */
+        private final BlockingQueue<Task<Diff>> output;
+
+        /**
+         * (Constructor) Creates a new ArticleJob.
+         */
+        private ArticleJob()
+        {
+            this.input = new ArrayBlockingQueue<>(CAPACITY_ARTICLE_TASKS);
+            this.output = new LinkedBlockingQueue<>();
+        }
+    }
+
+    /**
+     * Receives the diff tasks of a worker's DiffCalculator and stores them in the output queue of
+     * the article that is currently processed.
+     */
+    private static class JobTransmitter
+        implements TaskTransmitterInterface
+    {
+
+        /**
+         * Currently processed article
+         */
+        private ArticleJob job;
+
+        @Override
+        public void transmitDiff(final Task<Diff> result)
+        {
+            job.output.add(result);
+        }
+
+        @Override
+        public void transmitPartialDiff(final Task<Diff> result)
+        {
+            job.output.add(result);
+        }
+
+        @Override
+        public void close()
+        {
+            job = null;
+        }
+    }
+
+    /**
+     * (Constructor) Creates a new DiffPipeline.
+     *
+     * @param logger
+     *            Reference to the DiffTool Logger
+     * @param outputTransmitter
+     *            Reference to the transmitter that writes the output
+     * @param workerCount
+     *            number of diff calculation workers
+     * @param statisticalOutput
+     *            whether timed diff calculators should be used
+     */
+    DiffPipeline(final Logger logger, final TaskTransmitterInterface outputTransmitter,
+            final int workerCount, final boolean statisticalOutput)
+    {
+        this.logger = logger;
+        this.outputTransmitter = outputTransmitter;
+        this.workerCount = workerCount;
+        this.MODE_STATISTICAL_OUTPUT = statisticalOutput;
+
+        this.jobQueue = new ArrayBlockingQueue<>(workerCount);
+        this.outputQueue = new ArrayBlockingQueue<>(4 * workerCount);
+        this.failure = new AtomicReference<>();
+    }
+
+    /**
+     * Processes all archives and closes the output transmitter.
+     *
+     * @throws ConfigurationException
+     *             if an error occurs while accessing the configuration
+     * @throws IOException
+     *             if an error occurs while closing the output
+     * @throws SQLException
+     *             if an error occurs while closing the output
+     * @throws InterruptedException
+     *             if the thread has been interrupted
+     */
+    void run() throws ConfigurationException, IOException, SQLException, InterruptedException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workerCount + 1);
+            for (int i = 0; i < workerCount; i++) {
+                futures.add(executor.submit(guard(createWorker())));
+            }
+            futures.add(executor.submit(guard(this::write)));
+
+            read();
+
+            for (int i = 0; i < workerCount; i++) {
+                put(jobQueue, END_OF_JOBS);
+            }
+            put(outputQueue, END_OF_JOBS);
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        outputTransmitter.close();
+    }
+
+    /**
+     * Reader stage - reads the archives and distributes the articles.
+     */
+    private void read() throws ConfigurationException, InterruptedException
+    {
+        ArchiveManager archives = new ArchiveManager();
+        ArticleReaderInterface articleReader;
+        ArchiveDescription description = null;
+        ArticleJob job = null;
+        Task<Revision> task;
+
+        long start, time;
+
+        while (archives.hasArchive()) {
+
+            // Retrieve Archive
+            try {
+                description = archives.getArchive();
+
+                // initialize filter
+                ArticleFilter nameFilter = new ArticleFilter();
+
+                articleReader = InputFactory.getTaskReader(description, nameFilter);
+                ArticleConsumerLogMessages.logArchiveRetrieved(logger, description);
+
+                // Exception while accessing the archive
+            }
+            catch (ArticleReaderException e) {
+
+                articleReader = null;
+                ArticleConsumerLogMessages.logExceptionRetrieveArchive(logger, description, e);
+            }
+
+            // Process Archive
+            while (articleReader != null) {
+                try {
+                    if (articleReader.hasNext()) {
+
+                        start = System.currentTimeMillis();
+                        // read the next article (may be null if filtered)
+                        task = articleReader.next();
+                        time = System.currentTimeMillis() - start;
+
+                        // task will be null if the name filter removed that
+                        // article
+                        if (task == null) {
+                            continue;
+                        }
+
+                        ArticleConsumerLogMessages.logArticleRead(logger, task, time,
+                                articleReader.getBytePosition());
+
+                        if (job == null) {
+                            job = new ArticleJob();
+                            put(outputQueue, job);
+                            put(jobQueue, job);
+                        }
+                        put(job.input, task);
+
+                        if (isLastTask(task)) {
+                            job = finish(job);
+                        }
+                    }
+                    else {
+                        ArticleConsumerLogMessages.logNoMoreArticles(logger, description);
+                        articleReader = null;
+                        job = finish(job);
+                    }
+
+                    // Reset current article
+                }
+                catch (ArticleReaderException e) {
+
+                    ArticleConsumerLogMessages.logTaskReaderException(logger, e);
+                    articleReader.resetTaskCompleted();
+                    job = finish(job);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a worker of the diff calculation stage. The DiffCalculator is created on the
+     * calling thread, so that configuration errors are reported before the processing starts.
+     */
+    private Action createWorker() throws ConfigurationException
+    {
+        JobTransmitter transmitter = new JobTransmitter();
+        DiffCalculatorInterface diffCalc;
+
+        if (MODE_STATISTICAL_OUTPUT) {
+            diffCalc = new TimedDiffCalculator(transmitter);
+        }
+        else {
+            diffCalc = new DiffCalculator(transmitter);
+        }
+
+        return () -> {
+            ArticleJob job;
+            while ((job = take(jobQueue)) != END_OF_JOBS) {
+
+                transmitter.job = job;
+                boolean discard = false;
+
+                long start, time;
+                Task<Revision> task, lastTask = null;
+
+                while ((task = take(job.input)).getTaskType() != TaskTypes.ENDTASK) {
+
+                    lastTask = task;
+
+                    // the remaining tasks of an article are skipped after an error,
+                    // the single threaded process resets the article reader instead
+                    if (discard) {
+                        continue;
+                    }
+
+                    try {
+                        start = System.currentTimeMillis();
+                        // calculate the diff for this article version
+                        diffCalc.process(task);
+                        time = System.currentTimeMillis() - start;
+
+                        DiffConsumerLogMessages.logArticleProcessed(logger, task, time);
+                    }
+                    catch (DiffException e) {
+
+                        DiffConsumerLogMessages.logDiffException(logger, e);
+                        diffCalc.reset();
+                        discard = true;
+                    }
+                }
+
+                // incomplete articles (reader errors) are discarded
+                if (!discard && lastTask != null && !isLastTask(lastTask)) {
+                    diffCalc.reset();
+                }
+
+                job.output.add(endTask());
+            }
+            diffCalc.closeTransmitter();
+        };
+    }
+
+    /**
+     * Writer stage - forwards the diff tasks in reading order to the output.
+     */
+    private void write() throws Exception
+    {
+        ArticleJob job;
+        Task<Diff> result;
+
+        while ((job = take(outputQueue)) != END_OF_JOBS) {
+            while ((result = take(job.output)).getTaskType() != TaskTypes.ENDTASK) {
+
+                // same dispatch as the DiffCalculator of the sequential process
+                TaskTypes type = result.getTaskType();
+                if (type == TaskTypes.TASK_FULL || type == TaskTypes.TASK_PARTIAL_FIRST) {
+                    outputTransmitter.transmitDiff(result);
+                }
+                else {
+                    outputTransmitter.transmitPartialDiff(result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the input of the specified job.
+     *
+     * @return {@code null}
+     */
+    private ArticleJob finish(final ArticleJob job) throws InterruptedException
+    {
+        if (job != null) {
+            put(job.input, endTask());
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the specified task is the last task of an article.
+     */
+    private static boolean isLastTask(final Task<?> task)
+    {
+        TaskTypes type = task.getTaskType();
+        return type == TaskTypes.TASK_FULL || type == TaskTypes.TASK_PARTIAL_LAST;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <D> Task<D> endTask()
+    {
+        return Task.createEndTask();
+    }
+
+    /**
+     * Inserts the element into the queue, waiting if necessary.
+     *
+     * @throws RuntimeException
+     *             if another stage failed in the meantime
+     */
+    private <T> void put(final BlockingQueue<T> queue, final T element)
+        throws InterruptedException
+    {
+        while (!queue.offer(element, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            checkFailure();
+        }
+    }
+
+    /**
+     * Retrieves the head of the queue, waiting if necessary.
+     *
+     * @throws RuntimeException
+     *             if another stage failed in the meantime
+     */
+    private <T> T take(final BlockingQueue<T> queue) throws InterruptedException
+    {
+        T element;
+        while ((element = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS)) == null) {
+            checkFailure();
+        }
+        return element;
+    }
+
+    private void checkFailure()
+    {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new RuntimeException("Diff pipeline stage failed", t);
+        }
+    }
+
+    /**
+     * Wraps a stage, so that its first error is visible to all other stages.
+     */
+    private Action guard(final Action action)
+    {
+        return () -> {
+            try {
+                action.execute();
+            }
+            catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                throw t;
+            }
+        };
+    }
+
+    /**
+     * Body of a pipeline stage.
+     */
+    @FunctionalInterface
+    private interface Action
+        extends Callable<Void>
+    {
+
+        void execute() throws Exception;
+
+        @Override
+        default Void call() throws Exception
+        {
+            execute();
+            return null;
+        }
+    }
+}
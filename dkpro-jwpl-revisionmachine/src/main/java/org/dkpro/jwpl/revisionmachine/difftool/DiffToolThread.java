@@ -28,6 +28,7 @@ import org.dkpro.jwpl.revisionmachine.common.exceptions.ErrorFactory;
 import org.dkpro.jwpl.revisionmachine.common.exceptions.ErrorKeys;
 import org.dkpro.jwpl.revisionmachine.common.exceptions.LoggingException;
 import org.dkpro.jwpl.revisionmachine.common.exceptions.SQLConsumerException;
+import org.dkpro.jwpl.revisionmachine.common.exceptions.TimeoutException;
 import org.dkpro.jwpl.revisionmachine.common.logging.Logger;
 import org.dkpro.jwpl.revisionmachine.common.logging.LoggerType;
 import org.dkpro.jwpl.revisionmachine.common.logging.LoggingFactory;
@@ -82,6 +83,11 @@ public class DiffToolThread
      */
     private boolean MODE_STATISTICAL_OUTPUT;
 
+    /**
+     * Configuration Parameter - Number of diff calculation threads
+     */
+    private int VALUE_DIFF_THREADS;
+
     /**
      * (Constructor) Creates a DiffToolThread object.
      *
@@ -103,6 +109,14 @@ public class DiffToolThread
             MODE_STATISTICAL_OUTPUT = false;
         }
 
+        try {
+            VALUE_DIFF_THREADS = (Integer) cconfig
+                    .getConfigParameter(ConfigurationKeys.VALUE_DIFF_THREADS);
+        }
+        catch (ConfigurationException e) {
+            VALUE_DIFF_THREADS = 1;
+        }
+
         logger = LoggingFactory.createLogger(LoggerType.DIFF_TOOL, "DiffTool");
     }
 
@@ -270,101 +284,164 @@ public class DiffToolThread
      */
     @Override
     public void run()
+    {
+
+        if (VALUE_DIFF_THREADS > 1) {
+            runParallel();
+        }
+        else {
+            runSequential();
+        }
+    }
+
+    /**
+     * Runs the diff creation process with several diff calculation threads.
+     *
+     * @see DiffPipeline
+     */
+    private void runParallel()
     {
 
         try {
-            ArchiveManager archives = new ArchiveManager();
-            ArticleReaderInterface articleReader;
-            ArchiveDescription description = null;
-            Task<Revision> task;
-            DiffCalculatorInterface diffCalc;
-
-            if (MODE_STATISTICAL_OUTPUT) {
-                diffCalc = new TimedDiffCalculator(new TaskTransmitter());
-            }
-            else {
-                diffCalc = new DiffCalculator(new TaskTransmitter());
-            }
+            new DiffPipeline(logger, new TaskTransmitter(), VALUE_DIFF_THREADS,
+                    MODE_STATISTICAL_OUTPUT).run();
 
-            long start, time;
+            ArticleConsumerLogMessages.logNoMoreArchives(logger);
 
-            while (archives.hasArchive()) {
+            // Critical Exceptions
+        }
+        catch (Exception e) {
+            DiffToolLogMessages.logException(logger, e);
+            throw new RuntimeException(e);
+        }
+    }
 
-                // Retrieve Archive
-                try {
-                    description = archives.getArchive();
+    /**
+     * Runs the diff creation process on the current thread.
+     */
+    private void runSequential()
+    {
 
-                    // initialize filter
-                    ArticleFilter nameFilter = new ArticleFilter();
+        try {
+            processSequential(logger, new TaskTransmitter(), MODE_STATISTICAL_OUTPUT);
 
-                    articleReader = InputFactory.getTaskReader(description, nameFilter);
-                    ArticleConsumerLogMessages.logArchiveRetrieved(logger, description);
+            ArticleConsumerLogMessages.logNoMoreArchives(logger);
 
-                    // Exception while accessing the archive
-                }
-                catch (ArticleReaderException e) {
+            // Critical Exceptions
+        }
+        catch (Exception e) {
+            DiffToolLogMessages.logException(logger, e);
+            throw new RuntimeException(e);
+        }
+    }
 
-                    articleReader = null;
-                    ArticleConsumerLogMessages.logExceptionRetrieveArchive(logger, description, e);
-                }
+    /**
+     * Reads all archives and calculates the diffs on the calling thread. Closes the transmitter
+     * at the end.
+     *
+     * @param logger
+     *            Reference to the DiffTool Logger
+     * @param transmitter
+     *            Reference to the transmitter that receives the diff tasks
+     * @param statisticalOutput
+     *            whether a timed diff calculator should be used
+     * @throws ConfigurationException
+     *             if an error occurs while accessing the configuration
+     * @throws TimeoutException
+     *             if a diff calculation timed out
+     * @throws IOException
+     *             if an error occurs while closing the output
+     * @throws SQLException
+     *             if an error occurs while closing the output
+     */
+    static void processSequential(final Logger logger, final TaskTransmitterInterface transmitter,
+            final boolean statisticalOutput)
+        throws ConfigurationException, TimeoutException, IOException, SQLException
+    {
 
-                // Process Archive
-                while (articleReader != null) {
-                    try {
-                        if (articleReader.hasNext()) {
+        ArchiveManager archives = new ArchiveManager();
+        ArticleReaderInterface articleReader;
+        ArchiveDescription description = null;
+        Task<Revision> task;
+        DiffCalculatorInterface diffCalc;
 
-                            start = System.currentTimeMillis();
-                            // read the next article (may be null if filtered)
-                            task = articleReader.next();
-                            time = System.currentTimeMillis() - start;
+        if (statisticalOutput) {
+            diffCalc = new TimedDiffCalculator(transmitter);
+        }
+        else {
+            diffCalc = new DiffCalculator(transmitter);
+        }
 
-                            // task will be null if the name filter removed that
-                            // article
-                            if (task == null) {
-                                continue;
-                            }
+        long start, time;
 
-                            ArticleConsumerLogMessages.logArticleRead(logger, task, time,
-                                    articleReader.getBytePosition());
+        while (archives.hasArchive()) {
 
-                            start = System.currentTimeMillis();
-                            // calculate the diff for this article version
-                            diffCalc.process(task);
-                            time = System.currentTimeMillis() - start;
+            // Retrieve Archive
+            try {
+                description = archives.getArchive();
 
-                            DiffConsumerLogMessages.logArticleProcessed(logger, task, time);
+                // initialize filter
+                ArticleFilter nameFilter = new ArticleFilter();
 
-                        }
-                        else {
-                            ArticleConsumerLogMessages.logNoMoreArticles(logger, description);
-                            articleReader = null;
+                articleReader = InputFactory.getTaskReader(description, nameFilter);
+                ArticleConsumerLogMessages.logArchiveRetrieved(logger, description);
+
+                // Exception while accessing the archive
+            }
+            catch (ArticleReaderException e) {
+
+                articleReader = null;
+                ArticleConsumerLogMessages.logExceptionRetrieveArchive(logger, description, e);
+            }
+
+            // Process Archive
+            while (articleReader != null) {
+                try {
+                    if (articleReader.hasNext()) {
+
+                        start = System.currentTimeMillis();
+                        // read the next article (may be null if filtered)
+                        task = articleReader.next();
+                        time = System.currentTimeMillis() - start;
+
+                        // task will be null if the name filter removed that
+                        // article
+                        if (task == null) {
+                            continue;
                         }
 
-                        // Reset current article
-                    }
-                    catch (ArticleReaderException e) {
+                        ArticleConsumerLogMessages.logArticleRead(logger, task, time,
+                                articleReader.getBytePosition());
 
-                        ArticleConsumerLogMessages.logTaskReaderException(logger, e);
-                        articleReader.resetTaskCompleted();
+                        start = System.currentTimeMillis();
+                        // calculate the diff for this article version
+                        diffCalc.process(task);
+                        time = System.currentTimeMillis() - start;
 
-                    }
-                    catch (DiffException e) {
+                        DiffConsumerLogMessages.logArticleProcessed(logger, task, time);
 
-                        DiffConsumerLogMessages.logDiffException(logger, e);
-                        articleReader.resetTaskCompleted();
-                        diffCalc.reset();
                     }
+                    else {
+                        ArticleConsumerLogMessages.logNoMoreArticles(logger, description);
+                        articleReader = null;
+                    }
+
+                    // Reset current article
                 }
-            }
-            diffCalc.closeTransmitter();
+                catch (ArticleReaderException e) {
 
-            ArticleConsumerLogMessages.logNoMoreArchives(logger);
+                    ArticleConsumerLogMessages.logTaskReaderException(logger, e);
+                    articleReader.resetTaskCompleted();
 
-            // Critical Exceptions
-        }
-        catch (Exception e) {
-            DiffToolLogMessages.logException(logger, e);
-            throw new RuntimeException(e);
+                }
+                catch (DiffException e) {
+
+                    DiffConsumerLogMessages.logDiffException(logger, e);
+                    articleReader.resetTaskCompleted();
+                    diffCalc.reset();
+                }
+            }
         }
+        diffCalc.closeTransmitter();
     }
 }
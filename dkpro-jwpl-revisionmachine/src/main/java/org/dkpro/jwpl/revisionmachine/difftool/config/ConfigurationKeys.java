@@ -119,6 +119,17 @@ public enum ConfigurationKeys
      */
     VALUE_MINIMUM_LONGEST_COMMON_SUBSTRING,
 
+    /**
+     * Type: Integer Range: &gt;= 1 Used by: DiffTool - Diff Generation
+     * <p>
+     * Description: Number of threads calculating diffs in parallel. Each thread processes whole
+     * articles, the output is written in the order in which the articles were read.
+     * <p>
+     * Recommendation / Default: 1 (single threaded) - should not exceed the number of available
+     * cores minus two (reader and writer).
+     */
+    VALUE_DIFF_THREADS,
+
     /*
      * +OUTPUT+VERIFICATION++++++++++++++++++++++++++++++++++++++++++++++++++++++
      */
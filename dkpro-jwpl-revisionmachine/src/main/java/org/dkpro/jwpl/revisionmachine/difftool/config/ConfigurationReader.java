@@ -64,6 +64,11 @@ public class ConfigurationReader
      */
     private static final String KEY_COUNTER_FULL_REVISION = "COUNTER_FULL_REVISION";
 
+    /**
+     * Key identifier - Mode >> number of diff threads
+     */
+    private static final String KEY_VALUE_DIFF_THREADS = "VALUE_DIFF_THREADS";
+
     /**
      * Section identifier - Externals
      */
@@ -399,6 +404,10 @@ public class ConfigurationReader
                 int value = Integer.parseInt(nnode.getChildNodes().item(0).getNodeValue());
                 config.setConfigParameter(ConfigurationKeys.COUNTER_FULL_REVISION, value);
             }
+            else if (name.equals(KEY_VALUE_DIFF_THREADS)) {
+                int value = Integer.parseInt(nnode.getChildNodes().item(0).getNodeValue());
+                config.setConfigParameter(ConfigurationKeys.VALUE_DIFF_THREADS, value);
+            }
         }
     }
 
@@ -185,6 +185,8 @@ public class ConfigSettings
 
         setConfigParameter(ConfigurationKeys.COUNTER_FULL_REVISION, 1000);
 
+        setConfigParameter(ConfigurationKeys.VALUE_DIFF_THREADS, 1);
+
         setConfigParameter(ConfigurationKeys.LIMIT_TASK_SIZE_REVISIONS, 5000000L);
 
         setConfigParameter(ConfigurationKeys.LIMIT_TASK_SIZE_DIFFS, 1000000L);
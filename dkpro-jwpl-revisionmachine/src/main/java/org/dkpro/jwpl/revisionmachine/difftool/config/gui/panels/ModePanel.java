@@ -47,6 +47,9 @@ public class ModePanel
     private JLabel minimumCommonSequenceLabel;
     private JTextField minimumCommonSequenceField;
 
+    private JLabel diffThreadsLabel;
+    private JTextField diffThreadsField;
+
     /**
      * (Constructor) Creates a new ModePanel.
      *
@@ -61,6 +64,7 @@ public class ModePanel
 
         createFullRevisionSettings();
         createMinimumCommonSequenceSettings();
+        createDiffThreadsSettings();
     }
 
     // --------------------------------------------------------------------------//
@@ -93,6 +97,19 @@ public class ModePanel
         this.add(minimumCommonSequenceField);
     }
 
+    private void createDiffThreadsSettings()
+    {
+
+        diffThreadsLabel = new JLabel("Number of diff calculation threads:");
+        diffThreadsLabel.setBorder(BorderFactory.createRaisedBevelBorder());
+        diffThreadsLabel.setBounds(10, 90, 270, 25);
+        this.add(diffThreadsLabel);
+
+        diffThreadsField = new JTextField();
+        diffThreadsField.setBounds(290, 90, 100, 25);
+        this.add(diffThreadsField);
+    }
+
     // --------------------------------------------------------------------------//
     // VALIDATION METHODS //
     // --------------------------------------------------------------------------//
@@ -113,7 +130,7 @@ public class ModePanel
     public void relocate()
     {
 
-        int w = 380, h = 65;
+        int w = 380, h = 105;
         int x = (this.getWidth() - w) / 2, y = (this.getHeight() - h) / 2;
 
         fullRevisionLabel.setLocation(x, y);
@@ -121,6 +138,9 @@ public class ModePanel
 
         minimumCommonSequenceLabel.setLocation(x, y + 40);
         minimumCommonSequenceField.setLocation(x + 280, y + 40);
+
+        diffThreadsLabel.setLocation(x, y + 80);
+        diffThreadsField.setLocation(x + 280, y + 80);
     }
 
     // --------------------------------------------------------------------------//
@@ -152,6 +172,14 @@ public class ModePanel
         else {
             this.minimumCommonSequenceField.setText("");
         }
+
+        o = config.getConfigParameter(ConfigurationKeys.VALUE_DIFF_THREADS);
+        if (o != null) {
+            this.diffThreadsField.setText(Integer.toString((Integer) o));
+        }
+        else {
+            this.diffThreadsField.setText("1");
+        }
     }
 
     /**
@@ -167,7 +195,7 @@ public class ModePanel
     public void toXML(StringBuilder builder, final ConfigVerification errors)
     {
 
-        int minLCS = -1, fullRevCounter = -1;
+        int minLCS = -1, fullRevCounter = -1, diffThreads = 1;
 
         // Check the FullRevisionCounter input
         String text = this.minimumCommonSequenceField.getText();
@@ -221,11 +249,29 @@ public class ModePanel
             }
         }
 
+        // Check the DiffThreads input
+        text = this.diffThreadsField.getText();
+        if (!text.isEmpty()) {
+            try {
+                diffThreads = Integer.parseInt(text);
+                if (diffThreads < 1) {
+                    errors.add(new ConfigItem(ConfigItemTypes.ERROR,
+                            ConfigErrorKeys.VALUE_OUT_OF_RANGE,
+                            "The number of diff threads has to " + "be at least 1."));
+                }
+            }
+            catch (NumberFormatException nfe) {
+                errors.add(new ConfigItem(ConfigItemTypes.ERROR, ConfigErrorKeys.ILLEGAL_INPUT,
+                        "NumberFormatException for " + "the number of diff threads"));
+            }
+        }
+
         builder.append("\t<values>\r\n");
         builder.append("\t\t<VALUE_MINIMUM_LONGEST_COMMON_SUBSTRING>" + minLCS
                 + "</VALUE_MINIMUM_LONGEST_COMMON_SUBSTRING>\r\n");
         builder.append(
                 "\t\t<COUNTER_FULL_REVISION>" + fullRevCounter + "</COUNTER_FULL_REVISION>\r\n");
+        builder.append("\t\t<VALUE_DIFF_THREADS>" + diffThreads + "</VALUE_DIFF_THREADS>\r\n");
         builder.append("\t</values>\r\n");
     }
 }
@@ -21,8 +21,8 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 
 import org.dkpro.jwpl.revisionmachine.api.Revision;
 import org.dkpro.jwpl.revisionmachine.common.exceptions.ConfigurationException;
@@ -126,6 +126,8 @@ public class DiffCalculator
     {
         this.taskTransmitter = taskTransmitter;
         this.blocks = new BlockManagement();
+        this.revABlocked = new boolean[0];
+        this.revBBlocked = new boolean[0];
 
         this.articleID = -1;
         this.partCounter = 0;
@@ -154,6 +156,11 @@ public class DiffCalculator
                 .getConfigParameter(ConfigurationKeys.VALUE_MINIMUM_LONGEST_COMMON_SUBSTRING);
         MODE_SURROGATES = (SurrogateModes) config
                 .getConfigParameter(ConfigurationKeys.MODE_SURROGATES);
+
+        // Only substrings that are longer than the minimum can become blocks, so it suffices
+        // to index the substrings of the minimum length + 1 as anchors
+        this.positions = new SubstringPositionIndex(
+                Math.max(1, VALUE_MINIMUM_LONGEST_COMMON_SUBSTRING + 1));
     }
 
     /*--------------------------------------------------------------------------*/
@@ -219,9 +226,9 @@ public class DiffCalculator
     private boolean[] revBBlocked;
 
     /**
-     * Temporary variable - Mapping of characters and their positions in the previous revision
+     * Temporary variable - Mapping of substrings and their positions in the previous revision
      */
-    private HashMap<Character, ArrayList<Integer>> positions;
+    private final SubstringPositionIndex positions;
 
     /**
      * Temporary variable - Queue for blocks of the previous revision
@@ -558,7 +565,7 @@ public class DiffCalculator
      * @throws UnsupportedEncodingException
      *             if the character encoding is unsupported
      */
-    private Diff generateDiff(final char[] revA, final char[] revB)
+    Diff generateDiff(final char[] revA, final char[] revB)
         throws UnsupportedEncodingException
     {
 
@@ -566,8 +573,19 @@ public class DiffCalculator
         queueA = new ArrayList<>();
         queueB = new ArrayList<>();
 
-        revABlocked = new boolean[revA.length];
-        revBBlocked = new boolean[revB.length];
+        // Reuse the flag arrays of the previous revisions
+        if (revABlocked.length < revA.length) {
+            revABlocked = new boolean[revA.length];
+        }
+        else {
+            Arrays.fill(revABlocked, 0, revA.length, false);
+        }
+        if (revBBlocked.length < revB.length) {
+            revBBlocked = new boolean[revB.length];
+        }
+        else {
+            Arrays.fill(revBBlocked, 0, revB.length, false);
+        }
 
         int revAStartIndex = 0, revAEndIndex = revA.length - 1;
         int revBStartIndex = 0, revBEndIndex = revB.length - 1;
@@ -606,18 +624,15 @@ public class DiffCalculator
             this.blockCount++;
         }
 
-        scan(revA, revAStartIndex, revAEndIndex);
-
-        ArrayList<Integer> list;
-        char c;
+        positions.build(revA, revAStartIndex, revAEndIndex);
+        positions.prepareQueries(revB, revBStartIndex, revBEndIndex);
 
+        int bucket;
         int i = revBStartIndex;
         while (i < revBEndIndex) {
 
-            c = revB[i];
-            list = positions.get(c);
-
-            if (list != null && findLongestMatch(revA, list, revB, i)) {
+            bucket = positions.queryBucket(i);
+            if (bucket >= 0 && findLongestMatch(revA, bucket, revB, i)) {
 
                 i += longestMatch_size;
             }
@@ -662,77 +677,71 @@ public class DiffCalculator
     }
 
     /**
-     * Scans the input and creates the character -> position mapping.
-     *
-     * @param input
-     *            character array
-     * @param start
-     *            start position
-     * @param end
-     *            end position
-     */
-    private void scan(final char[] input, final int start, final int end)
-    {
-
-        this.positions = new HashMap<>();
-        ArrayList<Integer> list;
-
-        char c;
-        for (int i = start; i < end; i++) {
-            c = input[i];
-
-            list = positions.computeIfAbsent(c, k -> new ArrayList<>());
-
-            list.add(i);
-        }
-    }
-
-    /**
-     * Searches the longest common substring
+     * Searches the longest common substring. Only those start positions of revision A are
+     * visited, whose anchor shares the bucket of the anchor at the start index of revision B.
+     * They are visited in ascending order and the first of several longest matches is chosen.
+     * Start positions that have already been assigned to a block are removed from the index.
      *
      * @param revA
-     *            current revision
-     * @param list
-     *            list of start positions for this substring search
-     * @param revB
      *            previous revision
+     * @param bucket
+     *            bucket of the anchor starting at the start index
+     * @param revB
+     *            current revision
      * @param index
-     *            start index previous revision
+     *            start index current revision
      * @return TRUE if a legal substring was found {@code false} otherwise
      */
-    private boolean findLongestMatch(final char[] revA, final ArrayList<Integer> list,
-            final char[] revB, final int index)
+    private boolean findLongestMatch(final char[] revA, final int bucket, final char[] revB,
+            final int index)
     {
 
         int match;
         longestMatch_size = -1;
 
-        int size = list.size();
+        int offset = positions.start(bucket);
+        int size = positions.end(bucket);
+        if (offset == size || revBBlocked[index + 1]) {
+            return false;
+        }
+
+        char c = revB[index];
+
         int revAsize = revA.length;
         int revBsize = revB.length;
 
         int start, end, count;
-        for (int i = 0; i < size; i++) {
+        int live = offset;
+        for (int i = offset; i < size; i++) {
+
+            start = positions.position(i);
+            if (revABlocked[start]) {
+                // blocked positions stay blocked until the next revision
+                continue;
+            }
+            positions.setPosition(live++, start);
 
-            start = list.get(i);
-            if (!revABlocked[start] && !revBBlocked[index + 1]) {
+            if (revA[start] != c) {
+                // different anchor within the same bucket
+                continue;
+            }
 
-                count = index + 1;
-                end = start + 1;
+            count = index + 1;
+            end = start + 1;
 
-                while (end < revAsize && count < revBsize && revA[end] == revB[count]
-                        && !revABlocked[end] && !revBBlocked[count]) {
-                    end++;
-                    count++;
-                }
+            while (end < revAsize && count < revBsize && revA[end] == revB[count]
+                    && !revABlocked[end] && !revBBlocked[count]) {
+                end++;
+                count++;
+            }
 
-                match = end - start;
-                if (match > longestMatch_size) {
-                    longestMatch_size = match;
-                    longestMatch_start = start;
-                }
+            match = end - start;
+            if (match > longestMatch_size) {
+                longestMatch_size = match;
+                longestMatch_start = start;
             }
         }
+        positions.truncate(bucket, live);
 
         if (longestMatch_size <= VALUE_MINIMUM_LONGEST_COMMON_SUBSTRING) {
             return false;
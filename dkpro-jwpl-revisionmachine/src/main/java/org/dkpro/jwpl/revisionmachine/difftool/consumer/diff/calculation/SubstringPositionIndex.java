@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.revisionmachine.difftool.consumer.diff.calculation;
+
+import java.util.Arrays;
+
+/**
+ * Mapping of fixed-length substrings (anchors) to their start positions inside a revision,
+ * stored in primitive arrays.
+ * <p>
+ * The anchors are hashed with a rolling hash into a power-of-two sized bucket table. The
+ * positions of all buckets are kept in one shared array, grouped by bucket and in ascending order
+ * within each bucket. Different anchors may share a bucket, so callers have to verify the
+ * candidates they retrieve.
+ * <p>
+ * All arrays are reused for subsequent revisions and only grow when necessary; a generation stamp
+ * marks the buckets that belong to the current revision, so that the bucket table does not have
+ * to be cleared between two revisions.
+ */
+class SubstringPositionIndex
+{
+
+    /**
+     * Multiplier of the polynomial rolling hash
+     */
+    private static final int MULTIPLIER = 0x01000193;
+
+    /**
+     * Marks a position without anchor (too close to the end of the text)
+     */
+    private static final int NO_BUCKET = -1;
+
+    /**
+     * Length of the anchors
+     */
+    private final int anchorLength;
+
+    /**
+     * MULTIPLIER ^ anchorLength
+     */
+    private final int outgoingFactor;
+
+    /**
+     * Generation in which a bucket has been written
+     */
+    private int[] stamps;
+
+    /**
+     * Start offset of the positions of a bucket
+     */
+    private int[] starts;
+
+    /**
+     * End offset (exclusive) of the positions of a bucket
+     */
+    private int[] ends;
+
+    /**
+     * Bit mask to map a hash value to a bucket
+     */
+    private int mask;
+
+    /**
+     * Current generation
+     */
+    private int generation;
+
+    /**
+     * Positions of all buckets
+     */
+    private int[] positions;
+
+    /**
+     * Buckets of the indexed positions
+     */
+    private int[] indexBuckets;
+
+    /**
+     * Buckets of the queried positions
+     */
+    private int[] queryBuckets;
+
+    /**
+     * Offset of the first queried position
+     */
+    private int queryStart;
+
+    /**
+     * (Constructor) Creates a new, empty SubstringPositionIndex.
+     *
+     * @param anchorLength
+     *            length of the indexed substrings, has to be at least 1
+     */
+    SubstringPositionIndex(final int anchorLength)
+    {
+        this.anchorLength = anchorLength;
+
+        int factor = 1;
+        for (int i = 0; i < anchorLength; i++) {
+            factor *= MULTIPLIER;
+        }
+        this.outgoingFactor = factor;
+
+        this.stamps = new int[0];
+        this.starts = new int[0];
+        this.ends = new int[0];
+        this.mask = -1;
+        this.generation = 0;
+
+        this.positions = new int[0];
+        this.indexBuckets = new int[0];
+        this.queryBuckets = new int[0];
+    }
+
+    /**
+     * Indexes all anchors starting between the given positions. An anchor may end behind the
+     * end position, but not behind the end of the input.
+     *
+     * @param input
+     *            character array
+     * @param start
+     *            first start position
+     * @param end
+     *            last start position (exclusive)
+     */
+    void build(final char[] input, final int start, final int end)
+    {
+        int size = Math.max(0, end - start);
+
+        int tableSize = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        if (stamps.length < tableSize) {
+            stamps = new int[tableSize];
+            starts = new int[tableSize];
+            ends = new int[tableSize];
+            generation = 0;
+        }
+        mask = tableSize - 1;
+
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+
+        if (positions.length < size) {
+            positions = new int[size];
+            indexBuckets = new int[size];
+        }
+        computeBuckets(input, start, end, indexBuckets);
+
+        // Count the positions of each bucket
+        int bucket;
+        for (int i = 0; i < size; i++) {
+            bucket = indexBuckets[i];
+            if (bucket != NO_BUCKET) {
+                if (stamps[bucket] != generation) {
+                    stamps[bucket] = generation;
+                    ends[bucket] = 0;
+                }
+                ends[bucket]++;
+            }
+        }
+
+        // Assign the offsets in order of the first occurrence. From here on, ends[bucket] holds
+        // the encoded fill pointer (-pointer - 1) until all positions have been stored.
+        int offset = 0, count;
+        for (int i = 0; i < size; i++) {
+            bucket = indexBuckets[i];
+            if (bucket != NO_BUCKET) {
+                count = ends[bucket];
+                if (count > 0) {
+                    starts[bucket] = offset;
+                    ends[bucket] = -offset - 1;
+                    offset += count;
+                }
+            }
+        }
+
+        // Store the positions
+        int index;
+        for (int i = 0; i < size; i++) {
+            bucket = indexBuckets[i];
+            if (bucket != NO_BUCKET) {
+                index = -ends[bucket] - 1;
+                positions[index] = start + i;
+                ends[bucket] = -(index + 1) - 1;
+            }
+        }
+
+        // Convert the encoded fill pointers back into end offsets
+        for (int i = 0; i < size; i++) {
+            bucket = indexBuckets[i];
+            if (bucket != NO_BUCKET && ends[bucket] < 0) {
+                ends[bucket] = -ends[bucket] - 1;
+            }
+        }
+    }
+
+    /**
+     * Computes the buckets of all anchors of the second text starting between the given
+     * positions. Has to be called after {@link #build(char[], int, int)}.
+     *
+     * @param input
+     *            character array
+     * @param start
+     *            first start position
+     * @param end
+     *            last start position (exclusive)
+     */
+    void prepareQueries(final char[] input, final int start, final int end)
+    {
+        int size = Math.max(0, end - start);
+        if (queryBuckets.length < size) {
+            queryBuckets = new int[size];
+        }
+        queryStart = start;
+        computeBuckets(input, start, end, queryBuckets);
+    }
+
+    /**
+     * Returns the bucket of the anchor starting at the specified (prepared) query position.
+     *
+     * @param position
+     *            position inside the second text
+     * @return bucket or a negative value if there is no anchor at this position
+     */
+    int queryBucket(final int position)
+    {
+        return queryBuckets[position - queryStart];
+    }
+
+    /**
+     * Returns the start offset of the positions of the specified bucket.
+     *
+     * @param bucket
+     *            bucket
+     * @return start offset
+     */
+    int start(final int bucket)
+    {
+        return stamps[bucket] == generation ? starts[bucket] : 0;
+    }
+
+    /**
+     * Returns the end offset (exclusive) of the positions of the specified bucket.
+     *
+     * @param bucket
+     *            bucket
+     * @return end offset
+     */
+    int end(final int bucket)
+    {
+        return stamps[bucket] == generation ? ends[bucket] : 0;
+    }
+
+    /**
+     * Returns the position stored at the specified offset.
+     *
+     * @param offset
+     *            offset
+     * @return position inside the indexed text
+     */
+    int position(final int offset)
+    {
+        return positions[offset];
+    }
+
+    /**
+     * Overwrites the position stored at the specified offset.
+     *
+     * @param offset
+     *            offset
+     * @param position
+     *            position inside the indexed text
+     */
+    void setPosition(final int offset, final int position)
+    {
+        positions[offset] = position;
+    }
+
+    /**
+     * Keeps only the first positions of the specified bucket. Used to drop positions that can no
+     * longer be part of a match.
+     *
+     * @param bucket
+     *            bucket
+     * @param newEnd
+     *            new end offset (exclusive)
+     */
+    void truncate(final int bucket, final int newEnd)
+    {
+        ends[bucket] = newEnd;
+    }
+
+    /**
+     * Computes the buckets of the anchors starting between the given positions with a rolling
+     * hash.
+     */
+    private void computeBuckets(final char[] input, final int start, final int end,
+            final int[] buckets)
+    {
+        int last = Math.min(end, input.length - anchorLength + 1);
+
+        int i = start;
+        if (i < last) {
+            int hash = 0;
+            for (int j = 0; j < anchorLength; j++) {
+                hash = hash * MULTIPLIER + input[i + j];
+            }
+            buckets[0] = bucket(hash);
+
+            for (i++; i < last; i++) {
+                hash = hash * MULTIPLIER + input[i + anchorLength - 1]
+                        - outgoingFactor * input[i - 1];
+                buckets[i - start] = bucket(hash);
+            }
+        }
+
+        for (; i < end; i++) {
+            buckets[i - start] = NO_BUCKET;
+        }
+    }
+
+    private int bucket(final int hash)
+    {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
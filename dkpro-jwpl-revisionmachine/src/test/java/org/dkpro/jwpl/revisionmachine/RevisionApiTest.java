@@ -32,7 +32,9 @@ import org.dkpro.jwpl.api.DatabaseConfiguration;
 import org.dkpro.jwpl.api.WikiConstants.Language;
 import org.dkpro.jwpl.api.Wikipedia;
 import org.dkpro.jwpl.api.exception.WikiApiException;
+import org.dkpro.jwpl.revisionmachine.api.ArticleRevisionIterator;
 import org.dkpro.jwpl.revisionmachine.api.Revision;
+import org.dkpro.jwpl.revisionmachine.api.RevisionAPIConfiguration;
 import org.dkpro.jwpl.revisionmachine.api.RevisionApi;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -260,4 +262,73 @@ public class RevisionApiTest
             fail(e.getMessage(), e);
         }
     }
+
+    @Test
+    public void revisionCacheTest()
+    {
+        try {
+            int pageId = wiki.getPage("Car").getPageId();
+
+            RevisionAPIConfiguration config = new RevisionAPIConfiguration(
+                    wiki.getDatabaseConfiguration());
+            config.setRevisionCacheSize(0);
+            RevisionApi uncachedApi = new RevisionApi(config, revisionApi.getConnection());
+
+            // request revisions backwards and forwards, so that both cache hits and
+            // replays from cached checkpoints are exercised
+            int[] revisionCounters = { 349, 349, 350, 345, 360, 1, 382, 381 };
+            for (int revisionCounter : revisionCounters) {
+                Revision expected = uncachedApi.getRevision(pageId, revisionCounter);
+                Revision actual = revisionApi.getRevision(pageId, revisionCounter);
+
+                assertEquals(expected.getRevisionText(), actual.getRevisionText());
+                assertEquals(expected.getParts().size(), actual.getParts().size());
+            }
+        }
+        catch (WikiApiException e) {
+            fail(e.getMessage(), e);
+        }
+    }
+
+    @Test
+    public void articleRevisionIteratorTest()
+    {
+        try {
+            int pageId = wiki.getPage("Car").getPageId();
+            int nrOfRevisions = revisionApi.getNumberOfRevisions(pageId);
+
+            ArticleRevisionIterator forward = revisionApi.getRevisionIterator(pageId);
+            int revisionCounter = 0;
+            while (forward.hasNext()) {
+                Revision revision = forward.next();
+                revisionCounter++;
+
+                assertEquals(revisionCounter, revision.getRevisionCounter());
+                assertEquals(pageId, revision.getArticleID());
+                if (revisionCounter % 50 == 0) {
+                    assertEquals(revisionApi.getRevision(pageId, revisionCounter).getRevisionText(),
+                            revision.getRevisionText());
+                }
+            }
+            forward.close();
+            assertEquals(nrOfRevisions, revisionCounter);
+
+            ArticleRevisionIterator backward = revisionApi.getRevisionIterator(pageId, true);
+            while (backward.hasNext()) {
+                Revision revision = backward.next();
+
+                assertEquals(revisionCounter, revision.getRevisionCounter());
+                if (revisionCounter % 50 == 0) {
+                    assertEquals(revisionApi.getRevision(pageId, revisionCounter).getRevisionText(),
+                            revision.getRevisionText());
+                }
+                revisionCounter--;
+            }
+            backward.close();
+            assertEquals(0, revisionCounter);
+        }
+        catch (WikiApiException | SQLException e) {
+            fail(e.getMessage(), e);
+        }
+    }
 }
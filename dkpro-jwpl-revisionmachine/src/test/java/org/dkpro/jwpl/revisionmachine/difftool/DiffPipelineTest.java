@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.revisionmachine.difftool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.dkpro.jwpl.revisionmachine.common.logging.Logger;
+import org.dkpro.jwpl.revisionmachine.common.logging.LoggerType;
+import org.dkpro.jwpl.revisionmachine.difftool.config.ConfigurationKeys;
+import org.dkpro.jwpl.revisionmachine.difftool.config.ConfigurationManager;
+import org.dkpro.jwpl.revisionmachine.difftool.config.gui.control.ConfigSettings;
+import org.dkpro.jwpl.revisionmachine.difftool.consumer.diff.TaskTransmitterInterface;
+import org.dkpro.jwpl.revisionmachine.difftool.data.archive.ArchiveDescription;
+import org.dkpro.jwpl.revisionmachine.difftool.data.archive.InputType;
+import org.dkpro.jwpl.revisionmachine.difftool.data.tasks.Task;
+import org.dkpro.jwpl.revisionmachine.difftool.data.tasks.content.Diff;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the diff tasks of the multi-threaded {@link DiffPipeline} with those of the single
+ * threaded process.
+ */
+public class DiffPipelineTest
+{
+
+    @TempDir
+    static Path tempDir;
+
+    private static File dump;
+
+    @BeforeAll
+    public static void writeDump() throws Exception
+    {
+        Random random = new Random(42);
+        StringBuilder xml = new StringBuilder();
+        xml.append("<mediawiki>\n  <siteinfo>\n    <namespaces>\n")
+                .append("      <namespace key=\"0\" case=\"first-letter\" />\n")
+                .append("      <namespace key=\"1\" case=\"first-letter\">Talk</namespace>\n")
+                .append("      <namespace key=\"4\" case=\"first-letter\">Wikipedia</namespace>\n")
+                .append("    </namespaces>\n  </siteinfo>\n");
+        int revisionId = 1;
+        for (int page = 1; page <= 20; page++) {
+            // a page of a namespace that is filtered
+            String title = (page % 7 == 0 ? "Wikipedia:Page " : "Page ") + page;
+            xml.append("  <page>\n    <title>").append(title).append("</title>\n    <id>")
+                    .append(page).append("</id>\n");
+
+            String text = randomText(random, 200 + random.nextInt(2000));
+            int revisions = 1 + random.nextInt(30);
+            for (int i = 0; i < revisions; i++) {
+                xml.append("    <revision>\n      <id>").append(revisionId++)
+                        .append("</id>\n      <timestamp>2020-01-")
+                        .append(String.format("%02d", 1 + i % 28))
+                        .append("T12:00:00Z</timestamp>\n      <contributor>\n")
+                        .append("        <username>User").append(i % 3)
+                        .append("</username>\n        <id>").append(i % 3)
+                        .append("</id>\n      </contributor>\n      <comment>Edit ").append(i)
+                        .append("</comment>\n      <text xml:space=\"preserve\">").append(text)
+                        .append("</text>\n    </revision>\n");
+                text = edit(random, text);
+            }
+            xml.append("  </page>\n");
+        }
+        xml.append("</mediawiki>\n");
+
+        dump = tempDir.resolve("dump.xml").toFile();
+        Files.writeString(dump.toPath(), xml, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPipelineMatchesSequentialProcess() throws Exception
+    {
+        CapturingTransmitter sequential = new CapturingTransmitter();
+        DiffToolThread.processSequential(createLogger("sequential"), sequential, false);
+        assertTrue(sequential.closed);
+        assertTrue(sequential.tasks.size() > 20);
+
+        for (int workers : new int[] { 2, 4 }) {
+            CapturingTransmitter parallel = new CapturingTransmitter();
+            new DiffPipeline(createLogger("parallel" + workers), parallel, workers, false).run();
+            assertTrue(parallel.closed);
+            assertEquals(sequential.tasks, parallel.tasks);
+        }
+    }
+
+    /**
+     * Configures the DiffTool for the test dump. Small task size limits split the articles into
+     * several partial tasks and the counter creates full revisions in between the diffs.
+     */
+    private static Logger createLogger(String name) throws Exception
+    {
+        ConfigSettings settings = new ConfigSettings();
+        settings.defaultConfiguration();
+        settings.setConfigParameter(ConfigurationKeys.COUNTER_FULL_REVISION, 7);
+        settings.setConfigParameter(ConfigurationKeys.LIMIT_TASK_SIZE_REVISIONS, 10_000L);
+        settings.setConfigParameter(ConfigurationKeys.LIMIT_TASK_SIZE_DIFFS, 2_000L);
+        settings.setConfigParameter(ConfigurationKeys.LOGGING_PATH_DIFFTOOL,
+                tempDir.toString() + File.separator);
+        settings.add(new ArchiveDescription(InputType.XML, dump.getPath()));
+        new ConfigurationManager(settings);
+        return new Logger(LoggerType.DIFF_TOOL, name);
+    }
+
+    private static String randomText(Random random, int length)
+    {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append("abcdefgh ".charAt(random.nextInt(9)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Moves, removes and inserts random parts of the text.
+     */
+    private static String edit(Random random, String text)
+    {
+        StringBuilder result = new StringBuilder(text);
+        int start = random.nextInt(result.length() + 1);
+        int end = Math.min(result.length(), start + random.nextInt(100));
+        String part = result.substring(start, end);
+        switch (random.nextInt(3)) {
+        case 0:
+            result.delete(start, end);
+            result.insert(random.nextInt(result.length() + 1), part);
+            break;
+        case 1:
+            result.delete(start, end);
+            break;
+        default:
+            result.insert(start, randomText(random, 1 + random.nextInt(100)));
+            break;
+        }
+        return result.toString();
+    }
+
+    /**
+     * Records the transmitted diff tasks in the order in which they are received.
+     */
+    private static class CapturingTransmitter
+        implements TaskTransmitterInterface
+    {
+
+        private final List<String> tasks = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean closed = false;
+
+        @Override
+        public void transmitDiff(Task<Diff> result)
+        {
+            tasks.add("full " + describe(result));
+        }
+
+        @Override
+        public void transmitPartialDiff(Task<Diff> result)
+        {
+            tasks.add("partial " + describe(result));
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        private static String describe(Task<Diff> task)
+        {
+            StringBuilder description = new StringBuilder(task.toString()).append('\n');
+            for (Diff diff : task.getContainer()) {
+                description.append(diff.getRevisionID()).append(' ')
+                        .append(diff.getRevisionCounter()).append(' ')
+                        .append(diff.getTimeStamp()).append(' ').append(diff.isFullRevision())
+                        .append('\n').append(diff);
+            }
+            return description.toString();
+        }
+    }
+}
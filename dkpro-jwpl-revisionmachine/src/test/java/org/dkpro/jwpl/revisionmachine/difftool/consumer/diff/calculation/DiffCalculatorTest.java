@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.revisionmachine.difftool.consumer.diff.calculation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.dkpro.jwpl.revisionmachine.difftool.config.ConfigurationKeys;
+import org.dkpro.jwpl.revisionmachine.difftool.config.ConfigurationManager;
+import org.dkpro.jwpl.revisionmachine.difftool.config.gui.control.ConfigSettings;
+import org.dkpro.jwpl.revisionmachine.difftool.data.tasks.content.Diff;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Compares the diffs of the {@link DiffCalculator}, which looks up the start positions of the
+ * longest common substrings in a {@link SubstringPositionIndex}, with those of the previous linear
+ * scan over all positions of the first character.
+ */
+public class DiffCalculatorTest
+{
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 3, 12 })
+    public void testIndexedDiffMatchesLinearScan(int minimumLength) throws Exception
+    {
+        ConfigSettings settings = new ConfigSettings();
+        settings.defaultConfiguration();
+        settings.setConfigParameter(ConfigurationKeys.VALUE_MINIMUM_LONGEST_COMMON_SUBSTRING,
+                minimumLength);
+        new ConfigurationManager(settings);
+
+        // one calculator for all pairs, as the index and the flag arrays are reused
+        DiffCalculator calculator = new DiffCalculator(null);
+        for (String[] pair : revisionPairs()) {
+            char[] revA = pair[0].toCharArray();
+            char[] revB = pair[1].toCharArray();
+
+            Diff expected = new LinearScan(minimumLength).generateDiff(revA, revB);
+            Diff actual = calculator.generateDiff(revA, revB);
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(pair[1], actual.buildRevision(revA));
+        }
+    }
+
+    private static List<String[]> revisionPairs()
+    {
+        List<String[]> pairs = new ArrayList<>();
+
+        // repeated blocks that are moved, duplicated and removed
+        String block = "The quick brown fox jumps over the lazy dog. ";
+        pairs.add(new String[] { block.repeat(6), block.repeat(3) + "Inserted. " + block });
+        pairs.add(new String[] { block + "First. " + block + "Second. " + block,
+                "Second. " + block + block + "First. " + block.repeat(2) });
+
+        // overlapping occurrences of the same substring
+        pairs.add(new String[] { "a".repeat(100) + "b" + "a".repeat(50),
+                "b" + "a".repeat(120) + "c" + "a".repeat(30) });
+        pairs.add(new String[] { "abab".repeat(40) + "x" + "ba".repeat(30),
+                "ba".repeat(50) + "y" + "abab".repeat(20) + "aba" });
+
+        // edits of random texts of a small alphabet, which share many short substrings
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            String revA = randomText(random, 50 + random.nextInt(500));
+            pairs.add(new String[] { revA, edit(random, revA) });
+        }
+
+        // empty revisions
+        pairs.add(new String[] { "", block });
+        pairs.add(new String[] { block, "" });
+        return pairs;
+    }
+
+    private static String randomText(Random random, int length)
+    {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append("abcd ".charAt(random.nextInt(5)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Moves, duplicates, removes and inserts random parts of the text.
+     */
+    private static String edit(Random random, String text)
+    {
+        StringBuilder result = new StringBuilder(text);
+        for (int i = 0; i < 5; i++) {
+            int start = random.nextInt(result.length() + 1);
+            int end = Math.min(result.length(), start + random.nextInt(40));
+            String part = result.substring(start, end);
+            switch (random.nextInt(4)) {
+            case 0:
+                result.delete(start, end);
+                result.insert(random.nextInt(result.length() + 1), part);
+                break;
+            case 1:
+                result.insert(random.nextInt(result.length() + 1), part);
+                break;
+            case 2:
+                result.delete(start, end);
+                break;
+            default:
+                result.insert(start, randomText(random, 1 + random.nextInt(20)));
+                break;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * The longest common substring search as it was before the {@link SubstringPositionIndex}:
+     * all positions of the first character of the current revision are scanned.
+     */
+    private static class LinearScan
+    {
+
+        private final int minimumLength;
+        private final BlockManagement blocks;
+
+        private ArrayList<DiffBlock> queueA;
+        private ArrayList<DiffBlock> queueB;
+        private boolean[] revABlocked;
+        private boolean[] revBBlocked;
+        private HashMap<Character, ArrayList<Integer>> positions;
+        private int blockCount;
+        private int longestMatchStart;
+        private int longestMatchSize;
+
+        LinearScan(int minimumLength) throws Exception
+        {
+            this.minimumLength = minimumLength;
+            this.blocks = new BlockManagement();
+        }
+
+        Diff generateDiff(char[] revA, char[] revB) throws Exception
+        {
+            blockCount = 0;
+            queueA = new ArrayList<>();
+            queueB = new ArrayList<>();
+            revABlocked = new boolean[revA.length];
+            revBBlocked = new boolean[revB.length];
+
+            int revAStartIndex = 0, revAEndIndex = revA.length - 1;
+            int revBStartIndex = 0, revBEndIndex = revB.length - 1;
+
+            while (revAStartIndex <= revAEndIndex && revBStartIndex <= revBEndIndex
+                    && revA[revAStartIndex] == revB[revBStartIndex]) {
+                revABlocked[revAStartIndex] = true;
+                revBBlocked[revBStartIndex] = true;
+                revAStartIndex++;
+                revBStartIndex++;
+            }
+            if (revAStartIndex != 0) {
+                queueA.add(new DiffBlock(blockCount, 0, revAStartIndex, 0, revBStartIndex, true));
+                queueB.add(new DiffBlock(blockCount, 0, revAStartIndex, 0, revBStartIndex, false));
+                blockCount++;
+            }
+
+            while (revAStartIndex < revAEndIndex && revBStartIndex < revBEndIndex
+                    && revA[revAEndIndex] == revB[revBEndIndex]) {
+                revABlocked[revAEndIndex] = true;
+                revBBlocked[revBEndIndex] = true;
+                revAEndIndex--;
+                revBEndIndex--;
+            }
+            if (revAEndIndex + 1 != revA.length) {
+                queueA.add(new DiffBlock(blockCount, revAEndIndex + 1, revA.length,
+                        revBEndIndex + 1, revB.length, true));
+                queueB.add(new DiffBlock(blockCount, revAEndIndex + 1, revA.length,
+                        revBEndIndex + 1, revB.length, false));
+                blockCount++;
+            }
+
+            positions = new HashMap<>();
+            for (int i = revAStartIndex; i < revAEndIndex; i++) {
+                positions.computeIfAbsent(revA[i], k -> new ArrayList<>()).add(i);
+            }
+
+            int i = revBStartIndex;
+            while (i < revBEndIndex) {
+                ArrayList<Integer> list = positions.get(revB[i]);
+                if (list != null && findLongestMatch(revA, list, revB, i)) {
+                    i += longestMatchSize;
+                }
+                else {
+                    i++;
+                }
+            }
+
+            int j;
+            for (i = revAStartIndex; i <= revAEndIndex; i++) {
+                if (!revABlocked[i]) {
+                    j = i;
+                    while (i + 1 <= revAEndIndex && !revABlocked[++i]) {
+                    }
+                    if (i + 1 > revAEndIndex) {
+                        i++;
+                    }
+                    queueA.add(new DiffBlock(-1, j, i, -1, -1, true));
+                }
+            }
+            for (i = revBStartIndex; i <= revBEndIndex; i++) {
+                if (!revBBlocked[i]) {
+                    j = i;
+                    while (i + 1 <= revBEndIndex && !revBBlocked[++i]) {
+                    }
+                    if (i + 1 > revBEndIndex) {
+                        i++;
+                    }
+                    queueB.add(new DiffBlock(-1, -1, -1, j, i, false));
+                }
+            }
+
+            Collections.sort(queueA);
+            Collections.sort(queueB);
+            return blocks.manage(revA, revB, queueA, queueB);
+        }
+
+        private boolean findLongestMatch(char[] revA, List<Integer> list, char[] revB, int index)
+        {
+            longestMatchSize = -1;
+            for (int start : list) {
+                if (!revABlocked[start] && !revBBlocked[index + 1]) {
+                    int count = index + 1;
+                    int end = start + 1;
+                    while (end < revA.length && count < revB.length && revA[end] == revB[count]
+                            && !revABlocked[end] && !revBBlocked[count]) {
+                        end++;
+                        count++;
+                    }
+                    if (end - start > longestMatchSize) {
+                        longestMatchSize = end - start;
+                        longestMatchStart = start;
+                    }
+                }
+            }
+            if (longestMatchSize <= minimumLength) {
+                return false;
+            }
+
+            queueA.add(new DiffBlock(blockCount, longestMatchStart,
+                    longestMatchStart + longestMatchSize, index, index + longestMatchSize, true));
+            queueB.add(new DiffBlock(blockCount, longestMatchStart,
+                    longestMatchStart + longestMatchSize, index, index + longestMatchSize, false));
+            blockCount++;
+            for (int k = 0; k < longestMatchSize; k++) {
+                revABlocked[longestMatchStart + k] = true;
+                revBBlocked[index + k] = true;
+            }
+            return true;
+        }
+    }
+}
@@ -47,6 +47,7 @@ public class SettingsXML
     public static final String DISAMBIGUATION_CATEGORY = "disambiguationCategory";
     public static final String MAIN_CATEGORY = "mainCategory";
     public static final String LANGUAGE = "language";
+    public static final String PARALLEL_VERSIONS = "parallelVersions";
 
     private static final String DESCRIPTION = "This a configuration formular for the DBMapping Tool of the JWPL";
     private static final String PLACEHOLDER = "to be edited";
@@ -82,6 +83,9 @@ public class SettingsXML
             result.setFromTimestamp(TimestampUtil.parse(properties.get(FROM_TIMESTAMP).toString()));
             result.setToTimestamp(TimestampUtil.parse(properties.get(TO_TIMESTAMP).toString()));
             result.setEach(Integer.parseInt(properties.get(EACH).toString()));
+            // optional, the snapshots are processed sequentially by default
+            result.setParallelVersions(
+                    Boolean.parseBoolean(properties.getProperty(PARALLEL_VERSIONS)));
         } catch (IOException ioe) {
             logger.log("Could not find config file " + configFile);
             result = null;
@@ -32,6 +32,10 @@ public class TimeMachineFiles
     private static final String NO_METAHISTORY = "meta history file not found";
     private static final String NO_PAGELINKS = "page links file not found";
 
+    private static final String GENERATED_PAGE = "page.bin";
+    private static final String GENERATED_REVISION = "revision.bin";
+    private static final String GENERATED_TEXT = "text.bin";
+
     private String metaHistoryFile;
     private String pageLinksFile;
     private String categoryLinksFile;
@@ -90,6 +94,49 @@ public class TimeMachineFiles
         this.categoryLinksFile = categoryLinksFile;
     }
 
+    /**
+     * @return the absolute path of the binary page table generated from the meta history dump
+     */
+    public String getGeneratedPage()
+    {
+        return getGeneratedPath(GENERATED_PAGE);
+    }
+
+    /**
+     * @return the absolute path of the binary revision table generated from the meta history dump
+     */
+    public String getGeneratedRevision()
+    {
+        return getGeneratedPath(GENERATED_REVISION);
+    }
+
+    /**
+     * @return the absolute path of the binary text table generated from the meta history dump
+     */
+    public String getGeneratedText()
+    {
+        return getGeneratedPath(GENERATED_TEXT);
+    }
+
+    /**
+     * Deletes the binary tables generated from the meta history dump.
+     */
+    public void deleteGeneratedFiles()
+    {
+        for (String fileName : new String[] { GENERATED_PAGE, GENERATED_REVISION,
+                GENERATED_TEXT }) {
+            File generatedFile = new File(getGeneratedPath(fileName));
+            if (generatedFile.exists() && !generatedFile.delete()) {
+                logger.log("can't delete " + generatedFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private String getGeneratedPath(String fileName)
+    {
+        return outputDirectory.getAbsolutePath() + File.separator + fileName;
+    }
+
     public boolean checkInputFile(String fileName, String errorMessage)
     {
         File inputFile = new File(fileName);
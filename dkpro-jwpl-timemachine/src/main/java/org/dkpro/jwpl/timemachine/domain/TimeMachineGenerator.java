@@ -17,18 +17,19 @@
  */
 package org.dkpro.jwpl.timemachine.domain;
 
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Timestamp;
 
+import org.dkpro.jwpl.timemachine.dump.xml.MetaHistory2Binary;
 import org.dkpro.jwpl.wikimachine.domain.AbstractSnapshotGenerator;
 import org.dkpro.jwpl.wikimachine.domain.Files;
 import org.dkpro.jwpl.wikimachine.domain.MetaData;
 import org.dkpro.jwpl.wikimachine.dump.sql.CategorylinksParser;
 import org.dkpro.jwpl.wikimachine.dump.sql.PagelinksParser;
 import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersion;
-import org.dkpro.jwpl.wikimachine.dump.xml.DumpTableEnum;
-import org.dkpro.jwpl.wikimachine.dump.xml.DumpTableInputStream;
 import org.dkpro.jwpl.wikimachine.dump.xml.PageParser;
 import org.dkpro.jwpl.wikimachine.dump.xml.RevisionParser;
 import org.dkpro.jwpl.wikimachine.dump.xml.TextParser;
@@ -45,6 +46,7 @@ public class TimeMachineGenerator
 {
 
     private IDumpVersion[] versions = null;
+    private int[] snapshotTimestamps = null;
     private TimeMachineFiles initialFiles = null;
 
     public TimeMachineGenerator(IEnvironmentFactory environmentFactory)
@@ -83,6 +85,7 @@ public class TimeMachineGenerator
         if (snapshotsCount > 0) {
 
             versions = new IDumpVersion[snapshotsCount];
+            snapshotTimestamps = new int[snapshotsCount];
             logger.log("Dumps to be generated:");
 
             for (int i = 0; i < snapshotsCount; i++) {
@@ -102,6 +105,7 @@ public class TimeMachineGenerator
                 currentFiles.setTimestamp(currentTimestamp);
                 version.setFiles(currentFiles);
                 versions[i] = version;
+                snapshotTimestamps[i] = Revision.compressTime(currentTimestamp.getTime());
             }
 
             processInputDumps();
@@ -116,38 +120,49 @@ public class TimeMachineGenerator
     {
 
         dumpVersionProcessor.setDumpVersions(versions);
+        dumpVersionProcessor.setParallel(configuration.isParallelVersions());
+
+        try {
+            // the meta history dump is decompressed and parsed only once
+            logger.log("Parsing the meta history dump");
+            try (InputStream metaHistory = decompressor
+                    .getInputStream(initialFiles.getMetaHistoryFile())) {
+                new MetaHistory2Binary(metaHistory, initialFiles, snapshotTimestamps);
+            }
 
-        logger.log("Processing the revision table");
-        dumpVersionProcessor.processRevision(createRevisionParser());
+            logger.log("Processing the revision table");
+            dumpVersionProcessor.processRevision(createRevisionParser());
 
-        logger.log("Processing the page table");
-        dumpVersionProcessor.processPage(createPageParser());
+            logger.log("Processing the page table");
+            dumpVersionProcessor.processPage(createPageParser());
 
-        logger.log("Processing the categorylinks table");
-        dumpVersionProcessor.processCategorylinks(createCategorylinksParser());
+            logger.log("Processing the categorylinks table");
+            dumpVersionProcessor.processCategorylinks(createCategorylinksParser());
 
-        logger.log("Processing the pagelinks table");
-        dumpVersionProcessor.processPagelinks(createPagelinksParser());
+            logger.log("Processing the pagelinks table");
+            dumpVersionProcessor.processPagelinks(createPagelinksParser());
 
-        logger.log("Processing the text table");
-        dumpVersionProcessor.processText(createTextParser());
+            logger.log("Processing the text table");
+            dumpVersionProcessor.processText(createTextParser());
 
-        logger.log("Writing meta data");
-        dumpVersionProcessor.writeMetaData();
+            logger.log("Writing meta data");
+            dumpVersionProcessor.writeMetaData();
+        }
+        finally {
+            initialFiles.deleteGeneratedFiles();
+        }
     }
 
-    private RevisionParser createRevisionParser() throws IOException
+    private InputStream openGeneratedFile(String fileName) throws IOException
     {
+        return new BufferedInputStream(new FileInputStream(fileName));
+    }
 
-        String metahistory = initialFiles.getMetaHistoryFile();
-
-        DumpTableInputStream revisionTableInputStream = envFactory
-                .getDumpTableInputStream();
-        revisionTableInputStream.initialize(decompressor.getInputStream(metahistory),
-                DumpTableEnum.REVISION);
+    private RevisionParser createRevisionParser() throws IOException
+    {
 
         RevisionParser revisionParser = envFactory.getRevisionParser();
-        revisionParser.setInputStream(revisionTableInputStream);
+        revisionParser.setInputStream(openGeneratedFile(initialFiles.getGeneratedRevision()));
 
         return revisionParser;
 
@@ -156,14 +171,8 @@ public class TimeMachineGenerator
     private PageParser createPageParser() throws IOException
     {
 
-        String metahistory = initialFiles.getMetaHistoryFile();
-
-        DumpTableInputStream pageTableInputStream = envFactory.getDumpTableInputStream();
-        pageTableInputStream.initialize(decompressor.getInputStream(metahistory),
-                DumpTableEnum.PAGE);
-
         PageParser pageParser = envFactory.getPageParser();
-        pageParser.setInputStream(pageTableInputStream);
+        pageParser.setInputStream(openGeneratedFile(initialFiles.getGeneratedPage()));
 
         return pageParser;
 
@@ -192,14 +201,8 @@ public class TimeMachineGenerator
     private TextParser createTextParser() throws IOException
     {
 
-        String metahistory = initialFiles.getMetaHistoryFile();
-
-        DumpTableInputStream textTableInputStream = envFactory.getDumpTableInputStream();
-        textTableInputStream.initialize(decompressor.getInputStream(metahistory),
-                DumpTableEnum.TEXT);
-
         TextParser textParser = envFactory.getTextParser();
-        textParser.setInputStream(textTableInputStream);
+        textParser.setInputStream(openGeneratedFile(initialFiles.getGeneratedText()));
 
         return textParser;
 
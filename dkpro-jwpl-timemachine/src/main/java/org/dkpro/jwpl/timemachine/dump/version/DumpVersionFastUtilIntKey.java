@@ -36,7 +36,7 @@ import org.dkpro.jwpl.wikimachine.util.TimestampUtil;
 import org.dkpro.jwpl.wikimachine.util.TxtFileWriter;
 
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
-import it.unimi.dsi.fastutil.ints.IntArraySet;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
 public class DumpVersionFastUtilIntKey
@@ -48,7 +48,7 @@ public class DumpVersionFastUtilIntKey
      */
     private HashMap<Integer, Long> pageIdRevMap;
     /**
-     * after revision parsing the map will be erased and the keys sorted in the array list
+     * after revision parsing the map will be erased and the keys stored in the hash set
      */
     private IntSet pageIdRevList;
 
@@ -74,6 +74,11 @@ public class DumpVersionFastUtilIntKey
      */
     private Int2IntOpenHashMap cNamePageIdMap;
 
+    /**
+     * caches the page id's of categories, i.e. the values of {@link #cNamePageIdMap}.
+     */
+    private IntSet cPageIds;
+
     /**
      * maps page id's of redirects to their names.
      */
@@ -85,6 +90,7 @@ public class DumpVersionFastUtilIntKey
         String message = "clearing cNamePageIdMap of " + cNamePageIdMap.size() + " objects";
         logger.log(message);
         cNamePageIdMap.clear();
+        cPageIds.clear();
     }
 
     @Override
@@ -103,7 +109,7 @@ public class DumpVersionFastUtilIntKey
     @Override
     public void freeAfterRevisionParsing()
     {
-        pageIdRevList = new IntArraySet(pageIdRevMap.keySet().size());
+        pageIdRevList = new IntOpenHashSet(pageIdRevMap.keySet().size());
         for (int key : pageIdRevMap.keySet()) {
             pageIdRevList.add(key);
         }
@@ -121,6 +127,7 @@ public class DumpVersionFastUtilIntKey
         pPageIdNameMap.clear();
         pNamePageIdMap.clear();
         cNamePageIdMap.clear();
+        cPageIds.clear();
         rPageIdNameMap.clear();
     }
 
@@ -142,12 +149,13 @@ public class DumpVersionFastUtilIntKey
         pNamePageIdMap = new Int2IntOpenHashMap();
 
         cNamePageIdMap = new Int2IntOpenHashMap();
+        cPageIds = new IntOpenHashSet();
         rPageIdNameMap = new HashMap<>();
 
         /*
          * filled in categories
          */
-        disambiguations = new IntArraySet();
+        disambiguations = new IntOpenHashSet();
     }
 
     @Override
@@ -188,7 +196,7 @@ public class DumpVersionFastUtilIntKey
     private void processCategoryLinksRowPageMiss(Integer cl_from, Integer cl_to)
     {
         // if category page id exists
-        if (cNamePageIdMap.containsValue(cl_from.intValue())) {
+        if (cPageIds.contains(cl_from.intValue())) {
             categoryOutlinks.addRow(cl_to, cl_from);
             categoryInlinks.addRow(cl_from, cl_to);
         }
@@ -238,6 +246,7 @@ public class DumpVersionFastUtilIntKey
                 // cache the retrieved values
                 // record category
                 cNamePageIdMap.put(page_title.hashCode(), page_id);
+                cPageIds.add(page_id);
                 // write a new row in the table Category.
                 // Note that we also consider the page_id as id
                 txtFW.addRow(page_id, page_id, page_title);
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.timemachine.dump.xml;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.dkpro.jwpl.mwdumper.importer.MultiWriter;
+import org.dkpro.jwpl.mwdumper.importer.NamespaceFilter;
+import org.dkpro.jwpl.timemachine.domain.TimeMachineFiles;
+
+/**
+ * Parses the meta history dump once and stores the rows of the revision, page and text table in
+ * the binary formats of {@link RevisionWriter}, {@link PageWriter} and {@link TextWriter}.<br>
+ * Only the texts of revisions that are part of at least one snapshot are stored (see
+ * {@link SnapshotRevisionFilter}), since the text table has to be processed after the revision
+ * table has been completely read.
+ *
+ * @see TimeMachineFiles#getGeneratedRevision()
+ * @see TimeMachineFiles#getGeneratedPage()
+ * @see TimeMachineFiles#getGeneratedText()
+ */
+public class MetaHistory2Binary
+{
+
+    /*
+     * Enable the main and category pages as well as discussions
+     */
+    private static final String ENABLED_NAMESPACES = "NS_MAIN,NS_TALK,NS_CATEGORY";
+
+    /**
+     * Instantiates a {@link MetaHistory2Binary} object and converts the specified dump.
+     *
+     * @param iStream
+     *            The {@link InputStream} containing the XML meta history dump. It is not closed.
+     * @param files
+     *            The {@link TimeMachineFiles} that define the generated files.
+     * @param snapshotTimestamps
+     *            The timestamps of all snapshots, compressed with
+     *            {@link org.dkpro.jwpl.timemachine.domain.Revision#compressTime(long)}.
+     * @throws IOException
+     *             Thrown if IO errors occurred during processing.
+     */
+    public MetaHistory2Binary(InputStream iStream, TimeMachineFiles files,
+            int[] snapshotTimestamps)
+        throws IOException
+    {
+        MultiWriter writer = new MultiWriter();
+        writer.add(new RevisionWriter(openFileStream(files.getGeneratedRevision())));
+        writer.add(new PageWriter(openFileStream(files.getGeneratedPage())));
+        writer.add(new SnapshotRevisionFilter(
+                new TextWriter(openFileStream(files.getGeneratedText())), snapshotTimestamps));
+
+        try {
+            new RevisionReader(iStream, new NamespaceFilter(writer, ENABLED_NAMESPACES)).readDump();
+        }
+        catch (IOException e) {
+            // the reader closes the writers only after a complete dump
+            writer.close();
+            throw e;
+        }
+    }
+
+    private OutputStream openFileStream(String filePath) throws IOException
+    {
+        return new BufferedOutputStream(Files.newOutputStream(Paths.get(filePath)));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.timemachine.dump.xml;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.dkpro.jwpl.mwdumper.importer.DumpWriter;
+import org.dkpro.jwpl.mwdumper.importer.Page;
+import org.dkpro.jwpl.mwdumper.importer.Revision;
+import org.dkpro.jwpl.mwdumper.importer.Siteinfo;
+
+/**
+ * A generalization of {@link org.dkpro.jwpl.mwdumper.importer.LatestFilter} for several points in
+ * time: only those revisions of a page are passed to the sink, that are the latest revision of
+ * the page before at least one of the given snapshot timestamps.<br>
+ * A revision is the latest one before a snapshot if it has the highest timestamp lower than the
+ * snapshot timestamp; of several revisions with the same timestamp the first one is chosen. This
+ * corresponds to the selection of the dump versions, so that the filtered revisions contain all
+ * texts that will be used in any of the snapshots.<br>
+ * The revisions are passed to the sink in their original order at the end of each page.
+ */
+public class SnapshotRevisionFilter
+    implements DumpWriter
+{
+
+    private final DumpWriter sink;
+
+    /**
+     * snapshot timestamps (compressed with
+     * {@link org.dkpro.jwpl.timemachine.domain.Revision#compressTime(long)}) in ascending order
+     */
+    private final int[] timestamps;
+
+    /**
+     * the latest revision of the current page between two consecutive snapshot timestamps
+     */
+    private final Revision[] candidates;
+
+    /**
+     * the compressed timestamps of the candidates
+     */
+    private final int[] candidateTimestamps;
+
+    /**
+     * the positions of the candidates inside the current page
+     */
+    private final int[] candidatePositions;
+
+    /**
+     * indices of the occupied candidate slots
+     */
+    private final List<Integer> occupied;
+
+    /**
+     * number of revisions of the current page
+     */
+    private int position;
+
+    /**
+     * @param sink
+     *            the writer that receives the filtered revisions
+     * @param snapshotTimestamps
+     *            timestamps of the snapshots, compressed with
+     *            {@link org.dkpro.jwpl.timemachine.domain.Revision#compressTime(long)}
+     */
+    public SnapshotRevisionFilter(DumpWriter sink, int[] snapshotTimestamps)
+    {
+        this.sink = sink;
+        this.timestamps = snapshotTimestamps.clone();
+        Arrays.sort(this.timestamps);
+
+        this.candidates = new Revision[timestamps.length];
+        this.candidateTimestamps = new int[timestamps.length];
+        this.candidatePositions = new int[timestamps.length];
+        this.occupied = new ArrayList<>();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        sink.close();
+    }
+
+    @Override
+    public void writeStartWiki() throws IOException
+    {
+        sink.writeStartWiki();
+    }
+
+    @Override
+    public void writeEndWiki() throws IOException
+    {
+        sink.writeEndWiki();
+    }
+
+    @Override
+    public void writeSiteinfo(Siteinfo info) throws IOException
+    {
+        sink.writeSiteinfo(info);
+    }
+
+    @Override
+    public void writeStartPage(Page page) throws IOException
+    {
+        clearCandidates();
+        sink.writeStartPage(page);
+    }
+
+    @Override
+    public void writeEndPage() throws IOException
+    {
+        // restore the original order of the revisions
+        occupied.sort((a, b) -> Integer.compare(candidatePositions[a], candidatePositions[b]));
+        for (int slot : occupied) {
+            sink.writeRevision(candidates[slot]);
+        }
+        clearCandidates();
+        sink.writeEndPage();
+    }
+
+    @Override
+    public void writeRevision(Revision revision) throws IOException
+    {
+        int timestamp = org.dkpro.jwpl.timemachine.domain.Revision
+                .compressTime(revision.Timestamp.getTimeInMillis());
+
+        // the first snapshot that could contain this revision
+        int slot = firstSnapshotAfter(timestamp);
+        if (slot < timestamps.length) {
+            if (candidates[slot] == null) {
+                occupied.add(slot);
+                setCandidate(slot, revision, timestamp);
+            }
+            else if (timestamp > candidateTimestamps[slot]) {
+                setCandidate(slot, revision, timestamp);
+            }
+        }
+        position++;
+    }
+
+    private void setCandidate(int slot, Revision revision, int timestamp)
+    {
+        candidates[slot] = revision;
+        candidateTimestamps[slot] = timestamp;
+        candidatePositions[slot] = position;
+    }
+
+    private void clearCandidates()
+    {
+        for (int slot : occupied) {
+            candidates[slot] = null;
+        }
+        occupied.clear();
+        position = 0;
+    }
+
+    /**
+     * @return the index of the first snapshot timestamp greater than the specified one or the
+     *         number of snapshots, if there is none
+     */
+    private int firstSnapshotAfter(int timestamp)
+    {
+        int low = 0, high = timestamps.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] > timestamp) {
+                high = middle;
+            }
+            else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.timemachine.dump.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.dkpro.jwpl.timemachine.domain.Revision;
+import org.dkpro.jwpl.timemachine.domain.TimeMachineFiles;
+import org.dkpro.jwpl.timemachine.factory.DefaultTimeMachineEnvironmentFactory;
+import org.dkpro.jwpl.wikimachine.dump.xml.DumpTableEnum;
+import org.dkpro.jwpl.wikimachine.dump.xml.PageParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.RevisionParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.TextParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the tables that {@link MetaHistory2Binary} produces in a single pass with those of a
+ * separate {@link XMLDumpTableInputStream} parse of the dump per table.
+ */
+class MetaHistory2BinaryTest {
+
+  private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+  @TempDir
+  static Path tempDir;
+
+  private static byte[] dump;
+  private static int[] snapshotTimestamps;
+
+  @BeforeAll
+  public static void writeDump() {
+    Random random = new Random(42);
+    StringBuilder xml = new StringBuilder();
+    xml.append("<mediawiki>\n  <siteinfo>\n    <namespaces>\n")
+            .append("      <namespace key=\"0\" case=\"first-letter\" />\n")
+            .append("      <namespace key=\"1\" case=\"first-letter\">Talk</namespace>\n")
+            .append("      <namespace key=\"4\" case=\"first-letter\">Wikipedia</namespace>\n")
+            .append("      <namespace key=\"14\" case=\"first-letter\">Category</namespace>\n")
+            .append("    </namespaces>\n  </siteinfo>\n");
+
+    String[] prefixes = { "", "Talk:", "Wikipedia:", "Category:" };
+    int revisionId = 1;
+    for (int page = 1; page <= 40; page++) {
+      // the Wikipedia namespace is filtered
+      String title = prefixes[page % prefixes.length] + "Page " + page;
+      xml.append("  <page>\n    <title>").append(title).append("</title>\n    <id>").append(page)
+              .append("</id>\n");
+
+      Instant timestamp = START.plus(random.nextInt(20), ChronoUnit.DAYS);
+      int revisions = 1 + random.nextInt(12);
+      for (int i = 0; i < revisions; i++) {
+        String text = page % 5 == 0 && i == revisions - 1 ? "#REDIRECT [[Page 1]]"
+                : "Text " + revisionId + " of page " + page;
+        xml.append("    <revision>\n      <id>").append(revisionId++)
+                .append("</id>\n      <timestamp>").append(timestamp)
+                .append("</timestamp>\n      <contributor>\n        <username>User")
+                .append("</username>\n        <id>1</id>\n      </contributor>\n")
+                .append("      <text xml:space=\"preserve\">").append(text)
+                .append("</text>\n    </revision>\n");
+
+        // some revisions share their timestamp
+        if (random.nextInt(4) != 0) {
+          timestamp = timestamp.plus(1 + random.nextInt(5 * 24 * 60), ChronoUnit.MINUTES);
+        }
+      }
+      xml.append("  </page>\n");
+    }
+    xml.append("</mediawiki>\n");
+    dump = xml.toString().getBytes(StandardCharsets.UTF_8);
+
+    snapshotTimestamps = new int[] { compress(START.plus(45, ChronoUnit.DAYS)),
+        compress(START.plus(10, ChronoUnit.DAYS)), compress(START.plus(25, ChronoUnit.DAYS)) };
+  }
+
+  @Test
+  void testSinglePassMatchesTableParses() throws Exception {
+    TimeMachineFiles files = new TimeMachineFiles(
+            DefaultTimeMachineEnvironmentFactory.getInstance().getLogger());
+    files.setOutputDirectory(tempDir.toString());
+    new MetaHistory2Binary(new ByteArrayInputStream(dump), files, snapshotTimestamps);
+
+    List<String> revisions = readRevisions(parseTable(DumpTableEnum.REVISION));
+    assertEquals(revisions, readRevisions(openFile(files.getGeneratedRevision())));
+    assertEquals(readPages(parseTable(DumpTableEnum.PAGE)),
+            readPages(openFile(files.getGeneratedPage())));
+
+    // only the texts that are selected by at least one dump version are stored
+    Set<Integer> textIds = selectSnapshotTexts(revisions);
+    List<String> expectedTexts = new ArrayList<>();
+    for (String text : readTexts(parseTable(DumpTableEnum.TEXT))) {
+      if (textIds.contains(Integer.valueOf(text.substring(0, text.indexOf(' '))))) {
+        expectedTexts.add(text);
+      }
+    }
+    assertFalse(expectedTexts.isEmpty());
+    assertTrue(expectedTexts.size() < revisions.size());
+    assertEquals(expectedTexts, readTexts(openFile(files.getGeneratedText())));
+
+    files.deleteGeneratedFiles();
+    assertFalse(Files.exists(Path.of(files.getGeneratedText())));
+  }
+
+  /**
+   * Selects, like the dump versions, the latest revision of each page before each snapshot. Of
+   * several revisions with the same timestamp the first one is kept.
+   */
+  private static Set<Integer> selectSnapshotTexts(List<String> revisions) {
+    Set<Integer> textIds = new HashSet<>();
+    for (int snapshot : snapshotTimestamps) {
+      Map<Integer, int[]> latest = new HashMap<>();
+      for (String revision : revisions) {
+        String[] fields = revision.split(" ");
+        int page = Integer.parseInt(fields[0]);
+        int textId = Integer.parseInt(fields[1]);
+        int timestamp = Integer.parseInt(fields[2]);
+        if (timestamp < snapshot) {
+          int[] current = latest.get(page);
+          if (current == null || timestamp > current[1]) {
+            latest.put(page, new int[] { textId, timestamp });
+          }
+        }
+      }
+      for (int[] selected : latest.values()) {
+        textIds.add(selected[0]);
+      }
+    }
+    return textIds;
+  }
+
+  private static int compress(Instant instant) {
+    return Revision.compressTime(instant.toEpochMilli());
+  }
+
+  private static InputStream parseTable(DumpTableEnum table) throws IOException {
+    XMLDumpTableInputStream stream = new XMLDumpTableInputStream();
+    stream.initialize(new ByteArrayInputStream(dump), table);
+    return stream;
+  }
+
+  private static InputStream openFile(String fileName) throws IOException {
+    return new BufferedInputStream(Files.newInputStream(Path.of(fileName)));
+  }
+
+  private static List<String> readRevisions(InputStream stream) throws IOException {
+    List<String> rows = new ArrayList<>();
+    RevisionParser parser = new TimeMachineRevisionParser();
+    parser.setInputStream(stream);
+    while (parser.next()) {
+      rows.add(parser.getRevPage() + " " + parser.getRevTextId() + " "
+              + parser.getRevTimestamp());
+    }
+    parser.close();
+    return rows;
+  }
+
+  private static List<String> readPages(InputStream stream) throws IOException {
+    List<String> rows = new ArrayList<>();
+    PageParser parser = new PageParser();
+    parser.setInputStream(stream);
+    while (parser.next()) {
+      rows.add(parser.getPageId() + " " + parser.getPageNamespace() + " "
+              + parser.getPageTitle() + " " + parser.getPageIsRedirect());
+    }
+    parser.close();
+    return rows;
+  }
+
+  private static List<String> readTexts(InputStream stream) throws IOException {
+    List<String> rows = new ArrayList<>();
+    TextParser parser = new TextParser();
+    parser.setInputStream(stream);
+    while (parser.next()) {
+      rows.add(parser.getOldId() + " " + parser.getOldText());
+    }
+    parser.close();
+    return rows;
+  }
+}
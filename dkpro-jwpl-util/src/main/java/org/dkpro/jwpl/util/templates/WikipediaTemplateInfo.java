@@ -45,6 +45,7 @@ import org.dkpro.jwpl.parser.Template;
 import org.dkpro.jwpl.parser.mediawiki.MediaWikiParser;
 import org.dkpro.jwpl.parser.mediawiki.MediaWikiParserFactory;
 import org.dkpro.jwpl.parser.mediawiki.ShowTemplateNamesAndParameters;
+import org.dkpro.jwpl.revisionmachine.api.ArticleRevisionIterator;
 import org.dkpro.jwpl.revisionmachine.api.Revision;
 import org.dkpro.jwpl.revisionmachine.api.RevisionApi;
 import org.dkpro.jwpl.util.templates.RevisionPair.RevisionPairType;
@@ -543,45 +544,83 @@ public class WikipediaTemplateInfo
         }
 
         for (int id : pageIds) {
-            // get timestamps of all revisions
-            List<Timestamp> tsList = revApi.getRevisionTimestamps(id);
-
-            // sort in reverse order - newest first
-            tsList.sort(Comparator.reverseOrder());
-
-            Revision prevRev = null;
-            tsloop: for (Timestamp ts : tsList) {
-
-                Revision rev = revApi.getRevision(id, ts);
-
-                // initialize previous revision
-                if (prevRev == null) {
-                    prevRev = rev;
-                }
-
-                // Parse templates and check if the revision contains the template
-                ParsedPage pp = parser.parse(rev.getRevisionText());
-                boolean containsTpl = false;
-                tplLoop: for (Template tpl : pp.getTemplates()) {
-                    if (tpl.getName().equalsIgnoreCase(templateName)) {
-                        containsTpl = true;
-                        break tplLoop;
+            // the revisions are reconstructed in the order of their revision counter, which
+            // differs from the chronological order for revisions that were imported out of order
+            ArticleRevisionIterator revIter = revApi.getRevisionIterator(id);
+            List<Revision> revisions = new ArrayList<>();
+            Set<Integer> revisionsWithTemplate = new HashSet<>();
+            try {
+                while (revIter.hasNext()) {
+                    Revision rev = revIter.next();
+
+                    // only the id and the timestamp are kept, not the text
+                    Revision revision = new Revision(rev.getRevisionCounter());
+                    revision.setRevisionID(rev.getRevisionID());
+                    revision.setTimeStamp(rev.getTimeStamp());
+                    revisions.add(revision);
+
+                    // Parse templates and check if the revision contains the template
+                    ParsedPage pp = parser.parse(rev.getRevisionText());
+                    for (Template tpl : pp.getTemplates()) {
+                        if (tpl.getName().equalsIgnoreCase(templateName)) {
+                            revisionsWithTemplate.add(rev.getRevisionID());
+                            break;
+                        }
                     }
                 }
-
-                // if the revision does not contain the template, we have found
-                // what we were looking for. add id of previous revision
-                if (!containsTpl) {
-                    revisionIds.add(prevRev.getRevisionID());
-                    break tsloop;
+            }
+            finally {
+                try {
+                    revIter.close();
                 }
-                prevRev = rev;
+                catch (SQLException e) {
+                    throw new WikiApiException(e);
+                }
+            }
+
+            Integer revisionId = getFirstAppearance(revisions, revisionsWithTemplate);
+            if (revisionId != null) {
+                revisionIds.add(revisionId);
             }
         }
 
         return revisionIds;
     }
 
+    /**
+     * Walks through the revisions of an article from the newest to the oldest one by their
+     * timestamps and returns the oldest revision of the newest chronological sequence of
+     * revisions that contain the template.
+     *
+     * @param revisions
+     *            all revisions of an article in any order
+     * @param revisionsWithTemplate
+     *            the ids of the revisions that contain the template
+     * @return the id of the revision in which the template appeared, or {@code null} if every
+     *         revision contains the template
+     */
+    static Integer getFirstAppearance(List<Revision> revisions, Set<Integer> revisionsWithTemplate)
+    {
+        List<Revision> newestFirst = new ArrayList<>(revisions);
+        newestFirst.sort(Comparator.comparing(Revision::getTimeStamp).reversed());
+
+        Revision prevRev = null;
+        for (Revision rev : newestFirst) {
+            // initialize previous revision
+            if (prevRev == null) {
+                prevRev = rev;
+            }
+
+            // if the revision does not contain the template, we have found
+            // what we were looking for. return id of previous revision
+            if (!revisionsWithTemplate.contains(rev.getRevisionID())) {
+                return prevRev.getRevisionID();
+            }
+            prevRev = rev;
+        }
+        return null;
+    }
+
     //////////
 
     /**
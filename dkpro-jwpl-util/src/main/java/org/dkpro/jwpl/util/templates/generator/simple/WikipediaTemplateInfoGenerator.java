@@ -19,7 +19,6 @@ package org.dkpro.jwpl.util.templates.generator.simple;
 
 import java.lang.invoke.MethodHandles;
 import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -38,6 +37,7 @@ import org.dkpro.jwpl.parser.Template;
 import org.dkpro.jwpl.parser.mediawiki.MediaWikiParser;
 import org.dkpro.jwpl.parser.mediawiki.MediaWikiParserFactory;
 import org.dkpro.jwpl.parser.mediawiki.ShowTemplateNamesAndParameters;
+import org.dkpro.jwpl.revisionmachine.api.ArticleRevisionIterator;
 import org.dkpro.jwpl.revisionmachine.api.Revision;
 import org.dkpro.jwpl.revisionmachine.api.RevisionApi;
 import org.dkpro.jwpl.revisionmachine.api.RevisionIterator;
@@ -173,19 +173,30 @@ public class WikipediaTemplateInfoGenerator
 
             // PROCESS REVISIONS
             if (mode.active_for_revisions) {
-                List<Timestamp> tsList = revApi.getRevisionTimestamps(curPageId);
-                for (Timestamp ts : tsList) {
+                // stream the revision history, so that each diff is decoded only once
+                ArticleRevisionIterator revIter = revApi.getRevisionIterator(curPageId);
+                try {
+                    while (revIter.hasNext()) {
 
-                    revisionCounter++;
-                    if (revisionCounter % (VERBOSITY * 10) == 0) {
-                        logger.info("{} revisions processed ...", revisionCounter);
-                    }
+                        revisionCounter++;
+                        if (revisionCounter % (VERBOSITY * 10) == 0) {
+                            logger.info("{} revisions processed ...", revisionCounter);
+                        }
 
-                    Revision curRevision = revApi.getRevision(curPageId, ts);
-                    int curRevisionId = curRevision.getRevisionID();
+                        Revision curRevision = revIter.next();
+                        int curRevisionId = curRevision.getRevisionID();
 
-                    fillMapWithTemplateData(curRevision.getRevisionText(), revisionFilter,
-                            curRevisionId, TPLNAME_TO_REVISIONIDS);
+                        fillMapWithTemplateData(curRevision.getRevisionText(), revisionFilter,
+                                curRevisionId, TPLNAME_TO_REVISIONIDS);
+                    }
+                }
+                finally {
+                    try {
+                        revIter.close();
+                    }
+                    catch (SQLException e) {
+                        logger.error("Error closing revision iterator", e);
+                    }
                 }
             }
         }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.util.templates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Set;
+
+import org.dkpro.jwpl.revisionmachine.api.Revision;
+import org.junit.jupiter.api.Test;
+
+public class WikipediaTemplateInfoTest
+{
+
+    @Test
+    public void testFirstAppearanceUsesChronologicalOrder()
+    {
+        // the revision with counter 4 was imported out of order: it is older than counter 3
+        List<Revision> revisions = List.of(revision(1, 10, "2020-01-01"),
+                revision(2, 11, "2020-01-02"), revision(3, 12, "2020-01-05"),
+                revision(4, 13, "2020-01-03"), revision(5, 14, "2020-01-06"));
+
+        // newest first by timestamp: 14, 12, 13 - the template appeared in 12, whereas the
+        // reverse revision counter order 14, 13 would report 14
+        assertEquals(12, WikipediaTemplateInfo.getFirstAppearance(revisions, Set.of(11, 12, 14)));
+    }
+
+    @Test
+    public void testFirstAppearance()
+    {
+        List<Revision> revisions = List.of(revision(1, 10, "2020-01-01"),
+                revision(2, 11, "2020-01-02"), revision(3, 12, "2020-01-03"));
+
+        assertEquals(11, WikipediaTemplateInfo.getFirstAppearance(revisions, Set.of(11, 12)));
+        // the newest revision does not contain the template
+        assertEquals(12, WikipediaTemplateInfo.getFirstAppearance(revisions, Set.of(10, 11)));
+        // the template was never removed
+        assertNull(WikipediaTemplateInfo.getFirstAppearance(revisions, Set.of(10, 11, 12)));
+    }
+
+    private static Revision revision(int revisionCounter, int revisionId, String date)
+    {
+        Revision revision = new Revision(revisionCounter);
+        revision.setRevisionID(revisionId);
+        revision.setTimeStamp(Timestamp.valueOf(date + " 12:00:00"));
+        return revision;
+    }
+}
@@ -35,6 +35,7 @@ public class Configuration
     private String language;
     private String mainCategory;
     private String disambiguationCategory;
+    private boolean parallelVersions;
 
     private final ILogger logger;
 
@@ -186,6 +187,26 @@ public class Configuration
         this.disambiguationCategory = disambiguationCategory;
     }
 
+    /**
+     * @return {@code true} if each dump version is processed on its own thread, {@code false}
+     *         otherwise.
+     */
+    public boolean isParallelVersions()
+    {
+        return parallelVersions;
+    }
+
+    /**
+     * Sets whether each dump version is processed on its own thread.
+     *
+     * @param parallelVersions {@code true} to process the dump versions in parallel.
+     * @see DumpVersionProcessor#setParallel(boolean)
+     */
+    public void setParallelVersions(boolean parallelVersions)
+    {
+        this.parallelVersions = parallelVersions;
+    }
+
     /**
      * @return Retrieves {@code true} if time configuration is valid.
      */
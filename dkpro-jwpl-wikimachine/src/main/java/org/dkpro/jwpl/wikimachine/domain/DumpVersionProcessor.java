@@ -18,8 +18,27 @@
 package org.dkpro.jwpl.wikimachine.domain;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 import org.dkpro.jwpl.wikimachine.debug.ILogger;
+import org.dkpro.jwpl.wikimachine.domain.RowBlock.CategorylinksCursor;
+import org.dkpro.jwpl.wikimachine.domain.RowBlock.PageCursor;
+import org.dkpro.jwpl.wikimachine.domain.RowBlock.PagelinksCursor;
+import org.dkpro.jwpl.wikimachine.domain.RowBlock.RevisionCursor;
+import org.dkpro.jwpl.wikimachine.domain.RowBlock.RowCursor;
+import org.dkpro.jwpl.wikimachine.domain.RowBlock.RowReader;
+import org.dkpro.jwpl.wikimachine.domain.RowBlock.TextCursor;
 import org.dkpro.jwpl.wikimachine.dump.sql.CategorylinksParser;
 import org.dkpro.jwpl.wikimachine.dump.sql.PagelinksParser;
 import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersion;
@@ -29,18 +48,32 @@ import org.dkpro.jwpl.wikimachine.dump.xml.TextParser;
 
 /**
  * A processor of Wikipedias dump related revisions.
+ * <p>
+ * By default all {@link IDumpVersion versions} are fed one after another with each parsed row.
+ * In parallel mode (see {@link #setParallel(boolean)}) every version consumes the rows on its own
+ * worker thread: the input is still parsed only once, the rows are copied into blocks of
+ * {@link #setBlockSize(Integer) blockSize} rows and handed to the workers through bounded queues.
+ * The lifecycle of each version (init, process, export, free) is the same in both modes.
  *
  * @see IDumpVersion
  */
 public class DumpVersionProcessor
 {
 
+    /**
+     * Maximum time (in milliseconds) to wait for a queue before checking the other threads
+     */
+    private static final long POLL_TIMEOUT = 500;
+
     private static ILogger logger;
 
     private Integer step2Log = 100000;
     private Integer step2GC = step2Log * 10;
     private Integer step2Flush = step2GC;
     private IDumpVersion[] versions;
+    private boolean parallel = false;
+    private Integer blockSize = 1000;
+    private Integer queueCapacity = 4;
 
     /**
      * Instantiates a {@link DumpVersionProcessor} with a specified {@link ILogger}.
@@ -88,6 +121,36 @@ public class DumpVersionProcessor
         this.step2Flush = step2Flush;
     }
 
+    /**
+     * Configures whether the {@link IDumpVersion versions} consume the rows on their own worker
+     * threads.
+     * @param parallel {@code true} to process the versions in parallel, {@code false} to process
+     *                 them sequentially (default).
+     */
+    public void setParallel(boolean parallel)
+    {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Configures the parameter {@code blockSize}.
+     * @param blockSize A positive value for the number of rows handed to the workers at once.
+     */
+    public void setBlockSize(Integer blockSize)
+    {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Configures the parameter {@code queueCapacity}.
+     * @param queueCapacity A positive value for the number of blocks a worker may lag behind the
+     *                      parser.
+     */
+    public void setQueueCapacity(Integer queueCapacity)
+    {
+        this.queueCapacity = queueCapacity;
+    }
+
     /**
      * Processes a revision row.
      *
@@ -97,6 +160,18 @@ public class DumpVersionProcessor
      */
     public void processRevision(RevisionParser revisionParser) throws IOException
     {
+        if (isParallel()) {
+            processInParallel("Revision", RevisionCursor.reader(revisionParser),
+                    RevisionCursor::createBlock, RevisionCursor::new,
+                    IDumpVersion::initRevisionParsing, IDumpVersion::processRevisionRow, false,
+                    version -> {
+                        version.exportAfterRevisionParsing();
+                        version.freeAfterRevisionParsing();
+                    });
+            revisionParser.close();
+            return;
+        }
+
         for (IDumpVersion version : versions) {
             version.initRevisionParsing();
         }
@@ -126,6 +201,17 @@ public class DumpVersionProcessor
      */
     public void processPage(PageParser pageParser) throws IOException
     {
+        if (isParallel()) {
+            processInParallel("Pages", PageCursor.reader(pageParser), PageCursor::createBlock,
+                    PageCursor::new, IDumpVersion::initPageParsing, IDumpVersion::processPageRow,
+                    false, version -> {
+                        version.exportAfterPageParsing();
+                        version.freeAfterPageParsing();
+                    });
+            pageParser.close();
+            return;
+        }
+
         for (IDumpVersion version : versions) {
             version.initPageParsing();
         }
@@ -155,6 +241,17 @@ public class DumpVersionProcessor
     public void processCategorylinks(CategorylinksParser categorylinksParser) throws IOException
     {
         try (categorylinksParser) {
+            if (isParallel()) {
+                processInParallel("Categorylinks", CategorylinksCursor.reader(categorylinksParser),
+                        CategorylinksCursor::createBlock, CategorylinksCursor::new,
+                        IDumpVersion::initCategoryLinksParsing,
+                        IDumpVersion::processCategoryLinksRow, false, version -> {
+                            version.exportAfterCategoryLinksParsing();
+                            version.freeAfterCategoryLinksParsing();
+                        });
+                return;
+            }
+
             for (IDumpVersion version : versions) {
                 version.initCategoryLinksParsing();
             }
@@ -184,6 +281,17 @@ public class DumpVersionProcessor
     public void processPagelinks(PagelinksParser pagelinksParser) throws IOException
     {
         try (pagelinksParser) {
+            if (isParallel()) {
+                processInParallel("Pagelinks", PagelinksCursor.reader(pagelinksParser),
+                        PagelinksCursor::createBlock, PagelinksCursor::new,
+                        IDumpVersion::initPageLinksParsing, IDumpVersion::processPageLinksRow,
+                        false, version -> {
+                            version.exportAfterPageLinksParsing();
+                            version.freeAfterPageLinksParsing();
+                        });
+                return;
+            }
+
             for (IDumpVersion version : versions) {
                 version.initPageLinksParsing();
             }
@@ -212,6 +320,17 @@ public class DumpVersionProcessor
      */
     public void processText(TextParser textParser) throws IOException
     {
+        if (isParallel()) {
+            processInParallel("Text", TextCursor.reader(textParser), TextCursor::createBlock,
+                    TextCursor::new, IDumpVersion::initTextParsing, IDumpVersion::processTextRow,
+                    true, version -> {
+                        version.exportAfterTextParsing();
+                        version.freeAfterTextParsing();
+                    });
+            textParser.close();
+            return;
+        }
+
         for (IDumpVersion version : versions) {
             version.initTextParsing();
         }
@@ -258,4 +377,170 @@ public class DumpVersionProcessor
         }
     }
 
+    private boolean isParallel()
+    {
+        return parallel && versions.length > 1;
+    }
+
+    /**
+     * Parses a table once on the calling thread and lets each version process the rows on its
+     * own worker.
+     *
+     * @param event
+     *            name of the table for the log
+     * @param reader
+     *            copies the rows of the parser into blocks
+     * @param blocks
+     *            creates an empty block of the given capacity
+     * @param cursors
+     *            creates the cursor a worker passes to its version
+     * @param init
+     *            prepares a version for the table
+     * @param rowAction
+     *            processes one row
+     * @param flushByText
+     *            whether {@link IDumpVersion#flushByTextParsing()} is called every
+     *            {@code step2Flush} rows
+     * @param finish
+     *            exports and frees a version after the table
+     */
+    private <C extends RowCursor> void processInParallel(String event, RowReader reader,
+            IntFunction<RowBlock> blocks, Supplier<C> cursors, VersionAction init,
+            RowAction<C> rowAction, boolean flushByText, VersionAction finish)
+        throws IOException
+    {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<BlockingQueue<RowBlock>> queues = new ArrayList<>(versions.length);
+        List<Future<?>> futures = new ArrayList<>(versions.length);
+
+        ExecutorService executor = Executors.newFixedThreadPool(versions.length);
+        try {
+            for (IDumpVersion version : versions) {
+                BlockingQueue<RowBlock> queue = new ArrayBlockingQueue<>(queueCapacity);
+                C cursor = cursors.get();
+                queues.add(queue);
+                futures.add(executor.submit(() -> {
+                    try {
+                        consume(version, queue, cursor, init, rowAction, flushByText, finish,
+                                failure);
+                    }
+                    catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                        throw t;
+                    }
+                    return null;
+                }));
+            }
+
+            int counter = 0;
+            RowBlock block = blocks.apply(blockSize);
+            while (reader.readRow(block)) {
+                if (block.isFull()) {
+                    publish(queues, block, failure);
+                    block = blocks.apply(blockSize);
+                }
+                logAndClear(++counter, event);
+            }
+            if (!block.isEmpty()) {
+                publish(queues, block, failure);
+            }
+            publish(queues, RowBlock.END, failure);
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing " + event, e);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Worker of a single version - processes the blocks until the end of the table is reached.
+     */
+    private <C extends RowCursor> void consume(IDumpVersion version,
+            BlockingQueue<RowBlock> queue, C cursor, VersionAction init, RowAction<C> rowAction,
+            boolean flushByText, VersionAction finish, AtomicReference<Throwable> failure)
+        throws IOException, InterruptedException
+    {
+        init.apply(version);
+
+        int counter = 0;
+        RowBlock block;
+        while ((block = take(queue, failure)) != RowBlock.END) {
+            cursor.setBlock(block);
+            while (cursor.next()) {
+                rowAction.apply(version, cursor);
+                if (flushByText && step2Flush != 0 && counter % step2Flush == 0) {
+                    version.flushByTextParsing();
+                }
+                counter++;
+            }
+        }
+
+        finish.apply(version);
+    }
+
+    /**
+     * Hands a block to all workers, waiting if necessary.
+     */
+    private static void publish(List<BlockingQueue<RowBlock>> queues, RowBlock block,
+            AtomicReference<Throwable> failure)
+        throws InterruptedException
+    {
+        for (BlockingQueue<RowBlock> queue : queues) {
+            while (!queue.offer(block, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                checkFailure(failure);
+            }
+        }
+    }
+
+    private static RowBlock take(BlockingQueue<RowBlock> queue,
+            AtomicReference<Throwable> failure)
+        throws InterruptedException
+    {
+        RowBlock block;
+        while ((block = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS)) == null) {
+            checkFailure(failure);
+        }
+        return block;
+    }
+
+    private static void checkFailure(AtomicReference<Throwable> failure)
+    {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new RuntimeException("Processing of a dump version failed", t);
+        }
+    }
+
+    /**
+     * A lifecycle step of a version.
+     */
+    @FunctionalInterface
+    private interface VersionAction
+    {
+        void apply(IDumpVersion version) throws IOException;
+    }
+
+    /**
+     * Processing of a single row by a version.
+     */
+    @FunctionalInterface
+    private interface RowAction<C>
+    {
+        void apply(IDumpVersion version, C cursor) throws IOException;
+    }
+
 }
@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.wikimachine.domain;
+
+import java.io.IOException;
+
+import org.dkpro.jwpl.wikimachine.dump.sql.CategorylinksParser;
+import org.dkpro.jwpl.wikimachine.dump.sql.PagelinksParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.PageParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.RevisionParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.TextParser;
+
+/**
+ * A block of consecutive rows of one table, copied column-wise from a parser.<br>
+ * A block is filled by a single thread and is read-only afterwards, so that it can be shared by
+ * the workers of several {@link org.dkpro.jwpl.wikimachine.dump.version.IDumpVersion versions}.
+ * Each worker replays the rows through its own cursor, which offers the same accessors as the
+ * parser of the table.
+ */
+final class RowBlock
+{
+
+    /**
+     * Marks the end of a table.
+     */
+    static final RowBlock END = new RowBlock(0, 0, 0, 0);
+
+    private final int[][] ints;
+    private final String[][] strings;
+    private final boolean[][] flags;
+    private final int capacity;
+    private int size;
+
+    /**
+     * @param capacity
+     *            maximum number of rows
+     * @param intColumns
+     *            number of int columns
+     * @param stringColumns
+     *            number of String columns
+     * @param flagColumns
+     *            number of boolean columns
+     */
+    RowBlock(int capacity, int intColumns, int stringColumns, int flagColumns)
+    {
+        this.capacity = capacity;
+        this.ints = new int[intColumns][capacity];
+        this.strings = new String[stringColumns][capacity];
+        this.flags = new boolean[flagColumns][capacity];
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    boolean isFull()
+    {
+        return size == capacity;
+    }
+
+    /**
+     * Appends a new row.
+     *
+     * @return the index of the new row
+     */
+    private int addRow()
+    {
+        return size++;
+    }
+
+    /**
+     * Reads the next row of a table into a block.
+     */
+    @FunctionalInterface
+    interface RowReader
+    {
+        /**
+         * @return {@code false} if the end of the table has been reached, {@code true} if a row
+         *         has been appended to the block
+         */
+        boolean readRow(RowBlock block) throws IOException;
+    }
+
+    /**
+     * A parser view of the rows of a block.
+     */
+    interface RowCursor
+    {
+        /**
+         * Positions the cursor before the first row of the specified block.
+         */
+        void setBlock(RowBlock block);
+
+        /**
+         * @return {@code true} if the cursor has been moved to the next row
+         */
+        boolean next();
+    }
+
+    static final class RevisionCursor
+        extends RevisionParser
+        implements RowCursor
+    {
+        private RowBlock block;
+        private int row;
+
+        static RowBlock createBlock(int capacity)
+        {
+            return new RowBlock(capacity, 3, 0, 0);
+        }
+
+        static RowReader reader(RevisionParser parser)
+        {
+            return block -> {
+                if (!parser.next()) {
+                    return false;
+                }
+                int r = block.addRow();
+                block.ints[0][r] = parser.getRevPage();
+                block.ints[1][r] = parser.getRevTextId();
+                block.ints[2][r] = parser.getRevTimestamp();
+                return true;
+            };
+        }
+
+        @Override
+        public void setBlock(RowBlock block)
+        {
+            this.block = block;
+            this.row = -1;
+        }
+
+        @Override
+        public boolean next()
+        {
+            if (++row >= block.size) {
+                return false;
+            }
+            revPage = block.ints[0][row];
+            revTextId = block.ints[1][row];
+            revTimestamp = block.ints[2][row];
+            return true;
+        }
+    }
+
+    static final class PageCursor
+        extends PageParser
+        implements RowCursor
+    {
+        private RowBlock block;
+        private int row;
+
+        static RowBlock createBlock(int capacity)
+        {
+            return new RowBlock(capacity, 2, 1, 1);
+        }
+
+        static RowReader reader(PageParser parser)
+        {
+            return block -> {
+                if (!parser.next()) {
+                    return false;
+                }
+                int r = block.addRow();
+                block.ints[0][r] = parser.getPageId();
+                block.ints[1][r] = parser.getPageNamespace();
+                block.strings[0][r] = parser.getPageTitle();
+                block.flags[0][r] = parser.getPageIsRedirect();
+                return true;
+            };
+        }
+
+        @Override
+        public void setBlock(RowBlock block)
+        {
+            this.block = block;
+            this.row = -1;
+        }
+
+        @Override
+        public boolean next()
+        {
+            return ++row < block.size;
+        }
+
+        @Override
+        public int getPageId()
+        {
+            return block.ints[0][row];
+        }
+
+        @Override
+        public int getPageNamespace()
+        {
+            return block.ints[1][row];
+        }
+
+        @Override
+        public String getPageTitle()
+        {
+            return block.strings[0][row];
+        }
+
+        @Override
+        public boolean getPageIsRedirect()
+        {
+            return block.flags[0][row];
+        }
+    }
+
+    static final class TextCursor
+        extends TextParser
+        implements RowCursor
+    {
+        private RowBlock block;
+        private int row;
+
+        static RowBlock createBlock(int capacity)
+        {
+            return new RowBlock(capacity, 1, 1, 0);
+        }
+
+        static RowReader reader(TextParser parser)
+        {
+            return block -> {
+                if (!parser.next()) {
+                    return false;
+                }
+                int r = block.addRow();
+                block.ints[0][r] = parser.getOldId();
+                block.strings[0][r] = parser.getOldText();
+                return true;
+            };
+        }
+
+        @Override
+        public void setBlock(RowBlock block)
+        {
+            this.block = block;
+            this.row = -1;
+        }
+
+        @Override
+        public boolean next()
+        {
+            return ++row < block.size;
+        }
+
+        @Override
+        public int getOldId()
+        {
+            return block.ints[0][row];
+        }
+
+        @Override
+        public String getOldText()
+        {
+            return block.strings[0][row];
+        }
+    }
+
+    static final class CategorylinksCursor
+        extends CategorylinksParser
+        implements RowCursor
+    {
+        private RowBlock block;
+        private int row;
+
+        static RowBlock createBlock(int capacity)
+        {
+            return new RowBlock(capacity, 1, 1, 0);
+        }
+
+        static RowReader reader(CategorylinksParser parser)
+        {
+            return block -> {
+                if (!parser.next()) {
+                    return false;
+                }
+                int r = block.addRow();
+                block.ints[0][r] = parser.getClFrom();
+                block.strings[0][r] = parser.getClTo();
+                return true;
+            };
+        }
+
+        @Override
+        public void setBlock(RowBlock block)
+        {
+            this.block = block;
+            this.row = -1;
+        }
+
+        @Override
+        public boolean next()
+        {
+            return ++row < block.size;
+        }
+
+        @Override
+        public int getClFrom()
+        {
+            return block.ints[0][row];
+        }
+
+        @Override
+        public String getClTo()
+        {
+            return block.strings[0][row];
+        }
+    }
+
+    static final class PagelinksCursor
+        extends PagelinksParser
+        implements RowCursor
+    {
+        private RowBlock block;
+        private int row;
+
+        static RowBlock createBlock(int capacity)
+        {
+            return new RowBlock(capacity, 2, 1, 0);
+        }
+
+        static RowReader reader(PagelinksParser parser)
+        {
+            return block -> {
+                if (!parser.next()) {
+                    return false;
+                }
+                int r = block.addRow();
+                block.ints[0][r] = parser.getPlFrom();
+                block.ints[1][r] = parser.getPlNamespace();
+                block.strings[0][r] = parser.getPlTo();
+                return true;
+            };
+        }
+
+        @Override
+        public void setBlock(RowBlock block)
+        {
+            this.block = block;
+            this.row = -1;
+        }
+
+        @Override
+        public boolean next()
+        {
+            return ++row < block.size;
+        }
+
+        @Override
+        public int getPlFrom()
+        {
+            return block.ints[0][row];
+        }
+
+        @Override
+        public int getPlNamespace()
+        {
+            return block.ints[1][row];
+        }
+
+        @Override
+        public String getPlTo()
+        {
+            return block.strings[0][row];
+        }
+    }
+}
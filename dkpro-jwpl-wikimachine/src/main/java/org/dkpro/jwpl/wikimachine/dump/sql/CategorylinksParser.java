@@ -38,6 +38,14 @@ public class CategorylinksParser
     private int clFrom;
     private String clTo;
 
+    /**
+     * Instantiates a {@link CategorylinksParser} without input, for subclasses that provide the rows
+     * by other means.
+     */
+    protected CategorylinksParser()
+    {
+    }
+
     /**
      * Instantiates a {@link CategorylinksParser} via an input stream.
      *
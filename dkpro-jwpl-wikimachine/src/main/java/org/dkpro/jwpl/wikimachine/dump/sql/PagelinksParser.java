@@ -40,6 +40,14 @@ public class PagelinksParser
     private int plNamespace;
     private String plTo;
 
+    /**
+     * Instantiates a {@link PagelinksParser} without input, for subclasses that provide the rows
+     * by other means.
+     */
+    protected PagelinksParser()
+    {
+    }
+
     /**
      * Instantiates a {@link PagelinksParser} via an input stream.
      *
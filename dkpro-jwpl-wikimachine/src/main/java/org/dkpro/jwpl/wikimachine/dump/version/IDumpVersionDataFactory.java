@@ -27,6 +27,21 @@ public interface IDumpVersionDataFactory extends IDumpVersionFactory {
   /** The fully qualified datamachine-specific package. */
   String DATAMACHINE_PACKAGE = "org.dkpro.jwpl.datamachine.dump.version.";
 
+  /**
+   * Defines the factory variants of the datamachine: those of {@link FactoryType} and those
+   * that only the datamachine provides.
+   */
+  enum DataFactoryType {
+    /** The key for: JDK Integer. */
+    JDK_INT_KEY,
+    /** The key for: JDK Long. */
+    JDK_LONG_KEY,
+    /** The key for: JDK String. */
+    JDK_STRING_KEY,
+    /** The key for: String, with all tables stored outside the Java heap. */
+    OFF_HEAP
+  }
+
   /**
    * Retrieves a {@link IDumpVersionDataFactory} instance of
    * the default {@code SingleDumpVersionJDKStringKeyFactory} class.
@@ -45,10 +60,22 @@ public interface IDumpVersionDataFactory extends IDumpVersionFactory {
    * @return A corresponding {@link IDumpVersionDataFactory} instance.
    */
   static IDumpVersionDataFactory byType(FactoryType type) {
+    return byType(DataFactoryType.valueOf(type.name()));
+  }
+
+  /**
+   * Retrieves a {@link IDumpVersionDataFactory} instance by {@link DataFactoryType}.
+   *
+   * @param type The {@link DataFactoryType} to specify the factory instance with.
+   *
+   * @return A corresponding {@link IDumpVersionDataFactory} instance.
+   */
+  static IDumpVersionDataFactory byType(DataFactoryType type) {
     return switch (type) {
       case JDK_INT_KEY -> byClass(DATAMACHINE_PACKAGE + "SingleDumpVersionJDKIntKeyFactory");
       case JDK_LONG_KEY -> byClass(DATAMACHINE_PACKAGE + "SingleDumpVersionJDKLongKeyFactory");
       case JDK_STRING_KEY -> byClass(DATAMACHINE_PACKAGE + "SingleDumpVersionJDKStringKeyFactory");
+      case OFF_HEAP -> byClass(DATAMACHINE_PACKAGE + "SingleDumpVersionOffHeapFactory");
     };
   }
 
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Technische Universität Darmstadt under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Technische Universität Darmstadt
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.jwpl.wikimachine.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.dkpro.jwpl.wikimachine.debug.ILogger;
+import org.dkpro.jwpl.wikimachine.dump.sql.CategorylinksParser;
+import org.dkpro.jwpl.wikimachine.dump.sql.PagelinksParser;
+import org.dkpro.jwpl.wikimachine.dump.version.IDumpVersion;
+import org.dkpro.jwpl.wikimachine.dump.xml.PageParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.RevisionParser;
+import org.dkpro.jwpl.wikimachine.dump.xml.TextParser;
+import org.dkpro.jwpl.wikimachine.util.UTFDataOutputStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Compares the calls each {@link IDumpVersion} receives in the parallel mode of the
+ * {@link DumpVersionProcessor} with those of the sequential mode.
+ */
+class DumpVersionProcessorTest {
+
+    private static final int ROWS = 500;
+    private static final int VERSIONS = 3;
+
+    private static final ILogger logger = message -> {
+    };
+
+    private static byte[] revisions;
+    private static byte[] pages;
+    private static byte[] texts;
+    private static byte[] categorylinks;
+    private static byte[] pagelinks;
+
+    @BeforeAll
+    public static void createTables() throws IOException {
+        Random random = new Random(42);
+
+        ByteArrayOutputStream revisionBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream pageBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream textBytes = new ByteArrayOutputStream();
+        try (DataOutputStream revisionStream = new DataOutputStream(revisionBytes);
+                UTFDataOutputStream pageStream = new UTFDataOutputStream(pageBytes);
+                UTFDataOutputStream textStream = new UTFDataOutputStream(textBytes)) {
+            for (int i = 1; i <= ROWS; i++) {
+                revisionStream.writeInt(random.nextInt(100));
+                revisionStream.writeInt(i);
+                revisionStream.writeInt(random.nextInt(1000));
+
+                pageStream.writeInt(i);
+                pageStream.writeInt(random.nextInt(3) * 2);
+                pageStream.writeUTFAsArray("Page_" + i);
+                pageStream.writeBoolean(random.nextBoolean());
+
+                textStream.writeInt(i);
+                textStream.writeUTFAsArray("Text of revision " + i);
+            }
+        }
+        revisions = revisionBytes.toByteArray();
+        pages = pageBytes.toByteArray();
+        texts = textBytes.toByteArray();
+
+        StringBuilder categorylinksSql = new StringBuilder();
+        StringBuilder pagelinksSql = new StringBuilder();
+        for (int i = 1; i <= ROWS; i++) {
+            // several INSERT statements, as in the dumps
+            String separator = i == ROWS || i % 100 == 0 ? ";\n" : ",";
+            if (i % 100 == 1) {
+                categorylinksSql.append("INSERT INTO `categorylinks` VALUES ");
+                pagelinksSql.append("INSERT INTO `pagelinks` VALUES ");
+            }
+            categorylinksSql.append('(').append(random.nextInt(100)).append(",'Category_")
+                    .append(random.nextInt(20)).append("','Sortkey','2020-01-01 00:00:00')")
+                    .append(separator);
+            pagelinksSql.append('(').append(random.nextInt(100)).append(',')
+                    .append(random.nextInt(3) * 2).append(",'Page_").append(random.nextInt(100))
+                    .append("')").append(separator);
+        }
+        categorylinks = categorylinksSql.toString().getBytes(StandardCharsets.UTF_8);
+        pagelinks = pagelinksSql.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 7, 1000 })
+    void testParallelMatchesSequential(int blockSize) throws IOException {
+        List<List<String>> sequential = process(false, blockSize);
+        List<List<String>> parallel = process(true, blockSize);
+
+        for (List<String> calls : sequential) {
+            // all tables are read completely
+            assertTrue(calls.size() > 5 * ROWS);
+        }
+        assertEquals(sequential, parallel);
+    }
+
+    private static List<List<String>> process(boolean parallel, int blockSize) throws IOException {
+        IDumpVersion[] versions = new IDumpVersion[VERSIONS];
+        List<List<String>> calls = new ArrayList<>();
+        for (int i = 0; i < VERSIONS; i++) {
+            RecordingDumpVersion version = new RecordingDumpVersion();
+            versions[i] = version;
+            calls.add(version.calls);
+        }
+
+        DumpVersionProcessor processor = new DumpVersionProcessor(logger);
+        processor.setDumpVersions(versions);
+        processor.setStep2Flush(60);
+        processor.setParallel(parallel);
+        processor.setBlockSize(blockSize);
+        processor.setQueueCapacity(2);
+
+        RevisionParser revisionParser = new BinaryRevisionParser();
+        revisionParser.setInputStream(new ByteArrayInputStream(revisions));
+        processor.processRevision(revisionParser);
+
+        PageParser pageParser = new PageParser();
+        pageParser.setInputStream(new ByteArrayInputStream(pages));
+        processor.processPage(pageParser);
+
+        processor.processCategorylinks(
+                new CategorylinksParser(new ByteArrayInputStream(categorylinks)));
+        processor.processPagelinks(new PagelinksParser(new ByteArrayInputStream(pagelinks)));
+
+        TextParser textParser = new TextParser();
+        textParser.setInputStream(new ByteArrayInputStream(texts));
+        processor.processText(textParser);
+
+        processor.writeMetaData();
+        return calls;
+    }
+
+    /**
+     * Reads the revision rows as written in {@link #createTables()}.
+     */
+    private static class BinaryRevisionParser extends RevisionParser {
+
+        @Override
+        public boolean next() throws IOException {
+            try {
+                revPage = stream.readInt();
+                revTextId = stream.readInt();
+                revTimestamp = stream.readInt();
+                return true;
+            }
+            catch (EOFException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Records all calls of the processor together with the values of the processed rows.
+     */
+    private static class RecordingDumpVersion implements IDumpVersion {
+
+        private final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void setLogger(ILogger logger) {
+        }
+
+        @Override
+        public void setCategoryRedirectsSkip(boolean skipCategory) {
+        }
+
+        @Override
+        public void setPageRedirectsSkip(boolean skipPage) {
+        }
+
+        @Override
+        public void initialize(Timestamp timestamp) {
+        }
+
+        @Override
+        public void setMetaData(MetaData commonMetaData) {
+        }
+
+        @Override
+        public void setFiles(Files versionFiles) {
+        }
+
+        @Override
+        public void initRevisionParsing() {
+            calls.add("initRevisionParsing");
+        }
+
+        @Override
+        public void processRevisionRow(RevisionParser revisionParser) {
+            calls.add("revision " + revisionParser.getRevPage() + " "
+                    + revisionParser.getRevTextId() + " " + revisionParser.getRevTimestamp());
+        }
+
+        @Override
+        public void exportAfterRevisionParsing() {
+            calls.add("exportAfterRevisionParsing");
+        }
+
+        @Override
+        public void freeAfterRevisionParsing() {
+            calls.add("freeAfterRevisionParsing");
+        }
+
+        @Override
+        public void initPageParsing() {
+            calls.add("initPageParsing");
+        }
+
+        @Override
+        public void processPageRow(PageParser pageParser) {
+            calls.add("page " + pageParser.getPageId() + " " + pageParser.getPageNamespace() + " "
+                    + pageParser.getPageTitle() + " " + pageParser.getPageIsRedirect());
+        }
+
+        @Override
+        public void exportAfterPageParsing() {
+            calls.add("exportAfterPageParsing");
+        }
+
+        @Override
+        public void freeAfterPageParsing() {
+            calls.add("freeAfterPageParsing");
+        }
+
+        @Override
+        public void initCategoryLinksParsing() {
+            calls.add("initCategoryLinksParsing");
+        }
+
+        @Override
+        public void processCategoryLinksRow(CategorylinksParser clParser) {
+            calls.add("categorylink " + clParser.getClFrom() + " " + clParser.getClTo());
+        }
+
+        @Override
+        public void exportAfterCategoryLinksParsing() {
+            calls.add("exportAfterCategoryLinksParsing");
+        }
+
+        @Override
+        public void freeAfterCategoryLinksParsing() {
+            calls.add("freeAfterCategoryLinksParsing");
+        }
+
+        @Override
+        public void initPageLinksParsing() {
+            calls.add("initPageLinksParsing");
+        }
+
+        @Override
+        public void processPageLinksRow(PagelinksParser plParser) {
+            calls.add("pagelink " + plParser.getPlFrom() + " " + plParser.getPlNamespace() + " "
+                    + plParser.getPlTo());
+        }
+
+        @Override
+        public void exportAfterPageLinksParsing() {
+            calls.add("exportAfterPageLinksParsing");
+        }
+
+        @Override
+        public void freeAfterPageLinksParsing() {
+            calls.add("freeAfterPageLinksParsing");
+        }
+
+        @Override
+        public void initTextParsing() {
+            calls.add("initTextParsing");
+        }
+
+        @Override
+        public void processTextRow(TextParser textParser) {
+            calls.add("text " + textParser.getOldId() + " " + textParser.getOldText());
+        }
+
+        @Override
+        public void flushByTextParsing() {
+            calls.add("flushByTextParsing");
+        }
+
+        @Override
+        public void exportAfterTextParsing() {
+            calls.add("exportAfterTextParsing");
+        }
+
+        @Override
+        public void freeAfterTextParsing() {
+            calls.add("freeAfterTextParsing");
+        }
+
+        @Override
+        public void writeMetaData() {
+            calls.add("writeMetaData");
+        }
+    }
+}